@@ -0,0 +1,95 @@
+package worms.model;
+
+import java.util.Random;
+
+import worms.gui.Level;
+import static worms.util.BenchmarkUtil.*;
+
+/**
+ * Compares the circle queries of World with the linear scans over all food rations
+ * and worms they replaced, in a world with many food rations and worms.
+ */
+public class EntityGridBenchmark {
+
+	private static final int FOODS = 500;
+	private static final int WORMS = 50;
+	private static final int QUERIES = 1 << 16;
+	/**
+	 * Copying the set of food rations is slow, so the scan over them only gets a part of the queries.
+	 */
+	private static final int FOOD_SCAN_QUERIES = 1 << 10;
+	private static final int ROUNDS = 10;
+
+	public static void main(String[] args) {
+		Level level = loadLevel(args.length > 0 ? args[0] : "Skulls");
+		World world = createWorld(level, 0);
+		for (int i = 0; i < FOODS; i++)
+			world.addNewFood();
+		for (int i = 0; i < WORMS; i++)
+			world.addNewWorm(null);
+		System.out.println("Level " + level.getName() + ": " + world.getNbFoods() + " food rations, " + world.getNbWorms() + " worms");
+
+		Random random = new Random(42);
+		Position[] positions = new Position[QUERIES];
+		for (int i = 0; i < QUERIES; i++)
+			positions[i] = new Position(random.nextDouble() * world.getWidth(), random.nextDouble() * world.getHeight());
+		double radius = 0.5;
+
+		for (int i = 0; i < FOOD_SCAN_QUERIES; i++) {
+			if(scanFoods(world, positions[i], radius) != world.getEntitiesOverlapping(Food.class, positions[i], radius).size())
+				throw new AssertionError("Food query differs from scan at " + positions[i]);
+			if(scanWorms(world, positions[i], radius) != world.hasEntityOverlapping(Worm.class, positions[i], radius))
+				throw new AssertionError("Worm query differs from scan at " + positions[i]);
+		}
+
+		for (int round = 0; round < ROUNDS; round++) {
+			long start = System.nanoTime();
+			for (int i = 0; i < FOOD_SCAN_QUERIES; i++)
+				consume(scanFoods(world, positions[i], radius));
+			long foodScan = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int i = 0; i < QUERIES; i++)
+				consume(world.getEntitiesOverlapping(Food.class, positions[i], radius).size());
+			long foodGrid = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int i = 0; i < QUERIES; i++)
+				consume(scanWorms(world, positions[i], radius));
+			long wormScan = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int i = 0; i < QUERIES; i++)
+				consume(world.hasEntityOverlapping(Worm.class, positions[i], radius));
+			long wormGrid = System.nanoTime() - start;
+
+			if(round == ROUNDS - 1){
+				report("overlapping food, scan of getFoods()", FOOD_SCAN_QUERIES, foodScan);
+				report("overlapping food, entity grid", QUERIES, foodGrid);
+				report("overlapping worm, scan of getWorms()", QUERIES, wormScan);
+				report("overlapping worm, entity grid", QUERIES, wormGrid);
+			}
+		}
+	}
+
+	/**
+	 * Worm.checkForFood as it was before the entity grid, without eating.
+	 */
+	private static int scanFoods(World world, Position pos, double radius){
+		int result = 0;
+		for (Food food : world.getFoods())
+			if(food.collidesWith(pos, radius))
+				result++;
+		return result;
+	}
+
+	/**
+	 * Projectile.blocksJump as it was before the entity grid, without the terrain.
+	 */
+	private static boolean scanWorms(World world, Position pos, double radius){
+		for (Worm worm : world.getWorms())
+			if(worm.collidesWith(pos, radius))
+				return true;
+		return false;
+	}
+}
@@ -0,0 +1,96 @@
+package worms.model;
+
+import static java.lang.Math.sqrt;
+
+import java.util.Random;
+
+import worms.gui.Level;
+import worms.util.Util;
+import static worms.util.BenchmarkUtil.*;
+
+/**
+ * Compares Worm.findFallPosition with the step-by-step descent it replaced,
+ * for worms at random passable positions on every shipped level.
+ *
+ * Fails if any position differs by more than Util.DEFAULT_EPSILON.
+ */
+public class FallSolverBenchmark {
+
+	private static final int WORMS_PER_LEVEL = 200;
+	private static final int ROUNDS = 5;
+
+	public static void main(String[] args) {
+		long seed = args.length > 0 ? Long.parseLong(args[0]) : 2014;
+		Level[] levels = loadLevels();
+		for (int round = 0; round < ROUNDS; round++)
+			run(levels, new Random(seed), round == ROUNDS - 1);
+	}
+
+	private static void run(Level[] levels, Random random, boolean last){
+		long legacyTime = 0, solverTime = 0;
+		int nbFalls = 0;
+
+		for (Level level : levels) {
+			World world = createWorld(level, random.nextLong());
+			int levelFalls = 0;
+			for (int i = 0; i < WORMS_PER_LEVEL; i++) {
+				double radius = 0.25 + random.nextDouble() * Math.min(world.getWidth(), world.getHeight()) / 50;
+				Position pos = new Position(radius + random.nextDouble() * (world.getWidth() - 2*radius),
+						radius + random.nextDouble() * (world.getHeight() - 2*radius));
+				Worm worm = new Worm(world, pos.getX(), pos.getY(), 0, radius, "Faller");
+				if(!worm.canFall()){
+					world.removeWorm(worm);
+					continue;
+				}
+
+				long start = System.nanoTime();
+				Position expected = legacyFallPosition(worm);
+				legacyTime += System.nanoTime() - start;
+
+				start = System.nanoTime();
+				Position actual = worm.findFallPosition();
+				solverTime += System.nanoTime() - start;
+
+				if(sqrt(expected.squaredDistance(actual)) > Util.DEFAULT_EPSILON)
+					throw new AssertionError(level.getName() + ": " + actual + " instead of " + expected + " (radius " + radius + ")");
+				world.removeWorm(worm);
+				levelFalls++;
+			}
+			if(last)
+				System.out.printf("%-16s %4d falls%n", level.getName(), levelFalls);
+			nbFalls += levelFalls;
+		}
+
+		if(!last)
+			return;
+		report("findFallPosition, step-by-step", nbFalls, legacyTime);
+		report("findFallPosition, ground index", nbFalls, solverTime);
+	}
+
+	/**
+	 * Worm.findFallPosition as it was before the ground index.
+	 */
+	private static Position legacyFallPosition(Worm worm){
+		Position pos = worm.getPosition();
+		if(worm.blocksFall(pos))
+			return pos;
+
+		double offset = worm.getWorld().cellHeight();
+		while(true){
+			if(worm.blocksFall(pos))
+				break;
+			pos = pos.offset(0, -offset);
+		}
+		pos = pos.offset(0, offset);
+
+		offset = Util.DEFAULT_EPSILON;
+		while(true){
+			if(worm.blocksFall(pos))
+				break;
+			pos = pos.offset(0, -offset);
+		}
+		if(!worm.getWorld().isPassablePosition(pos, worm.getRadius()))
+			pos = pos.offset(0, offset);
+		return pos;
+	}
+}
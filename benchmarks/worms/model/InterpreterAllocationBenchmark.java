@@ -0,0 +1,62 @@
+package worms.model;
+
+import worms.gui.Level;
+import worms.model.programs.ParseOutcome;
+import static worms.util.BenchmarkUtil.*;
+
+/**
+ * Measures the bytes the interpreter allocates per executed statement, for programs that don't execute
+ * actions and only assign booleans and entities to their variables (so they don't create new values).
+ * Once the frames of a program are created, the interpreter mustn't allocate anything.
+ */
+public class InterpreterAllocationBenchmark {
+
+	private static final String[] PROGRAMS = {
+		"bool b; bool c; while true { b := !b; if (b && !c) { c := b; } else { c := (1 < 2); } }",
+		"bool b; entity e; entity f; while true { foreach(any, e) { if (isworm e) { b := !b; f := e; } } "
+				+ "foreach(worm, e) { foreach(food, f) { b := (e == f); } } }",
+	};
+	private static final int FOODS = 20;
+	private static final int WORMS = 10;
+	private static final int TURNS = 20000;
+	private static final int ROUNDS = 10;
+
+	public static void main(String[] args) {
+		Level level = loadLevel(args.length > 0 ? args[0] : "Skulls");
+		for (int p = 0; p < PROGRAMS.length; p++) {
+			Program program = createProgram(level, PROGRAMS[p]);
+			for (int round = 0; round < ROUNDS; round++) {
+				long overhead = -(allocatedBytes() - allocatedBytes());
+				long bytes = allocatedBytes();
+				long start = System.nanoTime();
+				for (int i = 0; i < TURNS; i++)
+					program.run();
+				long time = System.nanoTime() - start;
+				bytes = allocatedBytes() - bytes - overhead;
+
+				if(program.hasRuntimeErrorOccurred())
+					throw new AssertionError("Program " + p + " failed");
+				if(round == ROUNDS - 1){
+					long statements = (long) TURNS * Program.MAX_STATEMENTS_PER_TURN;
+					report("program " + p + ", interpreted statements", statements, time);
+					System.out.printf("%-48s %14.4f bytes/statement%n", "program " + p + ", allocated", (double) bytes / statements);
+					if(bytes > 0)
+						throw new AssertionError("Program " + p + " allocated " + bytes + " bytes in steady state");
+				}
+			}
+		}
+	}
+
+	private static Program createProgram(Level level, String source) {
+		World world = createWorld(level, 0);
+		for (int i = 0; i < FOODS; i++)
+			world.addNewFood();
+		for (int i = 0; i < WORMS; i++)
+			world.addNewWorm(null);
+		ParseOutcome<?> outcome = new Facade(false, false).parseProgram(source, null);
+		if(!outcome.isSuccess())
+			throw new AssertionError(outcome.getResult());
+		world.addNewWorm((Program) outcome.getResult());
+		return world.getWorms().get(world.getNbWorms() - 1).getProgram();
+	}
+}
@@ -0,0 +1,114 @@
+package worms.model;
+
+import static java.lang.Math.PI;
+import static java.lang.Math.abs;
+import static java.lang.Math.cos;
+import static java.lang.Math.sin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import worms.gui.Level;
+import worms.util.Util;
+import static worms.util.BenchmarkUtil.*;
+
+/**
+ * Compares MassiveEntity.getJumpTime with the linear loop it replaced,
+ * for worms at random contact locations and for projectiles fired by them, on every shipped level.
+ *
+ * Fails if any jump time differs by more than one time step.
+ */
+public class JumpSolverBenchmark {
+
+	private static final double TIME_STEP = 1e-4;
+	private static final int WORMS_PER_LEVEL = 40;
+	private static final int ROUNDS = 5;
+
+	public static void main(String[] args) {
+		long seed = args.length > 0 ? Long.parseLong(args[0]) : 2014;
+		Level[] levels = loadLevels();
+		for (int round = 0; round < ROUNDS; round++)
+			run(levels, new Random(seed), round == ROUNDS - 1);
+	}
+
+	private static void run(Level[] levels, Random random, boolean last){
+		long legacyTime = 0, solverTime = 0;
+		int nbJumps = 0;
+
+		for (Level level : levels) {
+			World world = createWorld(level, random.nextLong());
+			List<Worm> worms = new ArrayList<Worm>();
+			for (int i = 0; i < WORMS_PER_LEVEL; i++) {
+				double radius = 0.25 + random.nextDouble() * Math.min(world.getWidth(), world.getHeight()) / 50;
+				try {
+					Position pos = world.findContactLocation(radius);
+					worms.add(new Worm(world, pos.getX(), pos.getY(), random.nextDouble() * 2 * PI, radius, "Jumper"));
+				} catch (IllegalStateException e) {
+					continue;
+				}
+			}
+			world.start();
+
+			List<MassiveEntity> jumpers = new ArrayList<MassiveEntity>(worms);
+			int levelJumps = 0;
+			for (MassiveEntity jumper : jumpers) {
+				for (int shot = 0; shot < 2; shot++) {
+					MassiveEntity entity = jumper;
+					if(shot == 1)
+						entity = fire((Worm) jumper, random);
+					if(!entity.canJump())
+						continue;
+
+					long start = System.nanoTime();
+					double expected = legacyJumpTime(entity, TIME_STEP);
+					legacyTime += System.nanoTime() - start;
+
+					start = System.nanoTime();
+					double actual = entity.getJumpTime(TIME_STEP);
+					solverTime += System.nanoTime() - start;
+
+					if(abs(expected - actual) > TIME_STEP + Util.DEFAULT_EPSILON)
+						throw new AssertionError(level.getName() + ": " + entity.getClass().getSimpleName() + " lands after "
+								+ actual + " instead of " + expected + " (at " + entity.getPosition() + ", direction " + entity.getDirection() + ")");
+					levelJumps++;
+					if(shot == 1)
+						world.removeProjectile();
+				}
+			}
+			if(last)
+				System.out.printf("%-16s %4d jumps%n", level.getName(), levelJumps);
+			nbJumps += levelJumps;
+		}
+
+		if(!last)
+			return;
+		report("getJumpTime, linear loop", nbJumps, legacyTime);
+		report("getJumpTime, clearance steps", nbJumps, solverTime);
+	}
+
+	/**
+	 * Puts a rifle projectile just outside the given worm, as Worm.fire does.
+	 */
+	private static Projectile fire(Worm worm, Random random){
+		Projectile projectile = new RifleProjectile(worm.getWorld(), random.nextInt(101));
+		double distance = worm.getRadius() + projectile.getRadius() + Util.DEFAULT_EPSILON;
+		projectile.setDirection(worm.getDirection());
+		projectile.setPosition(worm.getPosition().offset(distance*cos(worm.getDirection()), distance*sin(worm.getDirection())));
+		return projectile;
+	}
+
+	/**
+	 * MassiveEntity.getJumpTime as it was before the clearance steps.
+	 */
+	private static double legacyJumpTime(MassiveEntity entity, double timeStep){
+		if(!entity.canJump())
+			return 0;
+		double t = 0;
+		while(true){
+			if(entity.blocksJump(entity.getJumpStep(t)))
+				return t;
+			t += timeStep;
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package worms.model;
+
+import static java.lang.Math.PI;
+import static java.lang.Math.abs;
+import static java.lang.Math.cos;
+import static java.lang.Math.sin;
+import static java.lang.Math.sqrt;
+
+import java.util.Random;
+
+import worms.gui.Level;
+import worms.util.Util;
+import static worms.util.BenchmarkUtil.*;
+
+/**
+ * Compares Worm.getPositionAfterMove with the step-by-step search it replaced,
+ * for worms at random contact locations on every shipped level.
+ *
+ * Fails if any position differs by more than Util.DEFAULT_EPSILON.
+ */
+public class MoveSolverRegression {
+
+	private static final int WORMS_PER_LEVEL = 60;
+
+	public static void main(String[] args) {
+		Random random = new Random(args.length > 0 ? Long.parseLong(args[0]) : 2014);
+		double maxDeviation = 0;
+		long legacyTime = 0, solverTime = 0;
+		int nbMoves = 0;
+
+		for (Level level : loadLevels()) {
+			World world = createWorld(level, random.nextLong());
+			double levelDeviation = 0;
+			int levelMoves = 0;
+			for (int i = 0; i < WORMS_PER_LEVEL; i++) {
+				double radius = 0.25 + random.nextDouble() * Math.min(world.getWidth(), world.getHeight()) / 50;
+				Position pos;
+				try {
+					pos = world.findContactLocation(radius);
+				} catch (IllegalStateException e) {
+					continue;
+				}
+				Worm worm = new Worm(world, pos.getX(), pos.getY(), random.nextDouble() * 2 * PI, radius, "Regression");
+
+				long start = System.nanoTime();
+				Position expected = legacyPositionAfterMove(worm);
+				legacyTime += System.nanoTime() - start;
+
+				start = System.nanoTime();
+				Position actual = worm.getPositionAfterMove();
+				solverTime += System.nanoTime() - start;
+
+				double deviation = sqrt(expected.squaredDistance(actual));
+				if(deviation > Util.DEFAULT_EPSILON)
+					throw new AssertionError(level.getName() + ": " + actual + " instead of " + expected
+							+ " (radius " + radius + ", direction " + worm.getDirection() + ")");
+				levelDeviation = Math.max(levelDeviation, deviation);
+				levelMoves++;
+			}
+			System.out.printf("%-16s %4d moves, max deviation %.3g m%n", level.getName(), levelMoves, levelDeviation);
+			maxDeviation = Math.max(maxDeviation, levelDeviation);
+			nbMoves += levelMoves;
+		}
+
+		System.out.printf("All levels: %d moves, max deviation %.3g m%n", nbMoves, maxDeviation);
+		report("getPositionAfterMove, step-by-step", nbMoves, legacyTime);
+		report("getPositionAfterMove, bisection", nbMoves, solverTime);
+	}
+
+	/**
+	 * Worm.getPositionAfterMove as it was before the bisection solver.
+	 */
+	private static Position legacyPositionAfterMove(Worm worm){
+		World world = worm.getWorld();
+		double theta = worm.getDirection();
+		double r = worm.getRadius();
+
+		boolean positionFound = false;
+		double maxDirection = 0, maxDistance = 0, maxWeightedDistance = -Double.MAX_VALUE;
+		for(double s = theta-0.7875; s <= theta+0.7875; s += 0.0175){
+			double distance;
+			double furthestDistance = 0;
+			double dStep = r/10;
+			for(distance = r/10; distance <= r; distance += dStep){
+				Position probePosition = worm.getPosition().offset(distance*cos(s), distance*sin(s));
+				if(world.getLocationType(probePosition, r).isPassable())
+					furthestDistance = distance;
+				else
+					break;
+			}
+			dStep = Util.DEFAULT_EPSILON;
+			for(distance = furthestDistance; distance <= r; distance += dStep){
+				Position probePosition = worm.getPosition().offset(distance*cos(s), distance*sin(s));
+				if(world.getLocationType(probePosition, r).isPassable())
+					furthestDistance = distance;
+				else
+					break;
+			}
+			if(furthestDistance >= r/10){
+				positionFound = true;
+				double weightedDistance = furthestDistance - abs(s - theta);
+				if(weightedDistance > maxWeightedDistance){
+					maxDistance = furthestDistance;
+					maxDirection = s;
+					maxWeightedDistance = weightedDistance;
+				}
+			}
+		}
+		if(!positionFound)
+			return worm.getPosition();
+		return worm.getPosition().offset(maxDistance*cos(maxDirection), maxDistance*sin(maxDirection));
+	}
+}
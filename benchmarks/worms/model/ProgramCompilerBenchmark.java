@@ -0,0 +1,69 @@
+package worms.model;
+
+import worms.gui.Level;
+import worms.model.programs.ParseOutcome;
+import static worms.util.BenchmarkUtil.*;
+
+/**
+ * Compares the turns of compiled programs with the turns of the same programs interpreted
+ * by Program.run(), for programs that don't execute actions (so every turn executes the
+ * full budget of statements).
+ */
+public class ProgramCompilerBenchmark {
+
+	private static final String[] PROGRAMS = {
+		"double x; double n; while true { n := n + 1; x := x * 0.5 + n / (n + 1); }",
+		"double n; double d; bool b; entity e; while true { foreach(any, e) { "
+				+ "if (isworm e) { d := d + (getx e) - (gety e); } else { d := d - (getradius e); } } "
+				+ "n := n + 1; b := (n > 100) && (d != 0); }",
+	};
+	private static final int FOODS = 50;
+	private static final int WORMS = 20;
+	private static final int TURNS = 2000;
+	private static final int ROUNDS = 10;
+
+	public static void main(String[] args) {
+		Level level = loadLevel(args.length > 0 ? args[0] : "Skulls");
+		for (int p = 0; p < PROGRAMS.length; p++) {
+			Worm interpreted = createWorm(level, PROGRAMS[p], false);
+			Worm compiled = createWorm(level, PROGRAMS[p], true);
+			if(!compiled.getProgram().isCompiled())
+				throw new AssertionError("Program " + p + " isn't compiled");
+
+			for (int round = 0; round < ROUNDS; round++) {
+				long start = System.nanoTime();
+				for (int i = 0; i < TURNS; i++)
+					interpreted.getProgram().run();
+				long interpretedTime = System.nanoTime() - start;
+
+				start = System.nanoTime();
+				for (int i = 0; i < TURNS; i++)
+					compiled.getProgram().run();
+				long compiledTime = System.nanoTime() - start;
+
+				double expected = (Double) interpreted.getProgram().getVariableValue("n").getValue();
+				double actual = (Double) compiled.getProgram().getVariableValue("n").getValue();
+				if(expected != actual || compiled.getProgram().hasRuntimeErrorOccurred())
+					throw new AssertionError("Compiled program " + p + " differs from interpreter: " + actual + " != " + expected);
+
+				if(round == ROUNDS - 1){
+					report("program " + p + ", interpreted turns", TURNS, interpretedTime);
+					report("program " + p + ", compiled turns", TURNS, compiledTime);
+				}
+			}
+		}
+	}
+
+	private static Worm createWorm(Level level, String source, boolean compiled) {
+		World world = createWorld(level, 0);
+		for (int i = 0; i < FOODS; i++)
+			world.addNewFood();
+		for (int i = 0; i < WORMS; i++)
+			world.addNewWorm(null);
+		ParseOutcome<?> outcome = new Facade(compiled).parseProgram(source, null);
+		if(!outcome.isSuccess())
+			throw new AssertionError(outcome.getResult());
+		world.addNewWorm((Program) outcome.getResult());
+		return world.getWorms().get(world.getNbWorms() - 1);
+	}
+}
@@ -0,0 +1,126 @@
+package worms.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import worms.model.programs.ProgramFactory;
+import worms.model.programs.ProgramParser;
+import static worms.util.BenchmarkUtil.*;
+
+/**
+ * Compares the parse throughput and allocation of the two-stage (SLL, then LL) parse with the LL-only parse,
+ * for the programs in the programs directory and for synthetic programs of 10000 lines.
+ * A single parser parses all the programs, as the facade does. The parser calls a factory that
+ * doesn't build anything, so the benchmark measures the parser and not the construction of statements.
+ *
+ * The grammar nests every statement of a program in the rest of the program, so the benchmark
+ * parses on a thread with a large stack.
+ */
+public class ProgramParserBenchmark {
+
+	private static final int SYNTHETIC_LINES = 10000;
+	private static final int ROUNDS = 10;
+
+	public static void main(final String[] args) throws InterruptedException {
+		Thread thread = new Thread(null, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					benchmark(args);
+				} catch (IOException exc) {
+					throw new RuntimeException(exc);
+				}
+			}
+		}, "parser", 1L << 30);
+		thread.start();
+		thread.join();
+	}
+
+	private static void benchmark(String[] args) throws IOException {
+		File directory = new File(args.length > 0 ? args[0] : "programs");
+		List<String> names = new ArrayList<String>();
+		List<String> sources = new ArrayList<String>();
+		File[] files = directory.listFiles();
+		if(files != null){
+			Arrays.sort(files);
+			for (File file : files)
+				if(file.getName().endsWith(".txt")){
+					names.add(file.getName());
+					sources.add(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+				}
+		}
+		names.add("synthetic assignments");
+		sources.add(createAssignments(SYNTHETIC_LINES));
+		names.add("synthetic control flow");
+		sources.add(createControlFlow(SYNTHETIC_LINES));
+
+		for (int p = 0; p < sources.size(); p++) {
+			String source = sources.get(p);
+			int nbLines = source.split("\n").length;
+			int times = Math.max(1, 200000 / nbLines);
+			for (boolean twoStage : new boolean[] { false, true }) {
+				ProgramParser<Object, Object, Object> parser = new ProgramParser<Object, Object, Object>(createFactory());
+				parser.setTwoStageParsing(twoStage);
+				for (int round = 0; round < ROUNDS; round++) {
+					long overhead = -(allocatedBytes() - allocatedBytes());
+					long bytes = allocatedBytes();
+					long start = System.nanoTime();
+					for (int i = 0; i < times; i++) {
+						parser.parse(source);
+						consume(parser.getErrors().size());
+					}
+					long time = System.nanoTime() - start;
+					bytes = allocatedBytes() - bytes - overhead;
+					if(round == ROUNDS - 1){
+						String label = names.get(p) + (twoStage ? ", SLL/LL" : ", LL");
+						report(label + " lines", (long) times * nbLines, time);
+						System.out.printf("%-48s %14.1f bytes/line %8d errors%n", label,
+								(double) bytes / ((long) times * nbLines), parser.getErrors().size());
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns a factory that returns the same object for every expression, statement and type.
+	 */
+	@SuppressWarnings("unchecked")
+	private static ProgramFactory<Object, Object, Object> createFactory() {
+		final Object node = new Object();
+		return (ProgramFactory<Object, Object, Object>) Proxy.newProxyInstance(ProgramFactory.class.getClassLoader(),
+				new Class<?>[] { ProgramFactory.class }, new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						return node;
+					}
+				});
+	}
+
+	private static String createAssignments(int nbLines) {
+		StringBuilder result = new StringBuilder("double x; double y; bool b;\n");
+		for (int i = 1; i < nbLines; i++)
+			result.append("x := ((x + ").append(i).append(") * (y - 0.5));\n");
+		return result.toString();
+	}
+
+	private static String createControlFlow(int nbLines) {
+		StringBuilder result = new StringBuilder("double x; entity e; bool b;\n");
+		for (int i = 1; i + 4 < nbLines; i += 5) {
+			result.append("if ((x < ").append(i).append(") && b) then {\n");
+			result.append("  foreach(worm, e) { x := (x + (getx e)); }\n");
+			result.append("} else {\n");
+			result.append("  while (x > 0) { x := (x - 1); b := !b; }\n");
+			result.append("}\n");
+		}
+		return result.toString();
+	}
+}
@@ -0,0 +1,82 @@
+package worms.model;
+
+import worms.gui.Level;
+import worms.model.programs.ParseOutcome;
+import static worms.util.BenchmarkUtil.*;
+
+/**
+ * Compares the search for the nearest worm written as a foreach loop, as in programs/program.txt,
+ * with the built-in nearestworm expression, and the count of the food rations within a distance
+ * written as a foreach loop with the built-in countwithin expression.
+ *
+ * Every program repeats its search without executing actions, so every turn executes the full budget
+ * of statements; the number of searches per turn shows the statements one search takes.
+ * The built-in queries are answered by the query cache of the program after their first execution in a turn.
+ */
+public class SpatialQueryBenchmark {
+
+	private static final String[][] PROGRAMS = {
+		{ "foreach nearest worm",
+			"double n; entity nearest; double best; double x; double y; double wx; double wy; double d; entity w; "
+				+ "while true { x := getx self; y := gety self; nearest := null; "
+				+ "foreach(worm, w) { if (w != self) { wx := getx w; wy := gety w; "
+				+ "d := sqrt((((x - wx) * (x - wx)) + ((y - wy) * (y - wy)))); "
+				+ "if (nearest == null) { nearest := w; best := d; } else { if (d < best) { nearest := w; best := d; } } } } "
+				+ "n := (n + 1); }" },
+		{ "nearestworm",
+			"double n; entity nearest; while true { nearest := nearestworm; n := (n + 1); }" },
+		{ "foreach count food within 10",
+			"double n; double c; double x; double y; double wx; double wy; entity f; "
+				+ "while true { x := getx self; y := gety self; c := 0; "
+				+ "foreach(food, f) { wx := getx f; wy := gety f; "
+				+ "if (((((x - wx) * (x - wx)) + ((y - wy) * (y - wy)))) <= 100) { c := (c + 1); } } "
+				+ "n := (n + 1); }" },
+		{ "countwithin(food, 10)",
+			"double n; double c; while true { c := countwithin(food, 10); n := (n + 1); }" },
+		{ "searchobj(0)",
+			"double n; entity e; while true { e := searchobj(0); n := (n + 1); }" },
+	};
+	private static final int FOODS = 30;
+	private static final int WORMS = 20;
+	private static final int TURNS = 2000;
+	private static final int ROUNDS = 10;
+
+	public static void main(String[] args) {
+		Level level = loadLevel(args.length > 0 ? args[0] : "Skulls");
+		for (boolean compiled : new boolean[] { false, true }) {
+			for (int p = 0; p < PROGRAMS.length; p++) {
+				Worm worm = createWorm(level, PROGRAMS[p][1], compiled);
+				for (int round = 0; round < ROUNDS; round++) {
+					double searches = (Double) worm.getProgram().getVariableValue("n").getValue();
+					long start = System.nanoTime();
+					for (int i = 0; i < TURNS; i++)
+						worm.getProgram().run();
+					long time = System.nanoTime() - start;
+					searches = (Double) worm.getProgram().getVariableValue("n").getValue() - searches;
+
+					if(worm.getProgram().hasRuntimeErrorOccurred())
+						throw new AssertionError("Program " + PROGRAMS[p][0] + " failed");
+					if(round == ROUNDS - 1){
+						String label = PROGRAMS[p][0] + (compiled ? ", compiled" : ", interpreted");
+						report(label + " turns", TURNS, time);
+						System.out.printf("%-48s %8.1f searches/turn %8.1f statements/search %10.1f ns/search%n", label,
+								searches / TURNS, TURNS * Program.MAX_STATEMENTS_PER_TURN / searches, time / searches);
+					}
+				}
+			}
+		}
+	}
+
+	private static Worm createWorm(Level level, String source, boolean compiled) {
+		World world = createWorld(level, 0);
+		for (int i = 0; i < FOODS; i++)
+			world.addNewFood();
+		for (int i = 0; i < WORMS; i++)
+			world.addNewWorm(null);
+		ParseOutcome<?> outcome = new Facade(compiled).parseProgram(source, null);
+		if(!outcome.isSuccess())
+			throw new AssertionError(outcome.getResult());
+		world.addNewWorm((Program) outcome.getResult());
+		return world.getWorms().get(world.getNbWorms() - 1);
+	}
+}
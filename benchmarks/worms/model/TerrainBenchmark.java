@@ -0,0 +1,131 @@
+package worms.model;
+
+import static java.lang.Math.ceil;
+import static java.lang.Math.floor;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.util.Random;
+
+import worms.gui.Level;
+import static worms.util.BenchmarkUtil.*;
+
+/**
+ * Compares the word-at-a-time span scan of Terrain with the cell-by-cell loop
+ * over the boolean passable map that World used before, on levels/Skulls.png.
+ * The isPassablePosition figures of World include the distance field lookup.
+ */
+public class TerrainBenchmark {
+
+	private static final int SPANS = 1 << 16;
+	private static final int POSITIONS = 1 << 14;
+	private static final int ROUNDS = 10;
+
+	public static void main(String[] args) {
+		Level level = loadLevel(args.length > 0 ? args[0] : "Skulls");
+		World world = createWorld(level, 0);
+		boolean[][] map = level.getPassableMap();
+		Terrain terrain = world.getTerrain();
+		System.out.println("Level " + level.getName() + ": " + map[0].length + "x" + map.length + " cells");
+
+		Random random = new Random(42);
+		int[] rows = new int[SPANS], from = new int[SPANS], to = new int[SPANS];
+		for (int i = 0; i < SPANS; i++) {
+			rows[i] = random.nextInt(map.length);
+			from[i] = random.nextInt(map[0].length);
+			to[i] = from[i] + 1 + random.nextInt(128);
+		}
+
+		Position[] positions = new Position[POSITIONS];
+		double[] radii = new double[POSITIONS];
+		for (int i = 0; i < POSITIONS; i++) {
+			positions[i] = new Position(random.nextDouble() * world.getWidth(), random.nextDouble() * world.getHeight());
+			radii[i] = 0.25 + random.nextDouble() * 0.75;
+		}
+
+		for (int i = 0; i < SPANS; i++) {
+			if(cellLoop(map, rows[i], from[i], to[i]) != terrain.hasImpassableCellInSpan(rows[i], from[i], to[i]))
+				throw new AssertionError("Span scan differs from cell loop at span " + i);
+		}
+		for (int i = 0; i < POSITIONS; i++) {
+			if(cellLoopIsPassablePosition(world, map, positions[i], radii[i]) != world.isPassablePosition(positions[i], radii[i]))
+				throw new AssertionError("isPassablePosition differs from cell loop at " + positions[i]);
+		}
+
+		for (int round = 0; round < ROUNDS; round++) {
+			boolean last = round == ROUNDS - 1;
+
+			long start = System.nanoTime();
+			for (int i = 0; i < SPANS; i++)
+				consume(cellLoop(map, rows[i], from[i], to[i]));
+			long cellLoop = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int i = 0; i < SPANS; i++)
+				consume(terrain.hasImpassableCellInSpan(rows[i], from[i], to[i]));
+			long spanScan = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int i = 0; i < POSITIONS; i++)
+				consume(cellLoopIsPassablePosition(world, map, positions[i], radii[i]));
+			long cellLoopPassable = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int i = 0; i < POSITIONS; i++)
+				consume(world.isPassablePosition(positions[i], radii[i]));
+			long spanScanPassable = System.nanoTime() - start;
+
+			if(last){
+				report("span test, cell loop", SPANS, cellLoop);
+				report("span test, word scan", SPANS, spanScan);
+				report("isPassablePosition, cell loop", POSITIONS, cellLoopPassable);
+				report("isPassablePosition, World", POSITIONS, spanScanPassable);
+			}
+		}
+	}
+
+	private static boolean cellLoop(boolean[][] map, int row, int fromColumn, int toColumn){
+		for (int j = fromColumn; j < toColumn; j++) {
+			if(j < 0 || j >= map[row].length)
+				continue;
+			if(map[row][j] == false)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * World.isPassablePosition as it was before the terrain was bit-packed.
+	 */
+	private static boolean cellLoopIsPassablePosition(World world, boolean[][] map, Position pos, double radius){
+		int minRow = (int)floor(world.getCellRowCoordinate(pos.getY()+radius));
+		int maxRow = (int)ceil(world.getCellRowCoordinate(pos.getY()-radius));
+		int horizontalRow = (int)floor(world.getCellRowCoordinate(pos.getY()));
+
+		double x0 = pos.getX();
+		double y0 = pos.getY();
+
+		double nextLocalRadius = 0, localRadius = 0;
+		for (int i = minRow; i < maxRow; i++) {
+			if(i < 0 || i >= map.length)
+				continue;
+			if(i != maxRow -1)
+				nextLocalRadius = Math.sqrt(Math.pow(radius,2)-Math.pow(world.getYCoordinate(i+1)-y0,2));
+
+			int minColumn = (int)floor(min(world.getCellColumnCoordinate(x0 - nextLocalRadius), world.getCellColumnCoordinate(x0 - localRadius)));
+			int maxColumn = (int)ceil(max(world.getCellColumnCoordinate(x0 + nextLocalRadius), world.getCellColumnCoordinate(x0 + localRadius)));
+
+			if(i == horizontalRow){
+				while(x0-world.getXCoordinate(minColumn) < radius)
+					minColumn--;
+				while(world.getXCoordinate(maxColumn)-x0 < radius)
+					maxColumn++;
+			}
+
+			if(cellLoop(map, i, minColumn, maxColumn))
+				return false;
+			localRadius = nextLocalRadius;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,57 @@
+package worms.model;
+
+import java.util.concurrent.ForkJoinPool;
+
+import worms.gui.Level;
+import worms.simulation.DirectActionHandler;
+import static worms.util.BenchmarkUtil.*;
+
+/**
+ * Measures how many plans a turn planner simulates per second when it plans the turn of a worm
+ * in a started world with worms and food rations, on pools with 1, 2, 4, ... threads up to
+ * a thread for every processor.
+ */
+public class TurnPlannerBenchmark {
+
+	private static final int WORMS = 8;
+	private static final int FOODS = 10;
+	private static final int PLANS = 10;
+	private static final int ROUNDS = 3;
+
+	public static void main(String[] args) {
+		Level level = loadLevel(args.length > 0 ? args[0] : "Skulls");
+		World world = createWorld(level, 0);
+		for (int i = 0; i < WORMS; i++)
+			world.addNewWorm(null);
+		for (int i = 0; i < FOODS; i++)
+			world.addNewFood();
+		world.start();
+		Worm worm = world.getCurrentWorm();
+
+		int nbProcessors = Runtime.getRuntime().availableProcessors();
+		System.out.println(nbProcessors + " processors");
+		long checksum = 0;
+		for (int parallelism = 1; parallelism <= nbProcessors; parallelism = nextParallelism(parallelism, nbProcessors)) {
+			ForkJoinPool pool = new ForkJoinPool(parallelism);
+			TurnPlanner planner = new TurnPlanner(new DirectActionHandler(new Facade()), pool);
+			planner.setTimeBudget(Long.MAX_VALUE);
+			for (int round = 0; round < ROUNDS; round++) {
+				long simulations = planner.getNbSimulations();
+				long start = System.nanoTime();
+				for (int i = 0; i < PLANS; i++)
+					checksum += planner.plan(worm).hashCode();
+				long time = System.nanoTime() - start;
+				if (round == ROUNDS - 1)
+					report("simulations with " + parallelism + " threads", planner.getNbSimulations() - simulations, time);
+			}
+			pool.shutdown();
+		}
+		System.out.println("(checksum " + checksum + ")");
+	}
+
+	private static int nextParallelism(int parallelism, int nbProcessors) {
+		if (parallelism == nbProcessors)
+			return parallelism + 1;
+		return Math.min(2 * parallelism, nbProcessors);
+	}
+}
@@ -0,0 +1,66 @@
+package worms.model;
+
+import java.util.Random;
+
+import worms.gui.Level;
+import static worms.util.BenchmarkUtil.*;
+
+/**
+ * Measures how long forking a started world with worms, food rations and a projectile takes,
+ * and how long a fork plus one jump of its current worm takes, against building a new world
+ * from a copy of the passable map, which a deep copy of a world would have to do.
+ */
+public class WorldForkBenchmark {
+
+	private static final int WORMS = 8;
+	private static final int FOODS = 10;
+	private static final int ITERATIONS = 20000;
+	private static final int DEEP_COPIES = 50;
+	private static final int ROUNDS = 5;
+
+	public static void main(String[] args) {
+		Level level = loadLevel(args.length > 0 ? args[0] : "Skulls");
+		World world = createWorld(level, 0);
+		for (int i = 0; i < WORMS; i++)
+			world.addNewWorm(null);
+		for (int i = 0; i < FOODS; i++)
+			world.addNewFood();
+		world.start();
+		world.getCurrentWorm().fire(50);
+
+		long checksum = 0;
+		for (int round = 0; round < ROUNDS; round++) {
+			long start = System.nanoTime();
+			for (int i = 0; i < ITERATIONS; i++)
+				checksum += world.fork().getNbWorms();
+			long forkTime = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int i = 0; i < ITERATIONS; i++) {
+				World fork = world.fork();
+				fork.removeProjectile();
+				Worm worm = fork.getCurrentWorm();
+				try {
+					worm.jump(1e-4);
+				} catch (IllegalStateException e) {
+					// The worm can't jump from its position; the fork is discarded all the same.
+				}
+				checksum += fork.getVersion();
+			}
+			long forkJumpTime = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (int i = 0; i < DEEP_COPIES; i++)
+				checksum += new World(world.getWidth(), world.getHeight(), world.getPassableMap(), new Random(i))
+						.getVersion();
+			long deepCopyTime = System.nanoTime() - start;
+
+			if (round == ROUNDS - 1) {
+				report("fork", ITERATIONS, forkTime);
+				report("fork and jump", ITERATIONS, forkJumpTime);
+				report("new world from passable map", DEEP_COPIES, deepCopyTime);
+			}
+		}
+		System.out.println("(checksum " + checksum + ")");
+	}
+}
@@ -0,0 +1,98 @@
+package worms.simulation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import worms.model.Facade;
+import worms.model.IFacade;
+
+import static worms.util.BenchmarkUtil.*;
+
+/**
+ * Plays the same headless games with and without recording them in a game log on disk, and prints
+ * the number of turns per second of both, the overhead of recording and the throughput of replaying.
+ * A recording facade seeds its world with the first long of the random number generator it is given,
+ * so the plain games are seeded with that long to play exactly the same games.
+ */
+public class RecordingBenchmark {
+
+	private static final String[] PROGRAMS = { "programs/program.txt", "programs/program_example.txt" };
+	private static final int GAMES = 20;
+	private static final int TURNS = 500;
+	private static final int ROUNDS = 5;
+
+	public static void main(String[] args) throws Exception {
+		LevelMap map = new LevelMap(loadLevel(args.length > 0 ? args[0] : "Simple"));
+		String[] sources = new String[PROGRAMS.length];
+		for (int i = 0; i < PROGRAMS.length; i++)
+			sources[i] = HeadlessGame.readProgram(new File(PROGRAMS[i]));
+		File log = File.createTempFile("worms", ".log");
+		log.deleteOnExit();
+
+		play(map, sources, null); // warm-up
+		play(map, sources, log);
+		long plainNanos = 0, recordingNanos = 0, nbTurns = 0;
+		for (int round = 0; round < ROUNDS; round++) {
+			long[] plain = play(map, sources, null);
+			long[] recording = play(map, sources, log);
+			if (plain[0] != recording[0])
+				throw new IllegalStateException("The recorded games differ from the plain games.");
+			nbTurns += plain[0];
+			plainNanos += plain[1];
+			recordingNanos += recording[1];
+		}
+		report("plain, turns", nbTurns, plainNanos);
+		report("recording, turns", nbTurns, recordingNanos);
+		System.out.printf("%-48s %14.2f %%%n", "recording overhead",
+				100.0 * (recordingNanos - plainNanos) / plainNanos);
+		System.out.printf("%-48s %14d bytes%n", "log of " + GAMES + " games", log.length());
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		RecordingFacade facade = new RecordingFacade(new Facade(), out);
+		for (int game = 0; game < GAMES; game++)
+			play(facade, map, sources, game);
+		facade.close();
+		long nanos = 0, nbReplayedTurns = 0;
+		for (int round = 0; round < ROUNDS; round++) {
+			GameReplayer replayer = new GameReplayer(new Facade(), new ByteArrayInputStream(out.toByteArray()), map);
+			replayer.replay();
+			nanos += replayer.getNanos();
+			nbReplayedTurns += replayer.getNbTurns();
+		}
+		report("replay, turns", nbReplayedTurns, nanos);
+	}
+
+	/**
+	 * Plays the games through a plain facade, or records them in the given log if it isn't null,
+	 * and returns the number of turns and the time the games took.
+	 */
+	private static long[] play(LevelMap map, String[] sources, File log) throws IOException {
+		long nbTurns = 0, nanos = 0;
+		RecordingFacade recording = (log == null) ? null : new RecordingFacade(new Facade(), new FileOutputStream(log));
+		IFacade facade = (recording == null) ? new Facade() : recording;
+		for (int game = 0; game < GAMES; game++) {
+			long seed = (recording == null) ? new Random(game).nextLong() : game;
+			GameResult result = play(facade, map, sources, seed);
+			nbTurns += result.getNbTurns();
+			nanos += result.getNanos();
+		}
+		if (recording != null)
+			recording.close();
+		return new long[] { nbTurns, nanos };
+	}
+
+	private static GameResult play(IFacade facade, LevelMap map, String[] sources, long seed) {
+		HeadlessGame game = new HeadlessGame(facade, map, seed);
+		game.addTeam("First");
+		game.addTeam("Second");
+		for (int i = 0; i < 2; i++)
+			for (String source : sources)
+				game.addWorm(source);
+		game.addFood(5);
+		return game.play(TURNS);
+	}
+}
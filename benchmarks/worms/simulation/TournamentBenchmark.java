@@ -0,0 +1,41 @@
+package worms.simulation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static worms.util.BenchmarkUtil.*;
+
+/**
+ * Plays the same tournament with 1, 2, 4, ... threads up to the number of processors, and prints
+ * the number of games per second and the speedup over one thread. Every run has the same outcome.
+ */
+public class TournamentBenchmark {
+
+	private static final String[] PROGRAMS = { "programs/program.txt", "programs/program_example.txt",
+			"programs/AP_drain.txt" };
+	private static final int GAMES_PER_PAIRING = 8;
+	private static final int TURNS = 200;
+
+	public static void main(String[] args) throws Exception {
+		List<LevelMap> maps = new ArrayList<LevelMap>();
+		maps.add(new LevelMap(loadLevel(args.length > 0 ? args[0] : "Simple")));
+		Map<String, String> programs = new LinkedHashMap<String, String>();
+		for (String file : PROGRAMS)
+			programs.put(file, HeadlessGame.readProgram(new java.io.File(file)));
+		Tournament tournament = new Tournament(maps, programs, 0);
+		tournament.setNbGamesPerPairing(GAMES_PER_PAIRING);
+		tournament.setMaxNbTurns(TURNS);
+
+		tournament.play(Runtime.getRuntime().availableProcessors()); // warm-up
+		double baseline = 0;
+		for (int threads = 1; threads <= Runtime.getRuntime().availableProcessors(); threads *= 2) {
+			TournamentResult result = tournament.play(threads);
+			if (threads == 1)
+				baseline = result.getGamesPerSecond();
+			report(threads + " threads, games", result.getGames().size(), result.getNanos());
+			System.out.printf("%-48s %14.2f x%n", threads + " threads, speedup", result.getGamesPerSecond() / baseline);
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package worms.util;
+
+import java.util.Random;
+
+import worms.gui.Level;
+import worms.model.World;
+
+/**
+ * Helpers shared by the benchmarks.
+ *
+ * Benchmarks are plain main classes; run them from the project root with
+ * 	ant benchmark -Dbenchmark=worms.model.TerrainBenchmark
+ */
+public class BenchmarkUtil {
+
+	/**
+	 * Loads the shipped level with the given name (e.g. "Skulls").
+	 *
+	 * @throws IllegalArgumentException
+	 * 			There is no level with the given name.
+	 */
+	public static Level loadLevel(String name) throws IllegalArgumentException{
+		for (Level level : Level.getAvailableLevels()) {
+			if(level.getName().equals(name)){
+				level.load();
+				return level;
+			}
+		}
+		throw new IllegalArgumentException("Unknown level: " + name);
+	}
+
+	/**
+	 * Loads all shipped levels.
+	 */
+	public static Level[] loadLevels(){
+		Level[] levels = Level.getAvailableLevels();
+		for (Level level : levels)
+			level.load();
+		return levels;
+	}
+
+	/**
+	 * Creates a new world for the given (loaded) level.
+	 */
+	public static World createWorld(Level level, long seed){
+		return new World(level.getWorldWidth(), level.getWorldHeight(), level.getPassableMap(), new Random(seed));
+	}
+
+	/**
+	 * Prints a line with the throughput of a measured run.
+	 */
+	public static void report(String label, long operations, long nanos){
+		System.out.printf("%-48s %14.0f ops/s %12.1f ns/op%n", label,
+				operations / (nanos / 1e9), (double) nanos / operations);
+	}
+
+	/**
+	 * Returns the number of bytes allocated by the current thread so far,
+	 * or -1 if the JVM doesn't support measuring this.
+	 */
+	public static long allocatedBytes(){
+		java.lang.management.ThreadMXBean bean = java.lang.management.ManagementFactory.getThreadMXBean();
+		if(bean instanceof com.sun.management.ThreadMXBean)
+			return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		return -1;
+	}
+
+	/**
+	 * Consumes a value so the JIT can't optimise away the computation producing it.
+	 */
+	public static void consume(long value){
+		sink += value;
+	}
+
+	/**
+	 * Consumes a value so the JIT can't optimise away the computation producing it.
+	 */
+	public static void consume(boolean value){
+		if(value)
+			sink++;
+	}
+
+	/**
+	 * Consumes a value so the JIT can't optimise away the computation producing it.
+	 */
+	public static void consume(double value){
+		sink += Double.doubleToRawLongBits(value);
+	}
+
+	public static volatile long sink;
+}
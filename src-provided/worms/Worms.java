@@ -1,5 +1,7 @@
 package worms;
 
+import java.io.File;
+
 import worms.gui.GUIOptions;
 import worms.gui.WormsGUI;
 import worms.model.Facade;
@@ -7,7 +9,11 @@ import worms.model.Facade;
 public class Worms {
 
 	public static void main(String[] args) {
-		new WormsGUI(new Facade(), parseOptions(args)).start();
+		GUIOptions options = parseOptions(args);
+		Facade facade = new Facade();
+		if (options.profileDirectory != null)
+			facade.setProfileDirectory(new File(options.profileDirectory));
+		new WormsGUI(facade, options).start();
 	}
 
 	private static GUIOptions parseOptions(String[] args) {
@@ -25,6 +31,8 @@ public class Worms {
 			} else if ("-program".equals(arg)) {
 				String program = args[++i];
 				options.programFile = program;
+			} else if ("-profile".equals(arg)) {
+				options.profileDirectory = args[++i];
 			}
 		}
 
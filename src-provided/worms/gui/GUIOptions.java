@@ -33,4 +33,12 @@ public class GUIOptions {
 	 * Can also be set from the command line with the -program argument
 	 */
 	public String programFile = "programs/program.txt";
+	
+	/**
+	 * The directory to which the profiles of the programs of the worms are written when a game is over.
+	 * Default: null (programs are not profiled)
+	 * 
+	 * Can also be set from the command line with the -profile argument
+	 */
+	public String profileDirectory = null;
 }
\ No newline at end of file
@@ -25,6 +25,7 @@ import worms.gui.game.sprites.WormSprite;
 import worms.gui.messages.MessageType;
 import worms.model.Food;
 import worms.model.IFacade;
+import worms.model.ModelException;
 import worms.model.World;
 import worms.model.Worm;
 
@@ -94,6 +95,11 @@ public class PlayGameScreen extends Screen {
 	}
 
 	public void gameFinished() {
+		try {
+			getFacade().writeProfiles(getWorld());
+		} catch (ModelException e) {
+			addMessage("Cannot write the profiles of the programs: " + e.getMessage(), MessageType.ERROR);
+		}
 		addMessage(
 				"Game over! The winner is "
 						+ getFacade().getWinner(getWorld())
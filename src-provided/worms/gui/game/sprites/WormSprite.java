@@ -110,6 +110,7 @@ public class WormSprite extends ImageSprite<Worm> {
 		setRadius(getFacade().getRadius(getWorm()));
 		setDirection(getFacade().getOrientation(getWorm()));
 		setSelectedWeapon(getFacade().getSelectedWeapon(getWorm()));
+		this.actionPoints = getFacade().getActionPoints(getWorm());
 		updateJumpTime();
 		setName(getFacade().getName(getWorm()));
 		try {
@@ -144,7 +145,35 @@ public class WormSprite extends ImageSprite<Worm> {
 
 	protected static final double JUMP_MARKER_TIME_DISTANCE = 0.1; // worm-seconds
 
+	/*
+	 * The jump markers only change when the worm or its world does,
+	 * so they are recomputed only when one of these values changes.
+	 */
+	private boolean hasJumpSteps;
+	private double jumpStepsX;
+	private double jumpStepsY;
+	private double jumpStepsDirection;
+	private double jumpStepsRadius;
+	private int jumpStepsActionPoints;
+	private long jumpStepsVersion;
+
 	private void updateJumpTime() {
+		long version = getFacade().getVersion(getScreen().getWorld());
+		if (hasJumpSteps && jumpStepsX == actualX && jumpStepsY == actualY
+				&& jumpStepsDirection == orientation
+				&& jumpStepsRadius == radius
+				&& jumpStepsActionPoints == actionPoints
+				&& jumpStepsVersion == version) {
+			return;
+		}
+		hasJumpSteps = true;
+		jumpStepsX = actualX;
+		jumpStepsY = actualY;
+		jumpStepsDirection = orientation;
+		jumpStepsRadius = radius;
+		jumpStepsActionPoints = actionPoints;
+		jumpStepsVersion = version;
+
 		try {
 			double time = getFacade().getJumpTime(getWorm(),
 					GUIConstants.JUMP_TIME_STEP);
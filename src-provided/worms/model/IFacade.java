@@ -1,5 +1,6 @@
 package worms.model;
 
+import java.io.File;
 import java.util.Collection;
 import java.util.Random;
 
@@ -395,6 +396,15 @@ public interface IFacade {
 	 */
 	boolean isImpassable(World world, double x, double y, double radius);
 
+	/**
+	 * Returns the version of the given world.
+	 * The version changes whenever the world, or an entity in it, changes;
+	 * clients can use it to tell whether information they computed before is still valid.
+	 * 
+	 * @param world The world of which to return the version
+	 */
+	long getVersion(World world);
+
 	/**
 	 * Make the given projectile jump to its new location.
 	 * The new location should be determined using the given elementary time interval. 
@@ -491,4 +501,24 @@ public interface IFacade {
 	 * @return true if the program is well-formed; false otherwise 
 	 */
 	public boolean isWellFormed(Program program);
+	
+	/**
+	 * Lets the programs that are parsed from now on profile themselves, so that the profiles
+	 * of the programs of the worms in a world can be written to the given directory when its game is over.
+	 * Programs aren't profiled if the given directory is null.
+	 * 
+	 * @param profileDirectory The directory to write the profiles to, or null
+	 */
+	public void setProfileDirectory(File profileDirectory);
+	
+	/**
+	 * Writes the profiles of the programs of the worms with a profiled program in the given world
+	 * (including the worms that died) to the profile directory, and forgets them.
+	 * Nothing is written if there is no profile directory.
+	 * 
+	 * This method is called when the game in the given world is over.
+	 * 
+	 * @param world The world whose game is over
+	 */
+	public void writeProfiles(World world) throws ModelException;
 }
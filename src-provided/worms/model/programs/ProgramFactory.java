@@ -156,6 +156,34 @@ public interface ProgramFactory<E, S, T> {
 	 */
 	public E createSearchObj(int line, int column, E e);
 
+	/**
+	 * Create an expression that evaluates to the worm, other than the worm that
+	 * is executing the program, that is the closest to that worm, or to null if
+	 * there is no other worm
+	 */
+	public E createNearestWorm(int line, int column);
+
+	/**
+	 * Create an expression that evaluates to the food ration that is the
+	 * closest to the worm that is executing the program, or to null if there
+	 * is no food ration
+	 */
+	public E createNearestFood(int line, int column);
+
+	/**
+	 * Create an expression that evaluates to the worm that doesn't belong to
+	 * the same team as the worm that is executing the program and is the
+	 * closest to that worm, or to null if there is no such worm
+	 */
+	public E createNearestEnemy(int line, int column);
+
+	/**
+	 * Create an expression that evaluates to the number of entities of the
+	 * given type, other than the worm that is executing the program, whose
+	 * center lies within the distance given by the expression e of that worm
+	 */
+	public E createCountWithin(int line, int column, ForeachType type, E e);
+
 	/**
 	 * Create an expression that evaluates whether the entity identified by the
 	 * expression e is a worm
@@ -7,14 +7,18 @@ import java.util.Map;
 
 import org.antlr.v4.runtime.ANTLRErrorListener;
 import org.antlr.v4.runtime.ANTLRInputStream;
-import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.BailErrorStrategy;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ConsoleErrorListener;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
 import org.antlr.v4.runtime.Parser;
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.RecognitionException;
 import org.antlr.v4.runtime.Recognizer;
 import org.antlr.v4.runtime.atn.ATNConfigSet;
+import org.antlr.v4.runtime.atn.PredictionMode;
 import org.antlr.v4.runtime.dfa.DFA;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.antlr.v4.runtime.tree.ParseTreeWalker;
 
 import worms.model.programs.parser.WormsParserLexer;
@@ -76,41 +80,40 @@ public class ProgramParser<E, S, T> {
 	public void parse(String text) throws RecognitionException {
 		globals = null;
 		statement = null;
-		CharStream cs = new ANTLRInputStream(text);
-		WormsParserLexer lexer = new WormsParserLexer(cs);
-		CommonTokenStream tokens = new CommonTokenStream(lexer);
-		WormsParserParser parser = new WormsParserParser(tokens);
-		parser.setBuildParseTree(true);
-		parser.addErrorListener(new ANTLRErrorListener() {
-
-			@Override
-			public void syntaxError(Recognizer<?, ?> recognizer,
-					Object offendingSymbol, int line, int column, String msg,
-					RecognitionException e) {
-				ProgramParser.this.errors.add(line + ":" + column
-						+ " syntax error: " + msg);
-
+		errors = new ArrayList<String>();
+		// The token stream of ANTLR can't be reused, since it doesn't forget that it reached the end of its input.
+		if (lexer == null) {
+			lexer = new WormsParserLexer(new ANTLRInputStream(text));
+			parser = new WormsParserParser(new CommonTokenStream(lexer));
+			parser.setBuildParseTree(true);
+		} else {
+			lexer.setInputStream(new ANTLRInputStream(text));
+			parser.setInputStream(new CommonTokenStream(lexer));
+		}
+		ParserRuleContext tree = null;
+		boolean failedInSLL = false;
+		if (isTwoStageParsing()) {
+			// Most programs parse in the faster SLL mode. The first syntax error makes the SLL parse bail out,
+			// and the program is parsed again in LL mode, which finds the same errors as before.
+			parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+			parser.setErrorHandler(new BailErrorStrategy());
+			parser.removeErrorListeners();
+			try {
+				tree = parser.eval();
+			} catch (ParseCancellationException exc) {
+				failedInSLL = true;
 			}
-
-			@Override
-			public void reportContextSensitivity(Parser arg0, DFA arg1,
-					int arg2, int arg3, int arg4, ATNConfigSet arg5) {
-
-			}
-
-			@Override
-			public void reportAttemptingFullContext(Parser arg0, DFA arg1,
-					int arg2, int arg3, BitSet arg4, ATNConfigSet arg5) {
-
-			}
-
-			@Override
-			public void reportAmbiguity(Parser arg0, DFA arg1, int arg2,
-					int arg3, boolean arg4, BitSet arg5, ATNConfigSet arg6) {
-
-			}
-		});
-		ParserRuleContext tree = parser.eval();
+		}
+		if (tree == null) {
+			if (failedInSLL)
+				parser.reset();
+			parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+			parser.setErrorHandler(new DefaultErrorStrategy());
+			parser.removeErrorListeners();
+			parser.addErrorListener(ConsoleErrorListener.INSTANCE);
+			parser.addErrorListener(errorListener);
+			tree = parser.eval();
+		}
 		if (!errors.isEmpty())
 			return;
 		WormsParserMyListener<E, S, T> listener = new WormsParserMyListener<E, S, T>(
@@ -122,6 +125,64 @@ public class ProgramParser<E, S, T> {
 		statement = listener.getStatement();
 	}
 
+	private final ANTLRErrorListener errorListener = new ANTLRErrorListener() {
+
+		@Override
+		public void syntaxError(Recognizer<?, ?> recognizer,
+				Object offendingSymbol, int line, int column, String msg,
+				RecognitionException e) {
+			ProgramParser.this.errors.add(line + ":" + column
+					+ " syntax error: " + msg);
+
+		}
+
+		@Override
+		public void reportContextSensitivity(Parser arg0, DFA arg1,
+				int arg2, int arg3, int arg4, ATNConfigSet arg5) {
+
+		}
+
+		@Override
+		public void reportAttemptingFullContext(Parser arg0, DFA arg1,
+				int arg2, int arg3, BitSet arg4, ATNConfigSet arg5) {
+
+		}
+
+		@Override
+		public void reportAmbiguity(Parser arg0, DFA arg1, int arg2,
+				int arg3, boolean arg4, BitSet arg5, ATNConfigSet arg6) {
+
+		}
+	};
+
+	/**
+	 * The lexer and parser of this program parser, which are reused for every program it parses.
+	 */
+	private WormsParserLexer lexer = null;
+	private WormsParserParser parser = null;
+
+	/**
+	 * Returns whether this parser first parses programs in SLL mode, and only parses them again in LL mode
+	 * if the SLL parse fails. If not, this parser parses programs in LL mode only.
+	 */
+	public boolean isTwoStageParsing() {
+		return twoStageParsing;
+	}
+
+	public void setTwoStageParsing(boolean twoStageParsing) {
+		this.twoStageParsing = twoStageParsing;
+	}
+
+	private boolean twoStageParsing = true;
+
+	/**
+	 * Sets the factory this parser calls for the programs it parses from now on.
+	 * This lets a single parser, with its lexer and parser, parse programs for several factories.
+	 */
+	public void setFactory(ProgramFactory<E, S, T> factory) {
+		this.factory = factory;
+	}
+
 	public List<String> getErrors() {
 		return errors;
 	}
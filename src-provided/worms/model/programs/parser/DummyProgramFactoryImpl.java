@@ -111,6 +111,27 @@ public class DummyProgramFactoryImpl implements
 		return (null);
 	}
 
+	@Override
+	public DummyExpression createNearestWorm(int line, int column) {
+		return (null);
+	}
+
+	@Override
+	public DummyExpression createNearestFood(int line, int column) {
+		return (null);
+	}
+
+	@Override
+	public DummyExpression createNearestEnemy(int line, int column) {
+		return (null);
+	}
+
+	@Override
+	public DummyExpression createCountWithin(int line, int column,
+			ForeachType type, DummyExpression e) {
+		return (null);
+	}
+
 	@Override
 	public DummyExpression createIsWorm(int line, int column, DummyExpression e) {
 		return (null);
@@ -181,6 +181,31 @@ public class PrintingProgramFactoryImpl implements
 		}.getClass().getEnclosingMethod().getName(), e);
 	}
 
+	@Override
+	public PrintingObject createNearestWorm(int line, int column) {
+		return new PrintingObject(new Object() {
+		}.getClass().getEnclosingMethod().getName());
+	}
+
+	@Override
+	public PrintingObject createNearestFood(int line, int column) {
+		return new PrintingObject(new Object() {
+		}.getClass().getEnclosingMethod().getName());
+	}
+
+	@Override
+	public PrintingObject createNearestEnemy(int line, int column) {
+		return new PrintingObject(new Object() {
+		}.getClass().getEnclosingMethod().getName());
+	}
+
+	@Override
+	public PrintingObject createCountWithin(int line, int column,
+			ForeachType type, PrintingObject e) {
+		return new PrintingObject(new Object() {
+		}.getClass().getEnclosingMethod().getName(), type, e);
+	}
+
 	@Override
 	public PrintingObject createIsWorm(int line, int column, PrintingObject e) {
 		return new PrintingObject(new Object() {
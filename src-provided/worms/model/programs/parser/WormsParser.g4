@@ -62,8 +62,14 @@ expr:         NUMBER
             | LEFT_PAREN expr RIGHT_PAREN
             | namedconst
             | unop
+            | query
             | expr binop expr
 ;
+query:        NEARESTWORM
+            | NEARESTFOOD
+            | NEARESTENEMY
+            | COUNTWITHIN LEFT_PAREN entityspec COMMA expr RIGHT_PAREN
+;
 
 // ------------------------------------------------------------------------
 // --- Named Constants ----------------------------------------------------
@@ -118,6 +124,15 @@ COS:       'cos';
 NOT:       '!';
 
 
+// ------------------------------------------------------------------------
+// --- Spatial Queries ----------------------------------------------------
+// ------------------------------------------------------------------------
+NEARESTWORM:  'nearestworm';
+NEARESTFOOD:  'nearestfood';
+NEARESTENEMY: 'nearestenemy';
+COUNTWITHIN:  'countwithin';
+
+
 // ------------------------------------------------------------------------
 // --- Space Entity Actions -----------------------------------------------
 // ------------------------------------------------------------------------
@@ -18,12 +18,13 @@ public class WormsParserLexer extends Lexer {
 		SELF=1, TRUE=2, FALSE=3, NULL=4, PRINT=5, BOOL=6, DOUBLE=7, ENTITY=8, 
 		WORM=9, FOOD=10, TERRAIN=11, ANY=12, GETX=13, GETY=14, GETDIR=15, GETRADIUS=16, 
 		GETAP=17, GETMAXAP=18, GETHP=19, GETMAXHP=20, SAMETEAM=21, SEARCHOBJ=22, 
-		ISWORM=23, ISFOOD=24, SQRT=25, SIN=26, COS=27, NOT=28, TURN=29, MOVE=30, 
-		JUMP=31, TOGGLEWEAP=32, FIRE=33, SKIP=34, IF=35, THEN=36, ELSE=37, WHILE=38, 
-		DO=39, FOREACH=40, ASSIGN=41, MUL=42, DIV=43, ADD=44, SUB=45, EQ=46, NEQ=47, 
-		LT=48, GT=49, LEQ=50, GEQ=51, AND=52, OR=53, NUMBER=54, FLOAT=55, INTEGER=56, 
-		IDENTIFIER=57, LEFT_PAREN=58, RIGHT_PAREN=59, LEFT_BRACE=60, RIGHT_BRACE=61, 
-		SEMICOLON=62, COMMA=63, WHITESPACE=64, SINGLE_COMMENT=65;
+		ISWORM=23, ISFOOD=24, SQRT=25, SIN=26, COS=27, NOT=28, NEARESTWORM=29, 
+		NEARESTFOOD=30, NEARESTENEMY=31, COUNTWITHIN=32, TURN=33, MOVE=34, JUMP=35, 
+		TOGGLEWEAP=36, FIRE=37, SKIP=38, IF=39, THEN=40, ELSE=41, WHILE=42, DO=43, 
+		FOREACH=44, ASSIGN=45, MUL=46, DIV=47, ADD=48, SUB=49, EQ=50, NEQ=51, 
+		LT=52, GT=53, LEQ=54, GEQ=55, AND=56, OR=57, NUMBER=58, FLOAT=59, INTEGER=60, 
+		IDENTIFIER=61, LEFT_PAREN=62, RIGHT_PAREN=63, LEFT_BRACE=64, RIGHT_BRACE=65, 
+		SEMICOLON=66, COMMA=67, WHITESPACE=68, SINGLE_COMMENT=69;
 	public static String[] modeNames = {
 		"DEFAULT_MODE"
 	};
@@ -34,22 +35,24 @@ public class WormsParserLexer extends Lexer {
 		"'entity'", "'worm'", "'food'", "'terrain'", "'any'", "'getx'", "'gety'", 
 		"'getdir'", "'getradius'", "'getap'", "'getmaxap'", "'gethp'", "'getmaxhp'", 
 		"'sameteam'", "'searchobj'", "'isworm'", "'isfood'", "'sqrt'", "'sin'", 
-		"'cos'", "'!'", "'turn'", "'move'", "'jump'", "'toggleweap'", "'fire'", 
-		"'skip'", "'if'", "'then'", "'else'", "'while'", "'do'", "'foreach'", 
-		"':='", "'*'", "'/'", "'+'", "'-'", "'=='", "'!='", "'<'", "'>'", "'<='", 
-		"'>='", "'&&'", "'||'", "NUMBER", "FLOAT", "INTEGER", "IDENTIFIER", "'('", 
-		"')'", "'{'", "'}'", "';'", "','", "WHITESPACE", "SINGLE_COMMENT"
+		"'cos'", "'!'", "'nearestworm'", "'nearestfood'", "'nearestenemy'", "'countwithin'", 
+		"'turn'", "'move'", "'jump'", "'toggleweap'", "'fire'", "'skip'", "'if'", 
+		"'then'", "'else'", "'while'", "'do'", "'foreach'", "':='", "'*'", "'/'", 
+		"'+'", "'-'", "'=='", "'!='", "'<'", "'>'", "'<='", "'>='", "'&&'", "'||'", 
+		"NUMBER", "FLOAT", "INTEGER", "IDENTIFIER", "'('", "')'", "'{'", "'}'", 
+		"';'", "','", "WHITESPACE", "SINGLE_COMMENT"
 	};
 	public static final String[] ruleNames = {
 		"SELF", "TRUE", "FALSE", "NULL", "PRINT", "BOOL", "DOUBLE", "ENTITY", 
 		"WORM", "FOOD", "TERRAIN", "ANY", "GETX", "GETY", "GETDIR", "GETRADIUS", 
 		"GETAP", "GETMAXAP", "GETHP", "GETMAXHP", "SAMETEAM", "SEARCHOBJ", "ISWORM", 
-		"ISFOOD", "SQRT", "SIN", "COS", "NOT", "TURN", "MOVE", "JUMP", "TOGGLEWEAP", 
-		"FIRE", "SKIP", "IF", "THEN", "ELSE", "WHILE", "DO", "FOREACH", "ASSIGN", 
-		"MUL", "DIV", "ADD", "SUB", "EQ", "NEQ", "LT", "GT", "LEQ", "GEQ", "AND", 
-		"OR", "NUMBER", "FLOAT", "INTEGER", "IDENTIFIER", "LETTER", "LOWER", "UPPER", 
-		"DIGIT", "LEFT_PAREN", "RIGHT_PAREN", "LEFT_BRACE", "RIGHT_BRACE", "SEMICOLON", 
-		"COMMA", "WHITESPACE", "SINGLE_COMMENT", "NEWLINE"
+		"ISFOOD", "SQRT", "SIN", "COS", "NOT", "NEARESTWORM", "NEARESTFOOD", "NEARESTENEMY", 
+		"COUNTWITHIN", "TURN", "MOVE", "JUMP", "TOGGLEWEAP", "FIRE", "SKIP", "IF", 
+		"THEN", "ELSE", "WHILE", "DO", "FOREACH", "ASSIGN", "MUL", "DIV", "ADD", 
+		"SUB", "EQ", "NEQ", "LT", "GT", "LEQ", "GEQ", "AND", "OR", "NUMBER", "FLOAT", 
+		"INTEGER", "IDENTIFIER", "LETTER", "LOWER", "UPPER", "DIGIT", "LEFT_PAREN", 
+		"RIGHT_PAREN", "LEFT_BRACE", "RIGHT_BRACE", "SEMICOLON", "COMMA", "WHITESPACE", 
+		"SINGLE_COMMENT", "NEWLINE"
 	};
 
 
@@ -80,7 +83,7 @@ public class WormsParserLexer extends Lexer {
 	public ATN getATN() { return _ATN; }
 
 	public static final String _serializedATN =
-		"\3\u0430\ud6d1\u8206\uad2d\u4417\uaef1\u8d80\uaadd\2C\u01ef\b\1\4\2\t"+
+		"\3\u0430\ud6d1\u8206\uad2d\u4417\uaef1\u8d80\uaadd\2G\u0228\b\1\4\2\t"+
 		"\2\4\3\t\3\4\4\t\4\4\5\t\5\4\6\t\6\4\7\t\7\4\b\t\b\4\t\t\t\4\n\t\n\4\13"+
 		"\t\13\4\f\t\f\4\r\t\r\4\16\t\16\4\17\t\17\4\20\t\20\4\21\t\21\4\22\t\22"+
 		"\4\23\t\23\4\24\t\24\4\25\t\25\4\26\t\26\4\27\t\27\4\30\t\30\4\31\t\31"+
@@ -88,158 +91,176 @@ public class WormsParserLexer extends Lexer {
 		"\t!\4\"\t\"\4#\t#\4$\t$\4%\t%\4&\t&\4\'\t\'\4(\t(\4)\t)\4*\t*\4+\t+\4"+
 		",\t,\4-\t-\4.\t.\4/\t/\4\60\t\60\4\61\t\61\4\62\t\62\4\63\t\63\4\64\t"+
 		"\64\4\65\t\65\4\66\t\66\4\67\t\67\48\t8\49\t9\4:\t:\4;\t;\4<\t<\4=\t="+
-		"\4>\t>\4?\t?\4@\t@\4A\tA\4B\tB\4C\tC\4D\tD\4E\tE\4F\tF\4G\tG\3\2\3\2\3"+
-		"\2\3\2\3\2\3\3\3\3\3\3\3\3\3\3\3\4\3\4\3\4\3\4\3\4\3\4\3\5\3\5\3\5\3\5"+
-		"\3\5\3\6\3\6\3\6\3\6\3\6\3\6\3\7\3\7\3\7\3\7\3\7\3\b\3\b\3\b\3\b\3\b\3"+
-		"\b\3\b\3\t\3\t\3\t\3\t\3\t\3\t\3\t\3\n\3\n\3\n\3\n\3\n\3\13\3\13\3\13"+
-		"\3\13\3\13\3\f\3\f\3\f\3\f\3\f\3\f\3\f\3\f\3\r\3\r\3\r\3\r\3\16\3\16\3"+
-		"\16\3\16\3\16\3\17\3\17\3\17\3\17\3\17\3\20\3\20\3\20\3\20\3\20\3\20\3"+
-		"\20\3\21\3\21\3\21\3\21\3\21\3\21\3\21\3\21\3\21\3\21\3\22\3\22\3\22\3"+
-		"\22\3\22\3\22\3\23\3\23\3\23\3\23\3\23\3\23\3\23\3\23\3\23\3\24\3\24\3"+
-		"\24\3\24\3\24\3\24\3\25\3\25\3\25\3\25\3\25\3\25\3\25\3\25\3\25\3\26\3"+
-		"\26\3\26\3\26\3\26\3\26\3\26\3\26\3\26\3\27\3\27\3\27\3\27\3\27\3\27\3"+
-		"\27\3\27\3\27\3\27\3\30\3\30\3\30\3\30\3\30\3\30\3\30\3\31\3\31\3\31\3"+
-		"\31\3\31\3\31\3\31\3\32\3\32\3\32\3\32\3\32\3\33\3\33\3\33\3\33\3\34\3"+
-		"\34\3\34\3\34\3\35\3\35\3\36\3\36\3\36\3\36\3\36\3\37\3\37\3\37\3\37\3"+
-		"\37\3 \3 \3 \3 \3 \3!\3!\3!\3!\3!\3!\3!\3!\3!\3!\3!\3\"\3\"\3\"\3\"\3"+
-		"\"\3#\3#\3#\3#\3#\3$\3$\3$\3%\3%\3%\3%\3%\3&\3&\3&\3&\3&\3\'\3\'\3\'\3"+
-		"\'\3\'\3\'\3(\3(\3(\3)\3)\3)\3)\3)\3)\3)\3)\3*\3*\3*\3+\3+\3,\3,\3-\3"+
-		"-\3.\3.\3/\3/\3/\3\60\3\60\3\60\3\61\3\61\3\62\3\62\3\63\3\63\3\63\3\64"+
-		"\3\64\3\64\3\65\3\65\3\65\3\66\3\66\3\66\3\67\3\67\5\67\u01a2\n\67\38"+
-		"\38\38\68\u01a7\n8\r8\168\u01a8\39\59\u01ac\n9\39\39\79\u01b0\n9\f9\16"+
-		"9\u01b3\139\3:\3:\3:\3:\7:\u01b9\n:\f:\16:\u01bc\13:\3;\3;\5;\u01c0\n"+
-		";\3<\3<\3=\3=\3>\3>\3?\3?\3@\3@\3A\3A\3B\3B\3C\3C\3D\3D\3E\6E\u01d5\n"+
-		"E\rE\16E\u01d6\3E\3E\3F\3F\3F\3F\7F\u01df\nF\fF\16F\u01e2\13F\3F\3F\3"+
-		"F\3F\3G\5G\u01e9\nG\3G\6G\u01ec\nG\rG\16G\u01ed\2\2H\3\3\5\4\7\5\t\6\13"+
-		"\7\r\b\17\t\21\n\23\13\25\f\27\r\31\16\33\17\35\20\37\21!\22#\23%\24\'"+
-		"\25)\26+\27-\30/\31\61\32\63\33\65\34\67\359\36;\37= ?!A\"C#E$G%I&K\'"+
-		"M(O)Q*S+U,W-Y.[/]\60_\61a\62c\63e\64g\65i\66k\67m8o9q:s;u\2w\2y\2{\2}"+
-		"<\177=\u0081>\u0083?\u0085@\u0087A\u0089B\u008bC\u008d\2\3\2\5\4\2--/"+
-		"/\5\2\13\f\17\17\"\"\4\2\f\f\17\17\u01f5\2\3\3\2\2\2\2\5\3\2\2\2\2\7\3"+
-		"\2\2\2\2\t\3\2\2\2\2\13\3\2\2\2\2\r\3\2\2\2\2\17\3\2\2\2\2\21\3\2\2\2"+
-		"\2\23\3\2\2\2\2\25\3\2\2\2\2\27\3\2\2\2\2\31\3\2\2\2\2\33\3\2\2\2\2\35"+
-		"\3\2\2\2\2\37\3\2\2\2\2!\3\2\2\2\2#\3\2\2\2\2%\3\2\2\2\2\'\3\2\2\2\2)"+
-		"\3\2\2\2\2+\3\2\2\2\2-\3\2\2\2\2/\3\2\2\2\2\61\3\2\2\2\2\63\3\2\2\2\2"+
-		"\65\3\2\2\2\2\67\3\2\2\2\29\3\2\2\2\2;\3\2\2\2\2=\3\2\2\2\2?\3\2\2\2\2"+
-		"A\3\2\2\2\2C\3\2\2\2\2E\3\2\2\2\2G\3\2\2\2\2I\3\2\2\2\2K\3\2\2\2\2M\3"+
-		"\2\2\2\2O\3\2\2\2\2Q\3\2\2\2\2S\3\2\2\2\2U\3\2\2\2\2W\3\2\2\2\2Y\3\2\2"+
-		"\2\2[\3\2\2\2\2]\3\2\2\2\2_\3\2\2\2\2a\3\2\2\2\2c\3\2\2\2\2e\3\2\2\2\2"+
-		"g\3\2\2\2\2i\3\2\2\2\2k\3\2\2\2\2m\3\2\2\2\2o\3\2\2\2\2q\3\2\2\2\2s\3"+
-		"\2\2\2\2}\3\2\2\2\2\177\3\2\2\2\2\u0081\3\2\2\2\2\u0083\3\2\2\2\2\u0085"+
-		"\3\2\2\2\2\u0087\3\2\2\2\2\u0089\3\2\2\2\2\u008b\3\2\2\2\3\u008f\3\2\2"+
-		"\2\5\u0094\3\2\2\2\7\u0099\3\2\2\2\t\u009f\3\2\2\2\13\u00a4\3\2\2\2\r"+
-		"\u00aa\3\2\2\2\17\u00af\3\2\2\2\21\u00b6\3\2\2\2\23\u00bd\3\2\2\2\25\u00c2"+
-		"\3\2\2\2\27\u00c7\3\2\2\2\31\u00cf\3\2\2\2\33\u00d3\3\2\2\2\35\u00d8\3"+
-		"\2\2\2\37\u00dd\3\2\2\2!\u00e4\3\2\2\2#\u00ee\3\2\2\2%\u00f4\3\2\2\2\'"+
-		"\u00fd\3\2\2\2)\u0103\3\2\2\2+\u010c\3\2\2\2-\u0115\3\2\2\2/\u011f\3\2"+
-		"\2\2\61\u0126\3\2\2\2\63\u012d\3\2\2\2\65\u0132\3\2\2\2\67\u0136\3\2\2"+
-		"\29\u013a\3\2\2\2;\u013c\3\2\2\2=\u0141\3\2\2\2?\u0146\3\2\2\2A\u014b"+
-		"\3\2\2\2C\u0156\3\2\2\2E\u015b\3\2\2\2G\u0160\3\2\2\2I\u0163\3\2\2\2K"+
-		"\u0168\3\2\2\2M\u016d\3\2\2\2O\u0173\3\2\2\2Q\u0176\3\2\2\2S\u017e\3\2"+
-		"\2\2U\u0181\3\2\2\2W\u0183\3\2\2\2Y\u0185\3\2\2\2[\u0187\3\2\2\2]\u0189"+
-		"\3\2\2\2_\u018c\3\2\2\2a\u018f\3\2\2\2c\u0191\3\2\2\2e\u0193\3\2\2\2g"+
-		"\u0196\3\2\2\2i\u0199\3\2\2\2k\u019c\3\2\2\2m\u01a1\3\2\2\2o\u01a3\3\2"+
-		"\2\2q\u01ab\3\2\2\2s\u01b4\3\2\2\2u\u01bf\3\2\2\2w\u01c1\3\2\2\2y\u01c3"+
-		"\3\2\2\2{\u01c5\3\2\2\2}\u01c7\3\2\2\2\177\u01c9\3\2\2\2\u0081\u01cb\3"+
-		"\2\2\2\u0083\u01cd\3\2\2\2\u0085\u01cf\3\2\2\2\u0087\u01d1\3\2\2\2\u0089"+
-		"\u01d4\3\2\2\2\u008b\u01da\3\2\2\2\u008d\u01eb\3\2\2\2\u008f\u0090\7u"+
-		"\2\2\u0090\u0091\7g\2\2\u0091\u0092\7n\2\2\u0092\u0093\7h\2\2\u0093\4"+
-		"\3\2\2\2\u0094\u0095\7v\2\2\u0095\u0096\7t\2\2\u0096\u0097\7w\2\2\u0097"+
-		"\u0098\7g\2\2\u0098\6\3\2\2\2\u0099\u009a\7h\2\2\u009a\u009b\7c\2\2\u009b"+
-		"\u009c\7n\2\2\u009c\u009d\7u\2\2\u009d\u009e\7g\2\2\u009e\b\3\2\2\2\u009f"+
-		"\u00a0\7p\2\2\u00a0\u00a1\7w\2\2\u00a1\u00a2\7n\2\2\u00a2\u00a3\7n\2\2"+
-		"\u00a3\n\3\2\2\2\u00a4\u00a5\7r\2\2\u00a5\u00a6\7t\2\2\u00a6\u00a7\7k"+
-		"\2\2\u00a7\u00a8\7p\2\2\u00a8\u00a9\7v\2\2\u00a9\f\3\2\2\2\u00aa\u00ab"+
-		"\7d\2\2\u00ab\u00ac\7q\2\2\u00ac\u00ad\7q\2\2\u00ad\u00ae\7n\2\2\u00ae"+
-		"\16\3\2\2\2\u00af\u00b0\7f\2\2\u00b0\u00b1\7q\2\2\u00b1\u00b2\7w\2\2\u00b2"+
-		"\u00b3\7d\2\2\u00b3\u00b4\7n\2\2\u00b4\u00b5\7g\2\2\u00b5\20\3\2\2\2\u00b6"+
-		"\u00b7\7g\2\2\u00b7\u00b8\7p\2\2\u00b8\u00b9\7v\2\2\u00b9\u00ba\7k\2\2"+
-		"\u00ba\u00bb\7v\2\2\u00bb\u00bc\7{\2\2\u00bc\22\3\2\2\2\u00bd\u00be\7"+
-		"y\2\2\u00be\u00bf\7q\2\2\u00bf\u00c0\7t\2\2\u00c0\u00c1\7o\2\2\u00c1\24"+
-		"\3\2\2\2\u00c2\u00c3\7h\2\2\u00c3\u00c4\7q\2\2\u00c4\u00c5\7q\2\2\u00c5"+
-		"\u00c6\7f\2\2\u00c6\26\3\2\2\2\u00c7\u00c8\7v\2\2\u00c8\u00c9\7g\2\2\u00c9"+
-		"\u00ca\7t\2\2\u00ca\u00cb\7t\2\2\u00cb\u00cc\7c\2\2\u00cc\u00cd\7k\2\2"+
-		"\u00cd\u00ce\7p\2\2\u00ce\30\3\2\2\2\u00cf\u00d0\7c\2\2\u00d0\u00d1\7"+
-		"p\2\2\u00d1\u00d2\7{\2\2\u00d2\32\3\2\2\2\u00d3\u00d4\7i\2\2\u00d4\u00d5"+
-		"\7g\2\2\u00d5\u00d6\7v\2\2\u00d6\u00d7\7z\2\2\u00d7\34\3\2\2\2\u00d8\u00d9"+
-		"\7i\2\2\u00d9\u00da\7g\2\2\u00da\u00db\7v\2\2\u00db\u00dc\7{\2\2\u00dc"+
-		"\36\3\2\2\2\u00dd\u00de\7i\2\2\u00de\u00df\7g\2\2\u00df\u00e0\7v\2\2\u00e0"+
-		"\u00e1\7f\2\2\u00e1\u00e2\7k\2\2\u00e2\u00e3\7t\2\2\u00e3 \3\2\2\2\u00e4"+
-		"\u00e5\7i\2\2\u00e5\u00e6\7g\2\2\u00e6\u00e7\7v\2\2\u00e7\u00e8\7t\2\2"+
-		"\u00e8\u00e9\7c\2\2\u00e9\u00ea\7f\2\2\u00ea\u00eb\7k\2\2\u00eb\u00ec"+
-		"\7w\2\2\u00ec\u00ed\7u\2\2\u00ed\"\3\2\2\2\u00ee\u00ef\7i\2\2\u00ef\u00f0"+
-		"\7g\2\2\u00f0\u00f1\7v\2\2\u00f1\u00f2\7c\2\2\u00f2\u00f3\7r\2\2\u00f3"+
-		"$\3\2\2\2\u00f4\u00f5\7i\2\2\u00f5\u00f6\7g\2\2\u00f6\u00f7\7v\2\2\u00f7"+
-		"\u00f8\7o\2\2\u00f8\u00f9\7c\2\2\u00f9\u00fa\7z\2\2\u00fa\u00fb\7c\2\2"+
-		"\u00fb\u00fc\7r\2\2\u00fc&\3\2\2\2\u00fd\u00fe\7i\2\2\u00fe\u00ff\7g\2"+
-		"\2\u00ff\u0100\7v\2\2\u0100\u0101\7j\2\2\u0101\u0102\7r\2\2\u0102(\3\2"+
-		"\2\2\u0103\u0104\7i\2\2\u0104\u0105\7g\2\2\u0105\u0106\7v\2\2\u0106\u0107"+
-		"\7o\2\2\u0107\u0108\7c\2\2\u0108\u0109\7z\2\2\u0109\u010a\7j\2\2\u010a"+
-		"\u010b\7r\2\2\u010b*\3\2\2\2\u010c\u010d\7u\2\2\u010d\u010e\7c\2\2\u010e"+
-		"\u010f\7o\2\2\u010f\u0110\7g\2\2\u0110\u0111\7v\2\2\u0111\u0112\7g\2\2"+
-		"\u0112\u0113\7c\2\2\u0113\u0114\7o\2\2\u0114,\3\2\2\2\u0115\u0116\7u\2"+
-		"\2\u0116\u0117\7g\2\2\u0117\u0118\7c\2\2\u0118\u0119\7t\2\2\u0119\u011a"+
-		"\7e\2\2\u011a\u011b\7j\2\2\u011b\u011c\7q\2\2\u011c\u011d\7d\2\2\u011d"+
-		"\u011e\7l\2\2\u011e.\3\2\2\2\u011f\u0120\7k\2\2\u0120\u0121\7u\2\2\u0121"+
-		"\u0122\7y\2\2\u0122\u0123\7q\2\2\u0123\u0124\7t\2\2\u0124\u0125\7o\2\2"+
-		"\u0125\60\3\2\2\2\u0126\u0127\7k\2\2\u0127\u0128\7u\2\2\u0128\u0129\7"+
-		"h\2\2\u0129\u012a\7q\2\2\u012a\u012b\7q\2\2\u012b\u012c\7f\2\2\u012c\62"+
-		"\3\2\2\2\u012d\u012e\7u\2\2\u012e\u012f\7s\2\2\u012f\u0130\7t\2\2\u0130"+
-		"\u0131\7v\2\2\u0131\64\3\2\2\2\u0132\u0133\7u\2\2\u0133\u0134\7k\2\2\u0134"+
-		"\u0135\7p\2\2\u0135\66\3\2\2\2\u0136\u0137\7e\2\2\u0137\u0138\7q\2\2\u0138"+
-		"\u0139\7u\2\2\u01398\3\2\2\2\u013a\u013b\7#\2\2\u013b:\3\2\2\2\u013c\u013d"+
-		"\7v\2\2\u013d\u013e\7w\2\2\u013e\u013f\7t\2\2\u013f\u0140\7p\2\2\u0140"+
-		"<\3\2\2\2\u0141\u0142\7o\2\2\u0142\u0143\7q\2\2\u0143\u0144\7x\2\2\u0144"+
-		"\u0145\7g\2\2\u0145>\3\2\2\2\u0146\u0147\7l\2\2\u0147\u0148\7w\2\2\u0148"+
-		"\u0149\7o\2\2\u0149\u014a\7r\2\2\u014a@\3\2\2\2\u014b\u014c\7v\2\2\u014c"+
-		"\u014d\7q\2\2\u014d\u014e\7i\2\2\u014e\u014f\7i\2\2\u014f\u0150\7n\2\2"+
-		"\u0150\u0151\7g\2\2\u0151\u0152\7y\2\2\u0152\u0153\7g\2\2\u0153\u0154"+
-		"\7c\2\2\u0154\u0155\7r\2\2\u0155B\3\2\2\2\u0156\u0157\7h\2\2\u0157\u0158"+
-		"\7k\2\2\u0158\u0159\7t\2\2\u0159\u015a\7g\2\2\u015aD\3\2\2\2\u015b\u015c"+
-		"\7u\2\2\u015c\u015d\7m\2\2\u015d\u015e\7k\2\2\u015e\u015f\7r\2\2\u015f"+
-		"F\3\2\2\2\u0160\u0161\7k\2\2\u0161\u0162\7h\2\2\u0162H\3\2\2\2\u0163\u0164"+
-		"\7v\2\2\u0164\u0165\7j\2\2\u0165\u0166\7g\2\2\u0166\u0167\7p\2\2\u0167"+
-		"J\3\2\2\2\u0168\u0169\7g\2\2\u0169\u016a\7n\2\2\u016a\u016b\7u\2\2\u016b"+
-		"\u016c\7g\2\2\u016cL\3\2\2\2\u016d\u016e\7y\2\2\u016e\u016f\7j\2\2\u016f"+
-		"\u0170\7k\2\2\u0170\u0171\7n\2\2\u0171\u0172\7g\2\2\u0172N\3\2\2\2\u0173"+
-		"\u0174\7f\2\2\u0174\u0175\7q\2\2\u0175P\3\2\2\2\u0176\u0177\7h\2\2\u0177"+
-		"\u0178\7q\2\2\u0178\u0179\7t\2\2\u0179\u017a\7g\2\2\u017a\u017b\7c\2\2"+
-		"\u017b\u017c\7e\2\2\u017c\u017d\7j\2\2\u017dR\3\2\2\2\u017e\u017f\7<\2"+
-		"\2\u017f\u0180\7?\2\2\u0180T\3\2\2\2\u0181\u0182\7,\2\2\u0182V\3\2\2\2"+
-		"\u0183\u0184\7\61\2\2\u0184X\3\2\2\2\u0185\u0186\7-\2\2\u0186Z\3\2\2\2"+
-		"\u0187\u0188\7/\2\2\u0188\\\3\2\2\2\u0189\u018a\7?\2\2\u018a\u018b\7?"+
-		"\2\2\u018b^\3\2\2\2\u018c\u018d\7#\2\2\u018d\u018e\7?\2\2\u018e`\3\2\2"+
-		"\2\u018f\u0190\7>\2\2\u0190b\3\2\2\2\u0191\u0192\7@\2\2\u0192d\3\2\2\2"+
-		"\u0193\u0194\7>\2\2\u0194\u0195\7?\2\2\u0195f\3\2\2\2\u0196\u0197\7@\2"+
-		"\2\u0197\u0198\7?\2\2\u0198h\3\2\2\2\u0199\u019a\7(\2\2\u019a\u019b\7"+
-		"(\2\2\u019bj\3\2\2\2\u019c\u019d\7~\2\2\u019d\u019e\7~\2\2\u019el\3\2"+
-		"\2\2\u019f\u01a2\5q9\2\u01a0\u01a2\5o8\2\u01a1\u019f\3\2\2\2\u01a1\u01a0"+
-		"\3\2\2\2\u01a2n\3\2\2\2\u01a3\u01a4\5q9\2\u01a4\u01a6\7\60\2\2\u01a5\u01a7"+
-		"\4\62;\2\u01a6\u01a5\3\2\2\2\u01a7\u01a8\3\2\2\2\u01a8\u01a6\3\2\2\2\u01a8"+
-		"\u01a9\3\2\2\2\u01a9p\3\2\2\2\u01aa\u01ac\t\2\2\2\u01ab\u01aa\3\2\2\2"+
-		"\u01ab\u01ac\3\2\2\2\u01ac\u01ad\3\2\2\2\u01ad\u01b1\4\62;\2\u01ae\u01b0"+
-		"\4\62;\2\u01af\u01ae\3\2\2\2\u01b0\u01b3\3\2\2\2\u01b1\u01af\3\2\2\2\u01b1"+
-		"\u01b2\3\2\2\2\u01b2r\3\2\2\2\u01b3\u01b1\3\2\2\2\u01b4\u01ba\5u;\2\u01b5"+
-		"\u01b9\5u;\2\u01b6\u01b9\5{>\2\u01b7\u01b9\7a\2\2\u01b8\u01b5\3\2\2\2"+
-		"\u01b8\u01b6\3\2\2\2\u01b8\u01b7\3\2\2\2\u01b9\u01bc\3\2\2\2\u01ba\u01b8"+
-		"\3\2\2\2\u01ba\u01bb\3\2\2\2\u01bbt\3\2\2\2\u01bc\u01ba\3\2\2\2\u01bd"+
-		"\u01c0\5w<\2\u01be\u01c0\5y=\2\u01bf\u01bd\3\2\2\2\u01bf\u01be\3\2\2\2"+
-		"\u01c0v\3\2\2\2\u01c1\u01c2\4c|\2\u01c2x\3\2\2\2\u01c3\u01c4\4C\\\2\u01c4"+
-		"z\3\2\2\2\u01c5\u01c6\4\62;\2\u01c6|\3\2\2\2\u01c7\u01c8\7*\2\2\u01c8"+
-		"~\3\2\2\2\u01c9\u01ca\7+\2\2\u01ca\u0080\3\2\2\2\u01cb\u01cc\7}\2\2\u01cc"+
-		"\u0082\3\2\2\2\u01cd\u01ce\7\177\2\2\u01ce\u0084\3\2\2\2\u01cf\u01d0\7"+
-		"=\2\2\u01d0\u0086\3\2\2\2\u01d1\u01d2\7.\2\2\u01d2\u0088\3\2\2\2\u01d3"+
-		"\u01d5\t\3\2\2\u01d4\u01d3\3\2\2\2\u01d5\u01d6\3\2\2\2\u01d6\u01d4\3\2"+
-		"\2\2\u01d6\u01d7\3\2\2\2\u01d7\u01d8\3\2\2\2\u01d8\u01d9\bE\2\2\u01d9"+
-		"\u008a\3\2\2\2\u01da\u01db\7\61\2\2\u01db\u01dc\7\61\2\2\u01dc\u01e0\3"+
-		"\2\2\2\u01dd\u01df\n\4\2\2\u01de\u01dd\3\2\2\2\u01df\u01e2\3\2\2\2\u01e0"+
-		"\u01de\3\2\2\2\u01e0\u01e1\3\2\2\2\u01e1\u01e3\3\2\2\2\u01e2\u01e0\3\2"+
-		"\2\2\u01e3\u01e4\5\u008dG\2\u01e4\u01e5\3\2\2\2\u01e5\u01e6\bF\2\2\u01e6"+
-		"\u008c\3\2\2\2\u01e7\u01e9\7\17\2\2\u01e8\u01e7\3\2\2\2\u01e8\u01e9\3"+
-		"\2\2\2\u01e9\u01ea\3\2\2\2\u01ea\u01ec\7\f\2\2\u01eb\u01e8\3\2\2\2\u01ec"+
-		"\u01ed\3\2\2\2\u01ed\u01eb\3\2\2\2\u01ed\u01ee\3\2\2\2\u01ee\u008e\3\2"+
-		"\2\2\16\2\u01a1\u01a8\u01ab\u01b1\u01b8\u01ba\u01bf\u01d6\u01e0\u01e8"+
-		"\u01ed\3\b\2\2";
+		"\4>\t>\4?\t?\4@\t@\4A\tA\4B\tB\4C\tC\4D\tD\4E\tE\4F\tF\4G\tG\4H\tH\4I"+
+		"\tI\4J\tJ\4K\tK\3\2\3\2\3\2\3\2\3\2\3\3\3\3\3\3\3\3\3\3\3\4\3\4\3\4\3"+
+		"\4\3\4\3\4\3\5\3\5\3\5\3\5\3\5\3\6\3\6\3\6\3\6\3\6\3\6\3\7\3\7\3\7\3\7"+
+		"\3\7\3\b\3\b\3\b\3\b\3\b\3\b\3\b\3\t\3\t\3\t\3\t\3\t\3\t\3\t\3\n\3\n\3"+
+		"\n\3\n\3\n\3\13\3\13\3\13\3\13\3\13\3\f\3\f\3\f\3\f\3\f\3\f\3\f\3\f\3"+
+		"\r\3\r\3\r\3\r\3\16\3\16\3\16\3\16\3\16\3\17\3\17\3\17\3\17\3\17\3\20"+
+		"\3\20\3\20\3\20\3\20\3\20\3\20\3\21\3\21\3\21\3\21\3\21\3\21\3\21\3\21"+
+		"\3\21\3\21\3\22\3\22\3\22\3\22\3\22\3\22\3\23\3\23\3\23\3\23\3\23\3\23"+
+		"\3\23\3\23\3\23\3\24\3\24\3\24\3\24\3\24\3\24\3\25\3\25\3\25\3\25\3\25"+
+		"\3\25\3\25\3\25\3\25\3\26\3\26\3\26\3\26\3\26\3\26\3\26\3\26\3\26\3\27"+
+		"\3\27\3\27\3\27\3\27\3\27\3\27\3\27\3\27\3\27\3\30\3\30\3\30\3\30\3\30"+
+		"\3\30\3\30\3\31\3\31\3\31\3\31\3\31\3\31\3\31\3\32\3\32\3\32\3\32\3\32"+
+		"\3\33\3\33\3\33\3\33\3\34\3\34\3\34\3\34\3\35\3\35\3\36\3\36\3\36\3\36"+
+		"\3\36\3\36\3\36\3\36\3\36\3\36\3\36\3\36\3\37\3\37\3\37\3\37\3\37\3\37"+
+		"\3\37\3\37\3\37\3\37\3\37\3\37\3 \3 \3 \3 \3 \3 \3 \3 \3 \3 \3 \3 \3 "+
+		"\3!\3!\3!\3!\3!\3!\3!\3!\3!\3!\3!\3!\3\"\3\"\3\"\3\"\3\"\3#\3#\3#\3#\3"+
+		"#\3$\3$\3$\3$\3$\3%\3%\3%\3%\3%\3%\3%\3%\3%\3%\3%\3&\3&\3&\3&\3&\3\'\3"+
+		"\'\3\'\3\'\3\'\3(\3(\3(\3)\3)\3)\3)\3)\3*\3*\3*\3*\3*\3+\3+\3+\3+\3+\3"+
+		"+\3,\3,\3,\3-\3-\3-\3-\3-\3-\3-\3-\3.\3.\3.\3/\3/\3\60\3\60\3\61\3\61"+
+		"\3\62\3\62\3\63\3\63\3\63\3\64\3\64\3\64\3\65\3\65\3\66\3\66\3\67\3\67"+
+		"\3\67\38\38\38\39\39\39\3:\3:\3:\3;\3;\5;\u01db\n;\3<\3<\3<\6<\u01e0\n"+
+		"<\r<\16<\u01e1\3=\5=\u01e5\n=\3=\3=\7=\u01e9\n=\f=\16=\u01ec\13=\3>\3"+
+		">\3>\3>\7>\u01f2\n>\f>\16>\u01f5\13>\3?\3?\5?\u01f9\n?\3@\3@\3A\3A\3B"+
+		"\3B\3C\3C\3D\3D\3E\3E\3F\3F\3G\3G\3H\3H\3I\6I\u020e\nI\rI\16I\u020f\3"+
+		"I\3I\3J\3J\3J\3J\7J\u0218\nJ\fJ\16J\u021b\13J\3J\3J\3J\3J\3K\5K\u0222"+
+		"\nK\3K\6K\u0225\nK\rK\16K\u0226\2\2L\3\3\5\4\7\5\t\6\13\7\r\b\17\t\21"+
+		"\n\23\13\25\f\27\r\31\16\33\17\35\20\37\21!\22#\23%\24\'\25)\26+\27-\30"+
+		"/\31\61\32\63\33\65\34\67\359\36;\37= ?!A\"C#E$G%I&K\'M(O)Q*S+U,W-Y.["+
+		"/]\60_\61a\62c\63e\64g\65i\66k\67m8o9q:s;u<w=y>{?}\2\177\2\u0081\2\u0083"+
+		"\2\u0085@\u0087A\u0089B\u008bC\u008dD\u008fE\u0091F\u0093G\u0095\2\3\2"+
+		"\5\4\2--//\5\2\13\f\17\17\"\"\4\2\f\f\17\17\u022e\2\3\3\2\2\2\2\5\3\2"+
+		"\2\2\2\7\3\2\2\2\2\t\3\2\2\2\2\13\3\2\2\2\2\r\3\2\2\2\2\17\3\2\2\2\2\21"+
+		"\3\2\2\2\2\23\3\2\2\2\2\25\3\2\2\2\2\27\3\2\2\2\2\31\3\2\2\2\2\33\3\2"+
+		"\2\2\2\35\3\2\2\2\2\37\3\2\2\2\2!\3\2\2\2\2#\3\2\2\2\2%\3\2\2\2\2\'\3"+
+		"\2\2\2\2)\3\2\2\2\2+\3\2\2\2\2-\3\2\2\2\2/\3\2\2\2\2\61\3\2\2\2\2\63\3"+
+		"\2\2\2\2\65\3\2\2\2\2\67\3\2\2\2\29\3\2\2\2\2;\3\2\2\2\2=\3\2\2\2\2?\3"+
+		"\2\2\2\2A\3\2\2\2\2C\3\2\2\2\2E\3\2\2\2\2G\3\2\2\2\2I\3\2\2\2\2K\3\2\2"+
+		"\2\2M\3\2\2\2\2O\3\2\2\2\2Q\3\2\2\2\2S\3\2\2\2\2U\3\2\2\2\2W\3\2\2\2\2"+
+		"Y\3\2\2\2\2[\3\2\2\2\2]\3\2\2\2\2_\3\2\2\2\2a\3\2\2\2\2c\3\2\2\2\2e\3"+
+		"\2\2\2\2g\3\2\2\2\2i\3\2\2\2\2k\3\2\2\2\2m\3\2\2\2\2o\3\2\2\2\2q\3\2\2"+
+		"\2\2s\3\2\2\2\2u\3\2\2\2\2w\3\2\2\2\2y\3\2\2\2\2{\3\2\2\2\2\u0085\3\2"+
+		"\2\2\2\u0087\3\2\2\2\2\u0089\3\2\2\2\2\u008b\3\2\2\2\2\u008d\3\2\2\2\2"+
+		"\u008f\3\2\2\2\2\u0091\3\2\2\2\2\u0093\3\2\2\2\3\u0097\3\2\2\2\5\u009c"+
+		"\3\2\2\2\7\u00a1\3\2\2\2\t\u00a7\3\2\2\2\13\u00ac\3\2\2\2\r\u00b2\3\2"+
+		"\2\2\17\u00b7\3\2\2\2\21\u00be\3\2\2\2\23\u00c5\3\2\2\2\25\u00ca\3\2\2"+
+		"\2\27\u00cf\3\2\2\2\31\u00d7\3\2\2\2\33\u00db\3\2\2\2\35\u00e0\3\2\2\2"+
+		"\37\u00e5\3\2\2\2!\u00ec\3\2\2\2#\u00f6\3\2\2\2%\u00fc\3\2\2\2\'\u0105"+
+		"\3\2\2\2)\u010b\3\2\2\2+\u0114\3\2\2\2-\u011d\3\2\2\2/\u0127\3\2\2\2\61"+
+		"\u012e\3\2\2\2\63\u0135\3\2\2\2\65\u013a\3\2\2\2\67\u013e\3\2\2\29\u0142"+
+		"\3\2\2\2;\u0144\3\2\2\2=\u0150\3\2\2\2?\u015c\3\2\2\2A\u0169\3\2\2\2C"+
+		"\u0175\3\2\2\2E\u017a\3\2\2\2G\u017f\3\2\2\2I\u0184\3\2\2\2K\u018f\3\2"+
+		"\2\2M\u0194\3\2\2\2O\u0199\3\2\2\2Q\u019c\3\2\2\2S\u01a1\3\2\2\2U\u01a6"+
+		"\3\2\2\2W\u01ac\3\2\2\2Y\u01af\3\2\2\2[\u01b7\3\2\2\2]\u01ba\3\2\2\2_"+
+		"\u01bc\3\2\2\2a\u01be\3\2\2\2c\u01c0\3\2\2\2e\u01c2\3\2\2\2g\u01c5\3\2"+
+		"\2\2i\u01c8\3\2\2\2k\u01ca\3\2\2\2m\u01cc\3\2\2\2o\u01cf\3\2\2\2q\u01d2"+
+		"\3\2\2\2s\u01d5\3\2\2\2u\u01da\3\2\2\2w\u01dc\3\2\2\2y\u01e4\3\2\2\2{"+
+		"\u01ed\3\2\2\2}\u01f8\3\2\2\2\177\u01fa\3\2\2\2\u0081\u01fc\3\2\2\2\u0083"+
+		"\u01fe\3\2\2\2\u0085\u0200\3\2\2\2\u0087\u0202\3\2\2\2\u0089\u0204\3\2"+
+		"\2\2\u008b\u0206\3\2\2\2\u008d\u0208\3\2\2\2\u008f\u020a\3\2\2\2\u0091"+
+		"\u020d\3\2\2\2\u0093\u0213\3\2\2\2\u0095\u0224\3\2\2\2\u0097\u0098\7u"+
+		"\2\2\u0098\u0099\7g\2\2\u0099\u009a\7n\2\2\u009a\u009b\7h\2\2\u009b\4"+
+		"\3\2\2\2\u009c\u009d\7v\2\2\u009d\u009e\7t\2\2\u009e\u009f\7w\2\2\u009f"+
+		"\u00a0\7g\2\2\u00a0\6\3\2\2\2\u00a1\u00a2\7h\2\2\u00a2\u00a3\7c\2\2\u00a3"+
+		"\u00a4\7n\2\2\u00a4\u00a5\7u\2\2\u00a5\u00a6\7g\2\2\u00a6\b\3\2\2\2\u00a7"+
+		"\u00a8\7p\2\2\u00a8\u00a9\7w\2\2\u00a9\u00aa\7n\2\2\u00aa\u00ab\7n\2\2"+
+		"\u00ab\n\3\2\2\2\u00ac\u00ad\7r\2\2\u00ad\u00ae\7t\2\2\u00ae\u00af\7k"+
+		"\2\2\u00af\u00b0\7p\2\2\u00b0\u00b1\7v\2\2\u00b1\f\3\2\2\2\u00b2\u00b3"+
+		"\7d\2\2\u00b3\u00b4\7q\2\2\u00b4\u00b5\7q\2\2\u00b5\u00b6\7n\2\2\u00b6"+
+		"\16\3\2\2\2\u00b7\u00b8\7f\2\2\u00b8\u00b9\7q\2\2\u00b9\u00ba\7w\2\2\u00ba"+
+		"\u00bb\7d\2\2\u00bb\u00bc\7n\2\2\u00bc\u00bd\7g\2\2\u00bd\20\3\2\2\2\u00be"+
+		"\u00bf\7g\2\2\u00bf\u00c0\7p\2\2\u00c0\u00c1\7v\2\2\u00c1\u00c2\7k\2\2"+
+		"\u00c2\u00c3\7v\2\2\u00c3\u00c4\7{\2\2\u00c4\22\3\2\2\2\u00c5\u00c6\7"+
+		"y\2\2\u00c6\u00c7\7q\2\2\u00c7\u00c8\7t\2\2\u00c8\u00c9\7o\2\2\u00c9\24"+
+		"\3\2\2\2\u00ca\u00cb\7h\2\2\u00cb\u00cc\7q\2\2\u00cc\u00cd\7q\2\2\u00cd"+
+		"\u00ce\7f\2\2\u00ce\26\3\2\2\2\u00cf\u00d0\7v\2\2\u00d0\u00d1\7g\2\2\u00d1"+
+		"\u00d2\7t\2\2\u00d2\u00d3\7t\2\2\u00d3\u00d4\7c\2\2\u00d4\u00d5\7k\2\2"+
+		"\u00d5\u00d6\7p\2\2\u00d6\30\3\2\2\2\u00d7\u00d8\7c\2\2\u00d8\u00d9\7"+
+		"p\2\2\u00d9\u00da\7{\2\2\u00da\32\3\2\2\2\u00db\u00dc\7i\2\2\u00dc\u00dd"+
+		"\7g\2\2\u00dd\u00de\7v\2\2\u00de\u00df\7z\2\2\u00df\34\3\2\2\2\u00e0\u00e1"+
+		"\7i\2\2\u00e1\u00e2\7g\2\2\u00e2\u00e3\7v\2\2\u00e3\u00e4\7{\2\2\u00e4"+
+		"\36\3\2\2\2\u00e5\u00e6\7i\2\2\u00e6\u00e7\7g\2\2\u00e7\u00e8\7v\2\2\u00e8"+
+		"\u00e9\7f\2\2\u00e9\u00ea\7k\2\2\u00ea\u00eb\7t\2\2\u00eb \3\2\2\2\u00ec"+
+		"\u00ed\7i\2\2\u00ed\u00ee\7g\2\2\u00ee\u00ef\7v\2\2\u00ef\u00f0\7t\2\2"+
+		"\u00f0\u00f1\7c\2\2\u00f1\u00f2\7f\2\2\u00f2\u00f3\7k\2\2\u00f3\u00f4"+
+		"\7w\2\2\u00f4\u00f5\7u\2\2\u00f5\"\3\2\2\2\u00f6\u00f7\7i\2\2\u00f7\u00f8"+
+		"\7g\2\2\u00f8\u00f9\7v\2\2\u00f9\u00fa\7c\2\2\u00fa\u00fb\7r\2\2\u00fb"+
+		"$\3\2\2\2\u00fc\u00fd\7i\2\2\u00fd\u00fe\7g\2\2\u00fe\u00ff\7v\2\2\u00ff"+
+		"\u0100\7o\2\2\u0100\u0101\7c\2\2\u0101\u0102\7z\2\2\u0102\u0103\7c\2\2"+
+		"\u0103\u0104\7r\2\2\u0104&\3\2\2\2\u0105\u0106\7i\2\2\u0106\u0107\7g\2"+
+		"\2\u0107\u0108\7v\2\2\u0108\u0109\7j\2\2\u0109\u010a\7r\2\2\u010a(\3\2"+
+		"\2\2\u010b\u010c\7i\2\2\u010c\u010d\7g\2\2\u010d\u010e\7v\2\2\u010e\u010f"+
+		"\7o\2\2\u010f\u0110\7c\2\2\u0110\u0111\7z\2\2\u0111\u0112\7j\2\2\u0112"+
+		"\u0113\7r\2\2\u0113*\3\2\2\2\u0114\u0115\7u\2\2\u0115\u0116\7c\2\2\u0116"+
+		"\u0117\7o\2\2\u0117\u0118\7g\2\2\u0118\u0119\7v\2\2\u0119\u011a\7g\2\2"+
+		"\u011a\u011b\7c\2\2\u011b\u011c\7o\2\2\u011c,\3\2\2\2\u011d\u011e\7u\2"+
+		"\2\u011e\u011f\7g\2\2\u011f\u0120\7c\2\2\u0120\u0121\7t\2\2\u0121\u0122"+
+		"\7e\2\2\u0122\u0123\7j\2\2\u0123\u0124\7q\2\2\u0124\u0125\7d\2\2\u0125"+
+		"\u0126\7l\2\2\u0126.\3\2\2\2\u0127\u0128\7k\2\2\u0128\u0129\7u\2\2\u0129"+
+		"\u012a\7y\2\2\u012a\u012b\7q\2\2\u012b\u012c\7t\2\2\u012c\u012d\7o\2\2"+
+		"\u012d\60\3\2\2\2\u012e\u012f\7k\2\2\u012f\u0130\7u\2\2\u0130\u0131\7"+
+		"h\2\2\u0131\u0132\7q\2\2\u0132\u0133\7q\2\2\u0133\u0134\7f\2\2\u0134\62"+
+		"\3\2\2\2\u0135\u0136\7u\2\2\u0136\u0137\7s\2\2\u0137\u0138\7t\2\2\u0138"+
+		"\u0139\7v\2\2\u0139\64\3\2\2\2\u013a\u013b\7u\2\2\u013b\u013c\7k\2\2\u013c"+
+		"\u013d\7p\2\2\u013d\66\3\2\2\2\u013e\u013f\7e\2\2\u013f\u0140\7q\2\2\u0140"+
+		"\u0141\7u\2\2\u01418\3\2\2\2\u0142\u0143\7#\2\2\u0143:\3\2\2\2\u0144\u0145"+
+		"\7p\2\2\u0145\u0146\7g\2\2\u0146\u0147\7c\2\2\u0147\u0148\7t\2\2\u0148"+
+		"\u0149\7g\2\2\u0149\u014a\7u\2\2\u014a\u014b\7v\2\2\u014b\u014c\7y\2\2"+
+		"\u014c\u014d\7q\2\2\u014d\u014e\7t\2\2\u014e\u014f\7o\2\2\u014f<\3\2\2"+
+		"\2\u0150\u0151\7p\2\2\u0151\u0152\7g\2\2\u0152\u0153\7c\2\2\u0153\u0154"+
+		"\7t\2\2\u0154\u0155\7g\2\2\u0155\u0156\7u\2\2\u0156\u0157\7v\2\2\u0157"+
+		"\u0158\7h\2\2\u0158\u0159\7q\2\2\u0159\u015a\7q\2\2\u015a\u015b\7f\2\2"+
+		"\u015b>\3\2\2\2\u015c\u015d\7p\2\2\u015d\u015e\7g\2\2\u015e\u015f\7c\2"+
+		"\2\u015f\u0160\7t\2\2\u0160\u0161\7g\2\2\u0161\u0162\7u\2\2\u0162\u0163"+
+		"\7v\2\2\u0163\u0164\7g\2\2\u0164\u0165\7p\2\2\u0165\u0166\7g\2\2\u0166"+
+		"\u0167\7o\2\2\u0167\u0168\7{\2\2\u0168@\3\2\2\2\u0169\u016a\7e\2\2\u016a"+
+		"\u016b\7q\2\2\u016b\u016c\7w\2\2\u016c\u016d\7p\2\2\u016d\u016e\7v\2\2"+
+		"\u016e\u016f\7y\2\2\u016f\u0170\7k\2\2\u0170\u0171\7v\2\2\u0171\u0172"+
+		"\7j\2\2\u0172\u0173\7k\2\2\u0173\u0174\7p\2\2\u0174B\3\2\2\2\u0175\u0176"+
+		"\7v\2\2\u0176\u0177\7w\2\2\u0177\u0178\7t\2\2\u0178\u0179\7p\2\2\u0179"+
+		"D\3\2\2\2\u017a\u017b\7o\2\2\u017b\u017c\7q\2\2\u017c\u017d\7x\2\2\u017d"+
+		"\u017e\7g\2\2\u017eF\3\2\2\2\u017f\u0180\7l\2\2\u0180\u0181\7w\2\2\u0181"+
+		"\u0182\7o\2\2\u0182\u0183\7r\2\2\u0183H\3\2\2\2\u0184\u0185\7v\2\2\u0185"+
+		"\u0186\7q\2\2\u0186\u0187\7i\2\2\u0187\u0188\7i\2\2\u0188\u0189\7n\2\2"+
+		"\u0189\u018a\7g\2\2\u018a\u018b\7y\2\2\u018b\u018c\7g\2\2\u018c\u018d"+
+		"\7c\2\2\u018d\u018e\7r\2\2\u018eJ\3\2\2\2\u018f\u0190\7h\2\2\u0190\u0191"+
+		"\7k\2\2\u0191\u0192\7t\2\2\u0192\u0193\7g\2\2\u0193L\3\2\2\2\u0194\u0195"+
+		"\7u\2\2\u0195\u0196\7m\2\2\u0196\u0197\7k\2\2\u0197\u0198\7r\2\2\u0198"+
+		"N\3\2\2\2\u0199\u019a\7k\2\2\u019a\u019b\7h\2\2\u019bP\3\2\2\2\u019c\u019d"+
+		"\7v\2\2\u019d\u019e\7j\2\2\u019e\u019f\7g\2\2\u019f\u01a0\7p\2\2\u01a0"+
+		"R\3\2\2\2\u01a1\u01a2\7g\2\2\u01a2\u01a3\7n\2\2\u01a3\u01a4\7u\2\2\u01a4"+
+		"\u01a5\7g\2\2\u01a5T\3\2\2\2\u01a6\u01a7\7y\2\2\u01a7\u01a8\7j\2\2\u01a8"+
+		"\u01a9\7k\2\2\u01a9\u01aa\7n\2\2\u01aa\u01ab\7g\2\2\u01abV\3\2\2\2\u01ac"+
+		"\u01ad\7f\2\2\u01ad\u01ae\7q\2\2\u01aeX\3\2\2\2\u01af\u01b0\7h\2\2\u01b0"+
+		"\u01b1\7q\2\2\u01b1\u01b2\7t\2\2\u01b2\u01b3\7g\2\2\u01b3\u01b4\7c\2\2"+
+		"\u01b4\u01b5\7e\2\2\u01b5\u01b6\7j\2\2\u01b6Z\3\2\2\2\u01b7\u01b8\7<\2"+
+		"\2\u01b8\u01b9\7?\2\2\u01b9\\\3\2\2\2\u01ba\u01bb\7,\2\2\u01bb^\3\2\2"+
+		"\2\u01bc\u01bd\7\61\2\2\u01bd`\3\2\2\2\u01be\u01bf\7-\2\2\u01bfb\3\2\2"+
+		"\2\u01c0\u01c1\7/\2\2\u01c1d\3\2\2\2\u01c2\u01c3\7?\2\2\u01c3\u01c4\7"+
+		"?\2\2\u01c4f\3\2\2\2\u01c5\u01c6\7#\2\2\u01c6\u01c7\7?\2\2\u01c7h\3\2"+
+		"\2\2\u01c8\u01c9\7>\2\2\u01c9j\3\2\2\2\u01ca\u01cb\7@\2\2\u01cbl\3\2\2"+
+		"\2\u01cc\u01cd\7>\2\2\u01cd\u01ce\7?\2\2\u01cen\3\2\2\2\u01cf\u01d0\7"+
+		"@\2\2\u01d0\u01d1\7?\2\2\u01d1p\3\2\2\2\u01d2\u01d3\7(\2\2\u01d3\u01d4"+
+		"\7(\2\2\u01d4r\3\2\2\2\u01d5\u01d6\7~\2\2\u01d6\u01d7\7~\2\2\u01d7t\3"+
+		"\2\2\2\u01d8\u01db\5y=\2\u01d9\u01db\5w<\2\u01da\u01d8\3\2\2\2\u01da\u01d9"+
+		"\3\2\2\2\u01dbv\3\2\2\2\u01dc\u01dd\5y=\2\u01dd\u01df\7\60\2\2\u01de\u01e0"+
+		"\4\62;\2\u01df\u01de\3\2\2\2\u01e0\u01e1\3\2\2\2\u01e1\u01df\3\2\2\2\u01e1"+
+		"\u01e2\3\2\2\2\u01e2x\3\2\2\2\u01e3\u01e5\t\2\2\2\u01e4\u01e3\3\2\2\2"+
+		"\u01e4\u01e5\3\2\2\2\u01e5\u01e6\3\2\2\2\u01e6\u01ea\4\62;\2\u01e7\u01e9"+
+		"\4\62;\2\u01e8\u01e7\3\2\2\2\u01e9\u01ec\3\2\2\2\u01ea\u01e8\3\2\2\2\u01ea"+
+		"\u01eb\3\2\2\2\u01ebz\3\2\2\2\u01ec\u01ea\3\2\2\2\u01ed\u01f3\5}?\2\u01ee"+
+		"\u01f2\5}?\2\u01ef\u01f2\5\u0083B\2\u01f0\u01f2\7a\2\2\u01f1\u01ee\3\2"+
+		"\2\2\u01f1\u01ef\3\2\2\2\u01f1\u01f0\3\2\2\2\u01f2\u01f5\3\2\2\2\u01f3"+
+		"\u01f1\3\2\2\2\u01f3\u01f4\3\2\2\2\u01f4|\3\2\2\2\u01f5\u01f3\3\2\2\2"+
+		"\u01f6\u01f9\5\177@\2\u01f7\u01f9\5\u0081A\2\u01f8\u01f6\3\2\2\2\u01f8"+
+		"\u01f7\3\2\2\2\u01f9~\3\2\2\2\u01fa\u01fb\4c|\2\u01fb\u0080\3\2\2\2\u01fc"+
+		"\u01fd\4C\\\2\u01fd\u0082\3\2\2\2\u01fe\u01ff\4\62;\2\u01ff\u0084\3\2"+
+		"\2\2\u0200\u0201\7*\2\2\u0201\u0086\3\2\2\2\u0202\u0203\7+\2\2\u0203\u0088"+
+		"\3\2\2\2\u0204\u0205\7}\2\2\u0205\u008a\3\2\2\2\u0206\u0207\7\177\2\2"+
+		"\u0207\u008c\3\2\2\2\u0208\u0209\7=\2\2\u0209\u008e\3\2\2\2\u020a\u020b"+
+		"\7.\2\2\u020b\u0090\3\2\2\2\u020c\u020e\t\3\2\2\u020d\u020c\3\2\2\2\u020e"+
+		"\u020f\3\2\2\2\u020f\u020d\3\2\2\2\u020f\u0210\3\2\2\2\u0210\u0211\3\2"+
+		"\2\2\u0211\u0212\bI\2\2\u0212\u0092\3\2\2\2\u0213\u0214\7\61\2\2\u0214"+
+		"\u0215\7\61\2\2\u0215\u0219\3\2\2\2\u0216\u0218\n\4\2\2\u0217\u0216\3"+
+		"\2\2\2\u0218\u021b\3\2\2\2\u0219\u0217\3\2\2\2\u0219\u021a\3\2\2\2\u021a"+
+		"\u021c\3\2\2\2\u021b\u0219\3\2\2\2\u021c\u021d\5\u0095K\2\u021d\u021e"+
+		"\3\2\2\2\u021e\u021f\bJ\2\2\u021f\u0094\3\2\2\2\u0220\u0222\7\17\2\2\u0221"+
+		"\u0220\3\2\2\2\u0221\u0222\3\2\2\2\u0222\u0223\3\2\2\2\u0223\u0225\7\f"+
+		"\2\2\u0224\u0221\3\2\2\2\u0225\u0226\3\2\2\2\u0226\u0224\3\2\2\2\u0226"+
+		"\u0227\3\2\2\2\u0227\u0096\3\2\2\2\16\2\u01da\u01e1\u01e4\u01ea\u01f1"+
+		"\u01f3\u01f8\u020f\u0219\u0221\u0226\3\b\2\2";
 	public static final ATN _ATN =
 		new ATNDeserializer().deserialize(_serializedATN.toCharArray());
 	static {
@@ -236,20 +236,51 @@ public class WormsParserMyListener<E, S, T> implements WormsParserListener {
 			return null;
 		int line = ctx.getStart().getLine();
 		int column = ctx.getStart().getCharPositionInLine();
+		ProgramFactory.ForeachType type = ForeachTypeOfEntityspec(ctx.entityspec());
+
+		return (factory.createForeach(line, column, type, ctx.IDENTIFIER()
+				.getText(), StatementOfEval(ctx.eval())));
+	}
+
+	private ProgramFactory.ForeachType ForeachTypeOfEntityspec(
+			WormsParserParser.EntityspecContext spec) {
 		ProgramFactory.ForeachType type = null;
-		if (ctx.entityspec().ANY() != null) {
+		if (spec.ANY() != null) {
 			type = ProgramFactory.ForeachType.ANY;
 		}
-		if (ctx.entityspec().WORM() != null) {
+		if (spec.WORM() != null) {
 			type = ProgramFactory.ForeachType.WORM;
 		}
-		if (ctx.entityspec().FOOD() != null) {
+		if (spec.FOOD() != null) {
 			type = ProgramFactory.ForeachType.FOOD;
 		}
 		assert (type != null);
+		return type;
+	}
 
-		return (factory.createForeach(line, column, type, ctx.IDENTIFIER()
-				.getText(), StatementOfEval(ctx.eval())));
+	private E ExpressionOfQuery(WormsParserParser.QueryContext query) {
+		if (query == null)
+			return null;
+		int line = query.getStart().getLine();
+		int column = query.getStart().getCharPositionInLine();
+
+		if (query.NEARESTWORM() != null) {
+			return (factory.createNearestWorm(line, column));
+		}
+		if (query.NEARESTFOOD() != null) {
+			return (factory.createNearestFood(line, column));
+		}
+		if (query.NEARESTENEMY() != null) {
+			return (factory.createNearestEnemy(line, column));
+		}
+		if (query.COUNTWITHIN() != null) {
+			return (factory.createCountWithin(line, column,
+					ForeachTypeOfEntityspec(query.entityspec()),
+					ExpressionOfExpr(query.expr())));
+		}
+
+		assert (false);
+		return (null);
 	}
 
 	private E ExpressionOfNamedConst(WormsParserParser.NamedconstContext naconst) {
@@ -445,6 +476,9 @@ public class WormsParserMyListener<E, S, T> implements WormsParserListener {
 			if (expr.unop() != null) {
 				return (ExpressionOfUnop(expr.unop()));
 			}
+			if (expr.query() != null) {
+				return (ExpressionOfQuery(expr.query()));
+			}
 			break;
 		}
 		case 1: {
@@ -527,6 +561,14 @@ public class WormsParserMyListener<E, S, T> implements WormsParserListener {
 	public void exitUnop(WormsParserParser.UnopContext ctx) {
 	}
 
+	@Override
+	public void enterQuery(WormsParserParser.QueryContext ctx) {
+	}
+
+	@Override
+	public void exitQuery(WormsParserParser.QueryContext ctx) {
+	}
+
 	@Override
 	public void enterEval(WormsParserParser.EvalContext ctx) {
 		if (!evalVisited) {
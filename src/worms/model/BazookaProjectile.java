@@ -41,4 +41,9 @@ public class BazookaProjectile extends Projectile {
 		return 80;
 	}
 
+	@Override
+	protected Projectile newProjectile(World world) throws NullPointerException{
+		return new BazookaProjectile(world, getPropulsionYield());
+	}
+
 }
@@ -0,0 +1,216 @@
+package worms.model;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Model;
+
+/**
+ * A class of distance fields over a terrain.
+ *
+ * For every cell of the terrain, a distance field stores the distance (in metres)
+ * between the centre of that cell and the centre of the nearest impassable cell.
+ * Those distances are exact Euclidean distances, computed with the linear-time
+ * algorithm of Felzenszwalb and Huttenlocher ("Distance Transforms of Sampled Functions").
+ *
+ * Because the centre of a circle can lie anywhere in its cell, the distance field
+ * only gives bounds on the distance between a circle and the impassable terrain.
+ * Those bounds are a cell diagonal apart, so they decide almost every query;
+ * the remaining ones have to be checked against the terrain itself.
+ *
+ * @invar	| getCellWidth() > 0 && getCellHeight() > 0
+ */
+public class DistanceField {
+
+	/**
+	 * Creates a new distance field for the given terrain with cells of the given size.
+	 *
+	 * @param terrain		The terrain to compute the distance field of.
+	 * @param cellWidth		The width of one cell of the terrain (in metres).
+	 * @param cellHeight	The height of one cell of the terrain (in metres).
+	 * @post	| new.getNbRows() == terrain.getNbRows() && new.getNbColumns() == terrain.getNbColumns()
+	 * @post	| new.getCellWidth() == cellWidth && new.getCellHeight() == cellHeight
+	 * @throws IllegalArgumentException
+	 * 			| terrain == null || !(cellWidth > 0) || !(cellHeight > 0)
+	 */
+	public DistanceField(Terrain terrain, double cellWidth, double cellHeight) throws IllegalArgumentException{
+		if(terrain == null || !(cellWidth > 0) || !(cellHeight > 0))
+			throw new IllegalArgumentException();
+		this.nbRows = terrain.getNbRows();
+		this.nbColumns = terrain.getNbColumns();
+		this.cellWidth = cellWidth;
+		this.cellHeight = cellHeight;
+		this.cellDiagonal = Math.sqrt(cellWidth*cellWidth + cellHeight*cellHeight);
+		this.distances = new float[nbRows * nbColumns];
+		computeDistances(terrain);
+	}
+
+	/**
+	 * Returns the number of rows of this distance field.
+	 */
+	@Basic @Immutable
+	public int getNbRows(){
+		return nbRows;
+	}
+
+	/**
+	 * Returns the number of columns of this distance field.
+	 */
+	@Basic @Immutable
+	public int getNbColumns(){
+		return nbColumns;
+	}
+
+	/**
+	 * Returns the width of a cell of this distance field (in metres).
+	 */
+	@Basic @Immutable
+	public double getCellWidth(){
+		return cellWidth;
+	}
+
+	/**
+	 * Returns the height of a cell of this distance field (in metres).
+	 */
+	@Basic @Immutable
+	public double getCellHeight(){
+		return cellHeight;
+	}
+
+	/**
+	 * Checks whether the given row and column denote a cell of this distance field.
+	 *
+	 * @return	| result == (0 <= row && row < getNbRows() && 0 <= column && column < getNbColumns())
+	 */
+	public boolean isValidCell(int row, int column){
+		return 0 <= row && row < nbRows && 0 <= column && column < nbColumns;
+	}
+
+	/**
+	 * Returns the distance (in metres) between the centre of the given cell
+	 * and the centre of the nearest impassable cell.
+	 *
+	 * @return	| if(there is no impassable cell) then result == Double.POSITIVE_INFINITY
+	 * @throws IndexOutOfBoundsException
+	 * 			| !isValidCell(row,column)
+	 */
+	public double getDistance(int row, int column) throws IndexOutOfBoundsException{
+		if(!isValidCell(row, column))
+			throw new IndexOutOfBoundsException();
+		return distances[row * nbColumns + column];
+	}
+
+	/**
+	 * Returns a lower bound on the distance between any point of the given cell
+	 * and the nearest impassable cell.
+	 *
+	 * @return	| if(Double.isInfinite(getDistance(row,column))) then result == getDistance(row,column)
+	 * 			| else result == max(0, getDistance(row,column) - (1 + TOLERANCE) * cellDiagonal - TOLERANCE * getDistance(row,column))
+	 * @throws IndexOutOfBoundsException
+	 * 			| !isValidCell(row,column)
+	 */
+	public double getLowerBound(int row, int column) throws IndexOutOfBoundsException{
+		double distance = getDistance(row, column);
+		if(Double.isInfinite(distance))
+			return distance;
+		return Math.max(0, distance - (1 + TOLERANCE) * cellDiagonal - TOLERANCE * distance);
+	}
+
+	/**
+	 * Returns an upper bound on the distance between any point of the given cell
+	 * and the nearest impassable cell.
+	 *
+	 * @return	| result == getDistance(row,column) + (0.5 + TOLERANCE) * cellDiagonal + TOLERANCE * getDistance(row,column)
+	 * @throws IndexOutOfBoundsException
+	 * 			| !isValidCell(row,column)
+	 */
+	public double getUpperBound(int row, int column) throws IndexOutOfBoundsException{
+		double distance = getDistance(row, column);
+		return distance + (0.5 + TOLERANCE) * cellDiagonal + TOLERANCE * distance;
+	}
+
+	/**
+	 * Covers rounding errors in the distances (they're stored as floats)
+	 * and in the rasterisation of World.isPassablePosition.
+	 */
+	private static final double TOLERANCE = 1e-5;
+
+	/**
+	 * Computes the distances in two passes:
+	 * first the (vertical) distance to the nearest impassable cell in the same column,
+	 * then the lower envelope of the parabolas through those distances for every row.
+	 */
+	@Model
+	private void computeDistances(Terrain terrain){
+		float infinity = Float.POSITIVE_INFINITY;
+		for (int column = 0; column < nbColumns; column++) {
+			float last = infinity;
+			for (int row = 0; row < nbRows; row++) {
+				last = terrain.isPassable(row, column) ? last + 1 : 0;
+				distances[row * nbColumns + column] = last;
+			}
+			last = infinity;
+			for (int row = nbRows - 1; row >= 0; row--) {
+				last = terrain.isPassable(row, column) ? last + 1 : 0;
+				if(last < distances[row * nbColumns + column])
+					distances[row * nbColumns + column] = last;
+			}
+		}
+
+		double[] squared = new double[nbColumns];
+		double[] result = new double[nbColumns];
+		int[] vertices = new int[nbColumns];
+		double[] boundaries = new double[nbColumns + 1];
+		double weight = cellWidth * cellWidth;
+		for (int row = 0; row < nbRows; row++) {
+			int offset = row * nbColumns;
+			for (int column = 0; column < nbColumns; column++) {
+				double vertical = distances[offset + column] * cellHeight;
+				squared[column] = vertical * vertical;
+			}
+			lowerEnvelope(squared, result, vertices, boundaries, weight);
+			for (int column = 0; column < nbColumns; column++)
+				distances[offset + column] = (float) Math.sqrt(result[column]);
+		}
+	}
+
+	/**
+	 * Computes result[p] = min over q of (f[q] + weight*(p-q)^2), skipping infinite f[q].
+	 */
+	private static void lowerEnvelope(double[] f, double[] result, int[] vertices, double[] boundaries, double weight){
+		int n = f.length;
+		int k = -1;
+		for (int q = 0; q < n; q++) {
+			if(Double.isInfinite(f[q]))
+				continue;
+			double s = Double.NEGATIVE_INFINITY;
+			while(k >= 0){
+				int v = vertices[k];
+				s = ((f[q] + weight*q*q) - (f[v] + weight*v*v)) / (2*weight*(q - v));
+				if(s > boundaries[k])
+					break;
+				k--;
+			}
+			k++;
+			vertices[k] = q;
+			boundaries[k] = (k == 0) ? Double.NEGATIVE_INFINITY : s;
+			boundaries[k+1] = Double.POSITIVE_INFINITY;
+		}
+		if(k < 0){
+			for (int p = 0; p < n; p++)
+				result[p] = Double.POSITIVE_INFINITY;
+			return;
+		}
+		int j = 0;
+		for (int p = 0; p < n; p++) {
+			while(boundaries[j+1] < p)
+				j++;
+			int v = vertices[j];
+			result[p] = weight*(p-v)*(p-v) + f[v];
+		}
+	}
+
+	private final int nbRows, nbColumns;
+	private final double cellWidth, cellHeight;
+	private final double cellDiagonal;
+	private final float[] distances;
+}
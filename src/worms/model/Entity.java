@@ -1,6 +1,7 @@
 package worms.model;
 
 import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Model;
 import be.kuleuven.cs.som.annotate.Raw;
 import static java.lang.Math.pow;
 
@@ -39,6 +40,8 @@ public abstract class Entity {
 	 * @param position	The new position to set.
 	 * @post	The new position equals the given position.
 	 * 			| new.getPosition().equals(position)
+	 * @effect	| stateChanged()
+	 * @effect	| extentChanged()
 	 * @throws IllegalArgumentException
 	 * 			Thrown when the given position isn't a valid position.
 	 * 			| !Position.isValidPosition(position)
@@ -48,6 +51,8 @@ public abstract class Entity {
 		if(!Position.isValidPosition(position))
 			throw new IllegalArgumentException();
 		this.position = position;
+		stateChanged();
+		extentChanged();
 	}
 	
 	/**
@@ -247,6 +252,28 @@ public abstract class Entity {
 	
 	private World world = null;
 	
+	/**
+	 * Registers a change of the state of this entity with its world.
+	 * 
+	 * @effect	| if(hasWorld()) then getWorld().registerChange()
+	 */
+	@Raw @Model
+	protected void stateChanged(){
+		if(world != null)
+			world.registerChange();
+	}
+	
+	/**
+	 * Lets the world of this entity know that the position or the radius of this entity has changed.
+	 * 
+	 * @effect	| if(getWorld() != null) then getWorld().relocateEntity(this)
+	 */
+	@Raw @Model
+	protected void extentChanged(){
+		if(world != null)
+			world.relocateEntity(this);
+	}
+	
 	/**
 	 * Returns a hash value for this entity.
 	 * Equal entities have equal hash values.
@@ -0,0 +1,294 @@
+package worms.model;
+
+import static java.lang.Math.floor;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Model;
+
+/**
+ * A class of uniform grids of entities, used by a world to find the entities near a position
+ * without looking at all of its entities.
+ *
+ * The grid covers the rectangle of the world with square cells. Every entity is registered in
+ * the cell that contains its center, or in a separate list if its center lies outside the world.
+ * A query for a region looks at the cells of that region, extended with the largest radius
+ * of an entity in the grid, and at the entities outside the world.
+ *
+ * @invar	| getCellSize() > 0
+ */
+class EntityGrid {
+
+	/**
+	 * Creates a new empty grid for a world with the given width and height.
+	 *
+	 * @param width		The width of the world (in metres).
+	 * @param height	The height of the world (in metres).
+	 * @post	The cells are at least MIN_CELL_SIZE wide, and there are at most about MAX_NB_CELLS of them.
+	 * 			| new.getCellSize() >= MIN_CELL_SIZE
+	 */
+	EntityGrid(double width, double height){
+		double cellSize = max(MIN_CELL_SIZE, Math.sqrt(width/MAX_NB_CELLS*height));
+		this.nbColumns = getNbCells(width, cellSize);
+		this.nbRows = getNbCells(height, cellSize);
+		this.cellSize = cellSize;
+		@SuppressWarnings("unchecked")
+		List<Entity>[] cells = (List<Entity>[]) new List<?>[nbColumns*nbRows];
+		this.cells = cells;
+	}
+
+	private static int getNbCells(double length, double cellSize){
+		double nbCells = Math.ceil(length/cellSize);
+		if(!(nbCells >= 1))
+			return 1;
+		return (int)min(nbCells, MAX_NB_CELLS);
+	}
+
+	/**
+	 * The smallest length of the sides of a cell (in metres),
+	 * a few times the radius of a food ration or a small worm.
+	 */
+	static final double MIN_CELL_SIZE = 1;
+
+	/**
+	 * The number of cells of large worlds.
+	 */
+	static final int MAX_NB_CELLS = 1 << 16;
+
+	/**
+	 * Returns the length of the sides of a cell of this grid (in metres).
+	 */
+	@Basic @Immutable
+	double getCellSize(){
+		return cellSize;
+	}
+
+	/**
+	 * Checks whether the given entity is registered in this grid.
+	 */
+	boolean contains(Entity entity){
+		return cellOf.containsKey(entity);
+	}
+
+	/**
+	 * Registers the given entity in the cell of its current position,
+	 * or unregisters it if it has no position.
+	 *
+	 * @param entity	The entity to register.
+	 * @post	| new.contains(entity) == (entity.getPosition() != null)
+	 */
+	void update(Entity entity){
+		Position position = entity.getPosition();
+		if(position == null){
+			remove(entity);
+			return;
+		}
+		if(entity.getRadius() > maxRadius)
+			maxRadius = entity.getRadius();
+		int cell = getCell(getColumn(position.getX()), getRow(position.getY()));
+		Integer oldCell = cellOf.get(entity);
+		if(oldCell != null && oldCell == cell)
+			return;
+		if(oldCell != null)
+			getEntities(oldCell).remove(entity);
+		getEntities(cell).add(entity);
+		cellOf.put(entity, cell);
+	}
+
+	/**
+	 * Unregisters the given entity.
+	 *
+	 * @param entity	The entity to unregister.
+	 * @post	| !new.contains(entity)
+	 */
+	void remove(Entity entity){
+		Integer cell = cellOf.remove(entity);
+		if(cell != null)
+			getEntities(cell).remove(entity);
+	}
+
+	/**
+	 * Unregisters all entities.
+	 *
+	 * @post	| for each entity in Entity: !new.contains(entity)
+	 */
+	void clear(){
+		for (int cell = 0; cell < cells.length; cell++)
+			cells[cell] = null;
+		outside.clear();
+		cellOf.clear();
+		maxRadius = 0;
+	}
+
+	/**
+	 * Returns the entities of the given type in this grid that overlap with the given circle.
+	 *
+	 * @param type		The type of the entities to return.
+	 * @param pos		The center of the circle.
+	 * @param radius	The radius of the circle.
+	 * @return	| for each entity in Entity:
+	 * 			|	result.contains(entity) == (contains(entity) && type.isInstance(entity) && entity.collidesWith(pos, radius))
+	 */
+	<T extends Entity> List<T> getOverlapping(Class<T> type, Position pos, double radius){
+		List<T> result = new ArrayList<T>();
+		collectOverlapping(type, pos, radius, result);
+		return result;
+	}
+
+	/**
+	 * Checks whether an entity of the given type in this grid overlaps with the given circle.
+	 *
+	 * @param type		The type of the entities to check.
+	 * @param pos		The center of the circle.
+	 * @param radius	The radius of the circle.
+	 * @return	| result == !getOverlapping(type, pos, radius).isEmpty()
+	 */
+	boolean hasOverlapping(Class<? extends Entity> type, Position pos, double radius){
+		return collectOverlapping(type, pos, radius, null);
+	}
+
+	/**
+	 * Returns the entities of the given type in this grid whose center lies in the given rectangle.
+	 *
+	 * @param type	The type of the entities to return.
+	 * @return	| for each entity in Entity:
+	 * 			|	result.contains(entity) == (contains(entity) && type.isInstance(entity)
+	 * 			|		&& minX <= entity.getXCoordinate() && entity.getXCoordinate() <= maxX
+	 * 			|		&& minY <= entity.getYCoordinate() && entity.getYCoordinate() <= maxY)
+	 */
+	<T extends Entity> List<T> getInRectangle(Class<T> type, double minX, double minY, double maxX, double maxY){
+		List<T> result = new ArrayList<T>();
+		int minColumn = getColumn(minX), maxColumn = getColumn(maxX);
+		int minRow = getRow(minY), maxRow = getRow(maxY);
+		for (int column = max(minColumn, 0); column <= min(maxColumn, nbColumns - 1); column++) {
+			for (int row = max(minRow, 0); row <= min(maxRow, nbRows - 1); row++) {
+				List<Entity> entities = cells[getCell(column, row)];
+				if(entities != null)
+					collectInRectangle(entities, type, minX, minY, maxX, maxY, result);
+			}
+		}
+		collectInRectangle(outside, type, minX, minY, maxX, maxY, result);
+		return result;
+	}
+
+	private static <T extends Entity> void collectInRectangle(List<Entity> entities, Class<T> type,
+			double minX, double minY, double maxX, double maxY, List<T> result){
+		for (int i = 0; i < entities.size(); i++) {
+			Entity entity = entities.get(i);
+			if(!type.isInstance(entity))
+				continue;
+			Position position = entity.getPosition();
+			if(minX <= position.getX() && position.getX() <= maxX && minY <= position.getY() && position.getY() <= maxY)
+				result.add(type.cast(entity));
+		}
+	}
+
+	/**
+	 * Adds the entities of the given type that overlap with the given circle to the given list.
+	 * If the list is null, this method stops at the first such entity.
+	 *
+	 * @return	Whether an entity of the given type overlaps with the given circle.
+	 */
+	@Model
+	private <T extends Entity> boolean collectOverlapping(Class<T> type, Position pos, double radius, List<T> result){
+		double reach = radius + maxRadius;
+		int minColumn = getColumn(pos.getX() - reach), maxColumn = getColumn(pos.getX() + reach);
+		int minRow = getRow(pos.getY() - reach), maxRow = getRow(pos.getY() + reach);
+		boolean found = false;
+		for (int column = max(minColumn, 0); column <= min(maxColumn, nbColumns - 1); column++) {
+			for (int row = max(minRow, 0); row <= min(maxRow, nbRows - 1); row++) {
+				List<Entity> entities = cells[getCell(column, row)];
+				if(entities == null)
+					continue;
+				found |= collectOverlapping(entities, type, pos, radius, result);
+				if(found && result == null)
+					return true;
+			}
+		}
+		found |= collectOverlapping(outside, type, pos, radius, result);
+		return found;
+	}
+
+	private static <T extends Entity> boolean collectOverlapping(List<Entity> entities, Class<T> type, Position pos, double radius,
+			List<T> result){
+		boolean found = false;
+		for (int i = 0; i < entities.size(); i++) {
+			Entity entity = entities.get(i);
+			if(type.isInstance(entity) && entity.collidesWith(pos, radius)){
+				if(result == null)
+					return true;
+				result.add(type.cast(entity));
+				found = true;
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Returns the column of the cells with the given x-coordinate.
+	 * The result lies outside 0..nbColumns-1 for x-coordinates outside the world.
+	 */
+	private int getColumn(double x){
+		return (int)max(-1, min(nbColumns, floor(x/cellSize)));
+	}
+
+	/**
+	 * Returns the row of the cells with the given y-coordinate.
+	 * The result lies outside 0..nbRows-1 for y-coordinates outside the world.
+	 */
+	private int getRow(double y){
+		return (int)max(-1, min(nbRows, floor(y/cellSize)));
+	}
+
+	/**
+	 * Returns the index of the cell with the given column and row, or -1 if that cell lies outside the world.
+	 */
+	private int getCell(int column, int row){
+		if(column < 0 || column >= nbColumns || row < 0 || row >= nbRows)
+			return -1;
+		return row*nbColumns + column;
+	}
+
+	/**
+	 * Returns the list of entities in the cell with the given index.
+	 */
+	private List<Entity> getEntities(int cell){
+		if(cell < 0)
+			return outside;
+		if(cells[cell] == null)
+			cells[cell] = new ArrayList<Entity>(4);
+		return cells[cell];
+	}
+
+	private final double cellSize;
+
+	private final int nbColumns, nbRows;
+
+	/**
+	 * The largest radius of an entity ever registered in this grid.
+	 */
+	private double maxRadius = 0;
+
+	/**
+	 * The entities in every cell of this grid (by row, then column), or null for cells that never held an entity.
+	 */
+	private final List<Entity>[] cells;
+
+	/**
+	 * The entities whose center lies outside the world.
+	 */
+	private final List<Entity> outside = new ArrayList<Entity>();
+
+	/**
+	 * The index of the cell of every registered entity.
+	 * The hash code of an entity changes when it moves, so entities are compared by identity.
+	 */
+	private final Map<Entity, Integer> cellOf = new IdentityHashMap<Entity, Integer>();
+}
@@ -0,0 +1,186 @@
+package worms.model;
+
+import java.util.AbstractCollection;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Model;
+
+/**
+ * A class of read-only views of the entities of a given type in a world.
+ *
+ * A view doesn't copy the entities of its world: it always reflects the current
+ * worms, food rations and projectile of that world, in that order.
+ * Iterating over a view fails fast: an iterator of a view throws a
+ * ConcurrentModificationException as soon as an entity was added to or
+ * removed from the world after the iterator was created.
+ *
+ * @invar	| getWorld() != null && getType() != null
+ */
+public class EntityView<T extends Entity> extends AbstractCollection<T> {
+
+	/**
+	 * Creates a new view of the entities of the given type in the given world.
+	 *
+	 * @param world		The world to view.
+	 * @param type		The type of the entities to view.
+	 * @post	| new.getWorld() == world && new.getType() == type
+	 */
+	EntityView(World world, Class<T> type){
+		this.world = world;
+		this.type = type;
+	}
+
+	/**
+	 * Returns the world of this view.
+	 */
+	@Basic @Immutable
+	public World getWorld(){
+		return world;
+	}
+
+	private final World world;
+
+	/**
+	 * Returns the type of the entities in this view.
+	 */
+	@Basic @Immutable
+	public Class<T> getType(){
+		return type;
+	}
+
+	private final Class<T> type;
+
+	/**
+	 * Checks whether this view contains the given object.
+	 *
+	 * @return	| result == (getType().isInstance(object) && getWorld().hasAsEntity((Entity) object))
+	 */
+	@Override
+	public boolean contains(Object object){
+		return type.isInstance(object) && world.hasAsEntity((Entity) object);
+	}
+
+	/**
+	 * Returns the number of entities in this view.
+	 *
+	 * @return	| result == (number of entity in getWorld().getEntities() such that getType().isInstance(entity))
+	 */
+	@Override
+	public int size(){
+		if(type.isAssignableFrom(Worm.class) && type.isAssignableFrom(Food.class))
+			return world.getNbWorms() + world.getNbFoods() + (type.isInstance(world.getProjectile()) ? 1 : 0);
+		if(type == Worm.class)
+			return world.getNbWorms();
+		if(type == Food.class)
+			return world.getNbFoods();
+		int size = 0;
+		for (Iterator<T> iterator = iterator(); iterator.hasNext(); iterator.next())
+			size++;
+		return size;
+	}
+
+	/**
+	 * Returns an iterator over the entities in this view.
+	 * The iterator doesn't support removal.
+	 */
+	@Override
+	public Iterator<T> iterator(){
+		return new Iterator<T>(){
+
+			@Override
+			public boolean hasNext(){
+				checkForModification();
+				return findNext();
+			}
+
+			@Override
+			public T next(){
+				if(!hasNext())
+					throw new NoSuchElementException();
+				T result = next;
+				next = null;
+				return result;
+			}
+
+			/**
+			 * Looks for the next entity of the type of this view,
+			 * moving on to the next source of entities when the current one is exhausted.
+			 *
+			 * @return	Whether there is a next entity.
+			 */
+			@Model
+			private boolean findNext(){
+				while(next == null){
+					while(!source.hasNext()){
+						if(!nextSource())
+							return false;
+					}
+					Entity entity = source.next();
+					if(type.isInstance(entity))
+						next = type.cast(entity);
+				}
+				return true;
+			}
+
+			/**
+			 * Moves on to the next source of entities that may contain entities of the type of this view.
+			 *
+			 * @return	Whether there is such a source.
+			 */
+			private boolean nextSource(){
+				while(sourceIndex < 3){
+					Iterator<? extends Entity> next = getSource(sourceIndex++);
+					if(next != null){
+						source = next;
+						return true;
+					}
+				}
+				return false;
+			}
+
+			private void checkForModification(){
+				if(world.getModificationCount() != expectedModificationCount)
+					throw new ConcurrentModificationException();
+			}
+
+			private final int expectedModificationCount = world.getModificationCount();
+
+			private Iterator<? extends Entity> source = Collections.emptyIterator();
+
+			private int sourceIndex = 0;
+
+			private T next = null;
+		};
+	}
+
+	/**
+	 * Returns an iterator over the given source of entities of the world of this view
+	 * (0 for the worms, 1 for the food rations, 2 for the projectile), or null if that source
+	 * can't contain entities of the type of this view.
+	 */
+	@Model
+	private Iterator<? extends Entity> getSource(int index){
+		switch(index){
+		case 0:
+			return mayContain(Worm.class) ? world.iterateWorms() : null;
+		case 1:
+			return mayContain(Food.class) ? world.iterateFoods() : null;
+		default:
+			if(!mayContain(Projectile.class) || !world.hasProjectile())
+				return null;
+			return Collections.<Entity>singletonList(world.getProjectile()).iterator();
+		}
+	}
+
+	/**
+	 * Checks whether entities of the given class can be of the type of this view.
+	 */
+	private boolean mayContain(Class<? extends Entity> entityClass){
+		return type.isAssignableFrom(entityClass) || entityClass.isAssignableFrom(type);
+	}
+}
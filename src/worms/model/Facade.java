@@ -1,19 +1,154 @@
 package worms.model;
 
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.WeakHashMap;
 
 import worms.gui.game.IActionHandler;
 import worms.model.programs.ParseOutcome;
 import worms.model.programs.ProgramFactoryImpl;
 import worms.model.programs.ProgramParser;
 import worms.model.programs.expressions.Expression;
+import worms.model.programs.profiler.ProgramProfiler;
 import worms.model.programs.statements.Statement;
 import worms.model.programs.types.Type;
 import worms.util.ModuloUtil;
 
+/**
+ * A facade to the model of the game.
+ * 
+ * @note	A facade reuses one parser and a cache of parsed programs, so it must not be used by several threads
+ * 			at the same time. Worlds don't share mutable state, so games in worlds created through different facades
+ * 			can be played in parallel.
+ */
 public class Facade implements IFacade {
 
+	/**
+	 * Creates a new facade that interprets the programs it parses.
+	 */
+	public Facade() {
+		this(false);
+	}
+
+	/**
+	 * Creates a new facade that compiles the programs it parses to bytecode if the given flag is true,
+	 * and optimizes them.
+	 */
+	public Facade(boolean compilingPrograms) {
+		this(compilingPrograms, true);
+	}
+
+	/**
+	 * Creates a new facade that compiles the programs it parses to bytecode if the given compiling flag is true,
+	 * and optimizes them before they run if the given optimizing flag is true.
+	 */
+	public Facade(boolean compilingPrograms, boolean optimizingPrograms) {
+		this.compilingPrograms = compilingPrograms;
+		this.optimizingPrograms = optimizingPrograms;
+	}
+
+	private final boolean compilingPrograms;
+
+	private final boolean optimizingPrograms;
+
+	/**
+	 * Lets the programs this facade parses from now on profile themselves, so that writeProfiles(World)
+	 * can write the reports of the profiles of the programs of the worms this facade adds to a world
+	 * to the given directory. The profiles aren't written if the given directory is null.
+	 * 
+	 * For every worm with a profiled program, writeProfiles(World) writes a table of its hot spots to
+	 * <name>-<index>.hotspots.txt, and the self time of every stack of its statements and expressions
+	 * in the folded format of flame graphs to <name>-<index>.folded, where index is the number of worms
+	 * with a profiled program that were added to the same world before it.
+	 */
+	@Override
+	public void setProfileDirectory(File profileDirectory) {
+		this.profileDirectory = profileDirectory;
+	}
+
+	/**
+	 * Returns the directory this facade writes the profiles of programs to, or null if programs aren't profiled.
+	 */
+	public File getProfileDirectory() {
+		return profileDirectory;
+	}
+
+	private File profileDirectory = null;
+
+	/**
+	 * The names and profilers of the worms with a profiled program this facade added to every world
+	 * whose profiles haven't been written yet. A profiler doesn't refer to its worm or world,
+	 * so a world whose game is abandoned can still be garbage collected.
+	 */
+	private final Map<World, List<ProfiledWorm>> profiledWorms = new WeakHashMap<World, List<ProfiledWorm>>();
+
+	/**
+	 * The name of a worm with a profiled program and the profiler of that program.
+	 */
+	private static final class ProfiledWorm {
+
+		private ProfiledWorm(String name, ProgramProfiler profiler) {
+			this.name = name;
+			this.profiler = profiler;
+		}
+
+		private final String name;
+
+		private final ProgramProfiler profiler;
+	}
+
+	private void registerProfiledWorm(World world, Worm worm) {
+		if(worm == null || !worm.hasProgram() || !worm.getProgram().isProfiling())
+			return;
+		List<ProfiledWorm> worms = profiledWorms.get(world);
+		if(worms == null){
+			worms = new ArrayList<ProfiledWorm>();
+			profiledWorms.put(world, worms);
+		}
+		worms.add(new ProfiledWorm(worm.getName(), worm.getProgram().getProfiler()));
+	}
+
+	/**
+	 * Writes the profiles of the programs of the worms with a profiled program this facade added to the given world,
+	 * including the worms that died, to the profile directory of this facade, and forgets them.
+	 * Nothing is written if this facade has no profile directory.
+	 * 
+	 * @throws	ModelException
+	 * 			The profiles could not be written.
+	 */
+	@Override
+	public void writeProfiles(World world) throws ModelException {
+		List<ProfiledWorm> worms = profiledWorms.remove(world);
+		if(worms == null || getProfileDirectory() == null)
+			return;
+		try{
+			getProfileDirectory().mkdirs();
+			for(int i = 0; i < worms.size(); i++){
+				ProfiledWorm worm = worms.get(i);
+				String baseName = worm.name.replaceAll("[^A-Za-z0-9_-]", "_") + "-" + i;
+				try(Writer writer = new FileWriter(new File(getProfileDirectory(), baseName + ".hotspots.txt"))){
+					worm.profiler.writeHotSpots(writer);
+				}
+				try(Writer writer = new FileWriter(new File(getProfileDirectory(), baseName + ".folded"))){
+					worm.profiler.writeFoldedStacks(writer);
+				}
+			}
+		}catch(IOException e){
+			throw new ModelException(e);
+		}
+	}
+
 	@Override
 	public boolean canTurn(Worm worm, double angle) throws ModelException {
 		if (Worm.isValidTurningAngle(angle))
@@ -113,12 +248,18 @@ public class Facade implements IFacade {
 
 	@Override
 	public void addNewFood(World world) throws ModelException{
-		try{
-			world.addNewFood();
-		}catch(IllegalStateException e){
-			throw new ModelException(e);
+		boolean hasSucceeded = false;
+		int tries = 0;
+		while(!hasSucceeded){
+			try{
+				world.addNewFood();
+				hasSucceeded = true;
+			}catch(IllegalStateException e){
+				++tries;
+				if(tries == 10)
+					throw new ModelException(e);
+			}
 		}
-		
 	}
 
 	@Override
@@ -299,7 +440,12 @@ public class Facade implements IFacade {
 
 	@Override
 	public boolean isImpassable(World world, double x, double y, double radius) {
-		return (world.getLocationType(new Position(x, y), radius) == LocationType.IMPASSABLE);
+		return !world.isPassablePosition(new Position(x, y), radius);
+	}
+
+	@Override
+	public long getVersion(World world) {
+		return world.getVersion();
 	}
 
 	@Override
@@ -369,6 +515,7 @@ public class Facade implements IFacade {
 			try{
 				world.addNewWorm(program);
 				hasSucceeded = true;
+				registerProfiledWorm(world, world.getWormAt(world.getNbWorms() - 1));
 			}catch(IllegalStateException e){
 				++tries;
 				if(tries == 10)
@@ -384,7 +531,9 @@ public class Facade implements IFacade {
 		if(!Worm.isValidDirection(direction))
 			throw new ModelException("Not a valid direction.");
 		try {
-			return new Worm(world, x, y, direction, radius, name, null, program);
+			Worm worm = new Worm(world, x, y, direction, radius, name, null, program);
+			registerProfiledWorm(world, worm);
+			return worm;
 		} catch (IllegalArgumentException|NullPointerException|IllegalStateException e) {
 			throw new ModelException(e);
 		}
@@ -392,17 +541,71 @@ public class Facade implements IFacade {
 
 	@Override
 	public ParseOutcome<?> parseProgram(String programText, IActionHandler handler) {
-		//Errors aren't cleared in ProgramParser so clear them here.
-		ProgramParser<Expression<? extends Type<?>>, Statement, Type<?>> parser = new ProgramParser<Expression<? extends Type<?>>, Statement, Type<?>>(new ProgramFactoryImpl());
+		String key = getSourceHash(programText);
+		Program parsedProgram = parsedPrograms.get(key);
+		if(parsedProgram == null){
+			ParseOutcome<?> outcome = parse(programText);
+			if(!outcome.isSuccess())
+				return outcome;
+			parsedProgram = (Program) outcome.getResult();
+			parsedPrograms.put(key, parsedProgram);
+		}
+		Program program = parsedProgram.withActionHandler(handler);
+		if(getProfileDirectory() != null)
+			program.startProfiling();
+		return ParseOutcome.success(program);
+	}
+
+	/**
+	 * Parses the given program text into a program without an action handler.
+	 */
+	private ParseOutcome<?> parse(String programText) {
+		// Every program gets a factory of its own, since the factory keeps the variables and locations of the program.
+		ProgramFactoryImpl factory = new ProgramFactoryImpl(compilingPrograms, optimizingPrograms);
+		parser.setFactory(factory);
 		
 		parser.parse(programText);
 		
 		if(parser.getErrors().size() > 0)
-			return ParseOutcome.failure(parser.getErrors());
-		else
-			return ParseOutcome.success(new Program(parser.getStatement(), parser.getGlobals(), handler));
+			return ParseOutcome.failure(new ArrayList<String>(parser.getErrors()));
+		return ParseOutcome.success(factory.createProgram(parser.getStatement(), parser.getGlobals(), null));
 	}
 
+	/**
+	 * The parser of this facade, which reuses its lexer and parser for all the programs this facade parses.
+	 */
+	private final ProgramParser<Expression<?>, Statement, Type<?>> parser = new ProgramParser<Expression<?>, Statement, Type<?>>(null);
+
+	/**
+	 * Returns the number of different program texts this facade parsed successfully.
+	 */
+	public int getNbParsedPrograms() {
+		return parsedPrograms.size();
+	}
+
+	/**
+	 * Returns a hash of the content of the given program text.
+	 */
+	private static String getSourceHash(String programText) {
+		try{
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(programText.getBytes(StandardCharsets.UTF_8));
+			StringBuilder result = new StringBuilder();
+			for(byte b : digest)
+				result.append(String.format("%02x", b));
+			return result.toString();
+		}catch(NoSuchAlgorithmException e){
+			// Every Java platform supports SHA-256.
+			throw new AssertionError(e);
+		}
+	}
+
+	/**
+	 * The programs this facade parsed, by the hash of their text.
+	 * Parsed programs never run: parseProgram() returns a copy with its own state and action handler,
+	 * so all the worms with the same program text share the statements of a single parse.
+	 */
+	private final Map<String, Program> parsedPrograms = new HashMap<String, Program>();
+
 	@Override
 	public boolean hasProgram(Worm worm) {
 		return worm.hasProgram();
@@ -0,0 +1,104 @@
+package worms.model;
+
+import java.util.Arrays;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+
+/**
+ * A class of indexes of the ground below every cell of a terrain.
+ *
+ * For every column of the terrain, a ground index stores the runs of consecutive
+ * impassable cells (from top to bottom). That way, the first impassable cell below
+ * any cell is found by a binary search instead of by walking down the column.
+ *
+ * @invar	| getNbRows() >= 0 && getNbColumns() >= 0
+ */
+public class GroundIndex {
+
+	/**
+	 * Creates a new ground index for the given terrain.
+	 *
+	 * @param terrain	The terrain to index.
+	 * @post	| new.getNbRows() == terrain.getNbRows() && new.getNbColumns() == terrain.getNbColumns()
+	 * @throws IllegalArgumentException
+	 * 			| terrain == null
+	 */
+	public GroundIndex(Terrain terrain) throws IllegalArgumentException{
+		if(terrain == null)
+			throw new IllegalArgumentException();
+		this.nbRows = terrain.getNbRows();
+		this.nbColumns = terrain.getNbColumns();
+		this.runs = new int[nbColumns][];
+
+		int[] buffer = new int[nbRows + 1];
+		for (int column = 0; column < nbColumns; column++) {
+			int size = 0;
+			boolean inRun = false;
+			for (int row = 0; row < nbRows; row++) {
+				boolean impassable = !terrain.isPassable(row, column);
+				if(impassable != inRun)
+					buffer[size++] = row;
+				inRun = impassable;
+			}
+			if(inRun)
+				buffer[size++] = nbRows;
+			runs[column] = Arrays.copyOf(buffer, size);
+		}
+	}
+
+	/**
+	 * Returns the number of rows of this ground index.
+	 */
+	@Basic @Immutable
+	public int getNbRows(){
+		return nbRows;
+	}
+
+	/**
+	 * Returns the number of columns of this ground index.
+	 */
+	@Basic @Immutable
+	public int getNbColumns(){
+		return nbColumns;
+	}
+
+	/**
+	 * Returns the first impassable row in the given column, starting from the given row downwards.
+	 *
+	 * @param row		The row to start from.
+	 * @param column	The column to look in.
+	 * @return	| if(for some r in max(row,0)..getNbRows()-1: !terrain.isPassable(r,column))
+	 * 			|	then !terrain.isPassable(result,column) && result >= max(row,0)
+	 * 			|		&& (for each r in max(row,0)..result-1: terrain.isPassable(r,column))
+	 * 			| else result == getNbRows()
+	 * @throws IndexOutOfBoundsException
+	 * 			| column < 0 || column >= getNbColumns()
+	 */
+	public int getGroundRow(int row, int column) throws IndexOutOfBoundsException{
+		if(column < 0 || column >= nbColumns)
+			throw new IndexOutOfBoundsException();
+		row = Math.max(row, 0);
+		int[] columnRuns = this.runs[column];
+		//Find the first run that ends after the given row.
+		int low = 0, high = columnRuns.length/2;
+		while(low < high){
+			int mid = (low + high) >>> 1;
+			if(columnRuns[2*mid + 1] <= row)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		if(low == columnRuns.length/2)
+			return nbRows;
+		return Math.max(columnRuns[2*low], row);
+	}
+
+	private final int nbRows, nbColumns;
+
+	/**
+	 * For every column, the first row and the row after the last row of every run
+	 * of impassable cells, from top to bottom.
+	 */
+	private final int[][] runs;
+}
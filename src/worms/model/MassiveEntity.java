@@ -1,9 +1,14 @@
 package worms.model;
 
 import static java.lang.Math.PI;
+import static java.lang.Math.ceil;
 import static java.lang.Math.cos;
+import static java.lang.Math.hypot;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.Math.pow;
 import static java.lang.Math.sin;
+import static java.lang.Math.sqrt;
 
 import be.kuleuven.cs.som.annotate.Basic;
 import be.kuleuven.cs.som.annotate.Immutable;
@@ -76,11 +81,13 @@ public abstract class MassiveEntity extends Entity {
 	 * 			| isValidDirection(direction)
 	 * @post 	The new direction of this entity equals the given direction.
 	 * 			| new.getDirection() == direction
+	 * @effect	| stateChanged()
 	 */
 	@Raw @Model
 	protected void setDirection(double direction){
 		assert isValidDirection(direction);
 		this.direction = direction;
+		stateChanged();
 	}
 	private double direction;
 	
@@ -178,6 +185,9 @@ public abstract class MassiveEntity extends Entity {
 	 * @throws	IllegalArgumentException
 	 * 			Thrown when the timestep is negative or not a valid number
 	 * 			| timestep < 0 || Double.isNaN(timeStep)
+	 * @note	The trajectory isn't checked at every multiple of timeStep. Where getJumpClearance() 
+	 * 			guarantees that the jump can't be blocked, those steps are skipped; every other step is checked,
+	 * 			so the result is the same as that of checking every multiple of timeStep.
 	 */
 	public double getJumpTime(double timeStep)throws IllegalArgumentException{
 		if(timeStep < 0 || Double.isNaN(timeStep))
@@ -186,12 +196,66 @@ public abstract class MassiveEntity extends Entity {
 		if(!canJump())
 			return 0;
 		
-		double t = 0;
-		while(true){
-			if(blocksJump(getJumpStep(t)))
-				return t;
-			t += timeStep;
+		long step = 0;
+		Position position = getJumpStep(0);
+		while(!blocksJump(position)){
+			//The steps before step+safeSteps can't block the jump, the step after them is checked.
+			long safeSteps = (long)ceil(getSafeJumpPeriod(step*timeStep, getJumpClearance(position))/timeStep);
+			step += min(MAX_JUMP_STEPS, max(1, safeSteps));
+			position = getJumpStep(step*timeStep);
 		}
+		return step*timeStep;
+	}
+	
+	/**
+	 * The largest number of time steps getJumpTime() advances at once.
+	 */
+	private static final long MAX_JUMP_STEPS = 1L << 32;
+	
+	/**
+	 * Returns how long this entity, jumping from its current position, surely stays closer
+	 * than the given distance to the position it has after t seconds.
+	 * 
+	 * @param t			The time after the jump (in seconds).
+	 * @param distance	The distance (in metres).
+	 * @return	During the result, the entity moves less than distance: its speed at time t plus
+	 * 			the gravitational acceleration times the elapsed time bounds its speed.
+	 * 			| let
+	 * 			|	speed = sqrt(pow(getJumpVelocity()*cos(getDirection()),2) + pow(getJumpVelocity()*sin(getDirection()) - GRAVITATIONAL_ACCELERATION*t,2))
+	 * 			| in
+	 * 			|	if(distance > 0) then fuzzyEquals(speed*result + GRAVITATIONAL_ACCELERATION/2*pow(result,2), distance)
+	 * 			|	else result == 0
+	 */
+	@Model
+	private double getSafeJumpPeriod(double t, double distance){
+		if(!(distance > 0))
+			return 0;
+		double velocity = getJumpVelocity();
+		double direction = getDirection();
+		double speed = hypot(velocity*cos(direction), velocity*sin(direction) - GRAVITATIONAL_ACCELERATION*t);
+		return 2*distance/(speed + sqrt(speed*speed + 2*GRAVITATIONAL_ACCELERATION*distance));
+	}
+	
+	/**
+	 * Returns a distance over which the given position can be moved (in any direction)
+	 * without blocking the (virtual) jump of this entity.
+	 * 
+	 * @param position	The position to check.
+	 * @return	| for each other in Position:
+	 * 			|	if(other.squaredDistance(position) < pow(result,2)) then !blocksJump(other)
+	 * @return	The result is the distance over which the position can be moved without leaving the world boundaries 
+	 * 			or touching impassable terrain, or the distance over which it stays closer than getRadius() to the 
+	 * 			current position of this entity, whichever is larger.
+	 * 			| result == max(getRadius() - sqrt(position.squaredDistance(getPosition())),
+	 * 			|				min(getWorld().getBoundaryClearance(position, getRadius()),
+	 * 			|					getWorld().getPassableClearance(position, getRadius()*1.1)))
+	 * @note	A result of 0 (or less) tells nothing. Subclasses that block jumps in more cases
+	 * 			have to lower the result accordingly.
+	 */
+	protected double getJumpClearance(Position position){
+		return max(getRadius() - sqrt(position.squaredDistance(getPosition())),
+				min(getWorld().getBoundaryClearance(position, getRadius()),
+					getWorld().getPassableClearance(position, getRadius()*1.1)));
 	}
 	
 	/**
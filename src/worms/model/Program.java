@@ -1,8 +1,8 @@
 package worms.model;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -11,8 +11,14 @@ import be.kuleuven.cs.som.annotate.Raw;
 import worms.gui.game.IActionHandler;
 import worms.model.programs.ArgumentExecutable;
 import worms.model.programs.Executable;
+import worms.model.programs.QueryCache;
+import worms.model.programs.SourceLocation;
 import worms.model.programs.WormsRuntimeException;
-import worms.model.programs.statements.ActionStatement;
+import worms.model.programs.compiler.CompiledProgram;
+import worms.model.programs.compiler.ExecutionState;
+import worms.model.programs.interpreter.Interpreter;
+import worms.model.programs.optimizer.OptimizationReport;
+import worms.model.programs.profiler.ProgramProfiler;
 import worms.model.programs.statements.Statement;
 import worms.model.programs.types.Type;
 
@@ -26,13 +32,35 @@ public class Program implements Cloneable{
 	
 	@Raw
 	public Program(Statement mainStatement, Map<String, Type<?>> globals, IActionHandler handler){
-		this.mainStatement = mainStatement;
-		if(globals == null)
-			this.globals = new HashMap<String, Type<?>>();
-		else
-			this.globals = new HashMap<String, Type<?>>(globals);
-		this.handler = handler;
-		this.executionStack = new ArrayDeque<Statement>();
+		this(new Builder(mainStatement, globals, handler));
+	}
+	
+	/**
+	 * Creates a new program with the main statement, globals, action handler and further parts of the given builder.
+	 */
+	@Raw
+	private Program(Builder builder){
+		this.mainStatement = builder.mainStatement;
+		this.optimizationReport = builder.optimizationReport;
+		this.sourceLocations = builder.sourceLocations;
+		this.compiledProgram = builder.compiledProgram;
+		this.executionState = (compiledProgram == null) ? null : compiledProgram.createExecutionState();
+		
+		Map<String, Integer> slots = new HashMap<String, Integer>();
+		if(builder.variableNames != null)
+			for(String name : builder.variableNames)
+				slots.put(name, slots.size());
+		if(builder.globals != null)
+			for(String name : builder.globals.keySet())
+				if(!slots.containsKey(name))
+					slots.put(name, slots.size());
+		this.variableSlots = Collections.unmodifiableMap(slots);
+		this.globals = new Type<?>[slots.size()];
+		if(builder.globals != null)
+			for(Entry<String, Type<?>> entry : builder.globals.entrySet())
+				this.globals[slots.get(entry.getKey())] = entry.getValue();
+		
+		this.handler = builder.handler;
 		
 		if(!isWellFormed()){
 			encounteredRuntimeError();
@@ -41,9 +69,123 @@ public class Program implements Cloneable{
 		//@Raw => worm isn't set at the end but that's ok since this program can be raw at end of a @Raw method.
 	}
 	
+	/**
+	 * A class of builders of programs that have more parts than a main statement, globals and an action handler:
+	 * the program factory uses it to build the programs it optimizes, compiles or locates in their source.
+	 */
+	public static class Builder {
+		
+		/**
+		 * Creates a new builder of a program with the given main statement, globals and action handler.
+		 */
+		public Builder(Statement mainStatement, Map<String, Type<?>> globals, IActionHandler handler){
+			this.mainStatement = mainStatement;
+			this.globals = globals;
+			this.handler = handler;
+		}
+		
+		private final Statement mainStatement;
+		
+		private final Map<String, Type<?>> globals;
+		
+		private final IActionHandler handler;
+		
+		/**
+		 * Lets the program store its global variables in the slots of the given variable names, in the order of their slots.
+		 * Declared globals that aren't in the given list get a slot after them.
+		 * 
+		 * @post	| for each i in 0..variableNames.size()-1: (new build()).getVariableSlot(variableNames.get(i)) == i
+		 */
+		public Builder setVariableNames(List<String> variableNames){
+			this.variableNames = variableNames;
+			return this;
+		}
+		
+		private List<String> variableNames = null;
+		
+		/**
+		 * Lets the program run the given compiled main statement instead of interpreting its main statement,
+		 * or interpret it if the given compiled program is null.
+		 * 
+		 * @post	| (new build()).getCompiledProgram() == compiledProgram
+		 */
+		public Builder setCompiledProgram(CompiledProgram compiledProgram){
+			this.compiledProgram = compiledProgram;
+			return this;
+		}
+		
+		private CompiledProgram compiledProgram = null;
+		
+		/**
+		 * Records that the main statement of the program was optimized as described in the given report,
+		 * or that it wasn't optimized if the given report is null.
+		 * 
+		 * @post	| (new build()).getOptimizationReport() == optimizationReport
+		 */
+		public Builder setOptimizationReport(OptimizationReport optimizationReport){
+			this.optimizationReport = optimizationReport;
+			return this;
+		}
+		
+		private OptimizationReport optimizationReport = null;
+		
+		/**
+		 * Records the locations of the statements and expressions of the program in its source,
+		 * or that they aren't known if the given map is null.
+		 */
+		public Builder setSourceLocations(Map<Executable, SourceLocation> sourceLocations){
+			this.sourceLocations = sourceLocations;
+			return this;
+		}
+		
+		private Map<Executable, SourceLocation> sourceLocations = null;
+		
+		/**
+		 * Returns a new program with the parts of this builder.
+		 */
+		public @Raw Program build(){
+			return new Program(this);
+		}
+	}
+	
+	/**
+	 * Creates a new program like the given program that executes its actions through the given action handler:
+	 * it has the same main statement, variable slots and compiled program as the given program,
+	 * and its global variables have the current values of the global variables of the given program.
+	 */
+	@Raw
+	private Program(Program original, IActionHandler handler){
+		this.mainStatement = original.getMainStatement();
+		this.optimizationReport = original.getOptimizationReport();
+		this.sourceLocations = original.sourceLocations;
+		this.compiledProgram = original.getCompiledProgram();
+		this.executionState = (compiledProgram == null) ? null : compiledProgram.createExecutionState();
+		this.variableSlots = original.variableSlots;
+		this.globals = original.globals.clone();
+		this.handler = handler;
+		
+		if(!isWellFormed()){
+			encounteredRuntimeError();
+		}
+		if(original.isProfiling())
+			startProfiling();
+	}
+	
 	@Override
 	public @Raw Program clone(){
-		return new Program(getMainStatement(), this.globals, getActionHandler());
+		return new Program(this, getActionHandler());
+	}
+	
+	/**
+	 * Returns a copy of this program that executes its actions through the given action handler.
+	 * The copy shares the main statement, the variable slots, the compiled program and the source locations
+	 * of this program, but it has its own global variables, execution state and runtime error flag.
+	 * 
+	 * @return	| result != this && result.getMainStatement() == getMainStatement()
+	 * 			|	&& result.getActionHandler() == handler && !result.hasWorm()
+	 */
+	public @Raw Program withActionHandler(IActionHandler handler){
+		return new Program(this, handler);
 	}
 	
 	@Basic @Raw
@@ -88,26 +230,87 @@ public class Program implements Cloneable{
 	}
 	private Statement mainStatement;
 	
+	/**
+	 * Returns the report of the optimization of the main statement of this program,
+	 * or null if the main statement wasn't optimized.
+	 */
+	@Basic @Raw
+	public OptimizationReport getOptimizationReport(){
+		return optimizationReport;
+	}
+	
+	private final OptimizationReport optimizationReport;
+	
 	public Type<?> getVariableValue(String name) throws WormsRuntimeException{
-		Type<?> current = globals.get(name);
-		if(current == null)
+		return getVariableValue(getVariableSlot(name));
+	}
+	/**
+	 * Sets the value of the global variable with the given name to the given value.
+	 * 
+	 * @throws WormsRuntimeException
+	 * 			There is no declared global variable with the given name, or it has another type than the given value.
+	 */
+	public void setVariableValue(String name, Type<?> value) throws WormsRuntimeException{
+		int slot = getVariableSlot(name);
+		if(slot < 0 || globals[slot] == null || globals[slot].getClass() != value.getClass())
 			throw new WormsRuntimeException();
 		
-		return current;
+		globals[slot] = value;
 	}
-	public void setVariableValue(String name, Type<?> value) throws WormsRuntimeException{
-		Type<?> current = globals.get(name);
-		if(current == null || current.getClass() != value.getClass())
+	
+	/**
+	 * Returns the slot of the global variable with the given name, or -1 if this program has no slot for it.
+	 */
+	@Raw
+	public int getVariableSlot(String name){
+		Integer slot = variableSlots.get(name);
+		return (slot == null) ? -1 : slot;
+	}
+	
+	/**
+	 * Returns the value of the global variable in the given slot.
+	 * 
+	 * @throws WormsRuntimeException
+	 * 			There is no declared global variable in the given slot.
+	 */
+	public Type<?> getVariableValue(int slot) throws WormsRuntimeException{
+		if(slot < 0 || slot >= globals.length || globals[slot] == null)
 			throw new WormsRuntimeException();
 		
-		globals.put(name, value);
+		return globals[slot];
+	}
+	
+	/**
+	 * Sets the value of the global variable in the given slot to the given value.
+	 * The type of the value isn't checked: statements only write a slot if the program factory
+	 * has shown, when it built the program, that the slot holds a declared global variable
+	 * of the type of the values they store. Other statements write their variable by its name.
+	 * 
+	 * @throws WormsRuntimeException
+	 * 			This program has no slot with the given number.
+	 */
+	public void setVariableValue(int slot, Type<?> value) throws WormsRuntimeException{
+		if(slot < 0 || slot >= globals.length)
+			throw new WormsRuntimeException();
+		
+		globals[slot] = value;
 	}
 	protected void initGlobals(){
-		for(Entry<String, Type<?>> entry : globals.entrySet()){
-			setVariableValue(entry.getKey(), entry.getValue().getDefaultTypeForThisClass());
+		for(int slot = 0; slot < globals.length; slot++){
+			if(globals[slot] != null)
+				globals[slot] = globals[slot].getDefaultTypeForThisClass();
 		}
 	}
-	private Map<String, Type<?>> globals;
+	/**
+	 * The slots of the global variables of this program, by name.
+	 * This map is shared with the clones of this program.
+	 */
+	private final Map<String, Integer> variableSlots;
+	/**
+	 * The values of the global variables of this program, by slot.
+	 * The slots of variables that aren't declared are null.
+	 */
+	private final Type<?>[] globals;
 	
 	@Raw @Basic
 	public IActionHandler getActionHandler(){
@@ -115,39 +318,93 @@ public class Program implements Cloneable{
 	}
 	private IActionHandler handler;
 	
+	/**
+	 * The maximal number of statements a program executes in a turn.
+	 */
+	public static final int MAX_STATEMENTS_PER_TURN = 1000;
+	
 	public void run(){
 		if(getWorm() == null)
 			return;
 		if(hasRuntimeErrorOccurred())
 			return;
+		if(isCompiled() && !isProfiling()){
+			runCompiled();
+			return;
+		}
 		
-		int nbStatementsThisTurn = 0;
-		
-		if(executionStack.size() == 0){
+		if(!interpreter.hasPendingStatements()){
 			initProgram();
 		}
 		
-		while(executionStack.size() > 0 && nbStatementsThisTurn < 1000 && !getWorm().isTerminated()){
-			Statement nextStatement = executionStack.pop();
-			++nbStatementsThisTurn;
-			
-			try{
-				if(nextStatement instanceof ActionStatement
-						&& ((ActionStatement)nextStatement).getCost(this) > getWorm().getActionPoints())
-					return;
-				nextStatement.execute(this);
-			}catch(WormsRuntimeException e){
-				encounteredRuntimeError();
-				return;
-			}
+		try{
+			interpreter.run(this);
+		}catch(WormsRuntimeException e){
+			encounteredRuntimeError();
 		}
 	}
+
+	/**
+	 * Runs the compiled main statement of this program, which keeps its execution stack in its execution state.
+	 */
+	private void runCompiled(){
+		if(!executionState.isRunning()){
+			initGlobals();
+			executionState.start();
+		}
+		try{
+			getCompiledProgram().run(this, executionState);
+		}catch(WormsRuntimeException e){
+			encounteredRuntimeError();
+		}
+	}
+	
+	/**
+	 * Returns the compiled main statement of this program, or null if the main statement is interpreted.
+	 */
+	@Basic @Raw
+	public CompiledProgram getCompiledProgram(){
+		return compiledProgram;
+	}
+	
+	/**
+	 * Checks whether this program runs a compiled main statement.
+	 * 
+	 * @return	| result == (getCompiledProgram() != null)
+	 */
+	@Raw
+	public boolean isCompiled(){
+		return getCompiledProgram() != null;
+	}
+	
+	private final CompiledProgram compiledProgram;
+	
+	/**
+	 * The execution state of the compiled main statement, which takes the place of the execution stack.
+	 */
+	private final ExecutionState executionState;
+	
 	@Raw
 	public void scheduleStatement(Statement statement){
-		if(statement != null)
-			executionStack.push(statement);
+		interpreter.schedule(statement);
 	}
-	private Deque<Statement> executionStack = new ArrayDeque<Statement>(); // 'Stack' is obsolete.
+	
+	/**
+	 * The interpreter that executes the main statement of this program if it isn't compiled,
+	 * which takes the place of an execution stack.
+	 */
+	private final Interpreter interpreter = new Interpreter();
+	
+	/**
+	 * Returns the cache of the results of the queries of this program that scan the world of its worm.
+	 * Every program has its own cache, even if it shares its main statement with other programs.
+	 */
+	@Basic @Raw
+	public QueryCache getQueryCache(){
+		return queryCache;
+	}
+	
+	private final QueryCache queryCache = new QueryCache();
 	
 	@Raw @Basic
 	public boolean hasRuntimeErrorOccurred(){
@@ -166,6 +423,55 @@ public class Program implements Cloneable{
 	
 	private void initProgram(){
 		initGlobals();
-		scheduleStatement(getMainStatement());
+		scheduleStatement(isProfiling() ? profiledMainStatement : getMainStatement());
+	}
+	
+	/**
+	 * Starts profiling this program: from now on, this program counts the executions of its statements
+	 * and expressions and measures the time they take.
+	 * A profiled program interprets an instrumented copy of its main statement, even if it is compiled.
+	 * 
+	 * @post	| new.isProfiling()
+	 * @throws	IllegalStateException
+	 * 			This program is profiling already, or it is in the middle of an execution of its main statement.
+	 */
+	public void startProfiling() throws IllegalStateException{
+		if(isProfiling())
+			throw new IllegalStateException("This program is profiling already.");
+		if(interpreter.hasPendingStatements() || (executionState != null && executionState.isRunning()))
+			throw new IllegalStateException("This program is running.");
+		this.profiler = new ProgramProfiler(sourceLocations);
+		this.profiledMainStatement = profiler.instrument(getMainStatement());
 	}
+	
+	/**
+	 * Returns the profiler of this program, or null if this program isn't profiling.
+	 */
+	@Basic @Raw
+	public ProgramProfiler getProfiler(){
+		return profiler;
+	}
+	
+	/**
+	 * Checks whether this program is profiling.
+	 * 
+	 * @return	| result == (getProfiler() != null)
+	 */
+	@Raw
+	public boolean isProfiling(){
+		return getProfiler() != null;
+	}
+	
+	private ProgramProfiler profiler = null;
+	
+	/**
+	 * The instrumented copy of the main statement that this program interprets while it is profiling.
+	 */
+	private Statement profiledMainStatement = null;
+	
+	/**
+	 * The locations of the statements and expressions of this program in its source, or null if they aren't known.
+	 * This map is shared with the clones of this program.
+	 */
+	private final Map<Executable, SourceLocation> sourceLocations;
 }
@@ -1,6 +1,9 @@
 package worms.model;
 
 import static java.lang.Math.PI;
+import static java.lang.Math.min;
+import static java.lang.Math.sqrt;
+
 import be.kuleuven.cs.som.annotate.Basic;
 import be.kuleuven.cs.som.annotate.Immutable;
 import be.kuleuven.cs.som.annotate.Model;
@@ -128,10 +131,8 @@ public abstract class Projectile extends MassiveEntity {
 	 */
 	@Override
 	public void handleAfterJump(){
-		for(Worm worm : getWorld().getWorms()){
-			if(collidesWith(worm)){
-				worm.decreaseHitPoints(getDamage());
-			}
+		for(Worm worm : getWorld().getEntitiesOverlapping(Worm.class, getPosition(), getRadius())){
+			worm.decreaseHitPoints(getDamage());
 		}
 		if(afterJumpRemove(getPosition()) && !isTerminated())
 			getWorld().removeProjectile();
@@ -151,12 +152,28 @@ public abstract class Projectile extends MassiveEntity {
 	 */
 	@Override
 	public boolean blocksJump(Position position){
-		for(Worm worm : getWorld().getWorms())
-			if(worm.collidesWith(position,getRadius()))
-				return true;
+		if(getWorld().hasEntityOverlapping(Worm.class, position, getRadius()))
+			return true;
 		return super.blocksJump(position);
 	}
 	
+	/**
+	 * @return	The result is at most the distance over which the position can be moved
+	 * 			without overlapping with a worm.
+	 * 			| for each worm in getWorld().getWorms():
+	 * 			|	result <= sqrt(worm.getPosition().squaredDistance(position)) - worm.getRadius() - getRadius()
+	 */
+	@Override
+	protected double getJumpClearance(Position position){
+		double clearance = super.getJumpClearance(position);
+		if(!(clearance > 0))
+			return clearance;
+		//Only the worms closer than the clearance can lower it.
+		for(Worm worm : getWorld().getEntitiesOverlapping(Worm.class, position, getRadius() + clearance))
+			clearance = min(clearance, sqrt(worm.getPosition().squaredDistance(position)) - worm.getRadius() - getRadius());
+		return clearance;
+	}
+	
 	/**
 	 * @return		True in all other cases.
 	 * 				| result == true
@@ -174,4 +191,27 @@ public abstract class Projectile extends MassiveEntity {
 	 */
 	@Raw @Basic
 	public abstract int getDamage();
+
+	/**
+	 * Creates a new projectile of the same kind as this projectile, with the same propulsion yield, in the given world.
+	 *
+	 * @return	| result.getClass() == getClass() && result.getPropulsionYield() == getPropulsionYield()
+	 * 			| && result.getWorld() == world
+	 */
+	@Model
+	protected abstract Projectile newProjectile(World world) throws NullPointerException;
+
+	/**
+	 * Creates a new projectile with the state of this projectile in the given fork of the world of this projectile.
+	 *
+	 * @effect	| let projectile == newProjectile(world) in:
+	 * 			|	projectile.setPosition(getPosition()) && projectile.setDirection(getDirection())
+	 */
+	@Model
+	Projectile fork(World world) throws NullPointerException{
+		Projectile projectile = newProjectile(world);
+		projectile.setPosition(getPosition());
+		projectile.setDirection(getDirection());
+		return projectile;
+	}
 }
@@ -41,4 +41,9 @@ public class RifleProjectile extends Projectile {
 		return 20;
 	}
 
+	@Override
+	protected Projectile newProjectile(World world) throws NullPointerException{
+		return new RifleProjectile(world, getPropulsionYield());
+	}
+
 }
@@ -247,7 +247,7 @@ public class Team {
 	 */
 	public Set<Worm> getWorms(){
 		Set<Worm> result = new HashSet<Worm>();
-		for (Worm worm : getWorld().getWorms())
+		for (Worm worm : getWorld().getWormView())
 			if(worm.getTeam() == this)
 				result.add(worm);
 		return result;
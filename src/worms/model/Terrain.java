@@ -0,0 +1,144 @@
+package worms.model;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+
+/**
+ * A class of bit-packed terrain maps.
+ *
+ * Every row of the terrain is stored as a sequence of 64-bit words in which a set bit
+ * marks an impassable cell. This allows checking a whole span of cells in a row
+ * one word at a time instead of one cell at a time.
+ *
+ * @invar	| getNbRows() >= 0 && getNbColumns() >= 0
+ */
+public class Terrain {
+
+	/**
+	 * Creates a new terrain from the given (rectangular) passable map.
+	 *
+	 * @param passableMap	The passable map, in the format of World.
+	 * @post	| new.getNbRows() == passableMap.length
+	 * @post	| if(passableMap.length == 0) then new.getNbColumns() == 0
+	 * 			| else new.getNbColumns() == passableMap[0].length
+	 * @post	| for each row in 0..getNbRows()-1:
+	 * 			|	for each column in 0..getNbColumns()-1:
+	 * 			|		new.isPassable(row,column) == passableMap[row][column]
+	 * @throws IllegalArgumentException
+	 * 			| !World.isValidPassableMap(passableMap)
+	 */
+	public Terrain(boolean[][] passableMap) throws IllegalArgumentException{
+		if(!World.isValidPassableMap(passableMap))
+			throw new IllegalArgumentException();
+
+		this.nbRows = passableMap.length;
+		this.nbColumns = (nbRows == 0) ? 0 : passableMap[0].length;
+		this.wordsPerRow = (nbColumns + WORD_SIZE - 1) >>> WORD_SHIFT;
+		this.words = new long[nbRows * wordsPerRow];
+
+		for (int row = 0; row < nbRows; row++) {
+			int offset = row * wordsPerRow;
+			for (int column = 0; column < nbColumns; column++) {
+				if(!passableMap[row][column])
+					words[offset + (column >>> WORD_SHIFT)] |= 1L << column;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of rows of this terrain.
+	 */
+	@Basic @Immutable
+	public int getNbRows(){
+		return nbRows;
+	}
+
+	/**
+	 * Returns the number of columns of this terrain.
+	 */
+	@Basic @Immutable
+	public int getNbColumns(){
+		return nbColumns;
+	}
+
+	/**
+	 * Checks whether the cell at the given row and column is passable.
+	 *
+	 * @param row		The row of the cell.
+	 * @param column	The column of the cell.
+	 * @throws IndexOutOfBoundsException
+	 * 			| row < 0 || row >= getNbRows() || column < 0 || column >= getNbColumns()
+	 */
+	public boolean isPassable(int row, int column) throws IndexOutOfBoundsException{
+		if(row < 0 || row >= nbRows || column < 0 || column >= nbColumns)
+			throw new IndexOutOfBoundsException();
+		return (words[row * wordsPerRow + (column >>> WORD_SHIFT)] & (1L << column)) == 0;
+	}
+
+	/**
+	 * Checks whether there's an impassable cell in the given row
+	 * between fromColumn (inclusive) and toColumn (exclusive).
+	 * Columns outside this terrain are considered passable.
+	 *
+	 * @param row			The row to check.
+	 * @param fromColumn	The first column of the span.
+	 * @param toColumn		The column after the last column of the span.
+	 * @return	| if(row < 0 || row >= getNbRows()) then result == false
+	 * @return	| result == (for some column in max(fromColumn,0)..min(toColumn,getNbColumns())-1:
+	 * 			|				!isPassable(row,column))
+	 */
+	public boolean hasImpassableCellInSpan(int row, int fromColumn, int toColumn){
+		if(row < 0 || row >= nbRows)
+			return false;
+		if(fromColumn < 0)
+			fromColumn = 0;
+		if(toColumn > nbColumns)
+			toColumn = nbColumns;
+		if(fromColumn >= toColumn)
+			return false;
+
+		int offset = row * wordsPerRow;
+		int firstWord = fromColumn >>> WORD_SHIFT;
+		int lastWord = (toColumn - 1) >>> WORD_SHIFT;
+		long firstMask = -1L << fromColumn;
+		long lastMask = -1L >>> (WORD_SIZE - 1 - ((toColumn - 1) & (WORD_SIZE - 1)));
+
+		if(firstWord == lastWord)
+			return (words[offset + firstWord] & firstMask & lastMask) != 0;
+
+		if((words[offset + firstWord] & firstMask) != 0)
+			return true;
+		for (int word = firstWord + 1; word < lastWord; word++) {
+			if(words[offset + word] != 0)
+				return true;
+		}
+		return (words[offset + lastWord] & lastMask) != 0;
+	}
+
+	/**
+	 * Returns a new passable map (in the format of World) representing this terrain.
+	 *
+	 * @return	| result.length == getNbRows()
+	 * @return	| for each row in 0..getNbRows()-1:
+	 * 			|	result[row].length == getNbColumns()
+	 * 			|	&& for each column in 0..getNbColumns()-1:
+	 * 			|		result[row][column] == isPassable(row,column)
+	 */
+	public boolean[][] toPassableMap(){
+		boolean[][] passableMap = new boolean[nbRows][nbColumns];
+		for (int row = 0; row < nbRows; row++) {
+			int offset = row * wordsPerRow;
+			for (int column = 0; column < nbColumns; column++) {
+				passableMap[row][column] = (words[offset + (column >>> WORD_SHIFT)] & (1L << column)) == 0;
+			}
+		}
+		return passableMap;
+	}
+
+	private static final int WORD_SHIFT = 6;
+	private static final int WORD_SIZE = 1 << WORD_SHIFT;
+
+	private final int nbRows, nbColumns;
+	private final int wordsPerRow;
+	private final long[] words;
+}
@@ -0,0 +1,133 @@
+package worms.model;
+
+import java.util.Locale;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * A class of sequences of actions a worm can take during one turn: it turns over an angle,
+ * selects its next weapon a number of times, moves a number of times and then jumps, fires
+ * its selected weapon with a propulsion yield, or does nothing more.
+ *
+ * @invar	| Worm.isValidTurningAngle(getAngle())
+ * @invar	| getNbWeaponToggles() >= 0 && getNbMoves() >= 0
+ * @invar	| !(isJumping() && isFiring())
+ * @invar	| !isFiring() || (0 <= getYield() && getYield() <= 100)
+ */
+@Value
+public class TurnPlan {
+
+	/**
+	 * A plan in which the worm does nothing.
+	 */
+	public static final TurnPlan NOTHING = new TurnPlan(0, 0, 0, false, -1);
+
+	/**
+	 * Creates a new plan in which the worm turns over the given angle, selects its next weapon the given
+	 * number of times, moves the given number of times and then jumps if the given flag is set,
+	 * or fires its selected weapon with the given yield if the given yield isn't negative.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			| !Worm.isValidTurningAngle(angle) || nbWeaponToggles < 0 || nbMoves < 0
+	 * 			| || yield > 100 || (jumping && yield >= 0)
+	 */
+	public TurnPlan(double angle, int nbWeaponToggles, int nbMoves, boolean jumping, int yield)
+			throws IllegalArgumentException {
+		if (!Worm.isValidTurningAngle(angle) || nbWeaponToggles < 0 || nbMoves < 0 || yield > 100
+				|| (jumping && yield >= 0))
+			throw new IllegalArgumentException();
+		this.angle = angle;
+		this.nbWeaponToggles = nbWeaponToggles;
+		this.nbMoves = nbMoves;
+		this.jumping = jumping;
+		this.yield = (yield < 0) ? -1 : yield;
+	}
+
+	/**
+	 * Returns the angle (in radians) the worm turns over first.
+	 */
+	@Basic @Immutable
+	public double getAngle() {
+		return angle;
+	}
+
+	private final double angle;
+
+	/**
+	 * Returns the number of times the worm selects its next weapon after turning.
+	 */
+	@Basic @Immutable
+	public int getNbWeaponToggles() {
+		return nbWeaponToggles;
+	}
+
+	private final int nbWeaponToggles;
+
+	/**
+	 * Returns the number of times the worm moves after selecting its weapon.
+	 */
+	@Basic @Immutable
+	public int getNbMoves() {
+		return nbMoves;
+	}
+
+	private final int nbMoves;
+
+	/**
+	 * Checks whether the worm jumps after moving.
+	 */
+	@Basic @Immutable
+	public boolean isJumping() {
+		return jumping;
+	}
+
+	private final boolean jumping;
+
+	/**
+	 * Returns the propulsion yield the worm fires its selected weapon with after moving,
+	 * or -1 if it doesn't fire.
+	 */
+	@Basic @Immutable
+	public int getYield() {
+		return yield;
+	}
+
+	/**
+	 * Checks whether the worm fires after moving.
+	 *
+	 * @return	| result == (getYield() >= 0)
+	 */
+	public boolean isFiring() {
+		return getYield() >= 0;
+	}
+
+	private final int yield;
+
+	@Override
+	public boolean equals(Object object) {
+		if (!(object instanceof TurnPlan))
+			return false;
+		TurnPlan other = (TurnPlan) object;
+		return Double.compare(getAngle(), other.getAngle()) == 0 && getNbWeaponToggles() == other.getNbWeaponToggles()
+				&& getNbMoves() == other.getNbMoves() && isJumping() == other.isJumping()
+				&& getYield() == other.getYield();
+	}
+
+	@Override
+	public int hashCode() {
+		int result = Double.hashCode(getAngle());
+		result = 31 * result + getNbWeaponToggles();
+		result = 31 * result + getNbMoves();
+		result = 31 * result + (isJumping() ? 1 : 0);
+		return 31 * result + getYield();
+	}
+
+	@Override
+	public String toString() {
+		String end = isJumping() ? "jump" : isFiring() ? "fire " + getYield() : "nothing";
+		return String.format(Locale.ROOT, "turn %.3f, toggle %d, move %d, %s", getAngle(), getNbWeaponToggles(),
+				getNbMoves(), end);
+	}
+}
@@ -0,0 +1,508 @@
+package worms.model;
+
+import static java.lang.Math.PI;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Model;
+import worms.gui.game.IActionHandler;
+
+/**
+ * A class of controllers that play the turns of computer-controlled worms by planning them,
+ * as an alternative to a program.
+ *
+ * At the start of the turn of its worm, a turn planner enumerates plans: a turn towards one of a number
+ * of evenly spread directions, a number of moves and then a jump, a shot with one of the weapons
+ * of the worm and one of a number of propulsion yields, or nothing. It simulates the plans in random order
+ * on forks of the world of the worm, spread over the threads of a fork-join pool, until all plans are simulated
+ * or its time budget is spent, and scores the outcome of each plan by the damage dealt to other teams,
+ * the hit points lost by the team of the worm, the food rations eaten and the distance to the nearest enemy.
+ * It then executes the plan with the best score through its action handler, like a program executes its actions.
+ *
+ * A turn planner has no state that belongs to a worm, so one planner can control many worms,
+ * but it plans one turn at a time.
+ */
+public class TurnPlanner {
+
+	/**
+	 * The score of a hit point of damage dealt to a worm of another team.
+	 */
+	public static final double DAMAGE_WEIGHT = 1;
+
+	/**
+	 * The score of a hit point lost by the worm or a worm of its team.
+	 */
+	public static final double LOSS_WEIGHT = 1.5;
+
+	/**
+	 * The score of a worm of another team that dies.
+	 */
+	public static final double KILL_BONUS = 50;
+
+	/**
+	 * The score of the death of the worm itself, on top of the hit points it loses.
+	 */
+	public static final double DEATH_PENALTY = 200;
+
+	/**
+	 * The score of a food ration the worm eats.
+	 */
+	public static final double FOOD_WEIGHT = 30;
+
+	/**
+	 * The score of a metre between the worm and the nearest worm of another team.
+	 */
+	public static final double DISTANCE_WEIGHT = -0.5;
+
+	/**
+	 * The score of a game the team of the worm wins, or minus the score of a game it loses.
+	 */
+	public static final double WIN_BONUS = 1000;
+
+	/**
+	 * The time step (in seconds) with which new planners simulate jumps and projectiles.
+	 */
+	public static final double DEFAULT_JUMP_TIME_STEP = 1e-4;
+
+	/**
+	 * The number of plans below which a planning task simulates its plans instead of splitting them.
+	 */
+	private static final int SPLIT_THRESHOLD = 2;
+
+	/**
+	 * Creates a new turn planner that executes its plans through the given action handler
+	 * and simulates them on the given pool.
+	 * The pool belongs to the caller: it can be shared by several planners, and the caller shuts it down.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			| handler == null || pool == null
+	 */
+	public TurnPlanner(IActionHandler handler, ForkJoinPool pool) throws IllegalArgumentException {
+		if (handler == null || pool == null)
+			throw new IllegalArgumentException();
+		this.handler = handler;
+		this.pool = pool;
+	}
+
+	@Basic @Immutable
+	public IActionHandler getActionHandler() {
+		return handler;
+	}
+
+	private final IActionHandler handler;
+
+	/**
+	 * Returns the pool on which this planner simulates its plans.
+	 */
+	@Basic @Immutable
+	public ForkJoinPool getPool() {
+		return pool;
+	}
+
+	private final ForkJoinPool pool;
+
+	/**
+	 * Returns the time (in nanoseconds) this planner spends at most on simulating the plans for a turn.
+	 */
+	@Basic
+	public long getTimeBudget() {
+		return timeBudget;
+	}
+
+	/**
+	 * Sets the time this planner spends at most on simulating the plans for a turn to the given number of nanoseconds.
+	 *
+	 * @post	| new.getTimeBudget() == nanos
+	 * @throws	IllegalArgumentException
+	 * 			| nanos <= 0
+	 */
+	public void setTimeBudget(long nanos) throws IllegalArgumentException {
+		if (nanos <= 0)
+			throw new IllegalArgumentException();
+		this.timeBudget = nanos;
+	}
+
+	private long timeBudget = 50_000_000L;
+
+	/**
+	 * Returns the number of evenly spread directions this planner lets a worm turn to.
+	 */
+	@Basic
+	public int getNbDirections() {
+		return nbDirections;
+	}
+
+	/**
+	 * Sets the number of evenly spread directions this planner lets a worm turn to.
+	 *
+	 * @post	| new.getNbDirections() == nbDirections
+	 * @throws	IllegalArgumentException
+	 * 			| nbDirections < 1
+	 */
+	public void setNbDirections(int nbDirections) throws IllegalArgumentException {
+		if (nbDirections < 1)
+			throw new IllegalArgumentException();
+		this.nbDirections = nbDirections;
+	}
+
+	private int nbDirections = 16;
+
+	/**
+	 * Returns the time step (in seconds) with which this planner simulates the jumps of worms and projectiles.
+	 */
+	@Basic
+	public double getJumpTimeStep() {
+		return jumpTimeStep;
+	}
+
+	/**
+	 * Sets the time step with which this planner simulates the jumps of worms and projectiles
+	 * to the given number of seconds.
+	 * Plans are simulated faithfully if this is the time step of the jumps of the game.
+	 *
+	 * @post	| new.getJumpTimeStep() == timeStep
+	 * @throws	IllegalArgumentException
+	 * 			| !(timeStep > 0) || Double.isInfinite(timeStep)
+	 */
+	public void setJumpTimeStep(double timeStep) throws IllegalArgumentException {
+		if (!(timeStep > 0) || Double.isInfinite(timeStep))
+			throw new IllegalArgumentException();
+		this.jumpTimeStep = timeStep;
+	}
+
+	private double jumpTimeStep = DEFAULT_JUMP_TIME_STEP;
+
+	/**
+	 * Returns the maximal number of moves in the plans of this planner.
+	 */
+	@Basic
+	public int getMaxNbMoves() {
+		return maxNbMoves;
+	}
+
+	/**
+	 * Sets the maximal number of moves in the plans of this planner.
+	 *
+	 * @post	| new.getMaxNbMoves() == maxNbMoves
+	 * @throws	IllegalArgumentException
+	 * 			| maxNbMoves < 0
+	 */
+	public void setMaxNbMoves(int maxNbMoves) throws IllegalArgumentException {
+		if (maxNbMoves < 0)
+			throw new IllegalArgumentException();
+		this.maxNbMoves = maxNbMoves;
+	}
+
+	private int maxNbMoves = 3;
+
+	/**
+	 * Returns the propulsion yields this planner lets a worm fire with.
+	 */
+	public int[] getYields() {
+		return yields.clone();
+	}
+
+	/**
+	 * Sets the propulsion yields this planner lets a worm fire with; a planner without yields never fires.
+	 *
+	 * @post	| Arrays.equals(new.getYields(), yields)
+	 * @throws	IllegalArgumentException
+	 * 			| yields == null || for some yield in yields: yield < 0 || yield > 100
+	 */
+	public void setYields(int... yields) throws IllegalArgumentException {
+		if (yields == null)
+			throw new IllegalArgumentException();
+		for (int yield : yields)
+			if (yield < 0 || yield > 100)
+				throw new IllegalArgumentException();
+		this.yields = yields.clone();
+	}
+
+	private int[] yields = { 25, 50, 75, 100 };
+
+	/**
+	 * Returns the number of plans this planner has simulated.
+	 */
+	public long getNbSimulations() {
+		return nbSimulations.sum();
+	}
+
+	private final LongAdder nbSimulations = new LongAdder();
+
+	/**
+	 * Returns the plans this planner considers for the given worm in its current state:
+	 * the plan in which the worm does nothing first, followed by every combination of a direction,
+	 * a number of moves and an ending, in a random order that only depends on the version of the world of the worm.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			| worm == null || worm.getWorld() == null
+	 */
+	public List<TurnPlan> getPlans(Worm worm) throws IllegalArgumentException {
+		if (worm == null || worm.getWorld() == null)
+			throw new IllegalArgumentException();
+		List<TurnPlan> plans = new ArrayList<TurnPlan>();
+		for (int direction = 0; direction < getNbDirections(); direction++) {
+			double angle = 2 * PI * direction / getNbDirections() - worm.getDirection();
+			angle -= 2 * PI * Math.floor((angle + PI) / (2 * PI));
+			if (!Worm.isValidTurningAngle(angle))
+				angle = 0;
+			for (int nbMoves = 0; nbMoves <= getMaxNbMoves(); nbMoves++) {
+				if (angle != 0 || nbMoves > 0)
+					plans.add(new TurnPlan(angle, 0, nbMoves, false, -1));
+				plans.add(new TurnPlan(angle, 0, nbMoves, true, -1));
+				for (int toggles = 0; toggles < worm.getNbWeapons(); toggles++)
+					for (int yield : yields)
+						plans.add(new TurnPlan(angle, toggles, nbMoves, false, yield));
+			}
+		}
+		Collections.shuffle(plans, new Random(worm.getWorld().getVersion()));
+		plans.add(0, TurnPlan.NOTHING);
+		return plans;
+	}
+
+	/**
+	 * Plays the turn of the given worm: executes the best plan for it through the action handler of this planner
+	 * and returns that plan. The worm stops executing the plan as soon as an action fails or its turn ends.
+	 *
+	 * @effect	| execute(worm, plan(worm))
+	 * @throws	IllegalArgumentException
+	 * 			| worm == null || worm.getWorld() == null
+	 */
+	public TurnPlan playTurn(Worm worm) throws IllegalArgumentException {
+		TurnPlan plan = plan(worm);
+		execute(worm, plan);
+		return plan;
+	}
+
+	/**
+	 * Returns the plan with the best score among the plans for the given worm that this planner simulates
+	 * within its time budget. The plan in which the worm does nothing is always scored.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			| worm == null || worm.getWorld() == null
+	 */
+	public TurnPlan plan(Worm worm) throws IllegalArgumentException {
+		List<TurnPlan> plans = getPlans(worm);
+		World world = worm.getWorld();
+		Outcome before = new Outcome(world, world.getWorms().indexOf(worm));
+		double[] scores = new double[plans.size()];
+		Arrays.fill(scores, Double.NaN);
+		scores[0] = before.score(world.getWorms(), world.getFoods().size(), null);
+
+		long deadline = System.nanoTime() + getTimeBudget();
+		getPool().invoke(new PlanningTask(world, before, plans, scores, 1, plans.size(), deadline));
+
+		int best = 0;
+		for (int i = 1; i < scores.length; i++)
+			if (scores[i] > scores[best])
+				best = i;
+		return plans.get(best);
+	}
+
+	/**
+	 * Simulates the given plan for the worm at the given index on a fork of the given world
+	 * and returns the score of its outcome.
+	 */
+	@Model
+	private double simulate(World world, Outcome before, TurnPlan plan) {
+		World fork = world.fork();
+		// No other worm gets a turn in the fork once the worm runs out of action points.
+		fork.setMaxNbTurns(fork.getNbTurns());
+		List<Worm> worms = new ArrayList<Worm>(fork.getWorms());
+		Worm worm = worms.get(before.index);
+		try {
+			simulate(worm, plan);
+		} catch (IllegalStateException | IllegalArgumentException e) {
+			// The plan stops at the action that fails, like it does when it is executed.
+		}
+		nbSimulations.increment();
+		if (fork.isTerminated())
+			return before.score(worms, before.nbFoods, fork.getWinners());
+		return before.score(worms, fork.getFoods().size(), null);
+	}
+
+	/**
+	 * Applies the actions of the given plan to the given worm in a fork, with the same effects as
+	 * executing them through an action handler for a game without a GUI that jumps with the time step
+	 * of this planner.
+	 */
+	@Model
+	private void simulate(Worm worm, TurnPlan plan) throws IllegalStateException, IllegalArgumentException {
+		if (plan.getAngle() != 0) {
+			if (!worm.canTurn(plan.getAngle()))
+				return;
+			worm.turn(plan.getAngle());
+		}
+		for (int i = 0; i < plan.getNbWeaponToggles(); i++)
+			worm.selectNextWeapon();
+		for (int i = 0; i < plan.getNbMoves(); i++) {
+			if (worm.isTerminated() || !worm.canMove())
+				return;
+			worm.move();
+			if (!worm.isTerminated() && worm.canFall())
+				worm.fall();
+		}
+		if (worm.isTerminated())
+			return;
+		if (plan.isJumping() && worm.canJump()) {
+			worm.jump(getJumpTimeStep());
+		} else if (plan.isFiring() && worm.canFire(plan.getYield())) {
+			World world = worm.getWorld();
+			worm.fire(plan.getYield());
+			if (world.hasProjectile())
+				world.getProjectile().jump(getJumpTimeStep());
+		}
+	}
+
+	/**
+	 * Executes the given plan for the given worm through the action handler of this planner.
+	 * The worm stops executing the plan as soon as an action fails, or when its turn ends
+	 * because it runs out of action points or dies.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			| worm == null || plan == null || worm.getWorld() == null
+	 */
+	public void execute(Worm worm, TurnPlan plan) throws IllegalArgumentException {
+		if (worm == null || plan == null || worm.getWorld() == null)
+			throw new IllegalArgumentException();
+		World world = worm.getWorld();
+		if (plan.getAngle() != 0 && !(worm.canTurn(plan.getAngle()) && getActionHandler().turn(worm, plan.getAngle())))
+			return;
+		for (int i = 0; i < plan.getNbWeaponToggles(); i++)
+			if (!isPlaying(world, worm) || !getActionHandler().toggleWeapon(worm))
+				return;
+		for (int i = 0; i < plan.getNbMoves(); i++)
+			if (!isPlaying(world, worm) || !worm.canMove() || !getActionHandler().move(worm))
+				return;
+		if (!isPlaying(world, worm))
+			return;
+		if (plan.isJumping() && worm.canJump())
+			getActionHandler().jump(worm);
+		else if (plan.isFiring() && worm.canFire(plan.getYield()))
+			getActionHandler().fire(worm, plan.getYield());
+	}
+
+	/**
+	 * Checks whether it is still the turn of the given worm in the given world.
+	 */
+	private static boolean isPlaying(World world, Worm worm) {
+		return !worm.isTerminated() && worm.getWorld() == world && !world.isTerminated()
+				&& world.getCurrentWorm() == worm;
+	}
+
+	/**
+	 * The state of a world at the start of the turn of one of its worms, against which the outcomes of plans are scored.
+	 */
+	private static class Outcome {
+
+		private Outcome(World world, int index) {
+			List<Worm> worms = world.getWorms();
+			Worm worm = worms.get(index);
+			this.index = index;
+			this.nbFoods = world.getFoods().size();
+			this.hitPoints = new int[worms.size()];
+			this.enemy = new boolean[worms.size()];
+			for (int i = 0; i < worms.size(); i++) {
+				Worm other = worms.get(i);
+				hitPoints[i] = other.getHitPoints();
+				enemy[i] = (i != index) && !(worm.hasTeam() && other.getTeam() == worm.getTeam());
+			}
+			this.winners = worm.hasTeam() ? worm.getTeam().getName() : worm.getName();
+		}
+
+		private final int index;
+
+		private final int nbFoods;
+
+		private final int[] hitPoints;
+
+		private final boolean[] enemy;
+
+		private final String winners;
+
+		/**
+		 * Returns the score of the given worms, in the same order as the worms this outcome was taken of,
+		 * with the given number of food rations left in their world and the given winners of the game,
+		 * or null if the game hasn't ended.
+		 */
+		private double score(List<Worm> worms, int nbFoods, String winners) {
+			if (winners != null)
+				return winners.equals(this.winners) ? WIN_BONUS : -WIN_BONUS;
+			Worm worm = worms.get(index);
+			double score = FOOD_WEIGHT * (this.nbFoods - nbFoods);
+			double nearest = Double.POSITIVE_INFINITY;
+			for (int i = 0; i < worms.size(); i++) {
+				Worm other = worms.get(i);
+				int hitPoints = other.isTerminated() ? 0 : other.getHitPoints();
+				if (enemy[i]) {
+					score += DAMAGE_WEIGHT * (this.hitPoints[i] - hitPoints);
+					if (other.isTerminated())
+						score += KILL_BONUS;
+					else if (!worm.isTerminated())
+						nearest = Math.min(nearest, Math.sqrt(worm.getPosition().squaredDistance(other.getPosition())));
+				} else {
+					score -= LOSS_WEIGHT * Math.max(0, this.hitPoints[i] - hitPoints);
+				}
+			}
+			if (worm.isTerminated())
+				score -= DEATH_PENALTY;
+			else if (nearest != Double.POSITIVE_INFINITY)
+				score += DISTANCE_WEIGHT * nearest;
+			return score;
+		}
+	}
+
+	/**
+	 * A task that simulates a range of plans and stores their scores, splitting the range over
+	 * the threads of its pool, and that skips the plans it only gets to after its deadline.
+	 */
+	private class PlanningTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private PlanningTask(World world, Outcome before, List<TurnPlan> plans, double[] scores, int from, int to,
+				long deadline) {
+			this.world = world;
+			this.before = before;
+			this.plans = plans;
+			this.scores = scores;
+			this.from = from;
+			this.to = to;
+			this.deadline = deadline;
+		}
+
+		private final World world;
+
+		private final Outcome before;
+
+		private final List<TurnPlan> plans;
+
+		private final double[] scores;
+
+		private final int from, to;
+
+		private final long deadline;
+
+		@Override
+		protected void compute() {
+			if (to - from > SPLIT_THRESHOLD) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new PlanningTask(world, before, plans, scores, from, middle, deadline),
+						new PlanningTask(world, before, plans, scores, middle, to, deadline));
+				return;
+			}
+			for (int i = from; i < to; i++)
+				if (System.nanoTime() - deadline < 0)
+					scores[i] = simulate(world, before, plans.get(i));
+		}
+	}
+}
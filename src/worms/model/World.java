@@ -1,8 +1,13 @@
 package worms.model;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 
@@ -60,10 +65,73 @@ public class World {
 		
 		this.width = width;
 		this.height = height;
+		this.entityGrid = new EntityGrid(width, height);
 		setPassableMap(passableMap);
 		this.random = random;
 	}
-	
+
+	/**
+	 * Creates a new world that is a fork of the given world.
+	 *
+	 * @param world
+	 * 				The world to fork.
+	 * @post	| new.getWidth() == world.getWidth() && new.getHeight() == world.getHeight()
+	 * @post	| new.getTerrain() == world.getTerrain()
+	 * @post	| new.getNbWorms() == world.getNbWorms() && new.getFoods().size() == world.getFoods().size()
+	 * @post	| new.hasStarted() == world.hasStarted() && new.getNbTurns() == world.getNbTurns()
+	 * 			| && new.getMaxNbTurns() == world.getMaxNbTurns()
+	 * @post	| if(world.getCurrentWorm() != null) then new.getCurrentWorm() == new.getWormAt(world.getWorms().indexOf(world.getCurrentWorm()))
+	 */
+	@Raw @Model
+	private World(World world){
+		this.width = world.getWidth();
+		this.height = world.getHeight();
+		this.entityGrid = new EntityGrid(width, height);
+		this.terrain = world.terrain;
+		this.distanceField = world.distanceField;
+		this.groundIndex = world.groundIndex;
+		this.random = new Random(world.getVersion());
+
+		Map<Team, Team> teams = new IdentityHashMap<Team, Team>();
+		for (Team team : world.teams)
+			teams.put(team, new Team(this, team.getName()));
+		for (Worm worm : world.worms)
+			new Worm(this, worm, worm.hasTeam() ? teams.get(worm.getTeam()) : null);
+		for (Food food : world.foods)
+			new Food(this).setPosition(food.getPosition());
+
+		this.hasStarted = world.hasStarted;
+		this.winners = world.winners;
+		this.nbTurns = world.nbTurns;
+		this.maxNbTurns = world.maxNbTurns;
+		this.currentWormIndex = world.currentWormIndex;
+		if(world.hasProjectile())
+			world.getProjectile().fork(this);
+	}
+
+	/**
+	 * Returns a fork of this world: a new world with the same state, in which actions can be tried
+	 * without changing this world.
+	 *
+	 * The fork shares the terrain of this world and the structures derived from it, which never change,
+	 * so forking costs no more than copying the worms, food rations, projectile and teams of this world.
+	 * The worms of the fork are in the same order as the worms of this world and have the same state and weapons,
+	 * but no programs: programs act through the action handler of the game they were parsed for.
+	 * The fork has a random number generator seeded with the version of this world.
+	 *
+	 * @return	| result != this && result.getTerrain() == getTerrain()
+	 * 			| && result.getNbWorms() == getNbWorms() && result.getNbTurns() == getNbTurns()
+	 * 			| && for each i in 0..getNbWorms()-1:
+	 * 			|		result.getWormAt(i).getPosition().equals(getWormAt(i).getPosition()) && !result.getWormAt(i).hasProgram()
+	 * @throws IllegalStateException
+	 * 			| isTerminated()
+	 */
+	public World fork() throws IllegalStateException{
+		if(isTerminated())
+			throw new IllegalStateException();
+		return new World(this);
+	}
+
 	/**
 	 * Gets the width of this world (in metres).
 	 */
@@ -154,6 +222,25 @@ public class World {
 				&& isInsideWorldBoundaries(pos.offset(radius,radius));
 	}
 
+	/**
+	 * Returns how far the circle with center pos and radius radius can be moved
+	 * (in any direction) while staying inside the world boundaries.
+	 *
+	 * @param pos		The center of the circle.
+	 * @param radius	The radius of the circle.
+	 * @return			| if(pos == null || Double.isNaN(radius)) then result == 0
+	 * @return			| for each other in Position:
+	 * 					|	if(other.squaredDistance(pos) < pow(result,2)) then isInsideWorldBoundaries(other, radius)
+	 * @note			The result is negative if the circle isn't inside the world boundaries.
+	 */
+	@Raw
+	public double getBoundaryClearance(Position pos, double radius){
+		if(pos == null || Double.isNaN(radius))
+			return 0;
+		return min(min(pos.getX() - radius, getWidth() - pos.getX() - radius),
+				min(pos.getY() - radius, getHeight() - pos.getY() - radius));
+	}
+
 	/**
 	 * Checks whether the circle with center pos and radius radius is only covering passable terrain.
 	 * 
@@ -172,6 +259,105 @@ public class World {
 	 * 					| 	else result == true
 	 */
 	public boolean isPassablePosition(Position pos, double radius){
+		if(pos == null)
+			return false;
+		if(Double.isNaN(radius))
+			return false;
+		
+		DistanceField field = this.distanceField;
+		if(field != null){
+			int row = (int)floor(getCellRowCoordinate(pos.getY()));
+			int column = (int)floor(getCellColumnCoordinate(pos.getX()));
+			if(field.isValidCell(row, column)){
+				if(radius < field.getLowerBound(row, column))
+					return true;
+				//The scan ignores the first row of the map if the circle sticks out above the map.
+				if(radius > field.getUpperBound(row, column) && pos.getY() + radius <= getHeight())
+					return false;
+			}
+		}
+		return scanPassablePosition(pos, radius);
+	}
+
+	/**
+	 * Returns a distance over which the circle with center pos and radius radius can be moved
+	 * (in any direction) while only covering passable terrain.
+	 *
+	 * @param pos		The center of the circle.
+	 * @param radius	The radius of the circle.
+	 * @return			| if(pos == null || Double.isNaN(radius)) then result == 0
+	 * @return			| for each other in Position:
+	 * 					|	if(other.squaredDistance(pos) < pow(result,2)) then isPassablePosition(other, radius)
+	 * @note			The result is only a lower bound: it is 0 (or negative) whenever the distance field
+	 * 					can't tell how close the circle is to impassable terrain.
+	 */
+	public double getPassableClearance(Position pos, double radius){
+		if(pos == null || Double.isNaN(radius))
+			return 0;
+		DistanceField field = this.distanceField;
+		if(field == null)
+			return 0;
+		int row = (int)floor(getCellRowCoordinate(pos.getY()));
+		int column = (int)floor(getCellColumnCoordinate(pos.getX()));
+		if(!field.isValidCell(row, column))
+			return 0;
+		return field.getLowerBound(row, column) - radius;
+	}
+	
+	/**
+	 * Returns the height at which the circle with center pos and radius radius first touches
+	 * impassable terrain when it is lowered straight down from pos.
+	 * 
+	 * @param pos		The center of the circle.
+	 * @param radius	The radius of the circle.
+	 * @return			The circle doesn't overlap with an impassable cell at any height between the result and pos.getY(),
+	 * 					if it doesn't overlap with one at pos.
+	 * 					| for each y in Double:
+	 * 					|	if(result < y && y <= pos.getY() && isPassablePosition(pos, radius))
+	 * 					|		then isPassablePosition(new Position(pos.getX(), y), radius)
+	 * @return			| if(pos == null) then Double.isNaN(result)
+	 * @return			| if(Double.isNaN(radius)) then result == pos.getY()
+	 * @return			| result <= pos.getY()
+	 * @note			The result is Double.NEGATIVE_INFINITY if the circle doesn't touch impassable terrain
+	 * 					while being lowered. It is pos.getY() if this world has no ground index.
+	 */
+	public double getGroundHeight(Position pos, double radius){
+		if(pos == null)
+			return Double.NaN;
+		GroundIndex index = this.groundIndex;
+		if(index == null || Double.isNaN(radius))
+			return pos.getY();
+		
+		double x0 = pos.getX();
+		double y0 = pos.getY();
+		int minColumn = max(0, (int)floor(getCellColumnCoordinate(x0 - radius)));
+		int maxColumn = min(index.getNbColumns() - 1, (int)ceil(getCellColumnCoordinate(x0 + radius)) - 1);
+		
+		double height = Double.NEGATIVE_INFINITY;
+		for (int column = minColumn; column <= maxColumn; column++) {
+			double dx = max(0, max(getXCoordinate(column) - x0, x0 - getXCoordinate(column + 1)));
+			if(dx >= radius)
+				continue;
+			//Half of the chord of the circle at the border of this column nearest to the center.
+			double halfChord = Math.sqrt(radius*radius - dx*dx);
+			int row = index.getGroundRow((int)floor(getCellRowCoordinate(y0 - halfChord)), column);
+			if(row >= index.getNbRows())
+				continue;
+			height = max(height, min(y0, getYCoordinate(row) + halfChord));
+		}
+		return height;
+	}
+	
+	/**
+	 * Checks whether the circle with center pos and radius radius is only covering passable terrain,
+	 * by checking all cells of the terrain that overlap with the circle.
+	 * 
+	 * @param pos		The center of the circle.
+	 * @param radius	The radius of the circle.
+	 * @return			| result == isPassablePosition(pos, radius)
+	 */
+	@Model
+	private boolean scanPassablePosition(Position pos, double radius){
 		/*
 		 * Strategy for this method:
 		 * 1) Find the horizontal grid lines (of the passableMap) that intersect with the circle
@@ -180,15 +366,10 @@ public class World {
 		 * 4)		Find the grid cells that lie within these boundaries between this line and the next
 		 * 5)		Check if any of them are impassable.
 		 */
-		if(pos == null)
-			return false;
-		if(Double.isNaN(radius))
-			return false;
-		
 		if(nbCellRows() == 0 || nbCellColumns() == 0)
 			 return true;
 		
-		boolean[][] map = this.passableMap;
+		Terrain terrain = this.terrain;
 		
 		//Get the rows in which the circle lies
 		int minRow = (int)floor(getCellRowCoordinate(pos.getY()+radius));
@@ -201,7 +382,7 @@ public class World {
 		
 		double nextLocalRadius = 0, localRadius = 0;
 		for (int i = minRow; i < maxRow; i++) {
-			if(i < 0 || i >= map.length)
+			if(i < 0 || i >= terrain.getNbRows())
 				continue;
 			//Get the 'radius' (half of the chord) at the level of the next row(line). 
 			//('radius' = farthest offset from x0 at the level of that row(line).
@@ -222,12 +403,8 @@ public class World {
 					maxColumn++;
 			}				
 			
-			for(int j = minColumn; j < maxColumn; j++){
-				if(j < 0 || j >= map[i].length)
-					continue;
-				if(map[i][j] == false)
-					return false;
-			}
+			if(terrain.hasImpassableCellInSpan(i, minColumn, maxColumn))
+				return false;
 			localRadius = nextLocalRadius;
 		}
 		return true;
@@ -242,10 +419,7 @@ public class World {
 	 * 			|		result == getPassableMap()[0].length
 	 */
 	public int nbCellColumns(){
-		boolean[][] map = this.passableMap;
-		if(map.length == 0)
-			return 0;
-		return map[0].length;
+		return this.terrain.getNbColumns();
 	}
 	
 	/**
@@ -254,7 +428,7 @@ public class World {
 	 * @return	| result == getPassableMap().length
 	 */
 	public int nbCellRows(){
-		return this.passableMap.length;
+		return this.terrain.getNbRows();
 	}
 	
 	/**
@@ -340,9 +514,21 @@ public class World {
 	 */
 	@Raw @Basic
 	protected boolean[][] getPassableMap(){
-		if(passableMap == null)
+		if(terrain == null)
 			return null;
-		return ArrayUtil.deepClone(passableMap);
+		return terrain.toPassableMap();
+	}
+	
+	/**
+	 * Returns the (bit-packed) terrain of this world
+	 * or null if the passableMap isn't set yet (raw state).
+	 * 
+	 * @return	| if(getPassableMap() == null) then result == null
+	 * 			| else ArrayUtil.deepEquals(result.toPassableMap(), getPassableMap())
+	 */
+	@Raw
+	public Terrain getTerrain(){
+		return terrain;
 	}
 	
 	/**
@@ -374,12 +560,80 @@ public class World {
 	@Raw @Model
 	private void setPassableMap(boolean[][] passableMap){
 		if(!isValidPassableMap(passableMap))
-			this.passableMap = new boolean[][]{};
+			this.terrain = new Terrain(new boolean[][]{});
 		else
-			this.passableMap = ArrayUtil.deepClone(passableMap);
+			this.terrain = new Terrain(passableMap);
+		
+		if(cellWidth() > 0 && cellHeight() > 0 && !Double.isInfinite(cellWidth()) && !Double.isInfinite(cellHeight())){
+			this.distanceField = new DistanceField(terrain, cellWidth(), cellHeight());
+			this.groundIndex = new GroundIndex(terrain);
+		}else{
+			this.distanceField = null;
+			this.groundIndex = null;
+		}
 	}
 	
-	private boolean[][] passableMap;
+	private Terrain terrain;
+	
+	/**
+	 * The distance field of the terrain of this world, used to decide most passability checks
+	 * without looking at the terrain itself. Null if the cells of the terrain have no proper size.
+	 */
+	private DistanceField distanceField;
+	
+	/**
+	 * The ground index of the terrain of this world, used to find where falling circles land.
+	 * Null if the cells of the terrain have no proper size.
+	 */
+	private GroundIndex groundIndex;
+
+	/**
+	 * Returns the version of this world: a number that increases 
+	 * every time an entity is added to or removed from this world 
+	 * or the state of one of the entities in this world changes.
+	 * The terrain of a world never changes.
+	 * 
+	 * @note	Derived information about this world can be cached as long as the version doesn't change.
+	 */
+	@Basic @Raw
+	public long getVersion(){
+		return version;
+	}
+	
+	/**
+	 * Registers a change in the entities of this world.
+	 * 
+	 * @post	| new.getVersion() > getVersion()
+	 */
+	@Raw @Model
+	void registerChange(){
+		version++;
+	}
+	
+	private long version = 0;
+
+	/**
+	 * Returns the number of times an entity was added to or removed from this world,
+	 * used by the views of this world to fail fast.
+	 */
+	@Basic @Raw @Model
+	int getModificationCount(){
+		return modificationCount;
+	}
+
+	/**
+	 * Registers that an entity was added to or removed from this world.
+	 *
+	 * @post	| new.getModificationCount() != getModificationCount()
+	 * @effect	| registerChange()
+	 */
+	@Raw @Model
+	private void registerModification(){
+		modificationCount++;
+		registerChange();
+	}
+
+	private int modificationCount = 0;
 
 	/**
 	 * Checks whether this world is terminated.
@@ -410,6 +664,8 @@ public class World {
 			worms.clear();
 			foods.clear();
 			setProjectile(null);
+			entityGrid.clear();
+			registerModification();
 			for (Entity entity : entities)
 				entity.terminate();
 			
@@ -434,12 +690,83 @@ public class World {
 	 *			| && if(hasProjectile()): result.contains(getProjectile())
 	 */
 	public Set<Entity> getEntities(){
-		Set<Entity> result = new HashSet<Entity>();
-		result.addAll(getFoods());
-		result.addAll(getWorms());
-		if(hasProjectile())
-			result.add(getProjectile());
-		return result;
+		return new HashSet<Entity>(getEntityView());
+	}
+
+	/**
+	 * Returns a read-only view of all worms, all food rations and the projectile in this world.
+	 * The view isn't a copy: it always contains the current entities of this world.
+	 *
+	 * @return	| result == getEntityView(Entity.class)
+	 */
+	@Raw
+	public EntityView<Entity> getEntityView(){
+		return entityView;
+	}
+
+	/**
+	 * Returns a read-only view of the entities of the given type in this world.
+	 * The view isn't a copy: it always contains the current entities of the given type in this world,
+	 * and its iterators fail fast when an entity is added to or removed from this world.
+	 *
+	 * @param type	The type of the entities to view.
+	 * @return	| result.getWorld() == this && result.getType() == type
+	 * @throws IllegalArgumentException
+	 * 			| type == null
+	 */
+	@Raw @SuppressWarnings("unchecked")
+	public <T extends Entity> EntityView<T> getEntityView(Class<T> type) throws IllegalArgumentException{
+		if(type == null)
+			throw new IllegalArgumentException();
+		if(type == Entity.class)
+			return (EntityView<T>) getEntityView();
+		if(type == Worm.class)
+			return (EntityView<T>) getWormView();
+		if(type == Food.class)
+			return (EntityView<T>) getFoodView();
+		return new EntityView<T>(this, type);
+	}
+
+	/**
+	 * Returns a read-only view of the worms in this world, in the order of getWorms().
+	 *
+	 * @return	| result == getEntityView(Worm.class)
+	 */
+	@Raw
+	public EntityView<Worm> getWormView(){
+		return wormView;
+	}
+
+	/**
+	 * Returns a read-only view of the food rations in this world.
+	 *
+	 * @return	| result == getEntityView(Food.class)
+	 */
+	@Raw
+	public EntityView<Food> getFoodView(){
+		return foodView;
+	}
+
+	private final EntityView<Entity> entityView = new EntityView<Entity>(this, Entity.class);
+
+	private final EntityView<Worm> wormView = new EntityView<Worm>(this, Worm.class);
+
+	private final EntityView<Food> foodView = new EntityView<Food>(this, Food.class);
+
+	/**
+	 * Returns an iterator over the worms in this world, for the views of this world.
+	 */
+	@Raw @Model
+	Iterator<Worm> iterateWorms(){
+		return worms.iterator();
+	}
+
+	/**
+	 * Returns an iterator over the food rations in this world, for the views of this world.
+	 */
+	@Raw @Model
+	Iterator<Food> iterateFoods(){
+		return foods.iterator();
 	}
 	
 	/**
@@ -594,6 +921,8 @@ public class World {
 			throw new IllegalStateException();
 		foods.add(food);
 		food.setWorld(this);
+		entityGrid.update(food);
+		registerModification();
 	}
 
 	/**
@@ -620,7 +949,9 @@ public class World {
 		if((food == null) || (!this.hasAsFood(food)))
 			throw new IllegalArgumentException();
 		foods.remove(food);
+		entityGrid.remove(food);
 		food.terminate();
+		registerModification();
 	}
 
 	/**
@@ -795,6 +1126,8 @@ public class World {
 			throw new IllegalStateException();
 		worms.add(worm);
 		worm.setWorld(this);
+		entityGrid.update(worm);
+		registerModification();
 	}
 
 	/**
@@ -830,10 +1163,12 @@ public class World {
 		if((worm == null) || (!this.hasAsWorm(worm)))
 			throw new IllegalArgumentException();
 		
-		int index = getWorms().indexOf(worm);
+		int index = worms.indexOf(worm);
 		boolean wasCurrentWorm = (getCurrentWorm() == worm);
 		worms.remove(worm);
+		entityGrid.remove(worm);
 		worm.terminate();
+		registerModification();
 		if(hasStarted()){
 			if(index <= currentWormIndex)
 				currentWormIndex--;
@@ -861,6 +1196,84 @@ public class World {
 	 */
 	private final List<Worm> worms = new ArrayList<Worm>();
 
+	/**
+	 * Registers the current position and radius of the given entity
+	 * in the spatial index of this world.
+	 * 
+	 * @param entity	The entity that moved or changed its radius.
+	 * @post	| getEntitiesOverlapping(Entity.class, pos, radius) takes the new position and radius of entity into account
+	 */
+	@Raw
+	void relocateEntity(@Raw Entity entity){
+		entityGrid.update(entity);
+	}
+	
+	/**
+	 * Returns the entities of the given type in this world that overlap with the given circle.
+	 * 
+	 * @param type		The type of entities to return.
+	 * @param pos		The center of the circle.
+	 * @param radius	The radius of the circle.
+	 * @return	| for each entity in Entity:
+	 * 			|	result.contains(entity) == (getEntities().contains(entity) && type.isInstance(entity) 
+	 * 			|		&& entity.getPosition() != null && entity.collidesWith(pos, radius))
+	 * @return	The worms in the result are in the order of getWorms().
+	 * 			| if(type == Worm.class) then
+	 * 			|	for each i,j in 0..result.size()-1:
+	 * 			|		if(i < j) then getWorms().indexOf(result.get(i)) < getWorms().indexOf(result.get(j))
+	 * @throws IllegalArgumentException
+	 * 			| pos == null || Double.isNaN(radius)
+	 */
+	public <T extends Entity> List<T> getEntitiesOverlapping(Class<T> type, Position pos, double radius) throws IllegalArgumentException{
+		if(pos == null || Double.isNaN(radius))
+			throw new IllegalArgumentException();
+		List<T> result = entityGrid.getOverlapping(type, pos, radius);
+		if(result.size() > 1 && type == Worm.class){
+			final List<Worm> order = this.worms;
+			Collections.sort(result, new Comparator<T>() {
+				@Override
+				public int compare(T first, T second) {
+					return Integer.compare(order.indexOf(first), order.indexOf(second));
+				}
+			});
+		}
+		return result;
+	}
+	
+	/**
+	 * Checks whether an entity of the given type in this world overlaps with the given circle.
+	 * 
+	 * @param type		The type of entities to check.
+	 * @param pos		The center of the circle.
+	 * @param radius	The radius of the circle.
+	 * @return	| result == !getEntitiesOverlapping(type, pos, radius).isEmpty()
+	 * @throws IllegalArgumentException
+	 * 			| pos == null || Double.isNaN(radius)
+	 */
+	public boolean hasEntityOverlapping(Class<? extends Entity> type, Position pos, double radius) throws IllegalArgumentException{
+		if(pos == null || Double.isNaN(radius))
+			throw new IllegalArgumentException();
+		return entityGrid.hasOverlapping(type, pos, radius);
+	}
+	
+	/**
+	 * Returns the entities of the given type in this world whose center lies in the given rectangle.
+	 * 
+	 * @param type	The type of entities to return.
+	 * @return	| for each entity in Entity:
+	 * 			|	result.contains(entity) == (getEntities().contains(entity) && type.isInstance(entity) && entity.getPosition() != null
+	 * 			|		&& minX <= entity.getXCoordinate() && entity.getXCoordinate() <= maxX
+	 * 			|		&& minY <= entity.getYCoordinate() && entity.getYCoordinate() <= maxY)
+	 */
+	public <T extends Entity> List<T> getEntitiesInRectangle(Class<T> type, double minX, double minY, double maxX, double maxY){
+		return entityGrid.getInRectangle(type, minX, minY, maxX, maxY);
+	}
+	
+	/**
+	 * A uniform grid with the food rations, worms and projectile of this world that have a position.
+	 */
+	private final EntityGrid entityGrid;
+
 	/** 
 	 * Return the live projectile of this world.
 	 * A null reference is returned if this world currently
@@ -929,10 +1342,15 @@ public class World {
 		
 		Projectile oldProjectile = this.projectile;
 		this.projectile = projectile;
-		if(projectile != null)
+		if(oldProjectile != null)
+			entityGrid.remove(oldProjectile);
+		if(projectile != null){
 			projectile.setWorld(this);
+			entityGrid.update(projectile);
+		}
 		if(oldProjectile != null)
 			oldProjectile.terminate();
+		registerModification();
 	}
 	
 	/**
@@ -1164,12 +1582,18 @@ public class World {
 	 * @effect	Create a food object, add it to this world and set the position to a random contact location.
 	 * 			| let food = new Food(this) in food.setPosition(findContactLocation(food.getRadius()))
 	 * @throws IllegalStateException
-	 * 			When no valid position for the food item can be found. 
+	 * 			When no valid position for the food item can be found; the food is not added then.
 	 * 			| false ? true
 	 */
 	public void addNewFood() throws IllegalStateException{
 		Food food = new Food(this);
-		Position pos = findContactLocation(food.getRadius());
+		Position pos;
+		try{
+			pos = findContactLocation(food.getRadius());
+		}catch(IllegalStateException e){
+			removeFood(food);
+			throw e;
+		}
 		food.setPosition(pos);
 	}
 	
@@ -1271,9 +1695,11 @@ public class World {
 			throw new IllegalStateException();
 		hasStarted = true;
 		currentWormIndex = 0;
-		if(getNbWorms() > 0 && getCurrentWorm().getProgram() != null){
+		if(getNbWorms() > 0 && getCurrentWorm().isComputerControlled()){
 			currentWormIndex = -1;
 			startNextTurn();
+		}else if(getNbWorms() > 0){
+			nbTurns++;
 		}
 	}
 	
@@ -1311,7 +1737,7 @@ public class World {
 			//the game has ended and the winners are the team of worm 0 (and thus the team of every worm in the game)
 			hasEnded = true;
 			winners = teamOfWorm0.getName();
-			for(Worm worm : getWorms()){
+			for(Worm worm : worms){
 				if(worm.getTeam() != teamOfWorm0){
 					hasEnded = false;
 					break;
@@ -1372,8 +1798,11 @@ public class World {
 	 * 				|		new.getCurrentWorm() == getWormAt((indexOldCurrent+1)%getNbWorms())
 	 * 				|		(new new.getCurrentWorm()).getActionPoints() == new.getCurrentWorm().getMaxActionPoints()
 	 * 				|		(new new.getCurrentWorm()).getHitPoints() == new.getCurrentWorm().getHitPoints()+10
-	 * @effect		The effects described above will repeat N times if the next N worms have a program.
-	 * 				(while calling the run() method of their programs between each 'run' of this method).
+	 * @effect		The effects described above will repeat N times if the next N worms are computer-controlled.
+	 * 				(while calling the playComputerTurn() method of those worms between each 'run' of this method).
+	 * @post		No turn starts once the maximal number of turns has started; the effects above
+	 * 				only happen if getNbTurns() < getMaxNbTurns().
+	 * 				| new.getNbTurns() <= max(getNbTurns(), getMaxNbTurns())
 	 * @throws IllegalStateException
 	 * 				| !hasStarted() || isTerminated() || getNbWorms() == 0
 	 */
@@ -1392,9 +1821,12 @@ public class World {
 			checkForWinners();
 			if(isTerminated())
 				return;
+			if(getNbTurns() >= getMaxNbTurns())
+				return;
 			
 			if(hasProjectile())
 				removeProjectile();
+			nbTurns++;
 			
 			++currentWormIndex;
 			currentWormIndex %=getNbWorms();
@@ -1402,16 +1834,52 @@ public class World {
 			current.replenishActionPoints();
 			current.increaseHitPoints(10);
 
-			if(current.getProgram() != null){
-				current.getProgram().run();
+			if(current.isComputerControlled()){
+				current.playComputerTurn();
 				if(current.isTerminated())
 					return;
 			}
 			
-		}while(getCurrentWorm() != null && getCurrentWorm().getProgram() != null);
+		}while(getCurrentWorm() != null && getCurrentWorm().isComputerControlled());
 		
 	}
 	
+	/**
+	 * Returns the number of turns that have started in this world.
+	 */
+	@Basic @Raw
+	public long getNbTurns(){
+		return nbTurns;
+	}
+	
+	private long nbTurns = 0;
+	
+	/**
+	 * Returns the maximal number of turns that start in this world.
+	 * Once that many turns have started, starting the next turn has no effect, so a game between
+	 * worms with a program that never ends stops there.
+	 */
+	@Basic @Raw
+	public long getMaxNbTurns(){
+		return maxNbTurns;
+	}
+	
+	/**
+	 * Sets the maximal number of turns that start in this world to the given number.
+	 * 
+	 * @post	| new.getMaxNbTurns() == maxNbTurns
+	 * @throws	IllegalArgumentException
+	 * 			| maxNbTurns < 0
+	 */
+	@Raw
+	public void setMaxNbTurns(long maxNbTurns) throws IllegalArgumentException{
+		if(maxNbTurns < 0)
+			throw new IllegalArgumentException();
+		this.maxNbTurns = maxNbTurns;
+	}
+	
+	private long maxNbTurns = Long.MAX_VALUE;
+	
 	/**
 	 * The index of the worm whose turn it currently is.
 	 * 
@@ -9,6 +9,8 @@ import static java.lang.Math.round;
 import static java.lang.Math.sin;
 import static java.lang.Math.sqrt;
 import static java.lang.Math.floor;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static worms.util.ModuloUtil.posMod;
 import static worms.util.Util.fuzzyGreaterThanOrEqualTo;
 import static worms.util.Util.fuzzyLessThanOrEqualTo;
@@ -43,6 +45,8 @@ import be.kuleuven.cs.som.annotate.Raw;
  *			| hasProperTeam()
  * @invar	The worm has a proper program.
  * 			| hasProperProgram()
+ * @invar	The worm has a proper planner.
+ * 			| canHaveAsPlanner(getPlanner())
  */
 public class Worm extends MassiveEntity {
 
@@ -132,9 +136,46 @@ public class Worm extends MassiveEntity {
 		world.addWorm(this);
 		addWeapon(new Bazooka());
 		addWeapon(new Rifle());
-		setTeam(team);		
+		setTeam(team);
 		setProgram(program);
 	}
+
+	/**
+	 * Creates a new worm in the given world with the state of the given worm, for a fork of the world of the given worm.
+	 *
+	 * @param world
+	 * 			The fork the new worm lives in.
+	 * @param worm
+	 * 			The worm whose state the new worm gets.
+	 * @param team
+	 * 			The team of the new worm in the given fork.
+	 * @effect	| setPosition(worm.getPosition())
+	 * @effect	| setDirection(worm.getDirection())
+	 * @effect	| setName(worm.getName())
+	 * @effect	| setRadius(worm.getRadius())
+	 * @effect	| setActionPoints(worm.getActionPoints())
+	 * @effect	| setHitPoints(worm.getHitPoints())
+	 * @effect	| world.addWorm(this)
+	 * @effect	Add the weapons of the given worm, which have no state of their own.
+	 * 			| for each weapon in worm.weapons: addWeapon(weapon)
+	 * @post	| new.getSelectedWeapon() == worm.getSelectedWeapon()
+	 * @effect	| setTeam(team)
+	 * @post	| !new.hasProgram()
+	 */
+	@Raw @Model
+	Worm(World world, Worm worm, Team team) throws IllegalArgumentException,IllegalStateException,NullPointerException{
+		setPosition(worm.getPosition());
+		setDirection(worm.getDirection());
+		setName(worm.getName());
+		setRadius(worm.getRadius());
+		setActionPoints(worm.getActionPoints());
+		setHitPoints(worm.getHitPoints());
+		world.addWorm(this);
+		for (Weapon weapon : worm.weapons)
+			addWeapon(weapon);
+		selectedWeapon = worm.selectedWeapon;
+		setTeam(team);
+	}
 	
 	/**
 	 * Gets the program for this worm.
@@ -190,6 +231,75 @@ public class Worm extends MassiveEntity {
 	
 	private Program program;
 	
+	/**
+	 * Gets the turn planner that plays the turns of this worm.
+	 */
+	@Raw @Basic
+	public TurnPlanner getPlanner(){
+		return planner;
+	}
+	
+	/**
+	 * Checks whether or not this worm has a turn planner.
+	 * 
+	 * @return	| result == (getPlanner() != null)
+	 */
+	@Raw
+	public boolean hasPlanner(){
+		return getPlanner() != null;
+	}
+	
+	/**
+	 * Checks whether this worm can have the given turn planner.
+	 * 
+	 * @return	A worm with a program can't have a planner, because the program plays its turns.
+	 * 			| result == (planner == null || !hasProgram())
+	 */
+	@Raw
+	public boolean canHaveAsPlanner(TurnPlanner planner){
+		return planner == null || !hasProgram();
+	}
+	
+	/**
+	 * Sets the turn planner that plays the turns of this worm to the given planner,
+	 * or lets the player play them if the given planner is null.
+	 * 
+	 * @post	| new.getPlanner() == planner
+	 * @throws	IllegalArgumentException
+	 * 			| !canHaveAsPlanner(planner)
+	 */
+	@Raw
+	public void setPlanner(TurnPlanner planner) throws IllegalArgumentException{
+		if(!canHaveAsPlanner(planner))
+			throw new IllegalArgumentException();
+		this.planner = planner;
+	}
+	
+	private TurnPlanner planner;
+	
+	/**
+	 * Checks whether the turns of this worm are played by the computer.
+	 * 
+	 * @return	| result == (hasProgram() || hasPlanner())
+	 */
+	@Raw
+	public boolean isComputerControlled(){
+		return hasProgram() || hasPlanner();
+	}
+	
+	/**
+	 * Lets the computer play the current turn of this worm: runs its program, or lets its planner play the turn.
+	 * 
+	 * @effect	| if(hasProgram()) then getProgram().run()
+	 * 			| else if(hasPlanner()) then getPlanner().playTurn(this)
+	 */
+	public void playComputerTurn(){
+		if(hasProgram())
+			getProgram().run();
+		else if(hasPlanner())
+			getPlanner().playTurn(this);
+	}
+	
 	/**
 	 * Checks whether the given angle is a valid angle to turn a Worm over.
 	 * 
@@ -354,7 +464,7 @@ public class Worm extends MassiveEntity {
 			getWorld().removeWorm(this);
 			return;
 		}
-		decreaseActionPoints(getCostForMove(positionAfterMove));
+		decreaseActionPoints(getCostForMove());
 		setPosition(positionAfterMove);
 		checkForFood();
 	}
@@ -373,9 +483,8 @@ public class Worm extends MassiveEntity {
 	public boolean canMove(){
 		if(isTerminated())
 			return false;
-		Position positionAfterMove = getPositionAfterMove();
-		return ((!positionAfterMove.equals(getPosition())) && 
-				(getCostForMove(positionAfterMove) <= getActionPoints()));
+		return ((!getPositionAfterMove().equals(getPosition())) && 
+				(getCostForMove() <= getActionPoints()));
 	}
 	
 	/**
@@ -447,12 +556,71 @@ public class Worm extends MassiveEntity {
 	 * 			|		)
 	 *			|		&& !onlyonlyConsideringContactLocation || getWorld().getLocationType(result, getRadius()) == LocationType.CONTACT
 	 *			|	)
+	 * @note	The result is memoised for the current position, direction and radius of this worm
+	 * 			and the current version of its world.
 	 */
 	public Position getPositionAfterMove(){
+		return getMovePlan().target;
+	}
+	
+	/**
+	 * Calculates the cost for this worm to move to the position after a move.
+	 * 
+	 * @return	| result == getCostForMove(getPositionAfterMove())
+	 */
+	public int getCostForMove(){
+		return getMovePlan().cost;
+	}
+	
+	/**
+	 * The position after a move and its cost, for a given state of this worm and its world.
+	 */
+	private static class MovePlan{
+		public Position from;
+		public double direction;
+		public double radius;
+		public long worldVersion;
+		public Position target;
+		public int cost;
+	}
+	
+	/**
+	 * Returns the plan for a move in the current state of this worm and its world.
+	 * The plan is only computed again when the position, direction or radius of this worm
+	 * or the version of its world changed since the last plan.
+	 * 
+	 * @return	| result.target == computePositionAfterMove()
+	 * 			| && result.cost == getCostForMove(result.target)
+	 */
+	@Model
+	private MovePlan getMovePlan(){
+		long worldVersion = getWorld().getVersion();
+		MovePlan plan = this.movePlan;
+		if(plan == null || plan.worldVersion != worldVersion || plan.from != getPosition()
+				|| plan.direction != getDirection() || plan.radius != getRadius()){
+			plan = new MovePlan();
+			plan.from = getPosition();
+			plan.direction = getDirection();
+			plan.radius = getRadius();
+			plan.worldVersion = worldVersion;
+			plan.target = computePositionAfterMove();
+			plan.cost = getCostForMove(plan.target);
+			this.movePlan = plan;
+		}
+		return plan;
+	}
+	
+	private MovePlan movePlan = null;
+	
+	/**
+	 * Computes the position where the worm will be if a move operation were to be executed now.
+	 * 
+	 * @return	| result == getPositionAfterMove()
+	 */
+	@Model
+	private Position computePositionAfterMove(){
 		List<DirectionInfo> directions = new ArrayList<DirectionInfo>();
 		double theta = getDirection();
-		double dStep; // probing distance step.
-		double r = getRadius();
 		
 		boolean positionFound = false;
 		
@@ -460,26 +628,7 @@ public class Worm extends MassiveEntity {
 			DirectionInfo directionInfo = new DirectionInfo();
 			directionInfo.direction = s;
 			
-			double distance;
-			double furthestDistance = 0;
-			dStep = getRadius()/10;
-			for(distance = getRadius()/10; distance <= r; distance += dStep){
-				Position probePosition = getPosition().offset((distance)*cos(s),(distance)*sin(s));
-				LocationType locType = getWorld().getLocationType(probePosition, getRadius());
-				if(locType.isPassable()) {
-					furthestDistance = distance;
-				} else 
-					break;
-			}
-			dStep = Util.DEFAULT_EPSILON;
-			for(distance = furthestDistance; distance <= r; distance += dStep){
-				Position probePosition = getPosition().offset((distance)*cos(s),(distance)*sin(s));
-				LocationType locType = getWorld().getLocationType(probePosition, getRadius());
-				if(locType.isPassable()) {
-					furthestDistance = distance;
-				} else 
-					break;
-			}
+			double furthestDistance = getFurthestPassableDistance(s);
 			if(furthestDistance >= getRadius()/10){
 				positionFound = true;
 				directionInfo.distance = furthestDistance;
@@ -493,6 +642,114 @@ public class Worm extends MassiveEntity {
 			return getPosition();
 	}
 	
+	/**
+	 * Returns the farthest distance (up to the radius of this worm) this worm can move
+	 * in the given direction while staying on passable terrain,
+	 * with a precision of Util.DEFAULT_EPSILON.
+	 * 
+	 * <p>The distance is first bracketed by probing in steps of a tenth of the radius.
+	 * From the last passable probe on, the first blocked Util.DEFAULT_EPSILON-step is searched
+	 * like a step-by-step search would, but stretches of steps that are proven passable are skipped.
+	 * Passability isn't monotone along the direction (the worm can graze a thin obstacle and pass it),
+	 * so the steps themselves aren't bisected.</p>
+	 * 
+	 * @param direction	The direction to probe in.
+	 * @return	| result == 0 || 
+	 * 			| (result <= getRadius() 
+	 * 			|	&& getWorld().getLocationType(getPosition().offset(result*cos(direction),result*sin(direction)), getRadius()).isPassable())
+	 */
+	@Model
+	private double getFurthestPassableDistance(double direction){
+		double r = getRadius();
+		double cosine = cos(direction);
+		double sine = sin(direction);
+		
+		double furthestDistance = 0;
+		double dStep = r/10; // probing distance step.
+		for(double distance = r/10; distance <= r; distance += dStep){
+			if(isPassableAfterMove(distance, cosine, sine))
+				furthestDistance = distance;
+			else
+				break;
+		}
+		
+		double epsilon = Util.DEFAULT_EPSILON;
+		long lastStep = (long)floor((r - furthestDistance)/epsilon);
+		while(furthestDistance + (lastStep+1)*epsilon <= r)
+			lastStep++;
+		while(lastStep >= 0 && furthestDistance + lastStep*epsilon > r)
+			lastStep--;
+		if(lastStep < 0)
+			return furthestDistance;
+		
+		//Step through the grid of epsilon-steps, skipping the stretches that are proven passable.
+		long passableStep = -1;
+		long step = 0;
+		while(step <= lastStep && isPassableAfterMove(furthestDistance + step*epsilon, cosine, sine)){
+			passableStep = step + getNbClearSteps(furthestDistance + step*epsilon, lastStep - step, cosine, sine);
+			step = passableStep + 1;
+		}
+		return furthestDistance + max(passableStep, 0)*epsilon;
+	}
+	
+	/**
+	 * Returns a number of Util.DEFAULT_EPSILON-steps (up to the given maximum) this worm can surely take
+	 * after moving the given distance in the direction with the given cosine and sine,
+	 * while staying on passable terrain at every step.
+	 * 
+	 * <p>The worm stays on passable terrain during n steps if the circle that covers it at the first and the last of them
+	 * is passable. Those circles grow with n and each one contains the previous ones, so unlike passability
+	 * at single steps, their passability is monotone and the largest n can be found by bisection.</p>
+	 * 
+	 * @return	| 0 <= result && result <= maxNbSteps
+	 * @return	| for each step in 0..result:
+	 * 			|	isPassableAfterMove(distance + step*Util.DEFAULT_EPSILON, cosine, sine)
+	 */
+	@Model
+	private long getNbClearSteps(double distance, long maxNbSteps, double cosine, double sine){
+		long clearSteps = 0;
+		long blockedSteps = maxNbSteps + 1;
+		//Bracket the largest number of steps by doubling, then bisect.
+		for(long nbSteps = 1; clearSteps < maxNbSteps; nbSteps = min(2*nbSteps, maxNbSteps)){
+			if(isPassableStretch(distance, nbSteps, cosine, sine))
+				clearSteps = nbSteps;
+			else{
+				blockedSteps = nbSteps;
+				break;
+			}
+		}
+		while(blockedSteps - clearSteps > 1){
+			long nbSteps = (clearSteps + blockedSteps) >>> 1;
+			if(isPassableStretch(distance, nbSteps, cosine, sine))
+				clearSteps = nbSteps;
+			else
+				blockedSteps = nbSteps;
+		}
+		return clearSteps;
+	}
+	
+	/**
+	 * Checks whether the circle that covers this worm after moving the given distance
+	 * and after moving the given number of Util.DEFAULT_EPSILON-steps further,
+	 * in the direction with the given cosine and sine, is on passable terrain.
+	 */
+	@Model
+	private boolean isPassableStretch(double distance, long nbSteps, double cosine, double sine){
+		double halfLength = nbSteps*Util.DEFAULT_EPSILON/2;
+		Position center = getPosition().offset((distance + halfLength)*cosine, (distance + halfLength)*sine);
+		return getWorld().isPassablePosition(center, getRadius() + halfLength);
+	}
+	
+	/**
+	 * Checks whether this worm would be on passable terrain after moving the given distance
+	 * in the direction with the given cosine and sine.
+	 */
+	@Model
+	private boolean isPassableAfterMove(double distance, double cosine, double sine){
+		Position probePosition = getPosition().offset(distance*cosine, distance*sine);
+		return getWorld().getLocationType(probePosition, getRadius()).isPassable();
+	}
+	
 	/**
 	 * Given a set of (direction, distance) values, returns a position
 	 * for which the distance travelled is maximal while the divergence 
@@ -663,12 +920,16 @@ public class Worm extends MassiveEntity {
 	 * @throws	IllegalArgumentException
 	 * 			The given radius is not a valid radius for this worm.
 	 * 			| !this.canHaveAsRadius(radius)
+	 * @effect	| stateChanged()
+	 * @effect	| extentChanged()
 	 */
 	@Raw
 	public void setRadius(double radius) throws IllegalArgumentException{
 		if (!this.canHaveAsRadius(radius))
 			throw new IllegalArgumentException("The given radius is not a valid radius for this worm");
 		this.radius = radius;
+		stateChanged();
+		extentChanged();
 		// Check and possibly correct if this worm's action points (APs)
 		// are still smaller than the maximum amount of APs for this worm
 		// (which depends on this worm's radius via its mass).
@@ -797,6 +1058,7 @@ public class Worm extends MassiveEntity {
 	 * @effect 	If the worm has no more APs at the end of the method, startNextTurn is called
 	 * 			| if(new.getActionPoints() == 0 && getWorld() != null && getWorld().hasStarted())
 	 * 			|		then getWorld().startNextTurn();
+	 * @effect	| stateChanged()
 	 */
 	@Raw @Model
 	private void setActionPoints(int amount){
@@ -806,6 +1068,7 @@ public class Worm extends MassiveEntity {
 			this.actionPoints = 0;
 		if (amount > this.getMaxActionPoints())
 			this.actionPoints = this.getMaxActionPoints();
+		stateChanged();
 		if (getActionPoints() == 0 && getWorld() != null && getWorld().hasStarted())
 			getWorld().startNextTurn();
 	}
@@ -931,6 +1194,7 @@ public class Worm extends MassiveEntity {
 	 *			| 	new.getHitPoints() == getMaxHitPoints()
 	 * @effect	If the new hitpoints equals 0, the worm is terminated (if not already).
 	 * 			| if(new.getHitPoints() == 0 && getWorld() != null) then getWorld().removeWorm(this)
+	 * @effect	| stateChanged()
 	 */
 	@Raw @Model
 	private void setHitPoints(int amount){
@@ -940,6 +1204,7 @@ public class Worm extends MassiveEntity {
 			this.hitPoints = 0;
 		if (amount > this.getMaxHitPoints())
 			this.hitPoints = this.getMaxHitPoints();
+		stateChanged();
 		if(getHitPoints() == 0 && getWorld() != null)
 			getWorld().removeWorm(this);
 	}
@@ -965,10 +1230,13 @@ public class Worm extends MassiveEntity {
 	 * 			| new.getActionPoints() == 0
 	 * @effect	Eat food rations the worm now touches if the worm doesn't leave the world.
 	 * 			| if(!afterJumpRemove()) then checkForFood()
+	 * @note	Running out of action points starts the next turn, in which other worms may remove this worm from its world.
 	 */
 	@Override
 	public void handleAfterJump(){
 		decreaseActionPoints(getActionPoints());
+		if(getWorld() == null)
+			return;
 		super.handleAfterJump();
 		if(!isTerminated())
 			checkForFood();
@@ -1169,6 +1437,7 @@ public class Worm extends MassiveEntity {
 	 * @post	If this worm has multiple weapons, this method will select the next one.
 	 * 			| if(getNbWeapons() > 0)
 	 * 			|		new.getSelectedWeapon() == getWeaponAt((getIndexOfWeapon(getSelectedWeapon)+1)%getNbWeapons())
+	 * @effect	| stateChanged()
 	 */
 	public void selectNextWeapon(){
 		if(getNbWeapons() == 0)
@@ -1177,6 +1446,7 @@ public class Worm extends MassiveEntity {
 			++selectedWeapon;
 			selectedWeapon %= getNbWeapons();
 		}
+		stateChanged();
 	}
 	
 	/**
@@ -1355,12 +1625,14 @@ public class Worm extends MassiveEntity {
 	 * @throws	IllegalArgumentException
 	 *			When this worm is already registered with the given team.
 	 *			| (hasTeam() && (getTeam() == team))
+	 * @effect	| stateChanged()
 	 */
 	@Raw
 	public void setTeam(@Raw Team team) throws IllegalArgumentException {
 		if(!canHaveAsTeam(team) || (hasTeam() && (getTeam() == team)))
 			throw new IllegalArgumentException();
 		this.team = team;
+		stateChanged();
 	}
 	
 	/**
@@ -1448,14 +1720,19 @@ public class Worm extends MassiveEntity {
 	 * 			|		pos.getX() != getPosition().getX()
 	 * 			|		|| fuzzyGreatherThanOrEqualTo(pos.getY(),result.getY())
 	 * 			|		|| !blocksFall(pos)
+	 * @note	The search descends one cell height at a time and then one Util.DEFAULT_EPSILON at a time,
+	 * 			but first skips the steps that are still above the ground below this worm.
 	 */
 	public Position findFallPosition(){
 		Position pos = getPosition();
 		if(blocksFall(pos))
 			return pos;
 		
+		//Below this height, the fall may be blocked by terrain or by the bottom of the world.
+		double ground = max(getWorld().getGroundHeight(pos, 1.1*getRadius()), getRadius()) + Util.DEFAULT_EPSILON;
+		
 		double offset = getWorld().cellHeight();
-		pos.offset(0, -offset);
+		pos = descendAboveGround(pos, ground, offset);
 		while(true){
 			if(blocksFall(pos))
 				break;
@@ -1464,6 +1741,7 @@ public class Worm extends MassiveEntity {
 		pos = pos.offset(0, offset);
 		
 		offset = Util.DEFAULT_EPSILON;
+		pos = descendAboveGround(pos, ground, offset);
 		while(true){
 			if(blocksFall(pos))
 				break;
@@ -1474,6 +1752,27 @@ public class Worm extends MassiveEntity {
 		return pos;
 	}
 	
+	/**
+	 * Descends from the given position in steps of the given offset, as long as it stays above the given ground.
+	 * 
+	 * @param pos		The position to descend from.
+	 * @param ground	The height (in metres) to stay above.
+	 * @param offset	The length of a step (in metres).
+	 * @return	The lowest position above the ground that is a whole number of steps below the given position,
+	 * 			or the given position if that one isn't above the ground.
+	 * 			| let
+	 * 			|	steps = max(0, ceil((pos.getY() - ground)/offset) - 1)
+	 * 			| in
+	 * 			|	result.equals(pos.offset(0, -steps*offset))
+	 */
+	@Model
+	private static Position descendAboveGround(Position pos, double ground, double offset){
+		double steps = ceil((pos.getY() - ground)/offset) - 1;
+		if(!(steps > 0))
+			return pos;
+		return pos.offset(0, -steps*offset);
+	}
+	
 	/**
 	 * Checks whether or not the given position would stop the fall of this worm.
 	 * 
@@ -1497,14 +1796,15 @@ public class Worm extends MassiveEntity {
 	 * Checks for food rations overlapping with this worm and eats them if found.
 	 * 
 	 * @effect	If this worm overlaps with one or more food rations, he eats them.
-	 * 			| for food in getWorld.getFoods():
-	 * 			| 	if(food.collidesWith(this)):
-	 *			|		eat(food);
+	 * 			| for food in getWorld().getEntitiesOverlapping(Food.class, getPosition(), getRadius()):
+	 *			|	eat(food);
 	 */
 	public void checkForFood(){
-		for (Food food : getWorld().getFoods())
-			if(food.collidesWith(this))
-				eat(food);
+		for (Food food : getWorld().getEntitiesOverlapping(Food.class, getPosition(), getRadius())){
+			if(isTerminated())
+				return;
+			eat(food);
+		}
 	}
 	
 	/**
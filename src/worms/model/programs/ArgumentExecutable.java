@@ -1,25 +1,43 @@
 package worms.model.programs;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicLong;
+
 import worms.model.programs.statements.ActionStatement;
 import worms.model.programs.statements.Foreach;
 import worms.model.programs.statements.Statement;
+import be.kuleuven.cs.som.annotate.Basic;
 import be.kuleuven.cs.som.annotate.Raw;
 
 public abstract class ArgumentExecutable implements Executable{
 	
+	/**
+	 * Checks whether the given executable is this executable or one of its (direct or indirect) subexecutables.
+	 * 
+	 * An executable can only have executables that were created before it as subexecutables,
+	 * so the subexecutables that were created before the given executable aren't searched.
+	 */
 	@Raw
 	public boolean hasAsSubExecutable(Executable executable){
 		if(executable == this)
 			return true;
-		for(Executable argument : getSubExecutables()){
-			if(argument instanceof ArgumentExecutable){
-				if(((ArgumentExecutable) argument).hasAsSubExecutable(executable))
-					return true;
-			} else {
-				if(executable == argument)
+		long minimalCreationIndex = -1;
+		if(executable instanceof ArgumentExecutable){
+			minimalCreationIndex = ((ArgumentExecutable) executable).creationIndex;
+			if(minimalCreationIndex > creationIndex)
+				return false;
+		}
+		Deque<ArgumentExecutable> pending = new ArrayDeque<ArgumentExecutable>();
+		pending.push(this);
+		while(!pending.isEmpty()){
+			for(Executable argument : pending.pop().getSubExecutables()){
+				if(argument == executable)
 					return true;
+				if(argument instanceof ArgumentExecutable
+						&& ((ArgumentExecutable) argument).creationIndex > minimalCreationIndex)
+					pending.push((ArgumentExecutable) argument);
 			}
-				
 		}
 		return false;
 	}
@@ -41,6 +59,8 @@ public abstract class ArgumentExecutable implements Executable{
 		//And to construct A, B must be constructed and thus ... and thus C 
 		//=> A needs to be constructed before it can be constructed 
 		//=> No loops can occur.
+		//An executable that is being constructed was created after its arguments,
+		//so hasAsSubExecutable() answers this in constant time.
 		
 		//No loops in executables
 		if(executable == this)
@@ -53,32 +73,66 @@ public abstract class ArgumentExecutable implements Executable{
 	
 	public abstract Executable[] getSubExecutables();
 	
-	public boolean hasActionStatementAsSubExecutable(){
-		if(!(this instanceof Statement))
-			return false;
-		for(Executable argument : getSubExecutables()){
+	/**
+	 * The number of argument executables that were created before this one.
+	 */
+	private final long creationIndex = nbCreatedExecutables.getAndIncrement();
+	
+	private static final AtomicLong nbCreatedExecutables = new AtomicLong();
+	
+	/**
+	 * Creates a new executable with the given arguments, computing the facts about its subexecutables
+	 * from the facts about its arguments, so they are known without walking the subexecutables again.
+	 * The facts are stored in final fields, so they are safely published with the executable.
+	 * 
+	 * The arguments are only inspected here: subclasses check and store them afterwards.
+	 */
+	@Raw
+	protected ArgumentExecutable(Executable... arguments){
+		boolean hasActionStatement = false;
+		boolean hasActionStatementInsideForEach = false;
+		int depth = 0;
+		for(Executable argument : arguments){
 			if(argument instanceof ActionStatement)
-				return true;
-			
+				hasActionStatement = true;
 			if(argument instanceof ArgumentExecutable){
-				if(((ArgumentExecutable) argument).hasActionStatementAsSubExecutable())
-					return true;
-			}				
+				ArgumentExecutable executable = (ArgumentExecutable) argument;
+				hasActionStatement |= executable.hasActionStatementAsSubExecutable();
+				hasActionStatementInsideForEach |= executable.hasActionStatementInsideForEach();
+				depth = Math.max(depth, executable.getDepth());
+			}
 		}
-		return false;
+		this.hasActionStatementAsSubExecutable = (this instanceof Statement) && hasActionStatement;
+		if(this instanceof Foreach)
+			this.hasActionStatementInsideForEach = this.hasActionStatementAsSubExecutable;
+		else
+			this.hasActionStatementInsideForEach = (this instanceof Statement) && hasActionStatementInsideForEach;
+		this.depth = depth + 1;
 	}
 	
+	/**
+	 * Returns the number of levels of this executable and its subexecutables: 1 more than the maximal depth
+	 * of its arguments, where arguments that don't have arguments themselves have depth 0.
+	 */
+	@Basic @Raw
+	public int getDepth(){
+		return depth;
+	}
+	
+	private final int depth;
+	
+	@Basic @Raw
+	public boolean hasActionStatementAsSubExecutable(){
+		return hasActionStatementAsSubExecutable;
+	}
+	
+	private final boolean hasActionStatementAsSubExecutable;
+	
+	@Basic @Raw
 	public boolean hasActionStatementInsideForEach(){
-		if(this instanceof Foreach)
-			return hasActionStatementAsSubExecutable();
-		if(!(this instanceof Statement))
-			return false;
-		for(Executable argument : getSubExecutables()){
-			if(argument instanceof ArgumentExecutable 
-					&& ((ArgumentExecutable)argument).hasActionStatementInsideForEach())
-				return true;
-		}
-		return false;
+		return hasActionStatementInsideForEach;
 	}
+	
+	private final boolean hasActionStatementInsideForEach;
 
 }
@@ -0,0 +1,162 @@
+package worms.model.programs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import worms.model.programs.expressions.*;
+import worms.model.programs.statements.*;
+import worms.model.programs.types.BooleanType;
+import worms.model.programs.types.DoubleType;
+import worms.model.programs.types.EntityType;
+import worms.model.programs.types.Type;
+
+/**
+ * A class of utilities for rewriting the trees of statements and expressions of programs.
+ */
+@SuppressWarnings("unchecked")
+public final class Executables {
+
+	private Executables(){
+	}
+
+	/**
+	 * Returns a new executable of the same class as the given executable, with the given subexecutables
+	 * in the order of getSubExecutables(). Other properties, such as the variable of an assignment,
+	 * are those of the given executable.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			The given executable is of a class that has no subexecutables or that isn't known,
+	 * 			or the given subexecutables aren't valid arguments for it.
+	 */
+	public static Executable withSubExecutables(Executable executable, Executable[] subExecutables) throws IllegalArgumentException{
+		try {
+			if(executable instanceof Statement)
+				return withSubStatements((Statement) executable, subExecutables);
+			return withArguments((Expression<?>) executable, subExecutables);
+		} catch (ClassCastException | ArrayIndexOutOfBoundsException exc) {
+			throw new IllegalArgumentException(exc);
+		}
+	}
+
+	/**
+	 * Returns the class of the values of the given expression in a program with the given global variables,
+	 * or null if it isn't known before the program runs.
+	 */
+	public static Class<?> getStaticType(Expression<?> expression, Map<String, Type<?>> globals){
+		Class<?> type = expression.getClass();
+		if(type == DoubleLiteral.class || type == Addition.class || type == Subtraction.class
+				|| type == Multiplication.class || type == Division.class || type == Sqrt.class
+				|| type == Sine.class || type == Cosine.class || type == GetX.class || type == GetY.class
+				|| type == GetRadius.class || type == GetDirection.class || type == GetAP.class
+				|| type == GetMaxAP.class || type == GetHP.class || type == GetMaxHP.class || type == CountWithin.class)
+			return DoubleType.class;
+		if(type == BooleanLiteral.class || type == LessThan.class || type == LessThanOrEqualTo.class
+				|| type == GreaterThan.class || type == GreaterThanOrEqualTo.class || type == Equality.class
+				|| type == Inequality.class || type == Conjunction.class || type == Disjunction.class
+				|| type == BooleanNegation.class || type == IsWorm.class || type == IsFood.class || type == SameTeam.class)
+			return BooleanType.class;
+		if(type == EntityNullLiteral.class || type == EntitySelfLiteral.class || type == EntityLiteral.class
+				|| type == SearchEntity.class || type == NearestEntity.class)
+			return EntityType.class;
+		if(type == VariableAccess.class){
+			Type<?> value = globals.get(((VariableAccess<?>) expression).getVariableName());
+			return (value == null) ? null : value.getClass();
+		}
+		return null;
+	}
+
+	private static Statement withSubStatements(Statement statement, Executable[] arguments){
+		Class<?> type = statement.getClass();
+		if(type == Sequence.class){
+			List<Statement> statements = new ArrayList<Statement>();
+			for(Executable argument : arguments)
+				statements.add((Statement) argument);
+			return new Sequence(statements);
+		}
+		if(type == If.class)
+			return new If((Expression<BooleanType>) arguments[0], (Statement) arguments[1], (Statement) arguments[2]);
+		if(type == While.class)
+			return new While((Expression<BooleanType>) arguments[0], (Statement) arguments[1]);
+		if(type == HoistingWhile.class)
+			return new HoistingWhile((Expression<BooleanType>) arguments[0], (Statement) arguments[1], (Sequence) arguments[2]);
+		if(type == Foreach.class){
+			Foreach foreach = (Foreach) statement;
+			return new Foreach(foreach.getType(), foreach.getVariableName(), foreach.getSlot(), (Statement) arguments[0]);
+		}
+		if(type == Assignment.class){
+			Assignment assignment = (Assignment) statement;
+			return new Assignment(assignment.getVariableName(), assignment.getSlot(), (Expression<? extends Type<?>>) arguments[0]);
+		}
+		if(type == Print.class)
+			return new Print((Expression<? extends Type<?>>) arguments[0]);
+		if(type == Turn.class)
+			return new Turn((Expression<DoubleType>) arguments[0]);
+		if(type == Fire.class)
+			return new Fire((Expression<DoubleType>) arguments[0]);
+		throw new IllegalArgumentException();
+	}
+
+	private static Expression<?> withArguments(Expression<?> expression, Executable[] arguments){
+		Class<?> type = expression.getClass();
+		if(type == Addition.class)
+			return new Addition((Expression<DoubleType>) arguments[0], (Expression<DoubleType>) arguments[1]);
+		if(type == Subtraction.class)
+			return new Subtraction((Expression<DoubleType>) arguments[0], (Expression<DoubleType>) arguments[1]);
+		if(type == Multiplication.class)
+			return new Multiplication((Expression<DoubleType>) arguments[0], (Expression<DoubleType>) arguments[1]);
+		if(type == Division.class)
+			return new Division((Expression<DoubleType>) arguments[0], (Expression<DoubleType>) arguments[1]);
+		if(type == LessThan.class)
+			return new LessThan((Expression<DoubleType>) arguments[0], (Expression<DoubleType>) arguments[1]);
+		if(type == LessThanOrEqualTo.class)
+			return new LessThanOrEqualTo((Expression<DoubleType>) arguments[0], (Expression<DoubleType>) arguments[1]);
+		if(type == GreaterThan.class)
+			return new GreaterThan((Expression<DoubleType>) arguments[0], (Expression<DoubleType>) arguments[1]);
+		if(type == GreaterThanOrEqualTo.class)
+			return new GreaterThanOrEqualTo((Expression<DoubleType>) arguments[0], (Expression<DoubleType>) arguments[1]);
+		if(type == Equality.class)
+			return new Equality((Expression<?>) arguments[0], (Expression<?>) arguments[1], ((Equality) expression).getOperandType());
+		if(type == Inequality.class)
+			return new Inequality((Expression<?>) arguments[0], (Expression<?>) arguments[1], ((Inequality) expression).getOperandType());
+		if(type == Conjunction.class)
+			return new Conjunction((Expression<BooleanType>) arguments[0], (Expression<BooleanType>) arguments[1]);
+		if(type == Disjunction.class)
+			return new Disjunction((Expression<BooleanType>) arguments[0], (Expression<BooleanType>) arguments[1]);
+		if(type == BooleanNegation.class)
+			return new BooleanNegation((Expression<BooleanType>) arguments[0]);
+		if(type == Sqrt.class)
+			return new Sqrt((Expression<DoubleType>) arguments[0]);
+		if(type == Sine.class)
+			return new Sine((Expression<DoubleType>) arguments[0]);
+		if(type == Cosine.class)
+			return new Cosine((Expression<DoubleType>) arguments[0]);
+		if(type == GetX.class)
+			return new GetX((Expression<EntityType>) arguments[0]);
+		if(type == GetY.class)
+			return new GetY((Expression<EntityType>) arguments[0]);
+		if(type == GetRadius.class)
+			return new GetRadius((Expression<EntityType>) arguments[0]);
+		if(type == GetDirection.class)
+			return new GetDirection((Expression<EntityType>) arguments[0]);
+		if(type == GetAP.class)
+			return new GetAP((Expression<EntityType>) arguments[0]);
+		if(type == GetMaxAP.class)
+			return new GetMaxAP((Expression<EntityType>) arguments[0]);
+		if(type == GetHP.class)
+			return new GetHP((Expression<EntityType>) arguments[0]);
+		if(type == GetMaxHP.class)
+			return new GetMaxHP((Expression<EntityType>) arguments[0]);
+		if(type == SameTeam.class)
+			return new SameTeam((Expression<EntityType>) arguments[0]);
+		if(type == IsWorm.class)
+			return new IsWorm((Expression<EntityType>) arguments[0]);
+		if(type == IsFood.class)
+			return new IsFood((Expression<EntityType>) arguments[0]);
+		if(type == SearchEntity.class)
+			return new SearchEntity((Expression<DoubleType>) arguments[0]);
+		if(type == CountWithin.class)
+			return new CountWithin(((CountWithin) expression).getType(), (Expression<DoubleType>) arguments[0]);
+		throw new IllegalArgumentException();
+	}
+}
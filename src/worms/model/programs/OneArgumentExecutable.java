@@ -6,6 +6,7 @@ import be.kuleuven.cs.som.annotate.Raw;
 public abstract class OneArgumentExecutable<F extends Executable> extends ArgumentExecutable {
 	
 	public OneArgumentExecutable(F first) throws IllegalArgumentException{
+		super(first);
 		if(!canHaveAsSubExecutable(first))
 			throw new IllegalArgumentException();
 		this.firstArgument = first;
@@ -15,7 +16,7 @@ public abstract class OneArgumentExecutable<F extends Executable> extends Argume
 	public F getFirstArgument() {
 		return firstArgument;
 	}
-	private F firstArgument;
+	private final F firstArgument;
 	
 	@Override @Raw
 	public Executable[] getSubExecutables(){
@@ -1,109 +1,342 @@
 package worms.model.programs;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
+import worms.gui.game.IActionHandler;
+import worms.model.Program;
+import worms.model.programs.compiler.CompiledProgram;
+import worms.model.programs.compiler.ProgramCompiler;
 import worms.model.programs.expressions.*;
+import worms.model.programs.optimizer.OptimizationReport;
+import worms.model.programs.optimizer.ProgramOptimizer;
 import worms.model.programs.statements.*;
 import worms.model.programs.types.*;
 
 @SuppressWarnings("unchecked")
 public class ProgramFactoryImpl implements worms.model.programs.ProgramFactory<Expression<?>, Statement, Type<?>> {
 
+	/**
+	 * Creates a new program factory whose programs interpret their optimized statements.
+	 */
+	public ProgramFactoryImpl() {
+		this(false);
+	}
+
+	/**
+	 * Creates a new program factory whose programs run compiled statements if the given flag is true,
+	 * and whose statements are optimized.
+	 * 
+	 * @param compiling	Whether the programs of the new factory are compiled.
+	 */
+	public ProgramFactoryImpl(boolean compiling) {
+		this(compiling, true);
+	}
+
+	/**
+	 * Creates a new program factory whose programs run compiled statements if the given compiling flag is true,
+	 * and whose statements are optimized before they run if the given optimizing flag is true.
+	 * 
+	 * @param compiling		Whether the programs of the new factory are compiled.
+	 * @param optimizing	Whether the statements of the programs of the new factory are optimized.
+	 */
+	public ProgramFactoryImpl(boolean compiling, boolean optimizing) {
+		this.compiling = compiling;
+		this.optimizing = optimizing;
+	}
+
+	/**
+	 * Checks whether the programs of this factory are compiled.
+	 */
+	public boolean isCompiling() {
+		return compiling;
+	}
+
+	private final boolean compiling;
+
+	/**
+	 * Checks whether the statements of the programs of this factory are optimized before they run.
+	 */
+	public boolean isOptimizing() {
+		return optimizing;
+	}
+
+	private final boolean optimizing;
+
+	/**
+	 * Creates a new program with the given main statement, globals and action handler.
+	 * If this factory optimizes its programs, the main statement is optimized first, and
+	 * the report of the optimization is stored in the program.
+	 * The types of the values the assignments and foreach statements store are then checked once:
+	 * those that can't be shown to store values of the type of their variable before the program runs
+	 * are rebuilt to write their variable by its name, which checks the value, while the others write
+	 * the slot of their variable without checks.
+	 * The equalities and inequalities whose operands are both known to be doubles, booleans or entities
+	 * are rebuilt to compare the values of their operands without boxing.
+	 * If this factory compiles its programs, the main statement is compiled to bytecode,
+	 * unless it can't be compiled.
+	 */
+	public Program createProgram(Statement mainStatement, Map<String, Type<?>> globals, IActionHandler handler) {
+		List<String> variableNames = getVariableNames();
+		OptimizationReport optimizationReport = null;
+		if (isOptimizing()) {
+			ProgramOptimizer optimizer = new ProgramOptimizer(globals, variableNames, sourceLocations);
+			mainStatement = optimizer.optimize(mainStatement);
+			globals = optimizer.getGlobals();
+			variableNames = optimizer.getVariableNames();
+			optimizationReport = optimizer.getReport();
+		}
+		mainStatement = checkStores(mainStatement, globals);
+		mainStatement = (Statement) typeComparisons(mainStatement, globals);
+		CompiledProgram compiledProgram = isCompiling() ? ProgramCompiler.compile(mainStatement, globals) : null;
+		return new Program.Builder(mainStatement, globals, handler).setVariableNames(variableNames)
+				.setCompiledProgram(compiledProgram).setOptimizationReport(optimizationReport)
+				.setSourceLocations(getSourceLocations()).build();
+	}
+
+	/**
+	 * Returns the given statement, in which the assignments and foreach statements that write a slot,
+	 * but can't be shown to store values of the type of their variable in the given global variables,
+	 * write their variable by its name instead.
+	 * Statements that change get the source location of the statement they replace.
+	 */
+	private Statement checkStores(Statement statement, Map<String, Type<?>> globals) {
+		Statement result = statement;
+		Class<?> type = statement.getClass();
+		if (type == Assignment.class) {
+			Assignment assignment = (Assignment) statement;
+			if (assignment.getSlot() >= 0 && !isStoreOf(assignment.getVariableName(),
+					Executables.getStaticType(assignment.getFirstArgument(), globals), globals))
+				result = new Assignment(assignment.getVariableName(), assignment.getFirstArgument());
+		} else if (type == Foreach.class) {
+			Foreach foreach = (Foreach) statement;
+			Statement body = checkStores(foreach.getFirstArgument(), globals);
+			int slot = isStoreOf(foreach.getVariableName(), EntityType.class, globals) ? foreach.getSlot() : -1;
+			if (body != foreach.getFirstArgument() || slot != foreach.getSlot())
+				result = new Foreach(foreach.getType(), foreach.getVariableName(), slot, body);
+		} else if (statement instanceof ArgumentExecutable) {
+			Executable[] arguments = ((ArgumentExecutable) statement).getSubExecutables();
+			boolean changed = false;
+			for (int i = 0; i < arguments.length; i++) {
+				if (arguments[i] instanceof Statement) {
+					Statement checked = checkStores((Statement) arguments[i], globals);
+					changed |= checked != arguments[i];
+					arguments[i] = checked;
+				}
+			}
+			if (changed)
+				result = (Statement) Executables.withSubExecutables(statement, arguments);
+		}
+		if (result != statement && sourceLocations.containsKey(statement))
+			sourceLocations.put(result, sourceLocations.get(statement));
+		return result;
+	}
+
+	/**
+	 * Returns the given statement or expression, in which the equalities and inequalities whose operands
+	 * are both of the same class in a program with the given global variables compare their operands
+	 * as values of that class.
+	 * Statements and expressions that change get the source location of the one they replace.
+	 */
+	private Executable typeComparisons(Executable executable, Map<String, Type<?>> globals) {
+		Executable result = executable;
+		if (executable instanceof ArgumentExecutable) {
+			Executable[] arguments = ((ArgumentExecutable) executable).getSubExecutables();
+			boolean changed = false;
+			for (int i = 0; i < arguments.length; i++) {
+				Executable typed = typeComparisons(arguments[i], globals);
+				changed |= typed != arguments[i];
+				arguments[i] = typed;
+			}
+			if (changed)
+				result = Executables.withSubExecutables(executable, arguments);
+		}
+		Class<?> type = result.getClass();
+		if (type == Equality.class || type == Inequality.class) {
+			TwoArgumentExecutable<?, ?> comparison = (TwoArgumentExecutable<?, ?>) result;
+			Expression<?> left = (Expression<?>) comparison.getFirstArgument();
+			Expression<?> right = (Expression<?>) comparison.getSecondArgument();
+			Class<?> operandType = Executables.getStaticType(left, globals);
+			if (operandType != null && operandType == Executables.getStaticType(right, globals))
+				result = (type == Equality.class) ? new Equality(left, right, operandType)
+						: new Inequality(left, right, operandType);
+		}
+		if (result != executable && sourceLocations.containsKey(executable))
+			sourceLocations.put(result, sourceLocations.get(executable));
+		return result;
+	}
+
+	/**
+	 * Checks whether the given global variables declare a variable with the given name,
+	 * whose values are of the given class.
+	 */
+	private static boolean isStoreOf(String variableName, Class<?> valueType, Map<String, Type<?>> globals) {
+		Type<?> declared = globals.get(variableName);
+		return declared != null && declared.getClass() == valueType;
+	}
+
+	/**
+	 * Returns the slot of the global variable with the given name in the programs of this factory,
+	 * giving it the next free slot if it has none yet.
+	 */
+	private int resolveVariable(String name) {
+		Integer slot = variableSlots.get(name);
+		if (slot == null) {
+			slot = variableNames.size();
+			variableSlots.put(name, slot);
+			variableNames.add(name);
+		}
+		return slot;
+	}
+
+	/**
+	 * Returns the names of the global variables the statements and expressions of this factory refer to,
+	 * in the order of their slots.
+	 */
+	public List<String> getVariableNames() {
+		return Collections.unmodifiableList(variableNames);
+	}
+
+	private final Map<String, Integer> variableSlots = new HashMap<String, Integer>();
+
+	private final List<String> variableNames = new ArrayList<String>();
+
+	/**
+	 * Registers that the given statement or expression is at the given line and column, and returns it.
+	 */
+	private <T extends Executable> T locate(int line, int column, T executable) {
+		sourceLocations.put(executable, new SourceLocation(line, column));
+		return executable;
+	}
+
+	/**
+	 * Returns the source locations of the statements and expressions this factory created.
+	 */
+	public Map<Executable, SourceLocation> getSourceLocations() {
+		return Collections.unmodifiableMap(sourceLocations);
+	}
+
+	private final Map<Executable, SourceLocation> sourceLocations = new IdentityHashMap<Executable, SourceLocation>();
+
 	@Override
 	public Expression<?> createDoubleLiteral(int line, int column, double d) {
-		return new DoubleLiteral(d);
+		return locate(line, column, new DoubleLiteral(d));
 	}
 
 	@Override
 	public Expression<?> createBooleanLiteral(int line, int column, boolean b) {
-		return new BooleanLiteral(b);
+		return locate(line, column, new BooleanLiteral(b));
 	}
 
 	@Override
 	public Expression<?> createAnd(int line, int column, Expression<?> e1,
 			Expression<?> e2) {
-		return new Conjunction((Expression<BooleanType>) e1, (Expression<BooleanType>) e2);
+		return locate(line, column, new Conjunction((Expression<BooleanType>) e1, (Expression<BooleanType>) e2));
 	}
 
 	@Override
 	public Expression<?> createOr(int line, int column, Expression<?> e1,
 			Expression<?> e2) {
-		return new Disjunction((Expression<BooleanType>) e1, (Expression<BooleanType>) e2);
+		return locate(line, column, new Disjunction((Expression<BooleanType>) e1, (Expression<BooleanType>) e2));
 	}
 
 	@Override
 	public Expression<?> createNot(int line, int column, Expression<?> e) {
-		return new BooleanNegation((Expression<BooleanType>) e);
+		return locate(line, column, new BooleanNegation((Expression<BooleanType>) e));
 	}
 
 	@Override
 	public Expression<?> createNull(int line, int column) {
-		return new EntityNullLiteral();
+		return locate(line, column, new EntityNullLiteral());
 	}
 
 	@Override
 	public Expression<?> createSelf(int line, int column) {
-		return new EntitySelfLiteral();
+		return locate(line, column, new EntitySelfLiteral());
 	}
 
 	@Override
 	public Expression<?> createGetX(int line, int column, Expression<?> e) {
-		return new GetX((Expression<EntityType>) e);
+		return locate(line, column, new GetX((Expression<EntityType>) e));
 	}
 
 	@Override
 	public Expression<?> createGetY(int line, int column, Expression<?> e) {
-		return new GetY((Expression<EntityType>) e);
+		return locate(line, column, new GetY((Expression<EntityType>) e));
 	}
 
 	@Override
 	public Expression<?> createGetRadius(int line, int column, Expression<?> e) {
-		return new GetRadius((Expression<EntityType>) e);
+		return locate(line, column, new GetRadius((Expression<EntityType>) e));
 	}
 
 	@Override
 	public Expression<?> createGetDir(int line, int column, Expression<?> e) {
-		return new GetDirection((Expression<EntityType>) e);
+		return locate(line, column, new GetDirection((Expression<EntityType>) e));
 	}
 
 	@Override
 	public Expression<?> createGetAP(int line, int column, Expression<?> e) {
-		return new GetAP((Expression<EntityType>) e);
+		return locate(line, column, new GetAP((Expression<EntityType>) e));
 	}
 
 	@Override
 	public Expression<?> createGetMaxAP(int line, int column, Expression<?> e) {
-		return new GetMaxAP((Expression<EntityType>) e);
+		return locate(line, column, new GetMaxAP((Expression<EntityType>) e));
 	}
 
 	@Override
 	public Expression<?> createGetHP(int line, int column, Expression<?> e) {
-		return new GetHP((Expression<EntityType>) e);
+		return locate(line, column, new GetHP((Expression<EntityType>) e));
 	}
 
 	@Override
 	public Expression<?> createGetMaxHP(int line, int column, Expression<?> e) {
-		return new GetMaxHP((Expression<EntityType>) e);
+		return locate(line, column, new GetMaxHP((Expression<EntityType>) e));
 	}
 
 	@Override
 	public Expression<?> createSameTeam(int line, int column, Expression<?> e) {
-		return new SameTeam((Expression<EntityType>) e);
+		return locate(line, column, new SameTeam((Expression<EntityType>) e));
 	}
 
 	@Override
 	public Expression<?> createSearchObj(int line, int column, Expression<?> e) {
-		return new SearchEntity((Expression<DoubleType>) e);
+		return locate(line, column, new SearchEntity((Expression<DoubleType>) e));
+	}
+
+	@Override
+	public Expression<?> createNearestWorm(int line, int column) {
+		return locate(line, column, new NearestEntity(NearestEntity.Target.WORM));
+	}
+
+	@Override
+	public Expression<?> createNearestFood(int line, int column) {
+		return locate(line, column, new NearestEntity(NearestEntity.Target.FOOD));
+	}
+
+	@Override
+	public Expression<?> createNearestEnemy(int line, int column) {
+		return locate(line, column, new NearestEntity(NearestEntity.Target.ENEMY));
+	}
+
+	@Override
+	public Expression<?> createCountWithin(int line, int column, ForeachType type, Expression<?> e) {
+		return locate(line, column, new CountWithin(type, (Expression<DoubleType>) e));
 	}
 
 	@Override
 	public Expression<?> createIsWorm(int line, int column, Expression<?> e) {
-		return new IsWorm((Expression<EntityType>) e);
+		return locate(line, column, new IsWorm((Expression<EntityType>) e));
 	}
 
 	@Override
 	public Expression<?> createIsFood(int line, int column, Expression<?> e) {
-		return new IsFood((Expression<EntityType>) e);
+		return locate(line, column, new IsFood((Expression<EntityType>) e));
 	}
 
 	@Override
@@ -115,148 +348,148 @@ public class ProgramFactoryImpl implements worms.model.programs.ProgramFactory<E
 	public Expression<?> createVariableAccess(int line, int column, String name,
 			Type<?> type) {
 		//This works because of the raw types underlying generic classes.
-		return new VariableAccess<Type<?>>(name);
+		return locate(line, column, new VariableAccess<Type<?>>(name, resolveVariable(name)));
 	}
 
 	@Override
 	public Expression<?> createLessThan(int line, int column, Expression<?> e1,
 			Expression<?> e2) {
-		return new LessThan((Expression<DoubleType>) e1, (Expression<DoubleType>) e2);
+		return locate(line, column, new LessThan((Expression<DoubleType>) e1, (Expression<DoubleType>) e2));
 	}
 
 	@Override
 	public Expression<?> createGreaterThan(int line, int column, Expression<?> e1,
 			Expression<?> e2) {
-		return new GreaterThan((Expression<DoubleType>) e1, (Expression<DoubleType>) e2);
+		return locate(line, column, new GreaterThan((Expression<DoubleType>) e1, (Expression<DoubleType>) e2));
 	}
 
 	@Override
 	public Expression<?> createLessThanOrEqualTo(int line, int column,
 			Expression<?> e1, Expression<?> e2) {
-		return new LessThanOrEqualTo((Expression<DoubleType>) e1, (Expression<DoubleType>) e2);
+		return locate(line, column, new LessThanOrEqualTo((Expression<DoubleType>) e1, (Expression<DoubleType>) e2));
 	}
 
 	@Override
 	public Expression<?> createGreaterThanOrEqualTo(int line, int column,
 			Expression<?> e1, Expression<?> e2) {
-		return new GreaterThanOrEqualTo((Expression<DoubleType>) e1, (Expression<DoubleType>) e2);
+		return locate(line, column, new GreaterThanOrEqualTo((Expression<DoubleType>) e1, (Expression<DoubleType>) e2));
 	}
 
 	@Override
 	public Expression<?> createEquality(int line, int column, Expression<?> e1,
 			Expression<?> e2) {
-		return new Equality(e1, e2);
+		return locate(line, column, new Equality(e1, e2));
 	}
 
 	@Override
 	public Expression<?> createInequality(int line, int column, Expression<?> e1,
 			Expression<?> e2) {
-		return new Inequality(e1, e2);
+		return locate(line, column, new Inequality(e1, e2));
 	}
 
 	@Override
 	public Expression<?> createAdd(int line, int column, Expression<?> e1,
 			Expression<?> e2) {
-		return new Addition((Expression<DoubleType>) e1, (Expression<DoubleType>) e2);
+		return locate(line, column, new Addition((Expression<DoubleType>) e1, (Expression<DoubleType>) e2));
 	}
 
 	@Override
 	public Expression<?> createSubtraction(int line, int column, Expression<?> e1,
 			Expression<?> e2) {
-		return new Subtraction((Expression<DoubleType>) e1, (Expression<DoubleType>) e2);
+		return locate(line, column, new Subtraction((Expression<DoubleType>) e1, (Expression<DoubleType>) e2));
 	}
 
 	@Override
 	public Expression<?> createMul(int line, int column, Expression<?> e1,
 			Expression<?> e2) {
-		return new Multiplication((Expression<DoubleType>) e1, (Expression<DoubleType>) e2);
+		return locate(line, column, new Multiplication((Expression<DoubleType>) e1, (Expression<DoubleType>) e2));
 	}
 
 	@Override
 	public Expression<?> createDivision(int line, int column, Expression<?> e1,
 			Expression<?> e2) {
-		return new Division((Expression<DoubleType>) e1, (Expression<DoubleType>) e2);
+		return locate(line, column, new Division((Expression<DoubleType>) e1, (Expression<DoubleType>) e2));
 	}
 
 	@Override
 	public Expression<?> createSqrt(int line, int column, Expression<?> e) {
-		return new Sqrt((Expression<DoubleType>) e);
+		return locate(line, column, new Sqrt((Expression<DoubleType>) e));
 	}
 
 	@Override
 	public Expression<?> createSin(int line, int column, Expression<?> e) {
-		return new Sine((Expression<DoubleType>) e);
+		return locate(line, column, new Sine((Expression<DoubleType>) e));
 	}
 
 	@Override
 	public Expression<?> createCos(int line, int column, Expression<?> e) {
-		return new Cosine((Expression<DoubleType>) e);
+		return locate(line, column, new Cosine((Expression<DoubleType>) e));
 	}
 
 	@Override
 	public Statement createTurn(int line, int column, Expression<?> angle) {
-		return new Turn((Expression<DoubleType>) angle);
+		return locate(line, column, new Turn((Expression<DoubleType>) angle));
 	}
 
 	@Override
 	public Statement createMove(int line, int column) {
-		return new Move();
+		return locate(line, column, new Move());
 	}
 
 	@Override
 	public Statement createJump(int line, int column) {
-		return new Jump();
+		return locate(line, column, new Jump());
 	}
 
 	@Override
 	public Statement createToggleWeap(int line, int column) {
-		return new ToggleWeapon();
+		return locate(line, column, new ToggleWeapon());
 	}
 
 	@Override
 	public Statement createFire(int line, int column, Expression<?> yield) {
-		return new Fire((Expression<DoubleType>) yield);
+		return locate(line, column, new Fire((Expression<DoubleType>) yield));
 	}
 
 	@Override
 	public Statement createSkip(int line, int column) {
-		return new Skip();
+		return locate(line, column, new Skip());
 	}
 
 	@Override
 	public Statement createAssignment(int line, int column,
 			String variableName, Expression<?> rhs) {
-		return new Assignment(variableName, rhs);
+		return locate(line, column, new Assignment(variableName, resolveVariable(variableName), rhs));
 	}
 
 	@Override
 	public Statement createIf(int line, int column, Expression<?> condition,
 			Statement then, Statement otherwise) {
-		return new If((Expression<BooleanType>) condition, then, otherwise);
+		return locate(line, column, new If((Expression<BooleanType>) condition, then, otherwise));
 	}
 
 	@Override
 	public Statement createWhile(int line, int column, Expression<?> condition,
 			Statement body) {
-		return new While((Expression<BooleanType>) condition, body);
+		return locate(line, column, new While((Expression<BooleanType>) condition, body));
 	}
 
 	@Override
 	public Statement createForeach(int line, int column,
 			worms.model.programs.ProgramFactory.ForeachType type,
 			String variableName, Statement body) {
-		return new Foreach(type, variableName, body);
+		return locate(line, column, new Foreach(type, variableName, resolveVariable(variableName), body));
 	}
 
 	@Override
 	public Statement createSequence(int line, int column,
 			List<Statement> statements) {
-		return new Sequence(statements);
+		return locate(line, column, new Sequence(statements));
 	}
 
 	@Override
 	public Statement createPrint(int line, int column, Expression<?> e) {
-		return new Print(e);
+		return locate(line, column, new Print(e));
 	}
 
 	@Override
@@ -0,0 +1,187 @@
+package worms.model.programs;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Raw;
+import worms.model.Entity;
+import worms.model.World;
+import worms.model.Worm;
+import worms.model.programs.ProgramFactory.ForeachType;
+import worms.model.programs.expressions.CountWithin;
+import worms.model.programs.expressions.NearestEntity;
+import worms.model.programs.expressions.SearchEntity;
+
+/**
+ * A class of caches of the results of the queries of a program that scan all the entities of a world:
+ * searching an entity in a direction, searching the nearest entity of a kind and counting the entities within a distance.
+ *
+ * The result of such a query only depends on the worm that asks it, its argument and the state of the entities in the world
+ * of that worm. The cache remembers results as long as the version of that world doesn't change; every action of a worm
+ * and every change in the state of an entity in that world changes its version, so the cache is cleared automatically.
+ */
+public class QueryCache {
+
+	/**
+	 * Returns the closest entity in the direction of the given worm plus the given offset.
+	 *
+	 * @return	| result == SearchEntity.search(worm, directionOffset)
+	 * @throws	WormsRuntimeException
+	 * 			| worm.getWorld() == null
+	 */
+	public Entity searchEntity(Worm worm, double directionOffset) throws WormsRuntimeException{
+		Key key = new Key(Query.SEARCH, directionOffset);
+		if(isValidFor(worm) && results.containsKey(key)){
+			hits++;
+			return (Entity) results.get(key);
+		}
+		Entity result = SearchEntity.search(worm, directionOffset);
+		store(worm, key, result);
+		return result;
+	}
+
+	/**
+	 * Returns the entity of the given kind nearest to the given worm.
+	 *
+	 * @return	| result == NearestEntity.search(worm, target)
+	 * @throws	WormsRuntimeException
+	 * 			| worm.getWorld() == null
+	 */
+	public Entity nearestEntity(Worm worm, NearestEntity.Target target) throws WormsRuntimeException{
+		Key key = new Key(target, 0);
+		if(isValidFor(worm) && results.containsKey(key)){
+			hits++;
+			return (Entity) results.get(key);
+		}
+		Entity result = NearestEntity.search(worm, target);
+		store(worm, key, result);
+		return result;
+	}
+
+	/**
+	 * Returns the number of entities of the given type within the given distance of the given worm.
+	 *
+	 * @return	| result == CountWithin.count(worm, type, radius)
+	 * @throws	WormsRuntimeException
+	 * 			| worm.getWorld() == null
+	 */
+	public double countWithin(Worm worm, ForeachType type, double radius) throws WormsRuntimeException{
+		Key key = new Key(type, radius);
+		if(isValidFor(worm)){
+			Object result = results.get(key);
+			if(result != null){
+				hits++;
+				return (Double) result;
+			}
+		}
+		double result = CountWithin.count(worm, type, radius);
+		store(worm, key, result);
+		return result;
+	}
+
+	/**
+	 * Checks whether the results in this cache were computed for the given worm in the current version of its world.
+	 */
+	@Raw
+	private boolean isValidFor(Worm worm){
+		World world = worm.getWorld();
+		return worm == this.worm && world != null && world == this.world && world.getVersion() == version;
+	}
+
+	/**
+	 * Stores the given result of the query with the given key for the given worm,
+	 * after clearing this cache if it holds results for another worm, world or version of the world.
+	 */
+	private void store(Worm worm, Key key, Object result){
+		misses++;
+		if(!isValidFor(worm) || results.size() >= MAX_NB_RESULTS){
+			results.clear();
+			this.worm = worm;
+			this.world = worm.getWorld();
+			this.version = world.getVersion();
+		}
+		results.put(key, result);
+	}
+
+	/**
+	 * Returns the number of queries this cache has answered without executing them.
+	 */
+	@Basic @Raw
+	public long getNbHits(){
+		return hits;
+	}
+
+	/**
+	 * Returns the number of queries this cache had to execute.
+	 */
+	@Basic @Raw
+	public long getNbMisses(){
+		return misses;
+	}
+
+	/**
+	 * Returns the number of results this cache currently remembers.
+	 */
+	@Raw
+	public int getNbResults(){
+		return results.size();
+	}
+
+	private long hits = 0;
+
+	private long misses = 0;
+
+	/**
+	 * The maximal number of results this cache remembers for one version of a world.
+	 * A program that searches a different direction in every iteration of a loop never hits,
+	 * so its cache must not grow without bounds.
+	 */
+	public static final int MAX_NB_RESULTS = 256;
+
+	/**
+	 * The worm, world and world version the results in this cache were computed for.
+	 */
+	private Worm worm = null;
+	private World world = null;
+	private long version = 0;
+
+	private final Map<Key, Object> results = new HashMap<Key, Object>();
+
+	/**
+	 * The kinds of queries that take a direction as their argument.
+	 * Nearest entity and count within queries are identified by their target and entity type.
+	 */
+	private static enum Query {
+		SEARCH
+	}
+
+	/**
+	 * A class of keys of query results: the kind of query and its argument.
+	 * Arguments are compared by their bits, so a query with NaN as its argument can be cached like any other.
+	 */
+	private static final class Key {
+
+		private Key(Object query, double argument){
+			this.query = query;
+			this.argument = Double.doubleToLongBits(argument);
+		}
+
+		private final Object query;
+
+		private final long argument;
+
+		@Override
+		public boolean equals(Object object){
+			if(!(object instanceof Key))
+				return false;
+			Key other = (Key) object;
+			return other.query == query && other.argument == argument;
+		}
+
+		@Override
+		public int hashCode(){
+			return 31 * query.hashCode() + Long.hashCode(argument);
+		}
+	}
+}
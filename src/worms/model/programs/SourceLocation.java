@@ -0,0 +1,75 @@
+package worms.model.programs;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * A class of locations in the source of a program: a line and a column, as given to the program factory.
+ */
+@Value
+public final class SourceLocation implements Comparable<SourceLocation> {
+
+	/**
+	 * Creates a new source location at the given line and column.
+	 *
+	 * @post	| new.getLine() == line
+	 * @post	| new.getColumn() == column
+	 */
+	public SourceLocation(int line, int column){
+		this.line = line;
+		this.column = column;
+	}
+
+	@Basic @Immutable
+	public int getLine(){
+		return line;
+	}
+
+	private final int line;
+
+	@Basic @Immutable
+	public int getColumn(){
+		return column;
+	}
+
+	private final int column;
+
+	/**
+	 * Compares this location with the given location, first by line and then by column.
+	 */
+	@Override
+	public int compareTo(SourceLocation other){
+		if(getLine() != other.getLine())
+			return Integer.compare(getLine(), other.getLine());
+		return Integer.compare(getColumn(), other.getColumn());
+	}
+
+	/**
+	 * Checks whether this location is at the same line and column as the given object.
+	 *
+	 * @return	| result == (object instanceof SourceLocation
+	 * 			|		&& ((SourceLocation) object).getLine() == getLine()
+	 * 			|		&& ((SourceLocation) object).getColumn() == getColumn())
+	 */
+	@Override
+	public boolean equals(Object object){
+		if(!(object instanceof SourceLocation))
+			return false;
+		SourceLocation other = (SourceLocation) object;
+		return other.getLine() == getLine() && other.getColumn() == getColumn();
+	}
+
+	@Override
+	public int hashCode(){
+		return 31 * getLine() + getColumn();
+	}
+
+	/**
+	 * Returns this location as line:column.
+	 */
+	@Override
+	public String toString(){
+		return getLine() + ":" + getColumn();
+	}
+}
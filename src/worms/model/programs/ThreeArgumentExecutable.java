@@ -6,6 +6,7 @@ import be.kuleuven.cs.som.annotate.Raw;
 public abstract class ThreeArgumentExecutable<F extends Executable,S extends Executable,T extends Executable> extends ArgumentExecutable {
 
 	public ThreeArgumentExecutable(F firstArgument, S secondArgument, T thirdArgument) throws IllegalArgumentException{
+		super(firstArgument, secondArgument, thirdArgument);
 		if(!canHaveAsSubExecutable(firstArgument) || ! canHaveAsSubExecutable(secondArgument) || !canHaveAsSubExecutable(thirdArgument))
 			throw new IllegalArgumentException();
 		this.firstArgument = firstArgument;
@@ -17,19 +18,19 @@ public abstract class ThreeArgumentExecutable<F extends Executable,S extends Exe
 	public F getFirstArgument() {
 		return firstArgument;
 	}
-	private F firstArgument;
+	private final F firstArgument;
 	
 	@Basic @Raw
 	public S getSecondArgument() {
 		return secondArgument;
 	}
-	private S secondArgument;
+	private final S secondArgument;
 	
 	@Basic @Raw
 	public T getThirdArgument() {
 		return thirdArgument;
 	}
-	private T thirdArgument;
+	private final T thirdArgument;
 	
 	@Override @Raw
 	public Executable[] getSubExecutables(){
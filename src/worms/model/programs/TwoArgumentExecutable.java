@@ -6,6 +6,7 @@ import be.kuleuven.cs.som.annotate.Raw;
 public abstract class TwoArgumentExecutable<F extends Executable,S extends Executable> extends ArgumentExecutable{
 
 	public TwoArgumentExecutable(F firstArgument, S secondArgument) throws IllegalArgumentException{
+		super(firstArgument, secondArgument);
 		if(!canHaveAsSubExecutable(firstArgument) || ! canHaveAsSubExecutable(secondArgument))
 			throw new IllegalArgumentException();
 		this.firstArgument = firstArgument;
@@ -16,13 +17,13 @@ public abstract class TwoArgumentExecutable<F extends Executable,S extends Execu
 	public F getFirstArgument() {
 		return firstArgument;
 	}
-	private F firstArgument;
+	private final F firstArgument;
 	
 	@Basic @Raw
 	public S getSecondArgument() {
 		return secondArgument;
 	}
-	private S secondArgument;
+	private final S secondArgument;
 	
 	@Override @Raw
 	public Executable[] getSubExecutables(){
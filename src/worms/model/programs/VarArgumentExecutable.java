@@ -9,6 +9,7 @@ import be.kuleuven.cs.som.annotate.Raw;
 public abstract class VarArgumentExecutable<T extends Executable> extends ArgumentExecutable {
 	
 	public VarArgumentExecutable(List<T> arguments) throws IllegalArgumentException{
+		super((arguments == null) ? new Executable[0] : arguments.toArray(new Executable[0]));
 		if(arguments == null)
 			throw new IllegalArgumentException();
 		for(T argument : arguments){
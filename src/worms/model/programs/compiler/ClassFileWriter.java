@@ -0,0 +1,193 @@
+package worms.model.programs.compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A class of writers of (very small) Java class files.
+ *
+ * A class file writer writes a class without fields, interfaces or attributes,
+ * with the methods whose code is written by the code writers it hands out.
+ * The class files have version 49, so the virtual machine infers the types
+ * in the code itself and the writer doesn't have to compute stack map frames.
+ */
+final class ClassFileWriter {
+
+	/**
+	 * Creates a new class file writer for a public final class with the given names.
+	 *
+	 * @param name		The internal name of the class (with slashes).
+	 * @param superName	The internal name of the superclass of the class.
+	 */
+	ClassFileWriter(String name, String superName){
+		this.thisClass = classRef(name);
+		this.superClass = classRef(superName);
+	}
+
+	private final int thisClass, superClass;
+
+	/**
+	 * Returns a writer for the code of a new method of this class.
+	 *
+	 * @param access		The access flags of the method.
+	 * @param name			The name of the method.
+	 * @param descriptor	The descriptor of the method.
+	 * @param maxLocals		The number of local variables of the method (including its parameters).
+	 */
+	CodeWriter addMethod(int access, String name, String descriptor, int maxLocals){
+		CodeWriter code = new CodeWriter(this, maxLocals);
+		methods.add(new Method(access, utf8(name), utf8(descriptor), code));
+		return code;
+	}
+
+	private static class Method {
+
+		Method(int access, int name, int descriptor, CodeWriter code){
+			this.access = access;
+			this.name = name;
+			this.descriptor = descriptor;
+			this.code = code;
+		}
+
+		final int access, name, descriptor;
+
+		final CodeWriter code;
+	}
+
+	private final List<Method> methods = new ArrayList<Method>();
+
+	/**
+	 * Returns the bytes of the class file of this writer.
+	 *
+	 * @throws IllegalStateException
+	 * 			The class is too large for a class file.
+	 */
+	byte[] toByteArray() throws IllegalStateException{
+		int code = utf8("Code");
+		if(nbPoolSlots > 0xFFFF)
+			throw new IllegalStateException("Too many constants");
+		try{
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeInt(0xCAFEBABE);
+			out.writeShort(0);
+			out.writeShort(49);
+			out.writeShort(nbPoolSlots);
+			for (Object[] constant : pool)
+				writeConstant(out, constant);
+			out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+			out.writeShort(thisClass);
+			out.writeShort(superClass);
+			out.writeShort(0);
+			out.writeShort(0);
+			out.writeShort(methods.size());
+			for (Method method : methods) {
+				out.writeShort(method.access);
+				out.writeShort(method.name);
+				out.writeShort(method.descriptor);
+				out.writeShort(1);
+				out.writeShort(code);
+				method.code.writeTo(out);
+			}
+			out.writeShort(0);
+			return bytes.toByteArray();
+		}catch(IOException e){
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void writeConstant(DataOutputStream out, Object[] constant) throws IOException{
+		int tag = (Integer) constant[0];
+		out.writeByte(tag);
+		switch(tag){
+		case TAG_UTF8:
+			out.writeUTF((String) constant[1]);
+			break;
+		case TAG_INTEGER:
+			out.writeInt((Integer) constant[1]);
+			break;
+		case TAG_DOUBLE:
+			out.writeDouble((Double) constant[1]);
+			break;
+		default:
+			for (int i = 1; i < constant.length; i++)
+				out.writeShort((Integer) constant[i]);
+		}
+	}
+
+	/*
+	 * Constant pool.
+	 */
+
+	int utf8(String value){
+		return constant(TAG_UTF8, value);
+	}
+
+	int integer(int value){
+		return constant(TAG_INTEGER, value);
+	}
+
+	int doubleConstant(double value){
+		return constant(TAG_DOUBLE, value);
+	}
+
+	int string(String value){
+		return constant(TAG_STRING, utf8(value));
+	}
+
+	int classRef(String name){
+		return constant(TAG_CLASS, utf8(name));
+	}
+
+	int fieldRef(String owner, String name, String descriptor){
+		return constant(TAG_FIELD, classRef(owner), nameAndType(name, descriptor));
+	}
+
+	int methodRef(String owner, String name, String descriptor){
+		return constant(TAG_METHOD, classRef(owner), nameAndType(name, descriptor));
+	}
+
+	int interfaceMethodRef(String owner, String name, String descriptor){
+		return constant(TAG_INTERFACE_METHOD, classRef(owner), nameAndType(name, descriptor));
+	}
+
+	private int nameAndType(String name, String descriptor){
+		return constant(TAG_NAME_AND_TYPE, utf8(name), utf8(descriptor));
+	}
+
+	/**
+	 * Returns the index of the constant with the given tag and contents,
+	 * adding it to the constant pool if it isn't there yet.
+	 */
+	private int constant(int tag, Object... contents){
+		List<Object> key = new ArrayList<Object>(contents.length + 1);
+		key.add(tag);
+		for (Object content : contents)
+			key.add(content);
+		Integer index = indices.get(key);
+		if(index == null){
+			index = nbPoolSlots;
+			// Double constants take two slots of the constant pool.
+			nbPoolSlots += (tag == TAG_DOUBLE) ? 2 : 1;
+			indices.put(key, index);
+			pool.add(key.toArray());
+		}
+		return index;
+	}
+
+	private final Map<List<Object>, Integer> indices = new HashMap<List<Object>, Integer>();
+
+	private final List<Object[]> pool = new ArrayList<Object[]>();
+
+	private int nbPoolSlots = 1;
+
+	private static final int TAG_UTF8 = 1, TAG_INTEGER = 3, TAG_DOUBLE = 6, TAG_CLASS = 7, TAG_STRING = 8,
+			TAG_FIELD = 9, TAG_METHOD = 10, TAG_INTERFACE_METHOD = 11, TAG_NAME_AND_TYPE = 12;
+
+	static final int ACC_PUBLIC = 0x0001, ACC_FINAL = 0x0010, ACC_SUPER = 0x0020;
+}
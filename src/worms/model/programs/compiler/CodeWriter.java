@@ -0,0 +1,422 @@
+package worms.model.programs.compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A class of writers of the code of a method in a class file.
+ *
+ * A code writer keeps track of the depth of the operand stack while the code is written,
+ * so it can compute the maximal depth itself. Jumps go to labels that may be placed later on.
+ */
+final class CodeWriter {
+
+	CodeWriter(ClassFileWriter classFile, int maxLocals){
+		this.classFile = classFile;
+		this.maxLocals = maxLocals;
+	}
+
+	private final ClassFileWriter classFile;
+
+	private final int maxLocals;
+
+	/**
+	 * A class of positions in the code of a code writer.
+	 */
+	static final class Label {
+
+		/**
+		 * The position of this label in the code, or -1 if it isn't placed yet.
+		 */
+		private int position = -1;
+
+		/**
+		 * The depth of the operand stack at this label, or -1 if no jump to this label has been written yet.
+		 */
+		private int depth = -1;
+	}
+
+	/**
+	 * Places the given label at the current position in the code.
+	 * If the code before the label ends with an unconditional jump, the depth of the stack
+	 * is the depth at the jumps to the label.
+	 *
+	 * @throws IllegalStateException
+	 * 			The label is already placed.
+	 */
+	void place(Label label) throws IllegalStateException{
+		if(label.position >= 0)
+			throw new IllegalStateException();
+		label.position = code.size();
+		if(!reachable){
+			depth = Math.max(label.depth, 0);
+			reachable = true;
+		}
+	}
+
+	/**
+	 * Places the given label as the handler of the exceptions thrown in the given range.
+	 * The handler starts with the exception on the stack.
+	 */
+	void placeHandler(Label handler, Label start, Label end){
+		handlers.add(new Label[]{start, end, handler});
+		reachable = false;
+		handler.depth = 1;
+		place(handler);
+		maxDepth = Math.max(maxDepth, 1);
+	}
+
+	/*
+	 * Instructions.
+	 */
+
+	/**
+	 * Writes an instruction without operands.
+	 */
+	void op(int opcode){
+		write(opcode);
+		switch(opcode){
+		case ATHROW:
+		case RETURN:
+			reachable = false;
+			adjust(opcode == ATHROW ? -1 : 0);
+			break;
+		default:
+			adjust(STACK_EFFECT[opcode]);
+		}
+	}
+
+	/**
+	 * Writes an instruction that pushes the given integer.
+	 */
+	void intConstant(int value){
+		if(-1 <= value && value <= 5)
+			op(ICONST_0 + value);
+		else if(Byte.MIN_VALUE <= value && value <= Byte.MAX_VALUE){
+			write(BIPUSH);
+			write(value);
+			adjust(1);
+		}else if(Short.MIN_VALUE <= value && value <= Short.MAX_VALUE){
+			write(SIPUSH);
+			writeShort(value);
+			adjust(1);
+		}else
+			ldc(classFile.integer(value), 1);
+	}
+
+	/**
+	 * Writes an instruction that pushes the given double.
+	 */
+	void doubleConstant(double value){
+		if(Double.doubleToRawLongBits(value) == 0L)
+			op(DCONST_0);
+		else if(value == 1.0)
+			op(DCONST_1);
+		else{
+			write(LDC2_W);
+			writeShort(classFile.doubleConstant(value));
+			adjust(2);
+		}
+	}
+
+	/**
+	 * Writes an instruction that pushes the given string.
+	 */
+	void stringConstant(String value){
+		ldc(classFile.string(value), 1);
+	}
+
+	private void ldc(int index, int size){
+		if(index <= 0xFF){
+			write(LDC);
+			write(index);
+		}else{
+			write(LDC_W);
+			writeShort(index);
+		}
+		adjust(size);
+	}
+
+	/**
+	 * Writes an instruction that loads or stores the local variable with the given index.
+	 */
+	void local(int opcode, int index){
+		write(opcode);
+		write(index);
+		adjust(STACK_EFFECT[opcode]);
+	}
+
+	/**
+	 * Writes an instruction that increments the given integer local variable.
+	 */
+	void iinc(int index, int increment){
+		write(IINC);
+		write(index);
+		write(increment);
+	}
+
+	/**
+	 * Writes an instruction with a class as operand (new, checkcast or instanceof).
+	 */
+	void type(int opcode, String name){
+		write(opcode);
+		writeShort(classFile.classRef(name));
+		adjust(STACK_EFFECT[opcode]);
+	}
+
+	/**
+	 * Writes an instruction that gets or puts a field.
+	 */
+	void field(int opcode, String owner, String name, String descriptor){
+		write(opcode);
+		writeShort(classFile.fieldRef(owner, name, descriptor));
+		int size = getSize(descriptor.charAt(0));
+		switch(opcode){
+		case GETFIELD:
+			adjust(size - 1);
+			break;
+		case PUTFIELD:
+			adjust(-size - 1);
+			break;
+		case GETSTATIC:
+			adjust(size);
+			break;
+		default:
+			adjust(-size);
+		}
+	}
+
+	/**
+	 * Writes an instruction that invokes a method.
+	 */
+	void invoke(int opcode, String owner, String name, String descriptor){
+		write(opcode);
+		if(opcode == INVOKEINTERFACE)
+			writeShort(classFile.interfaceMethodRef(owner, name, descriptor));
+		else
+			writeShort(classFile.methodRef(owner, name, descriptor));
+		int arguments = getArgumentsSize(descriptor);
+		if(opcode == INVOKEINTERFACE){
+			write(arguments + 1);
+			write(0);
+		}
+		adjust(-arguments - (opcode == INVOKESTATIC ? 0 : 1) + getSize(descriptor.charAt(descriptor.indexOf(')') + 1)));
+	}
+
+	/**
+	 * Writes a jump to the given label.
+	 */
+	void jump(int opcode, Label label){
+		adjust(STACK_EFFECT[opcode]);
+		label.depth = depth;
+		fixups.add(new Fixup(code.size(), code.size() + 1, false, label));
+		write(opcode);
+		writeShort(0);
+		if(opcode == GOTO)
+			reachable = false;
+	}
+
+	/**
+	 * Writes a jump to the label at the index on top of the stack minus the given lowest index,
+	 * or to the given default label if there is no such label.
+	 */
+	void tableSwitch(int low, Label defaultLabel, Label[] labels){
+		adjust(-1);
+		int position = code.size();
+		write(TABLESWITCH);
+		while(code.size() % 4 != 0)
+			write(0);
+		defaultLabel.depth = depth;
+		fixups.add(new Fixup(position, code.size(), true, defaultLabel));
+		writeInt(0);
+		writeInt(low);
+		writeInt(low + labels.length - 1);
+		for (Label label : labels) {
+			label.depth = depth;
+			fixups.add(new Fixup(position, code.size(), true, label));
+			writeInt(0);
+		}
+		reachable = false;
+	}
+
+	/**
+	 * Returns the current size of the code (in bytes).
+	 */
+	int size(){
+		return code.size();
+	}
+
+	/*
+	 * Output.
+	 */
+
+	/**
+	 * Writes the code attribute of this code writer (without its name) to the given stream.
+	 *
+	 * @throws IllegalStateException
+	 * 			The code is too large for a method, or a label isn't placed.
+	 */
+	void writeTo(DataOutputStream out) throws IOException, IllegalStateException{
+		byte[] bytes = code.toByteArray();
+		if(bytes.length > MAX_CODE_SIZE)
+			throw new IllegalStateException("Code too large");
+		for (Fixup fixup : fixups) {
+			if(fixup.label.position < 0)
+				throw new IllegalStateException("Label not placed");
+			int offset = fixup.label.position - fixup.instruction;
+			if(fixup.wide){
+				bytes[fixup.operand] = (byte)(offset >>> 24);
+				bytes[fixup.operand + 1] = (byte)(offset >>> 16);
+				bytes[fixup.operand + 2] = (byte)(offset >>> 8);
+				bytes[fixup.operand + 3] = (byte)offset;
+			}else{
+				if(offset < Short.MIN_VALUE || offset > Short.MAX_VALUE)
+					throw new IllegalStateException("Jump too far");
+				bytes[fixup.operand] = (byte)(offset >>> 8);
+				bytes[fixup.operand + 1] = (byte)offset;
+			}
+		}
+		out.writeInt(12 + bytes.length + 8*handlers.size());
+		out.writeShort(maxDepth);
+		out.writeShort(maxLocals);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+		out.writeShort(handlers.size());
+		for (Label[] handler : handlers) {
+			out.writeShort(handler[0].position);
+			out.writeShort(handler[1].position);
+			out.writeShort(handler[2].position);
+			out.writeShort(0);
+		}
+		out.writeShort(0);
+	}
+
+	private static class Fixup {
+
+		Fixup(int instruction, int operand, boolean wide, Label label){
+			this.instruction = instruction;
+			this.operand = operand;
+			this.wide = wide;
+			this.label = label;
+		}
+
+		final int instruction, operand;
+
+		final boolean wide;
+
+		final Label label;
+	}
+
+	private final List<Fixup> fixups = new ArrayList<Fixup>();
+
+	/**
+	 * The exception handlers of the code, as the start, end and handler label of each of them.
+	 */
+	private final List<Label[]> handlers = new ArrayList<Label[]>();
+
+	private void adjust(int delta){
+		depth += delta;
+		maxDepth = Math.max(maxDepth, depth);
+	}
+
+	private int depth = 0, maxDepth = 0;
+
+	private boolean reachable = true;
+
+	private void write(int value){
+		code.write(value);
+	}
+
+	private void writeShort(int value){
+		code.write(value >>> 8);
+		code.write(value);
+	}
+
+	private void writeInt(int value){
+		writeShort(value >>> 16);
+		writeShort(value);
+	}
+
+	private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+
+	private static int getSize(char descriptor){
+		switch(descriptor){
+		case 'V':
+			return 0;
+		case 'D':
+		case 'J':
+			return 2;
+		default:
+			return 1;
+		}
+	}
+
+	private static int getArgumentsSize(String descriptor){
+		int size = 0;
+		for (int i = 1; descriptor.charAt(i) != ')'; i++) {
+			char c = descriptor.charAt(i);
+			size += getSize(c);
+			while(descriptor.charAt(i) == '[')
+				i++;
+			if(descriptor.charAt(i) == 'L')
+				i = descriptor.indexOf(';', i);
+		}
+		return size;
+	}
+
+	/**
+	 * The largest size of the code of a method.
+	 */
+	static final int MAX_CODE_SIZE = 0xFFFF;
+
+	/*
+	 * Opcodes.
+	 */
+
+	static final int ACONST_NULL = 0x01, ICONST_M1 = 0x02, ICONST_0 = 0x03, ICONST_1 = 0x04, DCONST_0 = 0x0e, DCONST_1 = 0x0f,
+			BIPUSH = 0x10, SIPUSH = 0x11, LDC = 0x12, LDC_W = 0x13, LDC2_W = 0x14,
+			ILOAD = 0x15, ALOAD = 0x19, IALOAD = 0x2e, AALOAD = 0x32, ISTORE = 0x36, ASTORE = 0x3a, IASTORE = 0x4f, AASTORE = 0x53,
+			POP = 0x57, POP2 = 0x58, DUP = 0x59, DUP_X1 = 0x5a, DUP_X2 = 0x5b, DUP2 = 0x5c, SWAP = 0x5f,
+			IADD = 0x60, DADD = 0x63, ISUB = 0x64, DSUB = 0x67, DMUL = 0x6b, DDIV = 0x6f, IXOR = 0x82, IINC = 0x84, I2D = 0x87,
+			LCMP = 0x94, DCMPL = 0x97, DCMPG = 0x98,
+			IFEQ = 0x99, IFNE = 0x9a, IFLT = 0x9b, IFGE = 0x9c, IFGT = 0x9d, IFLE = 0x9e,
+			IF_ICMPEQ = 0x9f, IF_ICMPNE = 0xa0, IF_ICMPGE = 0xa2, IF_ICMPLE = 0xa4, IF_ACMPEQ = 0xa5, IF_ACMPNE = 0xa6,
+			GOTO = 0xa7, TABLESWITCH = 0xaa, RETURN = 0xb1,
+			GETSTATIC = 0xb2, PUTSTATIC = 0xb3, GETFIELD = 0xb4, PUTFIELD = 0xb5,
+			INVOKEVIRTUAL = 0xb6, INVOKESPECIAL = 0xb7, INVOKESTATIC = 0xb8, INVOKEINTERFACE = 0xb9,
+			NEW = 0xbb, ARRAYLENGTH = 0xbe, ATHROW = 0xbf, CHECKCAST = 0xc0, INSTANCEOF = 0xc1,
+			IFNULL = 0xc6, IFNONNULL = 0xc7;
+
+	/**
+	 * The effect on the depth of the stack of the instructions with a fixed effect.
+	 */
+	private static final int[] STACK_EFFECT = new int[256];
+
+	static{
+		STACK_EFFECT[ACONST_NULL] = 1;
+		for (int opcode = ICONST_M1; opcode <= ICONST_0 + 5; opcode++)
+			STACK_EFFECT[opcode] = 1;
+		STACK_EFFECT[DCONST_0] = STACK_EFFECT[DCONST_1] = 2;
+		STACK_EFFECT[ILOAD] = STACK_EFFECT[ALOAD] = 1;
+		STACK_EFFECT[ISTORE] = STACK_EFFECT[ASTORE] = -1;
+		STACK_EFFECT[IALOAD] = STACK_EFFECT[AALOAD] = -1;
+		STACK_EFFECT[IASTORE] = STACK_EFFECT[AASTORE] = -3;
+		STACK_EFFECT[POP] = -1;
+		STACK_EFFECT[POP2] = -2;
+		STACK_EFFECT[DUP] = STACK_EFFECT[DUP_X1] = STACK_EFFECT[DUP_X2] = 1;
+		STACK_EFFECT[DUP2] = 2;
+		STACK_EFFECT[IADD] = STACK_EFFECT[ISUB] = STACK_EFFECT[IXOR] = -1;
+		STACK_EFFECT[DADD] = STACK_EFFECT[DSUB] = STACK_EFFECT[DMUL] = STACK_EFFECT[DDIV] = -2;
+		STACK_EFFECT[I2D] = 1;
+		STACK_EFFECT[LCMP] = STACK_EFFECT[DCMPL] = STACK_EFFECT[DCMPG] = -3;
+		for (int opcode = IFEQ; opcode <= IFLE; opcode++)
+			STACK_EFFECT[opcode] = -1;
+		for (int opcode = IF_ICMPEQ; opcode <= IF_ACMPNE; opcode++)
+			STACK_EFFECT[opcode] = -2;
+		STACK_EFFECT[IFNULL] = STACK_EFFECT[IFNONNULL] = -1;
+		STACK_EFFECT[NEW] = 1;
+	}
+}
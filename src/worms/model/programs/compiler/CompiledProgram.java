@@ -0,0 +1,129 @@
+package worms.model.programs.compiler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import worms.model.Entity;
+import worms.model.Program;
+import worms.model.World;
+import worms.model.programs.WormsRuntimeException;
+import worms.model.programs.types.BooleanType;
+import worms.model.programs.types.DoubleType;
+import worms.model.programs.types.EntityType;
+
+/**
+ * A class of worm programs compiled to Java bytecode by a program compiler.
+ *
+ * A compiled program is the code of a main statement, without any state of its own:
+ * every program that runs it keeps its own execution state. The generated subclasses
+ * use the static methods of this class for the parts of a statement that aren't worth
+ * writing out in bytecode.
+ *
+ * @see ProgramCompiler
+ */
+public abstract class CompiledProgram {
+
+	/**
+	 * Initializes a new compiled program with the given constants and number of foreach statements.
+	 *
+	 * @param constants	The objects the code of the new compiled program refers to.
+	 * @param nbLoops	The number of foreach statements in the new compiled program.
+	 */
+	protected CompiledProgram(Object[] constants, int nbLoops){
+		this.constants = constants;
+		this.nbLoops = nbLoops;
+	}
+
+	/**
+	 * The objects the code of this compiled program refers to, such as the statements
+	 * whose execution isn't written out in bytecode.
+	 */
+	final Object[] constants;
+
+	/**
+	 * Returns the number of foreach statements in this compiled program.
+	 */
+	@Basic @Immutable
+	public int getNbLoops(){
+		return nbLoops;
+	}
+
+	private final int nbLoops;
+
+	/**
+	 * Returns a new execution state for this compiled program.
+	 *
+	 * @return	| !result.isRunning()
+	 */
+	public ExecutionState createExecutionState(){
+		return new ExecutionState(getNbLoops());
+	}
+
+	/**
+	 * Executes the statements of this compiled program for the given program,
+	 * from the given execution state on, in the same way as Program.run()
+	 * executes the statements on its execution stack.
+	 *
+	 * At most Program.MAX_STATEMENTS_PER_TURN statements are executed. The execution stops
+	 * before an action statement that costs more action points than the worm of the program has left,
+	 * and that action statement is skipped. If the execution stops otherwise, the execution state refers
+	 * to the statement that is executed next. If a statement throws an exception, the execution state
+	 * refers to the statement after it.
+	 *
+	 * @param program	The program to execute this compiled program for.
+	 * @param state		The execution state of the given program.
+	 * @throws WormsRuntimeException
+	 * 			A statement of this compiled program encountered a runtime error.
+	 */
+	public abstract void run(Program program, ExecutionState state) throws WormsRuntimeException;
+
+	/**
+	 * The number of the main statement of a compiled program.
+	 */
+	static final int MAIN_STATEMENT = 1;
+
+	/*
+	 * Helpers for the generated code.
+	 */
+
+	static WormsRuntimeException error(){
+		return new WormsRuntimeException();
+	}
+
+	static DoubleType box(double value){
+		return new DoubleType(value);
+	}
+
+	static BooleanType box(boolean value){
+		return BooleanType.valueOf(value);
+	}
+
+	static EntityType box(Entity value){
+		return new EntityType(value);
+	}
+
+	/**
+	 * Checks whether the given values are equal, as Equality does.
+	 */
+	static boolean isEqual(Object left, Object right){
+		if(left == null)
+			return right == null;
+		return left.equals(right);
+	}
+
+	/**
+	 * Returns the entities a foreach statement of the given program visits,
+	 * in the order in which Foreach schedules them.
+	 */
+	static Entity[] getEntities(Program program, boolean worms, boolean foods){
+		World world = program.getWorm().getWorld();
+		List<Entity> result = new ArrayList<Entity>();
+		if(worms)
+			result.addAll(world.getWormView());
+		if(foods)
+			result.addAll(world.getFoodView());
+		return result.toArray(new Entity[result.size()]);
+	}
+}
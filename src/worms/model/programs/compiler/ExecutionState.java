@@ -0,0 +1,76 @@
+package worms.model.programs.compiler;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Raw;
+import worms.model.Entity;
+
+/**
+ * A class of execution states of compiled programs.
+ *
+ * The execution state of a compiled program takes the place of the execution stack of an
+ * interpreted program: it holds the statement to execute next, and the entities that every
+ * running foreach statement still has to visit. The code of a compiled program only keeps
+ * local state between statements that don't call back into the model, so a program that
+ * is run again while one of its actions is executed continues from this execution state.
+ *
+ * @invar	| getNextStatement() >= 0
+ */
+public final class ExecutionState {
+
+	/**
+	 * Creates a new execution state for a compiled program with the given number of foreach statements.
+	 *
+	 * @param nbLoops	The number of foreach statements of the compiled program.
+	 * @post	| !new.isRunning()
+	 */
+	ExecutionState(int nbLoops){
+		this.entities = new Entity[nbLoops][];
+		this.indices = new int[nbLoops];
+	}
+
+	/**
+	 * Returns the number of the statement that is executed next,
+	 * or 0 if no statement is left to execute.
+	 */
+	@Basic @Raw
+	public int getNextStatement(){
+		return next;
+	}
+
+	/**
+	 * Checks whether there are statements left to execute.
+	 *
+	 * @return	| result == (getNextStatement() != 0)
+	 */
+	@Raw
+	public boolean isRunning(){
+		return next != 0;
+	}
+
+	/**
+	 * Schedules the main statement of the compiled program.
+	 *
+	 * @post	| new.getNextStatement() == CompiledProgram.MAIN_STATEMENT
+	 */
+	@Raw
+	public void start(){
+		next = CompiledProgram.MAIN_STATEMENT;
+	}
+
+	/**
+	 * The number of the statement that is executed next, or 0 if no statement is left to execute.
+	 * The code of a compiled program reads and writes this field directly.
+	 */
+	int next = 0;
+
+	/**
+	 * The entities that are visited by every foreach statement, in the order of the entity views
+	 * of the world. A foreach statement visits them from the last one to the first one.
+	 */
+	final Entity[][] entities;
+
+	/**
+	 * The number of entities that every foreach statement still has to visit.
+	 */
+	final int[] indices;
+}
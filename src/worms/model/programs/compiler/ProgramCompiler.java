@@ -0,0 +1,930 @@
+package worms.model.programs.compiler;
+
+import static worms.model.programs.compiler.CodeWriter.*;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import worms.model.Program;
+import worms.model.programs.OneArgumentExecutable;
+import worms.model.programs.TwoArgumentExecutable;
+import worms.model.programs.ProgramFactory.ForeachType;
+import worms.model.programs.compiler.CodeWriter.Label;
+import worms.model.programs.expressions.*;
+import worms.model.programs.statements.*;
+import worms.model.programs.types.BooleanType;
+import worms.model.programs.types.DoubleType;
+import worms.model.programs.types.EntityType;
+import worms.model.programs.types.Type;
+
+/**
+ * A class of compilers of worm programs to Java bytecode.
+ *
+ * A program compiler turns the main statement of a program into a hidden class whose run method
+ * executes the statements in the same order as Program.run() pops them from its execution stack,
+ * counting them against the same budget per turn. Every statement gets a number, and the code
+ * writes the number of the statement it continues with into the execution state before every action
+ * and on every runtime error, so that it can resume from there.
+ *
+ * Expressions are evaluated on the operand stack with primitive values, except for expressions of
+ * classes the compiler doesn't know: those are evaluated by calling their calculate method.
+ * Programs with statements of unknown classes aren't compiled at all, since those statements may
+ * schedule statements on the execution stack of the program themselves.
+ */
+public final class ProgramCompiler {
+
+	/**
+	 * Compiles the given main statement of a program with the given global variables.
+	 *
+	 * @param mainStatement	The main statement to compile.
+	 * @param globals		The global variables of the program, with a value of their type.
+	 * @return	A compiled program that executes the given main statement in the same way as Program.run(),
+	 * 			or null if the given main statement can't be compiled (because it contains statements of
+	 * 			unknown classes or because it is too large for a single method).
+	 */
+	public static CompiledProgram compile(Statement mainStatement, Map<String, ? extends Type<?>> globals){
+		if(mainStatement == null)
+			return null;
+		try{
+			return new ProgramCompiler(globals).compileProgram(mainStatement);
+		}catch(UnsupportedOperationException e){
+			return null;
+		}catch(IllegalStateException e){
+			return null;
+		}catch(StackOverflowError e){
+			return null;
+		}
+	}
+
+	private ProgramCompiler(Map<String, ? extends Type<?>> globals){
+		this.globals = globals;
+		this.classFile = new ClassFileWriter(CLASS_NAME, BASE_CLASS);
+	}
+
+	private final Map<String, ? extends Type<?>> globals;
+
+	private final ClassFileWriter classFile;
+
+	private CodeWriter code;
+
+	private CompiledProgram compileProgram(Statement mainStatement){
+		CodeWriter constructor = classFile.addMethod(ClassFileWriter.ACC_PUBLIC, "<init>", "([Ljava/lang/Object;)V", 2);
+		code = classFile.addMethod(ClassFileWriter.ACC_PUBLIC, "run", "(L" + PROGRAM + ";L" + STATE + ";)V", 6);
+
+		code.local(ALOAD, 1);
+		code.invoke(INVOKEVIRTUAL, PROGRAM, "getWorm", "()L" + WORM + ";");
+		code.local(ASTORE, WORM_LOCAL);
+		code.intConstant(0);
+		code.local(ISTORE, COUNT_LOCAL);
+		code.local(ALOAD, 0);
+		code.field(GETFIELD, BASE_CLASS, "constants", "[Ljava/lang/Object;");
+		code.local(ASTORE, CONSTANTS_LOCAL);
+		code.jump(GOTO, dispatch);
+
+		Continuation end = new Continuation(new Label(), 0);
+		entries.add(exit);
+		Continuation main = newContinuation();
+		compileStatement(mainStatement, main, end);
+
+		code.place(end.label);
+		code.local(ALOAD, 2);
+		code.intConstant(0);
+		code.field(PUTFIELD, STATE, "next", "I");
+		code.op(RETURN);
+
+		for (int i = 0; i < stubs.size(); i++) {
+			if(stubs.get(i) == null)
+				continue;
+			code.place(stubs.get(i));
+			code.intConstant(i);
+			code.jump(GOTO, suspend);
+		}
+		code.place(suspend);
+		code.local(ALOAD, 2);
+		code.op(SWAP);
+		code.field(PUTFIELD, STATE, "next", "I");
+		code.op(RETURN);
+
+		for (Handler handler : handlers) {
+			code.placeHandler(new Label(), handler.start, handler.end);
+			code.local(ALOAD, 2);
+			code.intConstant(handler.continuation);
+			code.field(PUTFIELD, STATE, "next", "I");
+			code.op(ATHROW);
+		}
+
+		code.place(dispatch);
+		code.local(ALOAD, 2);
+		code.field(GETFIELD, STATE, "next", "I");
+		code.tableSwitch(0, exit, entries.toArray(new Label[entries.size()]));
+		code.place(exit);
+		code.op(RETURN);
+
+		constructor.local(ALOAD, 0);
+		constructor.local(ALOAD, 1);
+		constructor.intConstant(nbLoops);
+		constructor.invoke(INVOKESPECIAL, BASE_CLASS, "<init>", "([Ljava/lang/Object;I)V");
+		constructor.op(RETURN);
+
+		return define(classFile.toByteArray(), constants.toArray());
+	}
+
+	/**
+	 * Defines a hidden class with the given bytes and returns a new instance of it.
+	 */
+	private static CompiledProgram define(byte[] bytes, Object[] constants) throws IllegalStateException{
+		try{
+			MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(bytes, true);
+			return (CompiledProgram) lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class, Object[].class))
+					.invoke(constants);
+		}catch(RuntimeException e){
+			throw e;
+		}catch(Error e){
+			throw e;
+		}catch(Throwable e){
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/*
+	 * Statements.
+	 */
+
+	/**
+	 * A class of statements to continue with: a label in the code and the number
+	 * of the statement at that label.
+	 */
+	private static class Continuation {
+
+		Continuation(Label label, int number){
+			this.label = label;
+			this.number = number;
+		}
+
+		final Label label;
+
+		final int number;
+	}
+
+	/**
+	 * Returns a new continuation with a new number, that the code can resume from.
+	 */
+	private Continuation newContinuation(){
+		Label label = new Label();
+		entries.add(label);
+		return new Continuation(label, entries.size() - 1);
+	}
+
+	/**
+	 * The labels of the statements the code can resume from, by number.
+	 * Number 0 means there are no statements left.
+	 */
+	private final List<Label> entries = new ArrayList<Label>();
+
+	/**
+	 * Writes the code of the given statement at the label of the given entry,
+	 * continuing with the given continuation.
+	 *
+	 * @throws UnsupportedOperationException
+	 * 			The given statement (or one of its substatements) is of an unknown class.
+	 */
+	private void compileStatement(Statement statement, Continuation entry, Continuation next) throws UnsupportedOperationException{
+		Class<?> type = statement.getClass();
+		if(type == Sequence.class)
+			compileSequence((Sequence) statement, entry, next);
+		else if(type == If.class)
+			compileIf((If) statement, entry, next);
+		else if(type == While.class)
+			compileWhile((While) statement, entry, next);
+		else if(type == HoistingWhile.class)
+			compileHoistingWhile((HoistingWhile) statement, entry, next);
+		else if(type == Foreach.class)
+			compileForeach((Foreach) statement, entry, next);
+		else if(type == Assignment.class)
+			compileAssignment((Assignment) statement, entry, next);
+		else if(type == Print.class)
+			compilePrint((Print) statement, entry, next);
+		else if(type == Skip.class){
+			writeStart(entry);
+			code.jump(GOTO, next.label);
+		}else if(type == Move.class || type == Jump.class || type == Turn.class || type == Fire.class || type == ToggleWeapon.class)
+			compileAction((ActionStatement) statement, entry, next);
+		else
+			throw new UnsupportedOperationException();
+	}
+
+	private void compileSequence(Sequence sequence, Continuation entry, Continuation next){
+		Continuation[] entries = new Continuation[sequence.getNbArguments() + 1];
+		for (int i = 0; i < sequence.getNbArguments(); i++)
+			entries[i] = newContinuation();
+		entries[sequence.getNbArguments()] = next;
+		writeStart(entry);
+		code.jump(GOTO, entries[0].label);
+		for (int i = 0; i < sequence.getNbArguments(); i++)
+			compileStatement(sequence.getArgumentAt(i), entries[i], entries[i + 1]);
+	}
+
+	private void compileIf(If statement, Continuation entry, Continuation next){
+		Continuation then = newContinuation();
+		Continuation otherwise = newContinuation();
+		writeStart(entry);
+		Label start = startHandled();
+		compileExpression(statement.getFirstArgument(), Kind.BOOLEAN);
+		endHandled(start, next);
+		code.jump(IFEQ, otherwise.label);
+		code.jump(GOTO, then.label);
+		compileStatement(statement.getSecondArgument(), then, next);
+		compileStatement(statement.getThirdArgument(), otherwise, next);
+	}
+
+	private void compileWhile(While statement, Continuation entry, Continuation next){
+		Continuation body = newContinuation();
+		writeStart(entry);
+		Label start = startHandled();
+		compileExpression(statement.getFirstArgument(), Kind.BOOLEAN);
+		endHandled(start, next);
+		code.jump(IFEQ, next.label);
+		code.jump(GOTO, body.label);
+		compileStatement(statement.getSecondArgument(), body, entry);
+	}
+
+	/**
+	 * Writes the code of a hoisting while statement. The assignments of its loop invariants are part of
+	 * the statement at its entry, the condition is checked again at a continuation that counts as the
+	 * while statement that repeats the loop.
+	 */
+	private void compileHoistingWhile(HoistingWhile statement, Continuation entry, Continuation next){
+		Continuation loop = newContinuation();
+		Continuation body = newContinuation();
+		writeStart(entry);
+		Label start = startHandled();
+		Sequence invariants = statement.getThirdArgument();
+		for (int i = 0; i < invariants.getNbArguments(); i++){
+			if(!(invariants.getArgumentAt(i) instanceof Assignment))
+				throw new UnsupportedOperationException();
+			Assignment assignment = (Assignment) invariants.getArgumentAt(i);
+			code.local(ALOAD, 1);
+			String variable = writeVariable(assignment.getVariableName(), assignment.getSlot());
+			compileExpression(assignment.getFirstArgument(), Kind.VALUE);
+			code.invoke(INVOKEVIRTUAL, PROGRAM, "setVariableValue", "(" + variable + "L" + TYPE + ";)V");
+		}
+		compileExpression(statement.getFirstArgument(), Kind.BOOLEAN);
+		endHandled(start, next);
+		code.jump(IFEQ, next.label);
+		code.jump(GOTO, body.label);
+
+		writeStart(loop);
+		start = startHandled();
+		compileExpression(statement.getFirstArgument(), Kind.BOOLEAN);
+		endHandled(start, next);
+		code.jump(IFEQ, next.label);
+		code.jump(GOTO, body.label);
+		compileStatement(statement.getSecondArgument(), body, loop);
+	}
+
+	/**
+	 * Writes the code of a foreach statement. Foreach schedules the body of the statement and an assignment
+	 * to its variable for every entity, so the code visits the entities from the last one to the first one
+	 * and counts every assignment as a statement.
+	 */
+	private void compileForeach(Foreach statement, Continuation entry, Continuation next){
+		int loop = nbLoops++;
+		ForeachType type = statement.getType();
+		Continuation visit = newContinuation();
+		Continuation body = newContinuation();
+
+		writeStart(entry);
+		Label start = startHandled();
+		code.local(ALOAD, 2);
+		code.field(GETFIELD, STATE, "entities", "[[L" + ENTITY + ";");
+		code.intConstant(loop);
+		code.local(ALOAD, 1);
+		code.intConstant((type == ForeachType.WORM || type == ForeachType.ANY) ? 1 : 0);
+		code.intConstant((type == ForeachType.FOOD || type == ForeachType.ANY) ? 1 : 0);
+		code.invoke(INVOKESTATIC, BASE_CLASS, "getEntities", "(L" + PROGRAM + ";ZZ)[L" + ENTITY + ";");
+		code.op(AASTORE);
+		writeLoopIndex(loop);
+		code.local(ALOAD, 2);
+		code.field(GETFIELD, STATE, "entities", "[[L" + ENTITY + ";");
+		code.intConstant(loop);
+		code.op(AALOAD);
+		code.op(ARRAYLENGTH);
+		code.op(IASTORE);
+		endHandled(start, next);
+
+		// The assignment to the variable of the statement for the next entity.
+		code.place(visit.label);
+		writeLoopIndex(loop);
+		code.op(IALOAD);
+		code.jump(IFEQ, next.label);
+		writeCount(visit);
+		start = startHandled();
+		writeLoopIndex(loop);
+		code.op(DUP2);
+		code.op(IALOAD);
+		code.intConstant(-1);
+		code.op(IADD);
+		code.op(IASTORE);
+		code.local(ALOAD, 1);
+		String variable = writeVariable(statement.getVariableName(), statement.getSlot());
+		code.local(ALOAD, 2);
+		code.field(GETFIELD, STATE, "entities", "[[L" + ENTITY + ";");
+		code.intConstant(loop);
+		code.op(AALOAD);
+		writeLoopIndex(loop);
+		code.op(IALOAD);
+		code.op(AALOAD);
+		code.invoke(INVOKESTATIC, BASE_CLASS, "box", "(L" + ENTITY + ";)L" + ENTITY_TYPE + ";");
+		code.invoke(INVOKEVIRTUAL, PROGRAM, "setVariableValue", "(" + variable + "L" + TYPE + ";)V");
+		endHandled(start, body);
+		code.jump(GOTO, body.label);
+
+		compileStatement(statement.getFirstArgument(), body, visit);
+	}
+
+	private void writeLoopIndex(int loop){
+		code.local(ALOAD, 2);
+		code.field(GETFIELD, STATE, "indices", "[I");
+		code.intConstant(loop);
+	}
+
+	private void compileAssignment(Assignment assignment, Continuation entry, Continuation next){
+		writeStart(entry);
+		Label start = startHandled();
+		code.local(ALOAD, 1);
+		String variable = writeVariable(assignment.getVariableName(), assignment.getSlot());
+		compileExpression(assignment.getFirstArgument(), Kind.VALUE);
+		code.invoke(INVOKEVIRTUAL, PROGRAM, "setVariableValue", "(" + variable + "L" + TYPE + ";)V");
+		endHandled(start, next);
+		code.jump(GOTO, next.label);
+	}
+
+	private void compilePrint(Print print, Continuation entry, Continuation next){
+		writeStart(entry);
+		Label start = startHandled();
+		code.local(ALOAD, 1);
+		code.invoke(INVOKEVIRTUAL, PROGRAM, "getActionHandler", "()L" + ACTION_HANDLER + ";");
+		compileExpression(print.getFirstArgument(), Kind.OBJECT);
+		code.invoke(INVOKEVIRTUAL, "java/lang/Object", "toString", "()Ljava/lang/String;");
+		code.invoke(INVOKEINTERFACE, ACTION_HANDLER, "print", "(Ljava/lang/String;)V");
+		endHandled(start, next);
+		code.jump(GOTO, next.label);
+	}
+
+	/**
+	 * Writes the code of an action statement. The code stops if the worm can't afford the action,
+	 * and else continues from the execution state after the action, since the action may have
+	 * run the program again.
+	 */
+	private void compileAction(ActionStatement action, Continuation entry, Continuation next){
+		int constant = addConstant(action);
+		Label affordable = new Label();
+		writeStart(entry);
+		Label start = startHandled();
+		writeConstant(constant, ACTION_STATEMENT);
+		code.local(ALOAD, 1);
+		code.invoke(INVOKEINTERFACE, ACTION_STATEMENT, "getCost", "(L" + PROGRAM + ";)I");
+		code.local(ALOAD, WORM_LOCAL);
+		code.invoke(INVOKEVIRTUAL, WORM, "getActionPoints", "()I");
+		code.jump(IF_ICMPLE, affordable);
+		code.intConstant(next.number);
+		code.jump(GOTO, suspend);
+		code.place(affordable);
+		code.local(ALOAD, 2);
+		code.intConstant(next.number);
+		code.field(PUTFIELD, STATE, "next", "I");
+		writeConstant(constant, ACTION_STATEMENT);
+		code.local(ALOAD, 1);
+		code.invoke(INVOKEINTERFACE, ACTION_STATEMENT, "execute", "(L" + PROGRAM + ";)V");
+		endHandled(start, next);
+		code.jump(GOTO, dispatch);
+	}
+
+	/**
+	 * Writes the start of every statement at the label of the given entry.
+	 */
+	private void writeStart(Continuation entry){
+		code.place(entry.label);
+		writeCount(entry);
+	}
+
+	/**
+	 * Writes the code that stops (at the given entry) if the budget of statements is used up
+	 * or if the worm is terminated, and else counts a statement.
+	 */
+	private void writeCount(Continuation entry){
+		code.local(ILOAD, COUNT_LOCAL);
+		code.intConstant(Program.MAX_STATEMENTS_PER_TURN);
+		code.jump(IF_ICMPGE, getStub(entry.number));
+		code.local(ALOAD, WORM_LOCAL);
+		code.invoke(INVOKEVIRTUAL, WORM, "isTerminated", "()Z");
+		code.jump(IFNE, getStub(entry.number));
+		code.iinc(COUNT_LOCAL, 1);
+	}
+
+	/**
+	 * Returns the label of the code that stops at the statement with the given number.
+	 */
+	private Label getStub(int number){
+		while(stubs.size() <= number)
+			stubs.add(null);
+		if(stubs.get(number) == null)
+			stubs.set(number, new Label());
+		return stubs.get(number);
+	}
+
+	private final List<Label> stubs = new ArrayList<Label>();
+
+	/**
+	 * The code that stops with the number of the next statement on the stack.
+	 */
+	private final Label suspend = new Label();
+
+	/**
+	 * The code that continues with the statement in the execution state.
+	 */
+	private final Label dispatch = new Label();
+
+	/**
+	 * The code that returns.
+	 */
+	private final Label exit = new Label();
+
+	/*
+	 * Runtime errors.
+	 */
+
+	private Label startHandled(){
+		Label start = new Label();
+		code.place(start);
+		return start;
+	}
+
+	/**
+	 * Registers that the code since the given start continues with the given continuation
+	 * if it throws an exception.
+	 */
+	private void endHandled(Label start, Continuation next){
+		Label end = new Label();
+		code.place(end);
+		handlers.add(new Handler(start, end, next.number));
+	}
+
+	private static class Handler {
+
+		Handler(Label start, Label end, int continuation){
+			this.start = start;
+			this.end = end;
+			this.continuation = continuation;
+		}
+
+		final Label start, end;
+
+		final int continuation;
+	}
+
+	private final List<Handler> handlers = new ArrayList<Handler>();
+
+	/*
+	 * Expressions.
+	 */
+
+	/**
+	 * The kinds of values on the operand stack.
+	 */
+	private static enum Kind {
+		/**
+		 * A double.
+		 */
+		DOUBLE,
+		/**
+		 * An int that is 0 or 1.
+		 */
+		BOOLEAN,
+		/**
+		 * A reference to an entity (or null).
+		 */
+		ENTITY,
+		/**
+		 * A reference to a Type.
+		 */
+		VALUE,
+		/**
+		 * A reference to the (boxed) value of a Type.
+		 */
+		OBJECT
+	}
+
+	/**
+	 * Writes the code of the given expression, with a value of the given kind as result.
+	 */
+	private void compileExpression(Expression<?> expression, Kind kind){
+		convert(compileExpression(expression), kind);
+	}
+
+	/**
+	 * Writes the code of the given expression and returns the kind of its result.
+	 */
+	private Kind compileExpression(Expression<?> expression){
+		Class<?> type = expression.getClass();
+		if(type == DoubleLiteral.class && !Double.isNaN(((DoubleLiteral) expression).getValue())){
+			code.doubleConstant(((DoubleLiteral) expression).getValue());
+			return Kind.DOUBLE;
+		}
+		if(type == BooleanLiteral.class){
+			code.intConstant(((BooleanLiteral) expression).getValue() ? 1 : 0);
+			return Kind.BOOLEAN;
+		}
+		if(type == EntityNullLiteral.class){
+			code.op(ACONST_NULL);
+			return Kind.ENTITY;
+		}
+		if(type == EntitySelfLiteral.class){
+			code.local(ALOAD, WORM_LOCAL);
+			return Kind.ENTITY;
+		}
+		if(type == VariableAccess.class)
+			return compileVariableAccess((VariableAccess<?>) expression);
+		if(type == Addition.class)
+			return compileArithmetic((TwoArgumentExecutable<?, ?>) expression, DADD);
+		if(type == Subtraction.class)
+			return compileArithmetic((TwoArgumentExecutable<?, ?>) expression, DSUB);
+		if(type == Multiplication.class)
+			return compileArithmetic((TwoArgumentExecutable<?, ?>) expression, DMUL);
+		if(type == Division.class)
+			return compileDivision((Division) expression);
+		if(type == Sqrt.class)
+			return compileSqrt((Sqrt) expression);
+		if(type == Sine.class)
+			return compileMath((Sine) expression, "sin");
+		if(type == Cosine.class)
+			return compileMath((Cosine) expression, "cos");
+		if(type == LessThan.class)
+			return compileComparison((TwoArgumentExecutable<?, ?>) expression, DCMPG, IFGE);
+		if(type == LessThanOrEqualTo.class)
+			return compileComparison((TwoArgumentExecutable<?, ?>) expression, DCMPG, IFGT);
+		if(type == GreaterThan.class)
+			return compileComparison((TwoArgumentExecutable<?, ?>) expression, DCMPL, IFLE);
+		if(type == GreaterThanOrEqualTo.class)
+			return compileComparison((TwoArgumentExecutable<?, ?>) expression, DCMPL, IFLT);
+		if(type == Equality.class)
+			return compileEquality((TwoArgumentExecutable<?, ?>) expression, false);
+		if(type == Inequality.class)
+			return compileEquality((TwoArgumentExecutable<?, ?>) expression, true);
+		if(type == Conjunction.class)
+			return compileShortCircuit((TwoArgumentExecutable<?, ?>) expression, false);
+		if(type == Disjunction.class)
+			return compileShortCircuit((TwoArgumentExecutable<?, ?>) expression, true);
+		if(type == BooleanNegation.class){
+			compileExpression(((BooleanNegation) expression).getFirstArgument(), Kind.BOOLEAN);
+			code.intConstant(1);
+			code.op(IXOR);
+			return Kind.BOOLEAN;
+		}
+		if(type == GetX.class)
+			return compileEntityProperty((GetX) expression, ENTITY, "getXCoordinate", "()D");
+		if(type == GetY.class)
+			return compileEntityProperty((GetY) expression, ENTITY, "getYCoordinate", "()D");
+		if(type == GetRadius.class)
+			return compileEntityProperty((GetRadius) expression, ENTITY, "getRadius", "()D");
+		if(type == GetDirection.class)
+			return compileEntityProperty((GetDirection) expression, MASSIVE_ENTITY, "getDirection", "()D");
+		if(type == GetAP.class)
+			return compileEntityProperty((GetAP) expression, WORM, "getActionPoints", "()I");
+		if(type == GetMaxAP.class)
+			return compileEntityProperty((GetMaxAP) expression, WORM, "getMaxActionPoints", "()I");
+		if(type == GetHP.class)
+			return compileEntityProperty((GetHP) expression, WORM, "getHitPoints", "()I");
+		if(type == GetMaxHP.class)
+			return compileEntityProperty((GetMaxHP) expression, WORM, "getMaxHitPoints", "()I");
+		if(type == IsWorm.class)
+			return compileInstanceOf((IsWorm) expression, WORM);
+		if(type == IsFood.class)
+			return compileInstanceOf((IsFood) expression, FOOD);
+		if(type == SameTeam.class){
+			code.local(ALOAD, WORM_LOCAL);
+			compileExpression(((SameTeam) expression).getFirstArgument(), Kind.ENTITY);
+			code.invoke(INVOKESTATIC, "worms/model/programs/expressions/SameTeam", "isSameTeam", "(L" + WORM + ";L" + ENTITY + ";)Z");
+			return Kind.BOOLEAN;
+		}
+		// Queries that scan the world go through the query cache of the program.
+		if(type == SearchEntity.class){
+			writeQueryCache();
+			compileExpression(((SearchEntity) expression).getFirstArgument(), Kind.DOUBLE);
+			code.invoke(INVOKEVIRTUAL, QUERY_CACHE, "searchEntity", "(L" + WORM + ";D)L" + ENTITY + ";");
+			return Kind.ENTITY;
+		}
+		if(type == NearestEntity.class){
+			writeQueryCache();
+			writeConstant(addConstant(((NearestEntity) expression).getTarget()), NEAREST_ENTITY_TARGET);
+			code.invoke(INVOKEVIRTUAL, QUERY_CACHE, "nearestEntity",
+					"(L" + WORM + ";L" + NEAREST_ENTITY_TARGET + ";)L" + ENTITY + ";");
+			return Kind.ENTITY;
+		}
+		if(type == CountWithin.class){
+			writeQueryCache();
+			writeConstant(addConstant(((CountWithin) expression).getType()), FOREACH_TYPE);
+			compileExpression(((CountWithin) expression).getFirstArgument(), Kind.DOUBLE);
+			code.invoke(INVOKEVIRTUAL, QUERY_CACHE, "countWithin",
+					"(L" + WORM + ";L" + FOREACH_TYPE + ";D)D");
+			return Kind.DOUBLE;
+		}
+		// Any other expression calculates its own value.
+		writeConstant(addConstant(expression), EXPRESSION);
+		code.local(ALOAD, 1);
+		code.invoke(INVOKEINTERFACE, EXPRESSION, "calculate", "(L" + PROGRAM + ";)L" + TYPE + ";");
+		return Kind.VALUE;
+	}
+
+	/**
+	 * Writes the code that pushes the query cache of the program and the worm of the program.
+	 */
+	private void writeQueryCache(){
+		code.local(ALOAD, 1);
+		code.invoke(INVOKEVIRTUAL, PROGRAM, "getQueryCache", "()L" + QUERY_CACHE + ";");
+		code.local(ALOAD, WORM_LOCAL);
+	}
+
+	/**
+	 * Writes the code that reads a global variable. The type of a global variable never changes,
+	 * so its value is unboxed right away if the variable is known.
+	 */
+	private Kind compileVariableAccess(VariableAccess<?> access){
+		String name = access.getVariableName();
+		code.local(ALOAD, 1);
+		String variable = writeVariable(name, access.getSlot());
+		code.invoke(INVOKEVIRTUAL, PROGRAM, "getVariableValue", "(" + variable + ")L" + TYPE + ";");
+		Type<?> value = (globals == null) ? null : globals.get(name);
+		Kind kind = Kind.VALUE;
+		if(value instanceof DoubleType)
+			kind = Kind.DOUBLE;
+		else if(value instanceof BooleanType)
+			kind = Kind.BOOLEAN;
+		else if(value instanceof EntityType)
+			kind = Kind.ENTITY;
+		convert(Kind.VALUE, kind);
+		return kind;
+	}
+
+	/**
+	 * Writes the reference to the given global variable: its slot if it has one, its name otherwise.
+	 * Returns the descriptor of that reference.
+	 */
+	private String writeVariable(String name, int slot){
+		if(slot < 0){
+			code.stringConstant(name);
+			return "Ljava/lang/String;";
+		}
+		code.intConstant(slot);
+		return "I";
+	}
+
+	private Kind compileArithmetic(TwoArgumentExecutable<?, ?> expression, int opcode){
+		compileExpression((Expression<?>) expression.getFirstArgument(), Kind.DOUBLE);
+		compileExpression((Expression<?>) expression.getSecondArgument(), Kind.DOUBLE);
+		code.op(opcode);
+		return Kind.DOUBLE;
+	}
+
+	private Kind compileDivision(Division division){
+		Label valid = new Label();
+		compileExpression(division.getFirstArgument(), Kind.DOUBLE);
+		compileExpression(division.getSecondArgument(), Kind.DOUBLE);
+		code.op(DUP2);
+		code.op(DCONST_0);
+		code.op(DCMPL);
+		code.jump(IFNE, valid);
+		writeError();
+		code.place(valid);
+		code.op(DDIV);
+		return Kind.DOUBLE;
+	}
+
+	private Kind compileSqrt(Sqrt sqrt){
+		Label valid = new Label();
+		compileExpression(sqrt.getFirstArgument(), Kind.DOUBLE);
+		code.op(DUP2);
+		code.op(DCONST_0);
+		code.op(DCMPG);
+		code.jump(IFGE, valid);
+		writeError();
+		code.place(valid);
+		code.invoke(INVOKESTATIC, "java/lang/Math", "sqrt", "(D)D");
+		return Kind.DOUBLE;
+	}
+
+	private Kind compileMath(OneArgumentExecutable<?> expression, String method){
+		compileExpression((Expression<?>) expression.getFirstArgument(), Kind.DOUBLE);
+		code.invoke(INVOKESTATIC, "java/lang/Math", method, "(D)D");
+		return Kind.DOUBLE;
+	}
+
+	/**
+	 * Writes the code of a comparison of two doubles, with the given comparison instruction and
+	 * the given jump to take if the result is false (also if one of the doubles is NaN).
+	 */
+	private Kind compileComparison(TwoArgumentExecutable<?, ?> expression, int comparison, int jumpIfFalse){
+		compileExpression((Expression<?>) expression.getFirstArgument(), Kind.DOUBLE);
+		compileExpression((Expression<?>) expression.getSecondArgument(), Kind.DOUBLE);
+		code.op(comparison);
+		writeBoolean(jumpIfFalse);
+		return Kind.BOOLEAN;
+	}
+
+	/**
+	 * Writes the code of an equality of two values, which compares the values as Equality does:
+	 * doubles as Double.equals(), entities by identity and any other values with equals().
+	 */
+	private Kind compileEquality(TwoArgumentExecutable<?, ?> expression, boolean negated){
+		Kind left = compileExpression((Expression<?>) expression.getFirstArgument());
+		Kind right = compileExpression((Expression<?>) expression.getSecondArgument());
+		if(left == right && left == Kind.DOUBLE){
+			code.invoke(INVOKESTATIC, "java/lang/Double", "compare", "(DD)I");
+			writeBoolean(negated ? IFEQ : IFNE);
+		}else if(left == right && (left == Kind.BOOLEAN || left == Kind.ENTITY)){
+			if(left == Kind.BOOLEAN)
+				writeBoolean(negated ? IF_ICMPEQ : IF_ICMPNE);
+			else
+				writeBoolean(negated ? IF_ACMPEQ : IF_ACMPNE);
+		}else{
+			// Box the left value, which is below the right one.
+			convert(right, Kind.OBJECT);
+			if(left == Kind.DOUBLE){
+				code.op(DUP_X2);
+				code.op(POP);
+			}else
+				code.op(SWAP);
+			convert(left, Kind.OBJECT);
+			code.op(SWAP);
+			code.invoke(INVOKESTATIC, BASE_CLASS, "isEqual", "(Ljava/lang/Object;Ljava/lang/Object;)Z");
+			if(negated){
+				code.intConstant(1);
+				code.op(IXOR);
+			}
+		}
+		return Kind.BOOLEAN;
+	}
+
+	private Kind compileShortCircuit(TwoArgumentExecutable<?, ?> expression, boolean disjunction){
+		Label shortCircuit = new Label();
+		Label end = new Label();
+		compileExpression((Expression<?>) expression.getFirstArgument(), Kind.BOOLEAN);
+		code.jump(disjunction ? IFNE : IFEQ, shortCircuit);
+		compileExpression((Expression<?>) expression.getSecondArgument(), Kind.BOOLEAN);
+		code.jump(GOTO, end);
+		code.place(shortCircuit);
+		code.intConstant(disjunction ? 1 : 0);
+		code.place(end);
+		return Kind.BOOLEAN;
+	}
+
+	/**
+	 * Writes the code that reads a property of an entity, which fails if there is no entity
+	 * or if it isn't of the given class.
+	 */
+	private Kind compileEntityProperty(OneArgumentExecutable<?> expression, String owner, String method, String descriptor){
+		Label valid = new Label();
+		compileExpression((Expression<?>) expression.getFirstArgument(), Kind.ENTITY);
+		code.op(DUP);
+		if(owner.equals(ENTITY)){
+			code.jump(IFNONNULL, valid);
+		}else{
+			code.type(INSTANCEOF, owner);
+			code.jump(IFNE, valid);
+		}
+		writeError();
+		code.place(valid);
+		if(!owner.equals(ENTITY))
+			code.type(CHECKCAST, owner);
+		code.invoke(INVOKEVIRTUAL, owner, method, descriptor);
+		if(descriptor.endsWith("I"))
+			code.op(I2D);
+		return Kind.DOUBLE;
+	}
+
+	private Kind compileInstanceOf(OneArgumentExecutable<?> expression, String type){
+		compileExpression((Expression<?>) expression.getFirstArgument(), Kind.ENTITY);
+		code.type(INSTANCEOF, type);
+		return Kind.BOOLEAN;
+	}
+
+	/**
+	 * Writes the code that turns the int on top of the stack into a boolean:
+	 * false if the given jump is taken, and true otherwise.
+	 */
+	private void writeBoolean(int jumpIfFalse){
+		Label isFalse = new Label();
+		Label end = new Label();
+		code.jump(jumpIfFalse, isFalse);
+		code.intConstant(1);
+		code.jump(GOTO, end);
+		code.place(isFalse);
+		code.intConstant(0);
+		code.place(end);
+	}
+
+	private void writeError(){
+		code.invoke(INVOKESTATIC, BASE_CLASS, "error", "()L" + RUNTIME_EXCEPTION + ";");
+		code.op(ATHROW);
+	}
+
+	/**
+	 * Writes the code that converts a value of the given kind on top of the stack to a value of the other given kind.
+	 * Conversions between different kinds of values fail in the same way as the casts in the interpreted expressions.
+	 */
+	private void convert(Kind from, Kind to){
+		if(from == to)
+			return;
+		switch(from){
+		case DOUBLE:
+			if(to == Kind.VALUE){
+				code.invoke(INVOKESTATIC, BASE_CLASS, "box", "(D)L" + DOUBLE_TYPE + ";");
+				return;
+			}
+			code.invoke(INVOKESTATIC, "java/lang/Double", "valueOf", "(D)Ljava/lang/Double;");
+			break;
+		case BOOLEAN:
+			if(to == Kind.VALUE){
+				code.invoke(INVOKESTATIC, BASE_CLASS, "box", "(Z)L" + BOOLEAN_TYPE + ";");
+				return;
+			}
+			code.invoke(INVOKESTATIC, "java/lang/Boolean", "valueOf", "(Z)Ljava/lang/Boolean;");
+			break;
+		case ENTITY:
+			if(to == Kind.VALUE){
+				code.invoke(INVOKESTATIC, BASE_CLASS, "box", "(L" + ENTITY + ";)L" + ENTITY_TYPE + ";");
+				return;
+			}
+			break;
+		case VALUE:
+			code.invoke(INVOKEVIRTUAL, TYPE, "getValue", "()Ljava/lang/Object;");
+			break;
+		case OBJECT:
+			if(to == Kind.VALUE)
+				throw new UnsupportedOperationException();
+		}
+		switch(to){
+		case DOUBLE:
+			code.type(CHECKCAST, "java/lang/Double");
+			code.invoke(INVOKEVIRTUAL, "java/lang/Double", "doubleValue", "()D");
+			break;
+		case BOOLEAN:
+			code.type(CHECKCAST, "java/lang/Boolean");
+			code.invoke(INVOKEVIRTUAL, "java/lang/Boolean", "booleanValue", "()Z");
+			break;
+		case ENTITY:
+			code.type(CHECKCAST, ENTITY);
+			break;
+		default:
+		}
+	}
+
+	/*
+	 * Constants.
+	 */
+
+	private int addConstant(Object constant){
+		constants.add(constant);
+		return constants.size() - 1;
+	}
+
+	private void writeConstant(int index, String type){
+		code.local(ALOAD, CONSTANTS_LOCAL);
+		code.intConstant(index);
+		code.op(AALOAD);
+		code.type(CHECKCAST, type);
+	}
+
+	private final List<Object> constants = new ArrayList<Object>();
+
+	private int nbLoops = 0;
+
+	/*
+	 * Names.
+	 */
+
+	private static final int WORM_LOCAL = 3, COUNT_LOCAL = 4, CONSTANTS_LOCAL = 5;
+
+	private static final String CLASS_NAME = "worms/model/programs/compiler/GeneratedProgram";
+	private static final String BASE_CLASS = "worms/model/programs/compiler/CompiledProgram";
+	private static final String STATE = "worms/model/programs/compiler/ExecutionState";
+	private static final String PROGRAM = "worms/model/Program";
+	private static final String ENTITY = "worms/model/Entity";
+	private static final String MASSIVE_ENTITY = "worms/model/MassiveEntity";
+	private static final String WORM = "worms/model/Worm";
+	private static final String FOOD = "worms/model/Food";
+	private static final String QUERY_CACHE = "worms/model/programs/QueryCache";
+	private static final String FOREACH_TYPE = "worms/model/programs/ProgramFactory$ForeachType";
+	private static final String NEAREST_ENTITY_TARGET = "worms/model/programs/expressions/NearestEntity$Target";
+	private static final String ACTION_HANDLER = "worms/gui/game/IActionHandler";
+	private static final String RUNTIME_EXCEPTION = "worms/model/programs/WormsRuntimeException";
+	private static final String EXPRESSION = "worms/model/programs/expressions/Expression";
+	private static final String ACTION_STATEMENT = "worms/model/programs/statements/ActionStatement";
+	private static final String TYPE = "worms/model/programs/types/Type";
+	private static final String DOUBLE_TYPE = "worms/model/programs/types/DoubleType";
+	private static final String BOOLEAN_TYPE = "worms/model/programs/types/BooleanType";
+	private static final String ENTITY_TYPE = "worms/model/programs/types/EntityType";
+}
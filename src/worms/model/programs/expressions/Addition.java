@@ -15,10 +15,15 @@ public class Addition
 
 	@Override
 	public DoubleType calculate(Program program) {
-		double left = this.getFirstArgument().calculate(program).getValue();
-		double right = this.getSecondArgument().calculate(program).getValue();
+		return new DoubleType(evalDouble(program));
+	}
+
+	@Override
+	public double evalDouble(Program program) {
+		double left = this.getFirstArgument().evalDouble(program);
+		double right = this.getSecondArgument().evalDouble(program);
 		
-		return new DoubleType(left + right);
+		return left + right;
 	}
 
 }
@@ -10,14 +10,23 @@ public class BooleanLiteral
 	public static final BooleanLiteral FALSE_LITERAL = new BooleanLiteral(false);
 	
 	public BooleanLiteral(boolean value){
-		this.value = new BooleanType(value);
+		this.value = BooleanType.valueOf(value);
 	}
 	
 	private final BooleanType value;
 
+	public boolean getValue(){
+		return value.getValue();
+	}
+
 	@Override
 	public BooleanType calculate(Program program) {
 		return value;
 	}
 
+	@Override
+	public boolean evalBoolean(Program program) {
+		return value.getValue();
+	}
+
 }
@@ -15,8 +15,13 @@ public class BooleanNegation
 
 	@Override
 	public BooleanType calculate(Program program) {
-		boolean value = this.getFirstArgument().calculate(program).getValue();
-		return new BooleanType(!value);
+		return BooleanType.valueOf(evalBoolean(program));
+	}
+
+	@Override
+	public boolean evalBoolean(Program program) {
+		boolean value = this.getFirstArgument().evalBoolean(program);
+		return !value;
 	}
 
 }
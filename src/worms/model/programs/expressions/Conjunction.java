@@ -15,14 +15,19 @@ public class Conjunction
 
 	@Override
 	public BooleanType calculate(Program program) {
+		return BooleanType.valueOf(evalBoolean(program));
+	}
+
+	@Override
+	public boolean evalBoolean(Program program) {
 		//result == left && right
-		boolean left = this.getFirstArgument().calculate(program).getValue();
+		boolean left = this.getFirstArgument().evalBoolean(program);
 		if(!left)
-			return BooleanType.FALSE;
+			return false;
 		
-		boolean right = this.getSecondArgument().calculate(program).getValue();
+		boolean right = this.getSecondArgument().evalBoolean(program);
 		
-		return new BooleanType(right);
+		return right;
 	}
 
 }
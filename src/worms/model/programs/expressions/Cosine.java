@@ -15,9 +15,14 @@ public class Cosine
 
 	@Override
 	public DoubleType calculate(Program program) {
-		double left = this.getFirstArgument().calculate(program).getValue();
+		return new DoubleType(evalDouble(program));
+	}
+
+	@Override
+	public double evalDouble(Program program) {
+		double left = this.getFirstArgument().evalDouble(program);
 		
-		return new DoubleType(Math.cos(left));
+		return Math.cos(left);
 	}
 
 }
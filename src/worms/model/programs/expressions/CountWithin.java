@@ -0,0 +1,86 @@
+package worms.model.programs.expressions;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import worms.model.Food;
+import worms.model.Position;
+import worms.model.Program;
+import worms.model.World;
+import worms.model.Worm;
+import worms.model.programs.OneArgumentExecutable;
+import worms.model.programs.ProgramFactory.ForeachType;
+import worms.model.programs.WormsRuntimeException;
+import worms.model.programs.types.DoubleType;
+
+/**
+ * A class of expressions that evaluate to the number of entities of a given type, other than the worm
+ * of their program, whose center lies within a given distance of the center of that worm.
+ */
+public class CountWithin
+	extends OneArgumentExecutable<Expression<DoubleType>>
+	implements Expression<DoubleType> {
+
+	/**
+	 * @param type		The type of the entities to count.
+	 * @param radius	The distance within which entities are counted.
+	 * @post	| new.getType() == type
+	 * @throws	IllegalArgumentException
+	 * 			| type == null || !canHaveAsSubExecutable(radius)
+	 */
+	public CountWithin(ForeachType type, Expression<DoubleType> radius)
+			throws IllegalArgumentException {
+		super(radius);
+		if(type == null)
+			throw new IllegalArgumentException();
+		this.type = type;
+	}
+
+	@Basic @Immutable
+	public ForeachType getType(){
+		return type;
+	}
+
+	private final ForeachType type;
+
+	@Override
+	public DoubleType calculate(Program program) throws WormsRuntimeException{
+		return new DoubleType(evalDouble(program));
+	}
+
+	@Override
+	public double evalDouble(Program program) throws WormsRuntimeException{
+		double radius = this.getFirstArgument().evalDouble(program);
+		if(program == null || program.getWorm() == null)
+			throw new WormsRuntimeException();
+		return program.getQueryCache().countWithin(program.getWorm(), getType(), radius);
+	}
+
+	/**
+	 * Returns the number of entities of the given type, other than the given worm, whose center lies within
+	 * the given distance of the center of the given worm.
+	 *
+	 * @throws	WormsRuntimeException
+	 * 			The given worm isn't in a world.
+	 */
+	public static double count(Worm worm, ForeachType type, double radius) throws WormsRuntimeException{
+		World world = worm.getWorld();
+		if(world == null)
+			throw new WormsRuntimeException();
+		Position position = worm.getPosition();
+		double squaredRadius = radius * radius;
+
+		int count = 0;
+		if(radius >= 0){
+			if(type == ForeachType.WORM || type == ForeachType.ANY)
+				for(Worm other : world.getWormView())
+					if(other != worm && position.squaredDistance(other.getPosition()) <= squaredRadius)
+						count++;
+			if(type == ForeachType.FOOD || type == ForeachType.ANY)
+				for(Food food : world.getFoodView())
+					if(position.squaredDistance(food.getPosition()) <= squaredRadius)
+						count++;
+		}
+		return count;
+	}
+
+}
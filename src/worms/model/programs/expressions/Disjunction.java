@@ -15,13 +15,18 @@ public class Disjunction
 
 	@Override
 	public BooleanType calculate(Program program) {
+		return BooleanType.valueOf(evalBoolean(program));
+	}
+
+	@Override
+	public boolean evalBoolean(Program program) {
 		//result == left || right
-		boolean left = this.getFirstArgument().calculate(program).getValue();
+		boolean left = this.getFirstArgument().evalBoolean(program);
 		if(left)
-			return BooleanType.TRUE;
+			return true;
 		
-		boolean right = this.getSecondArgument().calculate(program).getValue();
-		return new BooleanType(right);
+		boolean right = this.getSecondArgument().evalBoolean(program);
+		return right;
 	}
 
 }
@@ -16,13 +16,18 @@ public class Division
 
 	@Override
 	public DoubleType calculate(Program program) throws WormsRuntimeException{
-		double numerator = this.getFirstArgument().calculate(program).getValue();
-		double denominator = this.getSecondArgument().calculate(program).getValue();
+		return new DoubleType(evalDouble(program));
+	}
+
+	@Override
+	public double evalDouble(Program program) throws WormsRuntimeException{
+		double numerator = this.getFirstArgument().evalDouble(program);
+		double denominator = this.getSecondArgument().evalDouble(program);
 		
 		if(denominator == 0)
 			throw new WormsRuntimeException();
 		
-		return new DoubleType(numerator / denominator);
+		return numerator / denominator;
 	}
 
 }
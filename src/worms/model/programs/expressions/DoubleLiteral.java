@@ -9,15 +9,32 @@ public class DoubleLiteral
 	
 	public DoubleLiteral(double value){
 		this.value = new DoubleType(value);
+		this.primitiveValue = value;
 	}
 
 	@Override
 	public DoubleType calculate(Program program) throws WormsRuntimeException{
-		if(Double.isNaN(value.getValue()))
+		if(Double.isNaN(primitiveValue))
 			throw new WormsRuntimeException();
 		return value;
 	}
+
+	@Override
+	public double evalDouble(Program program) throws WormsRuntimeException{
+		if(Double.isNaN(primitiveValue))
+			throw new WormsRuntimeException();
+		return primitiveValue;
+	}
 	
 	private final DoubleType value;
 
+	public double getValue(){
+		return primitiveValue;
+	}
+	
+	/**
+	 * The value of this literal, unboxed.
+	 */
+	private final double primitiveValue;
+
 }
@@ -16,6 +16,11 @@ public class EntityLiteral
 	public EntityType calculate(Program program) throws WormsRuntimeException{
 		return value;
 	}
+
+	@Override
+	public Entity evalEntity(Program program) throws WormsRuntimeException{
+		return value.getValue();
+	}
 	
 	private final EntityType value;
 
@@ -1,5 +1,6 @@
 package worms.model.programs.expressions;
 
+import worms.model.Entity;
 import worms.model.Program;
 import worms.model.programs.types.EntityType;
 
@@ -11,4 +12,9 @@ public class EntityNullLiteral
 		return EntityType.NULL_REFERENCE;
 	}
 
+	@Override
+	public Entity evalEntity(Program program) {
+		return null;
+	}
+
 }
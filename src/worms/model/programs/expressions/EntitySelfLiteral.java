@@ -1,5 +1,6 @@
 package worms.model.programs.expressions;
 
+import worms.model.Entity;
 import worms.model.Program;
 import worms.model.programs.WormsRuntimeException;
 import worms.model.programs.types.EntityType;
@@ -9,9 +10,14 @@ public class EntitySelfLiteral
 
 	@Override
 	public EntityType calculate(Program program) throws WormsRuntimeException{
+		return new EntityType(evalEntity(program));
+	}
+
+	@Override
+	public Entity evalEntity(Program program) throws WormsRuntimeException{
 		if(program == null || program.getWorm() == null)
 			throw new WormsRuntimeException();
-		return new EntityType(program.getWorm());
+		return program.getWorm();
 	}
 
 }
@@ -1,11 +1,50 @@
 package worms.model.programs.expressions;
 
+import worms.model.Entity;
 import worms.model.Program;
 import worms.model.programs.Executable;
 import worms.model.programs.WormsRuntimeException;
+import worms.model.programs.types.BooleanType;
+import worms.model.programs.types.DoubleType;
+import worms.model.programs.types.EntityType;
 import worms.model.programs.types.Type;
 
+/**
+ * An interface of expressions of programs.
+ * 
+ * Next to calculate(), which returns the value of an expression as a Type object, an expression can be
+ * evaluated to a primitive value. Expressions of doubles, booleans and entities implement the primitive
+ * evaluation of their own type without creating Type objects, and build calculate() on top of it.
+ * The default implementations below unwrap the result of calculate(), for all other expressions.
+ */
 public interface Expression<T extends Type<?>> extends Executable{
 	
 	public T calculate(Program program) throws WormsRuntimeException;
+	
+	/**
+	 * Returns the value of this expression of doubles.
+	 * 
+	 * @return	| result == ((DoubleType) calculate(program)).getValue()
+	 */
+	public default double evalDouble(Program program) throws WormsRuntimeException{
+		return ((DoubleType) calculate(program)).getValue();
+	}
+	
+	/**
+	 * Returns the value of this expression of booleans.
+	 * 
+	 * @return	| result == ((BooleanType) calculate(program)).getValue()
+	 */
+	public default boolean evalBoolean(Program program) throws WormsRuntimeException{
+		return ((BooleanType) calculate(program)).getValue();
+	}
+	
+	/**
+	 * Returns the value of this expression of entities.
+	 * 
+	 * @return	| result == ((EntityType) calculate(program)).getValue()
+	 */
+	public default Entity evalEntity(Program program) throws WormsRuntimeException{
+		return ((EntityType) calculate(program)).getValue();
+	}
 }
@@ -19,14 +19,19 @@ public class GetDirection
 
 	@Override
 	public DoubleType calculate(Program program) throws WormsRuntimeException{
-		Entity e = this.getFirstArgument().calculate(program).getValue();
+		return new DoubleType(evalDouble(program));
+	}
+
+	@Override
+	public double evalDouble(Program program) throws WormsRuntimeException{
+		Entity e = this.getFirstArgument().evalEntity(program);
 		if(e == null)
 			throw new WormsRuntimeException();
 		if(!(e instanceof MassiveEntity))
 			throw new WormsRuntimeException();
 		
 		MassiveEntity me = (MassiveEntity) e;
-		return new DoubleType(me.getDirection());
+		return me.getDirection();
 	}
 
 }
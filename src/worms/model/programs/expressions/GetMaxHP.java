@@ -19,14 +19,19 @@ public class GetMaxHP
 
 	@Override
 	public DoubleType calculate(Program program) throws WormsRuntimeException{
-		Entity e = this.getFirstArgument().calculate(program).getValue();
+		return new DoubleType(evalDouble(program));
+	}
+
+	@Override
+	public double evalDouble(Program program) throws WormsRuntimeException{
+		Entity e = this.getFirstArgument().evalEntity(program);
 		if(e == null)
 			throw new WormsRuntimeException();
 		if(!(e instanceof Worm))
 			throw new WormsRuntimeException();
 		
 		Worm w = (Worm) e;
-		return new DoubleType(w.getMaxHitPoints());
+		return w.getMaxHitPoints();
 	}
 
 }
@@ -16,10 +16,15 @@ public class GreaterThanOrEqualTo
 
 	@Override
 	public BooleanType calculate(Program program) {
-		double left = this.getFirstArgument().calculate(program).getValue();
-		double right = this.getSecondArgument().calculate(program).getValue();
+		return BooleanType.valueOf(evalBoolean(program));
+	}
+
+	@Override
+	public boolean evalBoolean(Program program) {
+		double left = this.getFirstArgument().evalDouble(program);
+		double right = this.getSecondArgument().evalDouble(program);
 		
-		return new BooleanType(left >= right);
+		return left >= right;
 	}
 
 }
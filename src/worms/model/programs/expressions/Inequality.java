@@ -3,6 +3,8 @@ package worms.model.programs.expressions;
 import worms.model.Program;
 import worms.model.programs.TwoArgumentExecutable;
 import worms.model.programs.types.BooleanType;
+import worms.model.programs.types.DoubleType;
+import worms.model.programs.types.EntityType;
 import worms.model.programs.types.Type;
 
 public class Inequality
@@ -11,18 +13,51 @@ public class Inequality
 
 	public Inequality(Expression<? extends Type<?>> left, Expression<? extends Type<?>> right)
 			throws IllegalArgumentException {
+		this(left, right, null);
+	}
+
+	/**
+	 * Creates a new inequality of the given expressions, whose values are both of the given class:
+	 * DoubleType, BooleanType or EntityType. The values of these expressions are compared without boxing.
+	 * If the class isn't one of those or is null, the values are boxed and compared with equals().
+	 */
+	public Inequality(Expression<? extends Type<?>> left, Expression<? extends Type<?>> right, Class<?> operandType)
+			throws IllegalArgumentException {
 		super(left, right);
+		this.operandType = operandType;
+	}
+
+	/**
+	 * Returns the class of the values of the operands of this inequality, or null if it isn't known.
+	 */
+	public Class<?> getOperandType() {
+		return operandType;
 	}
 
+	private final Class<?> operandType;
+
 	@Override
 	public BooleanType calculate(Program program) {
+		return BooleanType.valueOf(evalBoolean(program));
+	}
+
+	@Override
+	public boolean evalBoolean(Program program) {
+		// Double.compare() keeps the semantics of Double.equals() for NaN and -0.0.
+		if(operandType == DoubleType.class)
+			return Double.compare(getFirstArgument().evalDouble(program), getSecondArgument().evalDouble(program)) != 0;
+		if(operandType == BooleanType.class)
+			return getFirstArgument().evalBoolean(program) != getSecondArgument().evalBoolean(program);
+		if(operandType == EntityType.class)
+			return getFirstArgument().evalEntity(program) != getSecondArgument().evalEntity(program);
+		
 		Object left = this.getFirstArgument().calculate(program).getValue();
 		Object right = this.getSecondArgument().calculate(program).getValue();
 		
 		if(left == null)
-			return new BooleanType(right != null);
+			return right != null;
 		
-		return new BooleanType(!left.equals(right));
+		return !left.equals(right);
 	}
 
 }
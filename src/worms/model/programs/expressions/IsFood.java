@@ -19,8 +19,13 @@ public class IsFood
 
 	@Override
 	public BooleanType calculate(Program program) throws WormsRuntimeException{
-		Entity e = this.getFirstArgument().calculate(program).getValue();
-		return new BooleanType(e instanceof Food);
+		return BooleanType.valueOf(evalBoolean(program));
+	}
+
+	@Override
+	public boolean evalBoolean(Program program) throws WormsRuntimeException{
+		Entity e = this.getFirstArgument().evalEntity(program);
+		return e instanceof Food;
 	}
 
 }
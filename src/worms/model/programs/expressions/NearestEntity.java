@@ -0,0 +1,106 @@
+package worms.model.programs.expressions;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import worms.model.Entity;
+import worms.model.Food;
+import worms.model.Position;
+import worms.model.Program;
+import worms.model.World;
+import worms.model.Worm;
+import worms.model.programs.WormsRuntimeException;
+import worms.model.programs.types.EntityType;
+
+/**
+ * A class of expressions that evaluate to the entity of a given kind whose center is the closest to the center
+ * of the worm of their program, or to null if there is no such entity.
+ */
+public class NearestEntity
+	implements Expression<EntityType>{
+
+	/**
+	 * The kinds of entities a nearest entity expression searches.
+	 */
+	public static enum Target {
+		/**
+		 * The worms other than the worm of the program.
+		 */
+		WORM,
+		/**
+		 * The food rations.
+		 */
+		FOOD,
+		/**
+		 * The worms that aren't in the same team as the worm of the program.
+		 */
+		ENEMY
+	}
+
+	/**
+	 * @post	| new.getTarget() == target
+	 * @throws	IllegalArgumentException
+	 * 			| target == null
+	 */
+	public NearestEntity(Target target) throws IllegalArgumentException{
+		if(target == null)
+			throw new IllegalArgumentException();
+		this.target = target;
+	}
+
+	@Basic @Immutable
+	public Target getTarget(){
+		return target;
+	}
+
+	private final Target target;
+
+	@Override
+	public EntityType calculate(Program program) throws WormsRuntimeException{
+		return new EntityType(evalEntity(program));
+	}
+
+	@Override
+	public Entity evalEntity(Program program) throws WormsRuntimeException{
+		if(program == null || program.getWorm() == null)
+			throw new WormsRuntimeException();
+		return program.getQueryCache().nearestEntity(program.getWorm(), getTarget());
+	}
+
+	/**
+	 * Returns the entity of the given kind whose center is the closest to the center of the given worm,
+	 * or null if there is no such entity. Of entities at the same distance, the first one of its world is returned.
+	 *
+	 * @throws	WormsRuntimeException
+	 * 			The given worm isn't in a world.
+	 */
+	public static Entity search(Worm worm, Target target) throws WormsRuntimeException{
+		World world = worm.getWorld();
+		if(world == null)
+			throw new WormsRuntimeException();
+		Position position = worm.getPosition();
+
+		Entity closestEntity = null;
+		double closestSquaredDistance = 0;
+		if(target == Target.FOOD){
+			for(Food food : world.getFoodView()){
+				double squaredDistance = position.squaredDistance(food.getPosition());
+				if(closestEntity == null || squaredDistance < closestSquaredDistance){
+					closestEntity = food;
+					closestSquaredDistance = squaredDistance;
+				}
+			}
+		}else{
+			for(Worm other : world.getWormView()){
+				if(other == worm || (target == Target.ENEMY && SameTeam.isSameTeam(worm, other)))
+					continue;
+				double squaredDistance = position.squaredDistance(other.getPosition());
+				if(closestEntity == null || squaredDistance < closestSquaredDistance){
+					closestEntity = other;
+					closestSquaredDistance = squaredDistance;
+				}
+			}
+		}
+		return closestEntity;
+	}
+
+}
@@ -20,21 +20,34 @@ public class SameTeam
 
 	@Override
 	public BooleanType calculate(Program program) throws WormsRuntimeException{
+		return BooleanType.valueOf(evalBoolean(program));
+	}
+
+	@Override
+	public boolean evalBoolean(Program program) throws WormsRuntimeException{
 		if(program == null || program.getWorm() == null)
 			throw new WormsRuntimeException();
 		
-		Entity other = this.getFirstArgument().calculate(program).getValue();
+		Entity other = this.getFirstArgument().evalEntity(program);
+		return isSameTeam(program.getWorm(), other);
+	}
+	
+	/**
+	 * Checks whether the given other entity is a worm of the same team as the given worm
+	 * (or the given worm itself if it has no team).
+	 */
+	public static boolean isSameTeam(Worm worm, Entity other) throws WormsRuntimeException{
 		if(!(other instanceof Worm))
 			throw new WormsRuntimeException();
 		
-		Team ownTeam = program.getWorm().getTeam();
+		Team ownTeam = worm.getTeam();
 		Team otherTeam = ((Worm)other).getTeam();
 		
 		if(ownTeam == null){
-			return new BooleanType(other == program.getWorm());
+			return other == worm;
 		}
 		
-		return new BooleanType(ownTeam == otherTeam);
+		return ownTeam == otherTeam;
 	}
 
 }
@@ -23,11 +23,26 @@ public class SearchEntity
 
 	@Override
 	public EntityType calculate(Program program) throws WormsRuntimeException{
-		double directionOffset = this.getFirstArgument().calculate(program).getValue();
-		if(program == null || program.getWorm() == null || program.getWorm().getWorld() == null)
+		return new EntityType(evalEntity(program));
+	}
+
+	@Override
+	public Entity evalEntity(Program program) throws WormsRuntimeException{
+		double directionOffset = this.getFirstArgument().evalDouble(program);
+		if(program == null || program.getWorm() == null)
+			throw new WormsRuntimeException();
+		
+		return program.getQueryCache().searchEntity(program.getWorm(), directionOffset);
+	}
+	
+	/**
+	 * Returns the closest entity (other than the given worm) in the direction of the given worm
+	 * plus the given offset, or null if there is no such entity.
+	 */
+	public static Entity search(Worm worm, double directionOffset) throws WormsRuntimeException{
+		if(worm.getWorld() == null)
 			throw new WormsRuntimeException();
 		
-		Worm worm = program.getWorm();
 		World world = worm.getWorld();
 		Position wormPosition = worm.getPosition();
 		double direction = directionOffset + worm.getDirection();
@@ -43,7 +58,7 @@ public class SearchEntity
 		
 		Entity closestEntity = null;
 		double closestEntitySquaredDistance = 0;
-		for(Entity e : world.getEntities()){
+		for(Entity e : world.getEntityView()){
 			if(e == worm)
 				continue;
 			
@@ -79,7 +94,7 @@ public class SearchEntity
 			}
 		}
 		
-		return new EntityType(closestEntity);
+		return closestEntity;
 	}
 
 }
@@ -16,12 +16,17 @@ public class Sqrt
 
 	@Override
 	public DoubleType calculate(Program program) throws WormsRuntimeException{
-		double left = this.getFirstArgument().calculate(program).getValue();
+		return new DoubleType(evalDouble(program));
+	}
+
+	@Override
+	public double evalDouble(Program program) throws WormsRuntimeException{
+		double left = this.getFirstArgument().evalDouble(program);
 		
 		if(left < 0)
 			throw new WormsRuntimeException();
 		
-		return new DoubleType(Math.sqrt(left));
+		return Math.sqrt(left);
 	}
 
 }
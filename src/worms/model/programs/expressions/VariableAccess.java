@@ -8,10 +8,32 @@ public class VariableAccess<T extends Type<?>>
 	implements Expression<T> {
 	
 	public VariableAccess(String variableName){
+		this(variableName, -1);
+	}
+	
+	/**
+	 * Creates a new variable access that reads the global variable with the given name from the given slot
+	 * of the program, or by its name if the given slot is negative.
+	 */
+	public VariableAccess(String variableName, int slot){
 		this.variableName = variableName;
+		this.slot = slot;
 	}
 	
 	private final String variableName;
+	
+	/**
+	 * Returns the slot of the variable this expression reads, or -1 if it's read by its name.
+	 */
+	public int getSlot(){
+		return slot;
+	}
+	
+	private final int slot;
+
+	public String getVariableName(){
+		return variableName;
+	}
 
 	@SuppressWarnings("unchecked")
 	@Override
@@ -24,7 +46,7 @@ public class VariableAccess<T extends Type<?>>
 
 		//The type of a variable can't change at runtime 
 		//+ the correct type is given to this expression at construction.
-		Type<?> value = program.getVariableValue(variableName);
+		Type<?> value = (slot < 0) ? program.getVariableValue(variableName) : program.getVariableValue(slot);
 		return (T) value;
 	}
 
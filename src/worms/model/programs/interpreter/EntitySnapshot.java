@@ -0,0 +1,80 @@
+package worms.model.programs.interpreter;
+
+import worms.model.Entity;
+import worms.model.Food;
+import worms.model.World;
+import worms.model.Worm;
+import worms.model.programs.ProgramFactory.ForeachType;
+import worms.model.programs.types.EntityType;
+
+/**
+ * A class of snapshots of the entities a foreach statement visits, at a version of a world.
+ *
+ * A snapshot never changes once it's taken, so the foreach statements that are visiting
+ * its entities can share it, and it can be used again as long as the version of the world
+ * doesn't change. The values of the entities are created once for every snapshot.
+ */
+final class EntitySnapshot {
+
+	/**
+	 * Takes a snapshot of the entities of the given type in the given world.
+	 * The values of the given snapshot are used again for the entities at the same index.
+	 */
+	EntitySnapshot(World world, ForeachType type, EntitySnapshot previous){
+		this.world = world;
+		this.version = world.getVersion();
+		this.type = type;
+		int size = 0;
+		if(type == ForeachType.WORM || type == ForeachType.ANY)
+			size += world.getNbWorms();
+		if(type == ForeachType.FOOD || type == ForeachType.ANY)
+			size += world.getNbFoods();
+		this.entities = new Entity[size];
+		this.values = new EntityType[size];
+		int index = 0;
+		if(type == ForeachType.WORM || type == ForeachType.ANY)
+			for(Worm worm : world.getWormView())
+				entities[index++] = worm;
+		if(type == ForeachType.FOOD || type == ForeachType.ANY)
+			for(Food food : world.getFoodView())
+				entities[index++] = food;
+		if(previous != null)
+			for(int i = 0; i < Math.min(size, previous.size()); i++)
+				if(previous.entities[i] == entities[i])
+					values[i] = previous.values[i];
+	}
+
+	/**
+	 * Checks whether this snapshot has the entities of the given type in the given world,
+	 * at its current version.
+	 */
+	boolean isSnapshotOf(World world, ForeachType type){
+		return world == this.world && world.getVersion() == version && type == this.type;
+	}
+
+	private final World world;
+
+	private final long version;
+
+	private final ForeachType type;
+
+	/**
+	 * Returns the number of entities in this snapshot.
+	 */
+	int size(){
+		return entities.length;
+	}
+
+	/**
+	 * Returns the value of the entity of this snapshot at the given index.
+	 */
+	EntityType getValue(int index){
+		if(values[index] == null)
+			values[index] = new EntityType(entities[index]);
+		return values[index];
+	}
+
+	private final Entity[] entities;
+
+	private final EntityType[] values;
+}
@@ -0,0 +1,34 @@
+package worms.model.programs.interpreter;
+
+import worms.model.programs.statements.Statement;
+
+/**
+ * A class of frames of the interpreter: a statement that is running or waiting to run.
+ *
+ * A frame that hasn't started yet has position -1. A running sequence frame has the index of the
+ * next statement of the sequence as its position, and a running foreach frame has the number of
+ * entities it still has to visit as its position. While statements don't need a position:
+ * their frame checks the condition every time it's on top of the stack.
+ *
+ * Frames are reused by the interpreter for every statement at the same depth of its stack.
+ */
+final class Frame {
+
+	/**
+	 * Initializes this frame for the given statement, which hasn't started yet.
+	 */
+	void reset(Statement statement){
+		this.statement = statement;
+		this.position = -1;
+		this.entities = null;
+	}
+
+	Statement statement;
+
+	int position;
+
+	/**
+	 * The entities a running foreach frame visits.
+	 */
+	EntitySnapshot entities;
+}
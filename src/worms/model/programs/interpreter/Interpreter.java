@@ -0,0 +1,229 @@
+package worms.model.programs.interpreter;
+
+import be.kuleuven.cs.som.annotate.Raw;
+import worms.model.Program;
+import worms.model.World;
+import worms.model.Worm;
+import worms.model.programs.ProgramFactory.ForeachType;
+import worms.model.programs.WormsRuntimeException;
+import worms.model.programs.profiler.ProgramProfiler;
+import worms.model.programs.profiler.StatementStack;
+import worms.model.programs.statements.*;
+import worms.model.programs.types.EntityType;
+
+/**
+ * A class of interpreters that execute the statements of a program on a stack of frames.
+ *
+ * Every statement that is popped from the execution stack of a program in the classic model
+ * (where a statement schedules its substatements by pushing them on the stack) counts as one
+ * step of the interpreter: a sequence, if, while or foreach statement when it starts, every check
+ * of the condition of a while statement, every assignment of an entity to the variable of a foreach
+ * statement, and every other statement. Moving to the next statement of a sequence and leaving a
+ * finished statement don't count. Sequence, while and foreach statements keep their state in their
+ * frame instead of scheduling new statements, and foreach statements share snapshots of the entities
+ * they visit until the world changes, so running a program doesn't create objects once the
+ * stack is as deep as the program needs.
+ *
+ * Statements of classes the interpreter doesn't know are executed as a single step,
+ * and schedule their substatements through Program.scheduleStatement().
+ */
+public final class Interpreter implements StatementStack {
+
+	/**
+	 * Checks whether this interpreter has statements left to execute.
+	 */
+	@Raw
+	public boolean hasPendingStatements(){
+		unwind();
+		return depth > 0;
+	}
+
+	/**
+	 * Schedules the given statement to be executed before the statements that are already scheduled.
+	 */
+	@Raw
+	public void schedule(Statement statement){
+		if(statement != null)
+			push(statement);
+	}
+
+	/**
+	 * Executes the scheduled statements for the given program until none is left, the worm of the program
+	 * is terminated, the program has executed its budget of statements for this turn, or the worm can't
+	 * afford the next action statement. That action statement isn't executed later on.
+	 *
+	 * @throws	WormsRuntimeException
+	 * 			A statement failed.
+	 */
+	public void run(Program program) throws WormsRuntimeException {
+		if(program.getProfiler() != null){
+			runProfiled(program, program.getProfiler());
+			return;
+		}
+		Worm worm = program.getWorm();
+		int nbStatements = 0;
+		while(hasPendingStatements() && nbStatements < Program.MAX_STATEMENTS_PER_TURN && !worm.isTerminated()){
+			nbStatements++;
+			if(!step(program))
+				return;
+		}
+	}
+
+	/**
+	 * Executes the scheduled statements for the given program like run() does, and lets the given profiler
+	 * measure every step.
+	 */
+	private void runProfiled(Program program, ProgramProfiler profiler) throws WormsRuntimeException {
+		Worm worm = program.getWorm();
+		int nbStatements = 0;
+		while(hasPendingStatements() && nbStatements < Program.MAX_STATEMENTS_PER_TURN && !worm.isTerminated()){
+			nbStatements++;
+			profiler.enterStatement(this);
+			try{
+				if(!step(program))
+					return;
+			}finally{
+				profiler.exit();
+			}
+		}
+	}
+
+	/**
+	 * Executes the step of the statement on top of the stack.
+	 *
+	 * @return	False if the statement on top of the stack is an action statement the worm of the given program can't afford.
+	 */
+	private boolean step(Program program) throws WormsRuntimeException {
+		Frame frame = frames[depth - 1];
+		Statement statement = frame.statement;
+		Class<?> type = statement.getClass();
+		if(type == Foreach.class){
+			Foreach foreach = (Foreach) statement;
+			if(frame.position < 0)
+				collectEntities(frame, foreach, program);
+			else
+				visitEntity(frame, foreach, program);
+		}else if(type == Sequence.class)
+			frame.position = 0;
+		else if(type == While.class){
+			While loop = (While) statement;
+			if(loop.getFirstArgument().evalBoolean(program))
+				push(loop.getSecondArgument());
+			else
+				pop();
+		}else if(type == If.class){
+			If choice = (If) statement;
+			frame.reset(choice.getFirstArgument().evalBoolean(program) ? choice.getSecondArgument() : choice.getThirdArgument());
+		}else if(type == HoistingWhile.class){
+			HoistingWhile loop = (HoistingWhile) statement;
+			Sequence invariants = loop.getThirdArgument();
+			for (int i = 0; i < invariants.getNbArguments(); i++)
+				invariants.getArgumentAt(i).execute(program);
+			frame.reset(loop.getLoop());
+			if(loop.getFirstArgument().evalBoolean(program))
+				push(loop.getSecondArgument());
+			else
+				pop();
+		}else{
+			// The statement leaves the stack before it executes, so a program that runs again
+			// while this statement executes an action continues with the next statement.
+			pop();
+			if(statement instanceof ActionStatement
+					&& ((ActionStatement) statement).getCost(program) > program.getWorm().getActionPoints())
+				return false;
+			statement.execute(program);
+		}
+		return true;
+	}
+
+	/**
+	 * Lets the given frame visit the entities of the given foreach statement, from the last one to the first one.
+	 * The entities are those of the last snapshot of the same type, unless the world changed since it was taken.
+	 */
+	private void collectEntities(Frame frame, Foreach foreach, Program program) throws WormsRuntimeException {
+		if(program.getWorm() == null)
+			throw new WormsRuntimeException();
+		World world = program.getWorm().getWorld();
+		ForeachType type = foreach.getType();
+		EntitySnapshot snapshot = snapshots[type.ordinal()];
+		if(snapshot == null || !snapshot.isSnapshotOf(world, type)){
+			snapshot = new EntitySnapshot(world, type, snapshot);
+			snapshots[type.ordinal()] = snapshot;
+		}
+		frame.entities = snapshot;
+		frame.position = snapshot.size();
+	}
+
+	/**
+	 * The last snapshots of the entities of every type of foreach statement.
+	 */
+	private final EntitySnapshot[] snapshots = new EntitySnapshot[ForeachType.values().length];
+
+	/**
+	 * Assigns the next entity of the given frame to the variable of the given foreach statement,
+	 * and schedules the body of the statement.
+	 */
+	private void visitEntity(Frame frame, Foreach foreach, Program program) throws WormsRuntimeException {
+		EntityType value = frame.entities.getValue(--frame.position);
+		if(foreach.getSlot() < 0)
+			program.setVariableValue(foreach.getVariableName(), value);
+		else
+			program.setVariableValue(foreach.getSlot(), value);
+		push(foreach.getFirstArgument());
+	}
+
+	/**
+	 * Leaves the frames on top of the stack that don't have a step to execute:
+	 * running sequences move on to their next statement, finished sequences and foreach statements are popped.
+	 */
+	private void unwind(){
+		while(depth > 0){
+			Frame frame = frames[depth - 1];
+			if(frame.position < 0)
+				return;
+			if(frame.statement.getClass() == Sequence.class){
+				Sequence sequence = (Sequence) frame.statement;
+				if(frame.position < sequence.getNbArguments())
+					push(sequence.getArgumentAt(frame.position++));
+				else
+					pop();
+			}else if(frame.position == 0)
+				pop();
+			else
+				return;
+		}
+	}
+
+	@Override
+	public int getDepth(){
+		return depth;
+	}
+
+	@Override
+	public Statement getStatementAt(int index){
+		return frames[index].statement;
+	}
+
+	private void push(Statement statement){
+		if(depth == frames.length){
+			Frame[] newFrames = new Frame[2 * depth + 4];
+			System.arraycopy(frames, 0, newFrames, 0, depth);
+			frames = newFrames;
+		}
+		if(frames[depth] == null)
+			frames[depth] = new Frame();
+		frames[depth++].reset(statement);
+	}
+
+	private void pop(){
+		frames[--depth].reset(null);
+	}
+
+	/**
+	 * The frames of this interpreter, from the bottom of the stack to the top.
+	 * The frames above the depth of the stack are kept to be reused.
+	 */
+	private Frame[] frames = new Frame[0];
+
+	private int depth = 0;
+}
@@ -0,0 +1,115 @@
+package worms.model.programs.optimizer;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+
+/**
+ * A class of reports of the optimization of the main statement of a program.
+ *
+ * A report counts the nodes (statements and expressions) of the main statement before and after
+ * the optimization, and the number of times every kind of optimization was applied.
+ */
+public final class OptimizationReport {
+
+	OptimizationReport(int nbNodesBefore, int nbNodesAfter, int nbFoldedExpressions, int nbRemovedBranches,
+			int nbRemovedLoops, int nbSimplifiedNegations, int nbHoistedExpressions){
+		this.nbNodesBefore = nbNodesBefore;
+		this.nbNodesAfter = nbNodesAfter;
+		this.nbFoldedExpressions = nbFoldedExpressions;
+		this.nbRemovedBranches = nbRemovedBranches;
+		this.nbRemovedLoops = nbRemovedLoops;
+		this.nbSimplifiedNegations = nbSimplifiedNegations;
+		this.nbHoistedExpressions = nbHoistedExpressions;
+	}
+
+	/**
+	 * Returns the number of nodes of the main statement before the optimization.
+	 */
+	@Basic @Immutable
+	public int getNbNodesBefore(){
+		return nbNodesBefore;
+	}
+
+	private final int nbNodesBefore;
+
+	/**
+	 * Returns the number of nodes of the main statement after the optimization,
+	 * including the assignments of the hoisted loop invariants.
+	 */
+	@Basic @Immutable
+	public int getNbNodesAfter(){
+		return nbNodesAfter;
+	}
+
+	private final int nbNodesAfter;
+
+	/**
+	 * Returns the number of nodes the optimization removed from the main statement.
+	 * Hoisting a loop invariant adds two nodes, so this number is negative
+	 * if the optimization only hoisted loop invariants.
+	 *
+	 * @return	| result == getNbNodesBefore() - getNbNodesAfter()
+	 */
+	@Immutable
+	public int getNbRemovedNodes(){
+		return getNbNodesBefore() - getNbNodesAfter();
+	}
+
+	/**
+	 * Returns the number of expressions that were replaced by a literal or by one of their arguments.
+	 */
+	@Basic @Immutable
+	public int getNbFoldedExpressions(){
+		return nbFoldedExpressions;
+	}
+
+	private final int nbFoldedExpressions;
+
+	/**
+	 * Returns the number of branches of if statements that were removed because their condition is constant.
+	 */
+	@Basic @Immutable
+	public int getNbRemovedBranches(){
+		return nbRemovedBranches;
+	}
+
+	private final int nbRemovedBranches;
+
+	/**
+	 * Returns the number of bodies of while statements that were removed because their condition is false.
+	 */
+	@Basic @Immutable
+	public int getNbRemovedLoops(){
+		return nbRemovedLoops;
+	}
+
+	private final int nbRemovedLoops;
+
+	/**
+	 * Returns the number of negations that were removed from chains of negations or merged into (in)equalities.
+	 */
+	@Basic @Immutable
+	public int getNbSimplifiedNegations(){
+		return nbSimplifiedNegations;
+	}
+
+	private final int nbSimplifiedNegations;
+
+	/**
+	 * Returns the number of loop-invariant expressions that were hoisted out of while statements.
+	 */
+	@Basic @Immutable
+	public int getNbHoistedExpressions(){
+		return nbHoistedExpressions;
+	}
+
+	private final int nbHoistedExpressions;
+
+	@Override
+	public String toString(){
+		return getNbNodesBefore() + " -> " + getNbNodesAfter() + " nodes (" + getNbRemovedNodes() + " removed): "
+				+ getNbFoldedExpressions() + " folded expressions, " + getNbRemovedBranches() + " dead branches, "
+				+ getNbRemovedLoops() + " dead loops, " + getNbSimplifiedNegations() + " simplified negations, "
+				+ getNbHoistedExpressions() + " hoisted invariants";
+	}
+}
@@ -0,0 +1,573 @@
+package worms.model.programs.optimizer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import worms.model.programs.ArgumentExecutable;
+import worms.model.programs.Executable;
+import worms.model.programs.Executables;
+import worms.model.programs.OneArgumentExecutable;
+import worms.model.programs.SourceLocation;
+import worms.model.programs.TwoArgumentExecutable;
+import worms.model.programs.expressions.*;
+import worms.model.programs.statements.*;
+import worms.model.programs.types.BooleanType;
+import worms.model.programs.types.DoubleType;
+import worms.model.programs.types.Type;
+
+/**
+ * A class of optimizers that rewrite the main statement of a program before it runs.
+ *
+ * An optimizer folds expressions whose arguments are literals, simplifies conjunctions and
+ * disjunctions with a literal left argument and chains of negations, removes the branches of
+ * if statements and the bodies of while statements that can never execute, and hoists the
+ * loop-invariant expressions of while statements out of their loop.
+ *
+ * The optimized statement executes the same number of statements as the original one, in the
+ * same order, so it uses the budget of statements of a turn in the same way: removed branches
+ * and bodies are replaced by empty sequences, and the invariants of a loop are assigned by
+ * a hoisting while statement that takes the place of the while statement. Expressions that can
+ * fail at runtime are never folded or hoisted, and programs that aren't well-formed are left as they are.
+ */
+@SuppressWarnings("unchecked")
+public final class ProgramOptimizer {
+
+	/**
+	 * Creates a new optimizer for a program with the given global variables,
+	 * whose variables are stored in the slots of the given names.
+	 *
+	 * @param globals		The global variables of the program, with their initial values.
+	 * @param variableNames	The names of the variables of the program, in the order of their slots.
+	 */
+	public ProgramOptimizer(Map<String, Type<?>> globals, List<String> variableNames){
+		this(globals, variableNames, null);
+	}
+
+	/**
+	 * Creates a new optimizer for a program with the given global variables, whose variables are stored
+	 * in the slots of the given names, and whose statements and expressions are at the given source locations.
+	 *
+	 * @param sourceLocations	The source locations of the statements and expressions of the program, or null.
+	 * 							The optimizer adds the statements and expressions it creates: they are at the
+	 * 							location of the statement or expression they replace.
+	 */
+	public ProgramOptimizer(Map<String, Type<?>> globals, List<String> variableNames,
+			Map<Executable, SourceLocation> sourceLocations){
+		if(globals != null)
+			this.globals.putAll(globals);
+		if(variableNames != null)
+			this.variableNames.addAll(variableNames);
+		this.sourceLocations = sourceLocations;
+	}
+
+	private final Map<Executable, SourceLocation> sourceLocations;
+
+	/**
+	 * Registers that the given replacement is at the source location of the given original,
+	 * unless it already has a location, and returns the given replacement.
+	 */
+	private <T extends Executable> T relocate(T replacement, Executable original){
+		if(sourceLocations != null && !sourceLocations.containsKey(replacement) && sourceLocations.containsKey(original))
+			sourceLocations.put(replacement, sourceLocations.get(original));
+		return replacement;
+	}
+
+	/**
+	 * Returns the global variables of the optimized program, with their initial values.
+	 * These are the global variables of the original program and the hidden variables
+	 * that store the loop invariants the optimizer hoisted.
+	 */
+	public Map<String, Type<?>> getGlobals(){
+		return Collections.unmodifiableMap(globals);
+	}
+
+	private final Map<String, Type<?>> globals = new HashMap<String, Type<?>>();
+
+	/**
+	 * Returns the names of the variables of the optimized program, in the order of their slots.
+	 * The slots of the hidden variables follow the slots of the variables of the original program.
+	 */
+	public List<String> getVariableNames(){
+		return Collections.unmodifiableList(variableNames);
+	}
+
+	private final List<String> variableNames = new ArrayList<String>();
+
+	/**
+	 * Returns the report of the last optimization of this optimizer,
+	 * or null if this optimizer hasn't optimized a statement yet.
+	 */
+	@Basic
+	public OptimizationReport getReport(){
+		return report;
+	}
+
+	private OptimizationReport report;
+
+	/**
+	 * Returns the optimized version of the given main statement.
+	 *
+	 * @return	If the given statement has an action statement inside a foreach statement, the given statement itself.
+	 * 			| if(mainStatement instanceof ArgumentExecutable
+	 * 			|		&& ((ArgumentExecutable) mainStatement).hasActionStatementInsideForEach())
+	 * 			|	then result == mainStatement
+	 */
+	public Statement optimize(Statement mainStatement){
+		nbFoldedExpressions = 0;
+		nbRemovedBranches = 0;
+		nbRemovedLoops = 0;
+		nbSimplifiedNegations = 0;
+		nbHoistedExpressions = 0;
+
+		int nbNodesBefore = countNodes(mainStatement);
+		Statement result = mainStatement;
+		if(mainStatement != null && !(mainStatement instanceof ArgumentExecutable
+				&& ((ArgumentExecutable) mainStatement).hasActionStatementInsideForEach()))
+			result = optimizeStatement(mainStatement);
+		report = new OptimizationReport(nbNodesBefore, countNodes(result), nbFoldedExpressions, nbRemovedBranches,
+				nbRemovedLoops, nbSimplifiedNegations, nbHoistedExpressions);
+		return result;
+	}
+
+	private int nbFoldedExpressions;
+	private int nbRemovedBranches;
+	private int nbRemovedLoops;
+	private int nbSimplifiedNegations;
+	private int nbHoistedExpressions;
+
+	/**
+	 * Returns the number of statements and expressions in the given executable.
+	 */
+	private static int countNodes(Executable executable){
+		if(executable == null)
+			return 0;
+		int result = 1;
+		if(executable instanceof ArgumentExecutable)
+			for(Executable argument : ((ArgumentExecutable) executable).getSubExecutables())
+				result += countNodes(argument);
+		return result;
+	}
+
+	/*
+	 * Statements.
+	 */
+
+	private Statement optimizeStatement(Statement statement){
+		return relocate(rewriteStatement(statement), statement);
+	}
+
+	private Statement rewriteStatement(Statement statement){
+		Class<?> type = statement.getClass();
+		if(type == Sequence.class){
+			Sequence sequence = (Sequence) statement;
+			List<Statement> statements = new ArrayList<Statement>();
+			boolean changed = false;
+			for(int i = 0; i < sequence.getNbArguments(); i++){
+				Statement optimized = optimizeStatement(sequence.getArgumentAt(i));
+				changed |= optimized != sequence.getArgumentAt(i);
+				statements.add(optimized);
+			}
+			return changed ? new Sequence(statements) : statement;
+		}
+		if(type == If.class){
+			If ifStatement = (If) statement;
+			Expression<?> condition = optimizeExpression(ifStatement.getFirstArgument());
+			Statement then = ifStatement.getSecondArgument();
+			Statement otherwise = ifStatement.getThirdArgument();
+			if(condition instanceof BooleanLiteral){
+				if(((BooleanLiteral) condition).getValue())
+					otherwise = removeBranch(otherwise);
+				else
+					then = removeBranch(then);
+			}
+			then = optimizeStatement(then);
+			otherwise = optimizeStatement(otherwise);
+			if(condition == ifStatement.getFirstArgument() && then == ifStatement.getSecondArgument()
+					&& otherwise == ifStatement.getThirdArgument())
+				return statement;
+			return new If((Expression<BooleanType>) condition, then, otherwise);
+		}
+		if(type == While.class){
+			While whileStatement = (While) statement;
+			Expression<?> condition = optimizeExpression(whileStatement.getFirstArgument());
+			if(condition instanceof BooleanLiteral && !((BooleanLiteral) condition).getValue()){
+				if(isEmpty(whileStatement.getSecondArgument()) && condition == whileStatement.getFirstArgument())
+					return statement;
+				if(!isEmpty(whileStatement.getSecondArgument()))
+					nbRemovedLoops++;
+				return new While((Expression<BooleanType>) condition, new Sequence(new ArrayList<Statement>()));
+			}
+			Statement body = optimizeStatement(whileStatement.getSecondArgument());
+			return hoistInvariants(whileStatement, condition, body);
+		}
+		if(type == Foreach.class){
+			Foreach foreach = (Foreach) statement;
+			Statement body = optimizeStatement(foreach.getFirstArgument());
+			if(body == foreach.getFirstArgument())
+				return statement;
+			return new Foreach(foreach.getType(), foreach.getVariableName(), foreach.getSlot(), body);
+		}
+		if(type == Assignment.class || type == Print.class || type == Turn.class || type == Fire.class){
+			Expression<?> argument = (Expression<?>) ((OneArgumentExecutable<?>) statement).getFirstArgument();
+			Expression<?> optimized = optimizeExpression(argument);
+			return (optimized == argument) ? statement : rebuildStatement(statement, optimized);
+		}
+		return statement;
+	}
+
+	/**
+	 * Returns a new statement of the same class as the given assignment, print, turn or fire statement,
+	 * with the given expression as its argument.
+	 */
+	private static Statement rebuildStatement(Statement statement, Expression<?> argument){
+		return (Statement) Executables.withSubExecutables(statement, new Executable[] { argument });
+	}
+
+	/**
+	 * Returns an empty sequence to replace the given branch that can't be executed.
+	 */
+	private Statement removeBranch(Statement branch){
+		if(isEmpty(branch))
+			return branch;
+		nbRemovedBranches++;
+		return new Sequence(new ArrayList<Statement>());
+	}
+
+	private static boolean isEmpty(Statement statement){
+		return statement.getClass() == Sequence.class && ((Sequence) statement).getNbArguments() == 0;
+	}
+
+	/*
+	 * Expressions.
+	 */
+
+	private Expression<?> optimizeExpression(Expression<?> expression){
+		return relocate(rewriteExpression(expression), expression);
+	}
+
+	private Expression<?> rewriteExpression(Expression<?> expression){
+		Expression<?>[] arguments = getArguments(expression);
+		Expression<?>[] optimized = new Expression<?>[arguments.length];
+		boolean changed = false;
+		for(int i = 0; i < arguments.length; i++){
+			optimized[i] = optimizeExpression(arguments[i]);
+			changed |= optimized[i] != arguments[i];
+		}
+		return simplify(changed ? rebuildExpression(expression, optimized) : expression);
+	}
+
+	/**
+	 * Returns a simpler expression than the given expression, whose arguments are already simplified,
+	 * that evaluates to the same value, or the given expression itself.
+	 */
+	private Expression<?> simplify(Expression<?> expression){
+		Class<?> type = expression.getClass();
+		Expression<?>[] arguments = getArguments(expression);
+		if(type == BooleanNegation.class){
+			Class<?> argumentType = arguments[0].getClass();
+			if(argumentType == BooleanNegation.class){
+				Expression<?> argument = getArguments(arguments[0])[0];
+				if(getStaticType(argument) == BooleanType.class){
+					nbSimplifiedNegations++;
+					return argument;
+				}
+			} else if(argumentType == Equality.class || argumentType == Inequality.class){
+				Expression<?>[] comparedArguments = getArguments(arguments[0]);
+				nbSimplifiedNegations++;
+				if(argumentType == Equality.class)
+					return simplify(new Inequality(comparedArguments[0], comparedArguments[1]));
+				return simplify(new Equality(comparedArguments[0], comparedArguments[1]));
+			}
+		}
+		if((type == Conjunction.class || type == Disjunction.class) && arguments[0] instanceof BooleanLiteral){
+			// The right argument of a conjunction or disjunction is only evaluated if the left one doesn't decide the result.
+			boolean left = ((BooleanLiteral) arguments[0]).getValue();
+			if(left == (type == Disjunction.class)){
+				nbFoldedExpressions++;
+				return left ? BooleanLiteral.TRUE_LITERAL : BooleanLiteral.FALSE_LITERAL;
+			}
+			if(getStaticType(arguments[1]) == BooleanType.class){
+				nbFoldedExpressions++;
+				return arguments[1];
+			}
+		}
+		if(isFoldable(type)){
+			for(Expression<?> argument : arguments)
+				if(!isLiteral(argument))
+					return expression;
+			return fold(expression);
+		}
+		return expression;
+	}
+
+	/**
+	 * Returns a literal with the value of the given expression, whose arguments are literals,
+	 * or the given expression itself if it fails or doesn't evaluate to a number or a boolean.
+	 */
+	private Expression<?> fold(Expression<?> expression){
+		Type<?> value;
+		try {
+			value = expression.calculate(null);
+		} catch (RuntimeException exc) {
+			return expression;
+		}
+		if(value instanceof BooleanType){
+			nbFoldedExpressions++;
+			return ((BooleanType) value).getValue() ? BooleanLiteral.TRUE_LITERAL : BooleanLiteral.FALSE_LITERAL;
+		}
+		if(value instanceof DoubleType && !((DoubleType) value).getValue().isNaN()){
+			nbFoldedExpressions++;
+			return new DoubleLiteral(((DoubleType) value).getValue());
+		}
+		return expression;
+	}
+
+	private static boolean isFoldable(Class<?> type){
+		return isArithmetic(type) || isComparison(type) || type == Division.class || type == Sqrt.class
+				|| type == Equality.class || type == Inequality.class || isLogical(type);
+	}
+
+	private static boolean isLiteral(Expression<?> expression){
+		return expression instanceof DoubleLiteral || expression instanceof BooleanLiteral
+				|| expression instanceof EntityNullLiteral;
+	}
+
+	/**
+	 * Checks whether the given class of expressions evaluates its arguments as numbers and
+	 * can't fail if they don't.
+	 */
+	private static boolean isArithmetic(Class<?> type){
+		return type == Addition.class || type == Subtraction.class || type == Multiplication.class
+				|| type == Sine.class || type == Cosine.class;
+	}
+
+	private static boolean isComparison(Class<?> type){
+		return type == LessThan.class || type == LessThanOrEqualTo.class
+				|| type == GreaterThan.class || type == GreaterThanOrEqualTo.class;
+	}
+
+	private static boolean isLogical(Class<?> type){
+		return type == Conjunction.class || type == Disjunction.class || type == BooleanNegation.class;
+	}
+
+	/**
+	 * Returns the class of the values of the given expression, or null if it isn't known before the program runs.
+	 */
+	private Class<?> getStaticType(Expression<?> expression){
+		return Executables.getStaticType(expression, globals);
+	}
+
+	/**
+	 * Returns the arguments of the given expression, or no arguments if the given expression
+	 * is of a class the optimizer doesn't know.
+	 */
+	private static Expression<?>[] getArguments(Expression<?> expression){
+		if(expression.getClass().getPackage() != Expression.class.getPackage())
+			return new Expression<?>[0];
+		if(expression instanceof TwoArgumentExecutable)
+			return new Expression<?>[] {
+					(Expression<?>) ((TwoArgumentExecutable<?, ?>) expression).getFirstArgument(),
+					(Expression<?>) ((TwoArgumentExecutable<?, ?>) expression).getSecondArgument() };
+		if(expression instanceof OneArgumentExecutable)
+			return new Expression<?>[] { (Expression<?>) ((OneArgumentExecutable<?>) expression).getFirstArgument() };
+		return new Expression<?>[0];
+	}
+
+	/**
+	 * Returns a new expression of the same class as the given expression, with the given arguments.
+	 */
+	private static Expression<?> rebuildExpression(Expression<?> expression, Expression<?>[] arguments){
+		return (Expression<?>) Executables.withSubExecutables(expression, arguments);
+	}
+
+	/*
+	 * Loop invariants.
+	 */
+
+	/**
+	 * Returns a while statement with the given (optimized) condition and body, that replaces the given while statement.
+	 * If the condition or body has expressions that don't depend on the variables assigned in the loop,
+	 * and can't fail, the result is a hoisting while statement that assigns their values to hidden variables
+	 * when the loop is entered.
+	 */
+	private Statement hoistInvariants(While original, Expression<?> condition, Statement body){
+		Set<Integer> assignedSlots = new HashSet<Integer>();
+		List<Statement> invariants = new ArrayList<Statement>();
+		if(addAssignedSlots(body, assignedSlots)){
+			condition = hoistExpression(condition, assignedSlots, invariants);
+			body = hoistStatement(body, assignedSlots, invariants);
+		}
+		if(!invariants.isEmpty()){
+			HoistingWhile result = new HoistingWhile((Expression<BooleanType>) condition, body, new Sequence(invariants));
+			relocate(result.getLoop(), original);
+			return result;
+		}
+		if(condition == original.getFirstArgument() && body == original.getSecondArgument())
+			return original;
+		return new While((Expression<BooleanType>) condition, body);
+	}
+
+	/**
+	 * Adds the slots of the variables the given statement assigns to the given set of slots.
+	 *
+	 * @return	False if the given statement (or one of its substatements) is of a class the optimizer doesn't know,
+	 * 			or if it assigns a variable without a slot.
+	 */
+	private boolean addAssignedSlots(Statement statement, Set<Integer> slots){
+		Class<?> type = statement.getClass();
+		if(type == Assignment.class || type == Foreach.class){
+			int slot = (type == Assignment.class) ? ((Assignment) statement).getSlot() : ((Foreach) statement).getSlot();
+			if(slot < 0)
+				return false;
+			slots.add(slot);
+			return (type == Assignment.class) || addAssignedSlots(((Foreach) statement).getFirstArgument(), slots);
+		}
+		if(type == Sequence.class || type == If.class || type == While.class || type == HoistingWhile.class){
+			for(Executable argument : ((ArgumentExecutable) statement).getSubExecutables())
+				if(argument instanceof Statement && !addAssignedSlots((Statement) argument, slots))
+					return false;
+			return true;
+		}
+		return type == Print.class || type == Turn.class || type == Fire.class || type == Move.class
+				|| type == Jump.class || type == ToggleWeapon.class || type == Skip.class;
+	}
+
+	/**
+	 * Returns the given statement, in which the loop invariants are replaced by hidden variables.
+	 * The statements known to addAssignedSlots are the only statements this method can get.
+	 */
+	private Statement hoistStatement(Statement statement, Set<Integer> assignedSlots, List<Statement> invariants){
+		return relocate(hoistInStatement(statement, assignedSlots, invariants), statement);
+	}
+
+	private Statement hoistInStatement(Statement statement, Set<Integer> assignedSlots, List<Statement> invariants){
+		Class<?> type = statement.getClass();
+		if(type == Sequence.class){
+			Sequence sequence = (Sequence) statement;
+			List<Statement> statements = new ArrayList<Statement>();
+			boolean changed = false;
+			for(int i = 0; i < sequence.getNbArguments(); i++){
+				Statement hoisted = hoistStatement(sequence.getArgumentAt(i), assignedSlots, invariants);
+				changed |= hoisted != sequence.getArgumentAt(i);
+				statements.add(hoisted);
+			}
+			return changed ? new Sequence(statements) : statement;
+		}
+		if(type == If.class){
+			If ifStatement = (If) statement;
+			Expression<?> condition = hoistExpression(ifStatement.getFirstArgument(), assignedSlots, invariants);
+			Statement then = hoistStatement(ifStatement.getSecondArgument(), assignedSlots, invariants);
+			Statement otherwise = hoistStatement(ifStatement.getThirdArgument(), assignedSlots, invariants);
+			if(condition == ifStatement.getFirstArgument() && then == ifStatement.getSecondArgument()
+					&& otherwise == ifStatement.getThirdArgument())
+				return statement;
+			return new If((Expression<BooleanType>) condition, then, otherwise);
+		}
+		if(type == While.class || type == HoistingWhile.class){
+			// The variables assigned in an inner loop are also assigned in this loop,
+			// so the invariants of this loop are invariants of the inner loop too.
+			ArgumentExecutable loop = (ArgumentExecutable) statement;
+			Executable[] arguments = loop.getSubExecutables();
+			Expression<?> condition = hoistExpression((Expression<?>) arguments[0], assignedSlots, invariants);
+			Statement body = hoistStatement((Statement) arguments[1], assignedSlots, invariants);
+			if(type == While.class){
+				if(condition == arguments[0] && body == arguments[1])
+					return statement;
+				return new While((Expression<BooleanType>) condition, body);
+			}
+			Statement innerInvariants = hoistStatement((Statement) arguments[2], assignedSlots, invariants);
+			if(condition == arguments[0] && body == arguments[1] && innerInvariants == arguments[2])
+				return statement;
+			return new HoistingWhile((Expression<BooleanType>) condition, body, (Sequence) innerInvariants);
+		}
+		if(type == Foreach.class){
+			Foreach foreach = (Foreach) statement;
+			Statement body = hoistStatement(foreach.getFirstArgument(), assignedSlots, invariants);
+			if(body == foreach.getFirstArgument())
+				return statement;
+			return new Foreach(foreach.getType(), foreach.getVariableName(), foreach.getSlot(), body);
+		}
+		if(type == Assignment.class || type == Print.class || type == Turn.class || type == Fire.class){
+			Expression<?> argument = (Expression<?>) ((OneArgumentExecutable<?>) statement).getFirstArgument();
+			Expression<?> hoisted = hoistExpression(argument, assignedSlots, invariants);
+			return (hoisted == argument) ? statement : rebuildStatement(statement, hoisted);
+		}
+		return statement;
+	}
+
+	/**
+	 * Returns the given expression, in which the largest loop invariants are replaced by hidden variables.
+	 * The assignments to these hidden variables are added to the given list of invariants.
+	 */
+	private Expression<?> hoistExpression(Expression<?> expression, Set<Integer> assignedSlots, List<Statement> invariants){
+		return relocate(hoistInExpression(expression, assignedSlots, invariants), expression);
+	}
+
+	private Expression<?> hoistInExpression(Expression<?> expression, Set<Integer> assignedSlots, List<Statement> invariants){
+		if(isInvariant(expression, assignedSlots)){
+			if(isLiteral(expression) || expression.getClass() == VariableAccess.class)
+				return expression;
+			String name = "$invariant" + nbHiddenVariables++;
+			int slot = variableNames.size();
+			variableNames.add(name);
+			globals.put(name, (getStaticType(expression) == BooleanType.class) ? BooleanType.FALSE : DoubleType.ZERO);
+			invariants.add(relocate(new Assignment(name, slot, expression), expression));
+			nbHoistedExpressions++;
+			return new VariableAccess<Type<?>>(name, slot);
+		}
+		Expression<?>[] arguments = getArguments(expression);
+		Expression<?>[] hoisted = new Expression<?>[arguments.length];
+		boolean changed = false;
+		for(int i = 0; i < arguments.length; i++){
+			hoisted[i] = hoistExpression(arguments[i], assignedSlots, invariants);
+			changed |= hoisted[i] != arguments[i];
+		}
+		return changed ? rebuildExpression(expression, hoisted) : expression;
+	}
+
+	/**
+	 * The number of hidden variables this optimizer has created. Hidden variables have names
+	 * that can't be used in the source of a program.
+	 */
+	private int nbHiddenVariables;
+
+	/**
+	 * Checks whether the given expression evaluates to the same number or boolean every time it is evaluated
+	 * in a loop that assigns the variables in the given slots, without failing and without side effects.
+	 * Expressions that depend on the state of the world are never invariant.
+	 */
+	private boolean isInvariant(Expression<?> expression, Set<Integer> assignedSlots){
+		Class<?> type = expression.getClass();
+		if(type == DoubleLiteral.class)
+			return !Double.isNaN(((DoubleLiteral) expression).getValue());
+		if(type == BooleanLiteral.class || type == EntityNullLiteral.class)
+			return true;
+		if(type == VariableAccess.class){
+			VariableAccess<?> access = (VariableAccess<?>) expression;
+			return access.getSlot() >= 0 && globals.get(access.getVariableName()) != null
+					&& !assignedSlots.contains(access.getSlot());
+		}
+		Class<?> argumentType;
+		if(isArithmetic(type) || isComparison(type))
+			argumentType = DoubleType.class;
+		else if(isLogical(type))
+			argumentType = BooleanType.class;
+		else if(type == Equality.class || type == Inequality.class)
+			argumentType = null;
+		else
+			return false;
+		for(Expression<?> argument : getArguments(expression)){
+			Class<?> staticType = getStaticType(argument);
+			if(staticType == null || (argumentType != null && staticType != argumentType)
+					|| !isInvariant(argument, assignedSlots))
+				return false;
+		}
+		return true;
+	}
+}
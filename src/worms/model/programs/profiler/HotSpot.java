@@ -0,0 +1,101 @@
+package worms.model.programs.profiler;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import worms.model.programs.Executable;
+import worms.model.programs.SourceLocation;
+
+/**
+ * A class of hot spots of profiled programs: the executions of a statement or expression,
+ * and the time they took.
+ *
+ * The self time of a hot spot is the time its executions took, without the time of the expressions
+ * they evaluated and the statements that executed during them.
+ */
+public final class HotSpot {
+
+	HotSpot(Executable node, String name, SourceLocation location){
+		this.node = node;
+		this.name = name;
+		this.location = location;
+	}
+
+	/**
+	 * Returns the statement or expression of this hot spot, as it was built by the program factory.
+	 */
+	@Basic
+	public Executable getNode(){
+		return node;
+	}
+
+	private final Executable node;
+
+	/**
+	 * Returns the name of the kind of statement or expression of this hot spot.
+	 */
+	@Basic
+	public String getName(){
+		return name;
+	}
+
+	private final String name;
+
+	/**
+	 * Returns the location of the statement or expression of this hot spot in the source of its program,
+	 * or null if it has no known location.
+	 */
+	@Basic
+	public SourceLocation getLocation(){
+		return location;
+	}
+
+	private final SourceLocation location;
+
+	/**
+	 * Returns the name and location of this hot spot.
+	 */
+	public String getLabel(){
+		return getName() + "@" + ((getLocation() == null) ? "?" : getLocation().toString());
+	}
+
+	/**
+	 * Returns the number of times the statement or expression of this hot spot was executed.
+	 */
+	@Basic
+	public long getNbExecutions(){
+		return nbExecutions;
+	}
+
+	/**
+	 * Returns the time the executions of this hot spot took, in nanoseconds.
+	 */
+	@Basic
+	public long getTotalNanos(){
+		return totalNanos;
+	}
+
+	/**
+	 * Returns the self time of this hot spot, in nanoseconds.
+	 */
+	@Basic
+	public long getSelfNanos(){
+		return selfNanos;
+	}
+
+	void registerExecution(long totalNanos, long selfNanos){
+		this.nbExecutions++;
+		this.totalNanos += totalNanos;
+		this.selfNanos += selfNanos;
+	}
+
+	private long nbExecutions;
+
+	private long totalNanos;
+
+	private long selfNanos;
+
+	@Override
+	public String toString(){
+		return getLabel() + ": " + getNbExecutions() + " executions, " + getSelfNanos() + " ns self, "
+				+ getTotalNanos() + " ns total";
+	}
+}
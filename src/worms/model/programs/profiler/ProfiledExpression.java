@@ -0,0 +1,70 @@
+package worms.model.programs.profiler;
+
+import worms.model.Entity;
+import worms.model.Program;
+import worms.model.programs.WormsRuntimeException;
+import worms.model.programs.expressions.Expression;
+import worms.model.programs.types.Type;
+
+/**
+ * A class of expressions that evaluate an instrumented copy of an expression of a program,
+ * and let a profiler measure every evaluation of it.
+ */
+final class ProfiledExpression<T extends Type<?>> implements Expression<T> {
+
+	/**
+	 * Creates a new profiled expression that evaluates the given instrumented copy of an expression,
+	 * and reports its evaluations as executions of the given hot spot of the original expression.
+	 */
+	ProfiledExpression(Expression<T> instrumented, HotSpot hotSpot, ProgramProfiler profiler){
+		this.instrumented = instrumented;
+		this.hotSpot = hotSpot;
+		this.profiler = profiler;
+	}
+
+	private final Expression<T> instrumented;
+
+	private final HotSpot hotSpot;
+
+	private final ProgramProfiler profiler;
+
+	@Override
+	public T calculate(Program program) throws WormsRuntimeException {
+		profiler.enterExpression(hotSpot);
+		try {
+			return instrumented.calculate(program);
+		} finally {
+			profiler.exit();
+		}
+	}
+
+	@Override
+	public double evalDouble(Program program) throws WormsRuntimeException {
+		profiler.enterExpression(hotSpot);
+		try {
+			return instrumented.evalDouble(program);
+		} finally {
+			profiler.exit();
+		}
+	}
+
+	@Override
+	public boolean evalBoolean(Program program) throws WormsRuntimeException {
+		profiler.enterExpression(hotSpot);
+		try {
+			return instrumented.evalBoolean(program);
+		} finally {
+			profiler.exit();
+		}
+	}
+
+	@Override
+	public Entity evalEntity(Program program) throws WormsRuntimeException {
+		profiler.enterExpression(hotSpot);
+		try {
+			return instrumented.evalEntity(program);
+		} finally {
+			profiler.exit();
+		}
+	}
+}
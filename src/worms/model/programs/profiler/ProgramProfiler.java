@@ -0,0 +1,284 @@
+package worms.model.programs.profiler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import worms.model.programs.ArgumentExecutable;
+import worms.model.programs.Executable;
+import worms.model.programs.Executables;
+import worms.model.programs.SourceLocation;
+import worms.model.programs.expressions.Expression;
+import worms.model.programs.statements.HoistingWhile;
+import worms.model.programs.statements.Statement;
+import worms.model.programs.types.Type;
+
+/**
+ * A class of profilers that count the executions of the statements and expressions of a program,
+ * and measure the time they take.
+ *
+ * A profiler instruments the main statement of a program: it builds a copy in which every expression
+ * is wrapped in an expression that reports its evaluations to the profiler. The interpreter reports
+ * the steps of the statements of the copy, and lets the profiler read its stack of statements. Programs that aren't profiled run their own main statement,
+ * so they don't pay for the profiler.
+ *
+ * The statistics are kept for the statements and expressions of the original program, which are
+ * known by the locations the program factory got for them in the source of the program.
+ */
+public final class ProgramProfiler {
+
+	/**
+	 * Creates a new profiler for a program whose statements and expressions are at the given source locations.
+	 *
+	 * @param sourceLocations	The source locations of the statements and expressions of the program, or null.
+	 */
+	public ProgramProfiler(Map<Executable, SourceLocation> sourceLocations){
+		this.sourceLocations = (sourceLocations == null) ? Collections.<Executable, SourceLocation>emptyMap() : sourceLocations;
+	}
+
+	private final Map<Executable, SourceLocation> sourceLocations;
+
+	/*
+	 * Instrumentation.
+	 */
+
+	/**
+	 * Returns an instrumented copy of the given main statement.
+	 * Statements and expressions of classes the profiler doesn't know are profiled as a whole.
+	 */
+	public Statement instrument(Statement mainStatement){
+		if(mainStatement == null)
+			return null;
+		return (Statement) instrumentNode(mainStatement);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Executable instrumentNode(Executable node){
+		Executable result = node;
+		if(node instanceof ArgumentExecutable){
+			Executable[] arguments = ((ArgumentExecutable) node).getSubExecutables();
+			Executable[] instrumented = new Executable[arguments.length];
+			for(int i = 0; i < arguments.length; i++)
+				instrumented[i] = instrumentNode(arguments[i]);
+			try {
+				result = Executables.withSubExecutables(node, instrumented);
+			} catch (IllegalArgumentException exc) {
+				result = node;
+			}
+		}
+		if(node instanceof Expression)
+			return new ProfiledExpression<Type<?>>((Expression<Type<?>>) result, getHotSpot(node), this);
+		statementHotSpots.put(result, getHotSpot(node));
+		if(result instanceof HoistingWhile)
+			statementHotSpots.put(((HoistingWhile) result).getLoop(), getHotSpot(node));
+		return result;
+	}
+
+	/**
+	 * The hot spots of the statements of the original program, by the statement of the instrumented copy that replaces them.
+	 */
+	private final Map<Executable, HotSpot> statementHotSpots = new IdentityHashMap<Executable, HotSpot>();
+
+	/*
+	 * Measurements.
+	 *
+	 * The measurements are kept in a call tree: a node for every path of hot spots from the main statement
+	 * to a statement or expression that ran, which accumulates the self time of that path in place.
+	 * Entering a statement or expression only looks up a child node, and leaving it only adds up numbers,
+	 * so the time the profiler spends in a measurement is not charged to the statement or expression around it.
+	 * Labels and folded stacks are only built when the report is written.
+	 */
+
+	/**
+	 * Starts measuring a step of the statement on top of the given stack of statements of the instrumented copy.
+	 */
+	public void enterStatement(StatementStack stack){
+		CallNode node = current;
+		for(int i = 0; i < stack.getDepth(); i++)
+			node = node.getChild(getStatementHotSpot(stack.getStatementAt(i)));
+		enter(node, System.nanoTime());
+	}
+
+	/**
+	 * Starts measuring an evaluation of the expression of the original program that has the given hot spot.
+	 */
+	void enterExpression(HotSpot hotSpot){
+		long start = System.nanoTime();
+		enter(current.getChild(hotSpot), start);
+	}
+
+	private void enter(CallNode node, long start){
+		if(depth == measurements.length){
+			Measurement[] newMeasurements = new Measurement[2 * depth + 4];
+			System.arraycopy(measurements, 0, newMeasurements, 0, depth);
+			measurements = newMeasurements;
+		}
+		if(measurements[depth] == null)
+			measurements[depth] = new Measurement();
+		Measurement measurement = measurements[depth++];
+		measurement.node = node;
+		measurement.caller = current;
+		measurement.childNanos = 0;
+		measurement.start = start;
+		current = node;
+	}
+
+	/**
+	 * Stops the last measurement that was started.
+	 */
+	public void exit(){
+		long end = System.nanoTime();
+		Measurement measurement = measurements[--depth];
+		long totalNanos = end - measurement.start;
+		long selfNanos = Math.max(0, totalNanos - measurement.childNanos);
+		measurement.node.nbExecutions++;
+		measurement.node.selfNanos += selfNanos;
+		measurement.node.hotSpot.registerExecution(totalNanos, selfNanos);
+		current = measurement.caller;
+		// The measurement around this one doesn't pay for the bookkeeping of this one either.
+		if(depth > 0)
+			measurements[depth - 1].childNanos += System.nanoTime() - measurement.start;
+	}
+
+	private static final class Measurement {
+
+		CallNode node;
+
+		CallNode caller;
+
+		long start;
+
+		long childNanos;
+	}
+
+	private Measurement[] measurements = new Measurement[0];
+
+	private int depth = 0;
+
+	/**
+	 * A class of nodes of the call tree of a profiler: the hot spot at the end of a path of hot spots,
+	 * how many times that path ran and its self time.
+	 */
+	private static final class CallNode {
+
+		CallNode(HotSpot hotSpot){
+			this.hotSpot = hotSpot;
+		}
+
+		/**
+		 * Returns the child of this node for the given hot spot, and adds it if this node doesn't have it yet.
+		 * A node has a child for every statement or expression that ran right inside it, which are only a few.
+		 */
+		CallNode getChild(HotSpot hotSpot){
+			for(int i = 0; i < nbChildren; i++)
+				if(children[i].hotSpot == hotSpot)
+					return children[i];
+			if(nbChildren == children.length){
+				CallNode[] newChildren = new CallNode[2 * nbChildren + 2];
+				System.arraycopy(children, 0, newChildren, 0, nbChildren);
+				children = newChildren;
+			}
+			CallNode child = new CallNode(hotSpot);
+			children[nbChildren++] = child;
+			return child;
+		}
+
+		final HotSpot hotSpot;
+
+		CallNode[] children = new CallNode[0];
+
+		int nbChildren = 0;
+
+		long nbExecutions;
+
+		long selfNanos;
+	}
+
+	/**
+	 * The root of the call tree of this profiler, which has no hot spot.
+	 */
+	private final CallNode root = new CallNode(null);
+
+	/**
+	 * The node of the statement or expression that was entered last, or the root if none is running.
+	 */
+	private CallNode current = root;
+
+	private HotSpot getStatementHotSpot(Statement statement){
+		HotSpot hotSpot = statementHotSpots.get(statement);
+		return (hotSpot == null) ? getHotSpot(statement) : hotSpot;
+	}
+
+	HotSpot getHotSpot(Executable node){
+		HotSpot hotSpot = hotSpots.get(node);
+		if(hotSpot == null){
+			hotSpot = new HotSpot(node, getName(node), sourceLocations.get(node));
+			hotSpots.put(node, hotSpot);
+		}
+		return hotSpot;
+	}
+
+	private static String getName(Executable node){
+		String name = node.getClass().getSimpleName();
+		return name.isEmpty() ? node.getClass().getName() : name;
+	}
+
+	private final Map<Executable, HotSpot> hotSpots = new IdentityHashMap<Executable, HotSpot>();
+
+	/*
+	 * Reports.
+	 */
+
+	/**
+	 * Returns the hot spots of this profiler, from the highest self time to the lowest.
+	 */
+	public List<HotSpot> getHotSpots(){
+		List<HotSpot> result = new ArrayList<HotSpot>();
+		for(HotSpot hotSpot : hotSpots.values())
+			if(hotSpot.getNbExecutions() > 0)
+				result.add(hotSpot);
+		Collections.sort(result, new Comparator<HotSpot>() {
+			@Override
+			public int compare(HotSpot first, HotSpot second) {
+				if(first.getSelfNanos() != second.getSelfNanos())
+					return Long.compare(second.getSelfNanos(), first.getSelfNanos());
+				return Long.compare(second.getNbExecutions(), first.getNbExecutions());
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Writes a table of the hot spots of this profiler to the given writer,
+	 * from the highest self time to the lowest.
+	 */
+	public void writeHotSpots(Writer writer) throws IOException{
+		writer.write(String.format("%12s %14s %14s  %s%n", "executions", "self (ns)", "total (ns)", "node"));
+		for(HotSpot hotSpot : getHotSpots())
+			writer.write(String.format("%12d %14d %14d  %s%n", hotSpot.getNbExecutions(), hotSpot.getSelfNanos(),
+					hotSpot.getTotalNanos(), hotSpot.getLabel()));
+	}
+
+	/**
+	 * Writes the self time of every stack of statements and expressions to the given writer, in the
+	 * folded format of flame graphs: one line per stack, with the labels of the stack from the main
+	 * statement to the innermost expression separated by semicolons, followed by the self time in nanoseconds.
+	 */
+	public void writeFoldedStacks(Writer writer) throws IOException{
+		for(int i = 0; i < root.nbChildren; i++)
+			writeFoldedStacks(writer, root.children[i], "");
+	}
+
+	private static void writeFoldedStacks(Writer writer, CallNode node, String prefix) throws IOException{
+		String stack = prefix + node.hotSpot.getLabel();
+		if(node.nbExecutions > 0)
+			writer.write(stack + " " + node.selfNanos + "\n");
+		for(int i = 0; i < node.nbChildren; i++)
+			writeFoldedStacks(writer, node.children[i], stack + ";");
+	}
+}
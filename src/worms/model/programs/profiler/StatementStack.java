@@ -0,0 +1,20 @@
+package worms.model.programs.profiler;
+
+import worms.model.programs.statements.Statement;
+
+/**
+ * An interface of stacks of statements that are running, which a profiler reads when a step of the
+ * statement on top of the stack starts.
+ */
+public interface StatementStack {
+
+	/**
+	 * Returns the number of statements on this stack.
+	 */
+	public int getDepth();
+
+	/**
+	 * Returns the statement at the given index of this stack, from the bottom of the stack to the top.
+	 */
+	public Statement getStatementAt(int index);
+}
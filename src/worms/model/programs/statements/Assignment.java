@@ -11,8 +11,17 @@ public class Assignment
 		implements Statement {
 
 	public Assignment(String variableName, Expression<? extends Type<?>> rhs) throws IllegalArgumentException {
+		this(variableName, -1, rhs);
+	}
+	
+	/**
+	 * Creates a new assignment to the global variable with the given name, in the given slot of the program,
+	 * or by its name if the given slot is negative.
+	 */
+	public Assignment(String variableName, int slot, Expression<? extends Type<?>> rhs) throws IllegalArgumentException {
 		super(rhs);
 		this.variableName = variableName;
+		this.slot = slot;
 	}
 
 	@Override
@@ -20,8 +29,25 @@ public class Assignment
 		if (program == null)
 			throw new WormsRuntimeException();
 		
-		program.setVariableValue(variableName, getFirstArgument().calculate(program));
+		Type<?> value = getFirstArgument().calculate(program);
+		if(slot < 0)
+			program.setVariableValue(variableName, value);
+		else
+			program.setVariableValue(slot, value);
+	}
+	
+	public String getVariableName(){
+		return variableName;
+	}
+
+	private final String variableName;
+	
+	/**
+	 * Returns the slot of the variable this assignment writes, or -1 if it's written by its name.
+	 */
+	public int getSlot(){
+		return slot;
 	}
 	
-	private String variableName;
+	private final int slot;
 }
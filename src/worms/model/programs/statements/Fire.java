@@ -22,7 +22,7 @@ public class Fire
 			throw new WormsRuntimeException();
 		
 		Worm w = program.getWorm();
-		int yield = (int) floor(getFirstArgument().calculate(program).getValue());
+		int yield = (int) floor(getFirstArgument().evalDouble(program));
 		
 
 		if (! program.getWorm().canFire(yield))
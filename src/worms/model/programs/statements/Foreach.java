@@ -1,10 +1,8 @@
 package worms.model.programs.statements;
 
 import worms.model.Entity;
-import worms.model.Food;
 import worms.model.Program;
 import worms.model.World;
-import worms.model.Worm;
 import worms.model.programs.OneArgumentExecutable;
 import worms.model.programs.ProgramFactory.ForeachType;
 import worms.model.programs.WormsRuntimeException;
@@ -15,9 +13,18 @@ public class Foreach
 		implements Statement {
 
 	public Foreach(ForeachType type, String variableName, Statement body) throws IllegalArgumentException {
+		this(type, variableName, -1, body);
+	}
+	
+	/**
+	 * Creates a new foreach statement that assigns the entities to the global variable with the given name,
+	 * in the given slot of the program, or by its name if the given slot is negative.
+	 */
+	public Foreach(ForeachType type, String variableName, int slot, Statement body) throws IllegalArgumentException {
 		super(body);
 		this.type = type;
 		this.variableName = variableName;
+		this.slot = slot;
 	}
 
 	@Override
@@ -26,15 +33,35 @@ public class Foreach
 			throw new WormsRuntimeException();
 		
 		World world = program.getWorm().getWorld();
-		for (Entity e : world.getEntities()) {
-			if (((type == ForeachType.WORM || type == ForeachType.ANY) && e instanceof Worm)
-				|| ((type == ForeachType.FOOD || type == ForeachType.ANY) && e instanceof Food)) {
-				program.scheduleStatement(getFirstArgument());
-				program.scheduleStatement(new Assignment(variableName, new EntityLiteral(e)));
-			}
+		if (type == ForeachType.WORM || type == ForeachType.ANY)
+			schedule(program, world.getWormView());
+		if (type == ForeachType.FOOD || type == ForeachType.ANY)
+			schedule(program, world.getFoodView());
+	}
+
+	private void schedule(Program program, Iterable<? extends Entity> entities) {
+		for (Entity e : entities) {
+			program.scheduleStatement(getFirstArgument());
+			program.scheduleStatement(new Assignment(variableName, slot, new EntityLiteral(e)));
 		}
 	}
 		
-	private ForeachType type;
-	private String variableName;
+	public ForeachType getType(){
+		return type;
+	}
+
+	public String getVariableName(){
+		return variableName;
+	}
+
+	/**
+	 * Returns the slot of the variable this foreach statement assigns, or -1 if it's assigned by its name.
+	 */
+	public int getSlot(){
+		return slot;
+	}
+
+	private final ForeachType type;
+	private final String variableName;
+	private final int slot;
 }
\ No newline at end of file
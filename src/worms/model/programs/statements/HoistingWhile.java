@@ -0,0 +1,59 @@
+package worms.model.programs.statements;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import worms.model.Program;
+import worms.model.programs.ThreeArgumentExecutable;
+import worms.model.programs.WormsRuntimeException;
+import worms.model.programs.expressions.Expression;
+import worms.model.programs.types.BooleanType;
+
+/**
+ * A class of while statements that store the loop-invariant expressions of their condition and body
+ * in global variables when they are entered, before they check their condition for the first time.
+ * After that, they repeat as a while statement with the same condition and body.
+ *
+ * Hoisting while statements are built by the program optimizer. Just like the while statement they
+ * replace, they count as a single statement each time the loop is entered or repeated.
+ */
+public class HoistingWhile
+		extends ThreeArgumentExecutable<Expression<BooleanType>, Statement, Sequence>
+		implements Statement {
+
+	/**
+	 * Creates a new hoisting while statement with the given condition and body,
+	 * that executes the given assignments of loop invariants when it's entered.
+	 *
+	 * @param invariants	A sequence of assignments that can't fail and don't depend on the
+	 * 						variables that are assigned in the given condition and body.
+	 */
+	public HoistingWhile(Expression<BooleanType> condition, Statement body, Sequence invariants) throws IllegalArgumentException {
+		super(condition, body, invariants);
+		this.loop = new While(condition, body);
+	}
+
+	@Override
+	public void execute(Program program) throws WormsRuntimeException {
+		if (program == null)
+			throw new WormsRuntimeException();
+
+		Sequence invariants = getThirdArgument();
+		for (int i = 0; i < invariants.getNbArguments(); i++)
+			invariants.getArgumentAt(i).execute(program);
+
+		if(getFirstArgument().evalBoolean(program)) {
+			program.scheduleStatement(getLoop());
+			program.scheduleStatement(getSecondArgument());
+		}
+	}
+
+	/**
+	 * Returns the while statement that repeats the loop of this hoisting while statement.
+	 */
+	@Basic @Immutable
+	public While getLoop(){
+		return loop;
+	}
+
+	private final While loop;
+}
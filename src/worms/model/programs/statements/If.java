@@ -19,7 +19,7 @@ public class If
 		if (program == null)
 			throw new WormsRuntimeException();
 		
-		if(getFirstArgument().calculate(program).getValue() == true)
+		if(getFirstArgument().evalBoolean(program))
 			program.scheduleStatement(getSecondArgument());
 		else
 			program.scheduleStatement(getThirdArgument());
@@ -27,6 +27,6 @@ public class Move
 			throw new WormsRuntimeException();
 		
 		Worm w = program.getWorm();
-		return w.getCostForMove(w.getPositionAfterMove());
+		return w.getCostForMove();
 	}
 }
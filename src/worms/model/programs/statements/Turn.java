@@ -20,7 +20,7 @@ public class Turn
 		if (program == null || program.getWorm() == null)
 			throw new WormsRuntimeException();
 		Worm w = program.getWorm();
-		Double angle = getFirstArgument().calculate(program).getValue();
+		double angle = getFirstArgument().evalDouble(program);
 		if (!Worm.isValidTurningAngle(angle) || !w.canTurn(angle))
 			throw new WormsRuntimeException();
 		program.getActionHandler().turn(w, angle);
@@ -31,7 +31,7 @@ public class Turn
 		if (program == null || program.getWorm() == null)
 			throw new WormsRuntimeException();
 		
-		Double angle = getFirstArgument().calculate(program).getValue();
+		double angle = getFirstArgument().evalDouble(program);
 		if (!Worm.isValidTurningAngle(angle))
 			throw new WormsRuntimeException();
 		return Worm.getTurningCost(angle);
@@ -19,7 +19,7 @@ public class While
 		if (program == null)
 			throw new WormsRuntimeException();
 		
-		if(getFirstArgument().calculate(program).getValue() == true) {
+		if(getFirstArgument().evalBoolean(program)) {
 			program.scheduleStatement(this);
 			program.scheduleStatement(getSecondArgument());
 		}
@@ -12,6 +12,15 @@ public class BooleanType extends Type<Boolean> {
 		super(value);
 	}
 	
+	/**
+	 * Returns the boolean type object for the given value.
+	 * 
+	 * @return	| result == (value ? TRUE : FALSE)
+	 */
+	public static BooleanType valueOf(boolean value) {
+		return value ? TRUE : FALSE;
+	}
+	
 	@Override
 	public BooleanType getNewTypeOfSameClass(Boolean value) {
 		return new BooleanType(value);
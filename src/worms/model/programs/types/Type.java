@@ -15,7 +15,7 @@ public abstract class Type<C> {
 		return value;
 	}
 
-	private C value;
+	private final C value;
 	
 	@Override
 	public boolean equals(Object obj) {
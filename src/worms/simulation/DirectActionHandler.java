@@ -0,0 +1,151 @@
+package worms.simulation;
+
+import java.io.PrintStream;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import worms.gui.GUIConstants;
+import worms.gui.game.IActionHandler;
+import worms.model.IFacade;
+import worms.model.ModelException;
+import worms.model.Projectile;
+import worms.model.World;
+import worms.model.Worm;
+
+/**
+ * An action handler that applies the actions of worms to the model right away through a facade,
+ * without a GUI, animations, timers or sleeps.
+ *
+ * The actions have the same effect on the model as the commands of the GUI: a worm that moves
+ * falls afterwards if it can, and the projectile a worm fires flies right away.
+ */
+public class DirectActionHandler implements IActionHandler {
+
+	/**
+	 * Creates a new direct action handler that applies actions through the given facade
+	 * and discards the messages it has to print.
+	 */
+	public DirectActionHandler(IFacade facade) throws IllegalArgumentException {
+		this(facade, null);
+	}
+
+	/**
+	 * Creates a new direct action handler that applies actions through the given facade
+	 * and prints messages to the given stream, or discards them if the given stream is null.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			| facade == null
+	 */
+	public DirectActionHandler(IFacade facade, PrintStream out) throws IllegalArgumentException {
+		if(facade == null)
+			throw new IllegalArgumentException();
+		this.facade = facade;
+		this.out = out;
+	}
+
+	@Basic @Immutable
+	public IFacade getFacade() {
+		return facade;
+	}
+
+	private final IFacade facade;
+
+	private final PrintStream out;
+
+	/**
+	 * Returns the number of actions this action handler has applied successfully.
+	 */
+	@Basic
+	public long getNbActions() {
+		return nbActions;
+	}
+
+	/**
+	 * Returns the number of actions this action handler could not apply.
+	 */
+	@Basic
+	public long getNbFailedActions() {
+		return nbFailedActions;
+	}
+
+	private long nbActions = 0;
+
+	private long nbFailedActions = 0;
+
+	private boolean succeeded() {
+		nbActions++;
+		return true;
+	}
+
+	private boolean failed() {
+		nbFailedActions++;
+		return false;
+	}
+
+	@Override
+	public boolean turn(Worm worm, double angle) {
+		try {
+			if (!getFacade().canTurn(worm, angle))
+				return failed();
+			getFacade().turn(worm, angle);
+			return succeeded();
+		} catch (ModelException e) {
+			return failed();
+		}
+	}
+
+	@Override
+	public boolean move(Worm worm) {
+		try {
+			if (!getFacade().canMove(worm))
+				return failed();
+			getFacade().move(worm);
+			if (getFacade().isAlive(worm) && getFacade().canFall(worm))
+				getFacade().fall(worm);
+			return succeeded();
+		} catch (ModelException e) {
+			return failed();
+		}
+	}
+
+	@Override
+	public boolean jump(Worm worm) {
+		try {
+			getFacade().jump(worm, GUIConstants.JUMP_TIME_STEP);
+			return succeeded();
+		} catch (ModelException e) {
+			return failed();
+		}
+	}
+
+	@Override
+	public boolean fire(Worm worm, int propulsion) {
+		try {
+			World world = worm.getWorld();
+			getFacade().shoot(worm, propulsion);
+			Projectile projectile = getFacade().getActiveProjectile(world);
+			if (projectile == null)
+				return failed();
+			getFacade().jump(projectile, GUIConstants.JUMP_TIME_STEP);
+			return succeeded();
+		} catch (ModelException e) {
+			return failed();
+		}
+	}
+
+	@Override
+	public boolean toggleWeapon(Worm worm) {
+		try {
+			getFacade().selectNextWeapon(worm);
+			return succeeded();
+		} catch (ModelException e) {
+			return failed();
+		}
+	}
+
+	@Override
+	public void print(String message) {
+		if (out != null)
+			out.println(message);
+	}
+}
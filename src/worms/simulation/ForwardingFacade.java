@@ -0,0 +1,345 @@
+package worms.simulation;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.Random;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import worms.gui.game.IActionHandler;
+import worms.model.Food;
+import worms.model.IFacade;
+import worms.model.Program;
+import worms.model.Projectile;
+import worms.model.World;
+import worms.model.Worm;
+import worms.model.programs.ParseOutcome;
+
+/**
+ * A facade that forwards every call to another facade. Subclasses override the calls they observe.
+ */
+public abstract class ForwardingFacade implements IFacade {
+
+	/**
+	 * Creates a new forwarding facade that forwards every call to the given facade.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			| facade == null
+	 */
+	protected ForwardingFacade(IFacade facade) throws IllegalArgumentException {
+		if (facade == null)
+			throw new IllegalArgumentException();
+		this.facade = facade;
+	}
+
+	/**
+	 * Returns the facade this forwarding facade forwards its calls to.
+	 */
+	@Basic @Immutable
+	public IFacade getFacade() {
+		return facade;
+	}
+
+	private final IFacade facade;
+
+	@Override
+	public World createWorld(double width, double height, boolean[][] passableMap, Random random) {
+		return getFacade().createWorld(width, height, passableMap, random);
+	}
+
+	@Override
+	public void addEmptyTeam(World world, String newName) {
+		getFacade().addEmptyTeam(world, newName);
+	}
+
+	@Override
+	public void addNewFood(World world) {
+		getFacade().addNewFood(world);
+	}
+
+	@Override
+	public void addNewWorm(World world, Program program) {
+		getFacade().addNewWorm(world, program);
+	}
+
+	@Override
+	public Food createFood(World world, double x, double y) {
+		return getFacade().createFood(world, x, y);
+	}
+
+	@Override
+	public Worm createWorm(World world, double x, double y, double direction, double radius, String name,
+			Program program) {
+		return getFacade().createWorm(world, x, y, direction, radius, name, program);
+	}
+
+	@Override
+	public void fall(Worm worm) {
+		getFacade().fall(worm);
+	}
+
+	@Override
+	public void jump(Projectile projectile, double timeStep) {
+		getFacade().jump(projectile, timeStep);
+	}
+
+	@Override
+	public void jump(Worm worm, double timeStep) {
+		getFacade().jump(worm, timeStep);
+	}
+
+	@Override
+	public void move(Worm worm) {
+		getFacade().move(worm);
+	}
+
+	@Override
+	public void rename(Worm worm, String newName) {
+		getFacade().rename(worm, newName);
+	}
+
+	@Override
+	public void selectNextWeapon(Worm worm) {
+		getFacade().selectNextWeapon(worm);
+	}
+
+	@Override
+	public void setRadius(Worm worm, double newRadius) {
+		getFacade().setRadius(worm, newRadius);
+	}
+
+	@Override
+	public void shoot(Worm worm, int yield) {
+		getFacade().shoot(worm, yield);
+	}
+
+	@Override
+	public void turn(Worm worm, double angle) {
+		getFacade().turn(worm, angle);
+	}
+
+	@Override
+	public void startGame(World world) {
+		getFacade().startGame(world);
+	}
+
+	@Override
+	public void startNextTurn(World world) {
+		getFacade().startNextTurn(world);
+	}
+
+	@Override
+	public ParseOutcome<?> parseProgram(String programText, IActionHandler handler) {
+		return getFacade().parseProgram(programText, handler);
+	}
+
+	@Override
+	public boolean canFall(Worm worm) {
+		return getFacade().canFall(worm);
+	}
+
+	@Override
+	public boolean canMove(Worm worm) {
+		return getFacade().canMove(worm);
+	}
+
+	@Override
+	public boolean canTurn(Worm worm, double angle) {
+		return getFacade().canTurn(worm, angle);
+	}
+
+	@Override
+	public int getActionPoints(Worm worm) {
+		return getFacade().getActionPoints(worm);
+	}
+
+	@Override
+	public Projectile getActiveProjectile(World world) {
+		return getFacade().getActiveProjectile(world);
+	}
+
+	@Override
+	public Worm getCurrentWorm(World world) {
+		return getFacade().getCurrentWorm(world);
+	}
+
+	@Override
+	public Collection<Food> getFood(World world) {
+		return getFacade().getFood(world);
+	}
+
+	@Override
+	public int getHitPoints(Worm worm) {
+		return getFacade().getHitPoints(worm);
+	}
+
+	@Override
+	public double[] getJumpStep(Projectile projectile, double t) {
+		return getFacade().getJumpStep(projectile, t);
+	}
+
+	@Override
+	public double[] getJumpStep(Worm worm, double t) {
+		return getFacade().getJumpStep(worm, t);
+	}
+
+	@Override
+	public double getJumpTime(Projectile projectile, double timeStep) {
+		return getFacade().getJumpTime(projectile, timeStep);
+	}
+
+	@Override
+	public double getJumpTime(Worm worm, double timeStep) {
+		return getFacade().getJumpTime(worm, timeStep);
+	}
+
+	@Override
+	public double getMass(Worm worm) {
+		return getFacade().getMass(worm);
+	}
+
+	@Override
+	public int getMaxActionPoints(Worm worm) {
+		return getFacade().getMaxActionPoints(worm);
+	}
+
+	@Override
+	public int getMaxHitPoints(Worm worm) {
+		return getFacade().getMaxHitPoints(worm);
+	}
+
+	@Override
+	public double getMinimalRadius(Worm worm) {
+		return getFacade().getMinimalRadius(worm);
+	}
+
+	@Override
+	public String getName(Worm worm) {
+		return getFacade().getName(worm);
+	}
+
+	@Override
+	public double getOrientation(Worm worm) {
+		return getFacade().getOrientation(worm);
+	}
+
+	@Override
+	public double getRadius(Food food) {
+		return getFacade().getRadius(food);
+	}
+
+	@Override
+	public double getRadius(Projectile projectile) {
+		return getFacade().getRadius(projectile);
+	}
+
+	@Override
+	public double getRadius(Worm worm) {
+		return getFacade().getRadius(worm);
+	}
+
+	@Override
+	public String getSelectedWeapon(Worm worm) {
+		return getFacade().getSelectedWeapon(worm);
+	}
+
+	@Override
+	public String getTeamName(Worm worm) {
+		return getFacade().getTeamName(worm);
+	}
+
+	@Override
+	public String getWinner(World world) {
+		return getFacade().getWinner(world);
+	}
+
+	@Override
+	public Collection<Worm> getWorms(World world) {
+		return getFacade().getWorms(world);
+	}
+
+	@Override
+	public double getX(Food food) {
+		return getFacade().getX(food);
+	}
+
+	@Override
+	public double getX(Projectile projectile) {
+		return getFacade().getX(projectile);
+	}
+
+	@Override
+	public double getX(Worm worm) {
+		return getFacade().getX(worm);
+	}
+
+	@Override
+	public double getY(Food food) {
+		return getFacade().getY(food);
+	}
+
+	@Override
+	public double getY(Projectile projectile) {
+		return getFacade().getY(projectile);
+	}
+
+	@Override
+	public double getY(Worm worm) {
+		return getFacade().getY(worm);
+	}
+
+	@Override
+	public boolean isActive(Food food) {
+		return getFacade().isActive(food);
+	}
+
+	@Override
+	public boolean isActive(Projectile projectile) {
+		return getFacade().isActive(projectile);
+	}
+
+	@Override
+	public boolean isAdjacent(World world, double x, double y, double radius) {
+		return getFacade().isAdjacent(world, x, y, radius);
+	}
+
+	@Override
+	public boolean isAlive(Worm worm) {
+		return getFacade().isAlive(worm);
+	}
+
+	@Override
+	public boolean isGameFinished(World world) {
+		return getFacade().isGameFinished(world);
+	}
+
+	@Override
+	public boolean isImpassable(World world, double x, double y, double radius) {
+		return getFacade().isImpassable(world, x, y, radius);
+	}
+
+	@Override
+	public long getVersion(World world) {
+		return getFacade().getVersion(world);
+	}
+
+	@Override
+	public boolean hasProgram(Worm worm) {
+		return getFacade().hasProgram(worm);
+	}
+
+	@Override
+	public boolean isWellFormed(Program program) {
+		return getFacade().isWellFormed(program);
+	}
+
+	@Override
+	public void setProfileDirectory(File profileDirectory) {
+		getFacade().setProfileDirectory(profileDirectory);
+	}
+
+	@Override
+	public void writeProfiles(World world) {
+		getFacade().writeProfiles(world);
+	}
+}
@@ -0,0 +1,161 @@
+package worms.simulation;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import worms.model.Food;
+import worms.model.Projectile;
+import worms.model.World;
+import worms.model.Worm;
+
+/**
+ * The binary format of game logs, shared by the recording facade and the game replayer.
+ *
+ * A game log starts with a magic number and a version, followed by events. An event is an opcode,
+ * with NESTED set if a program made the mutation while turns started, followed by its operands.
+ * Worms are referred to by the number of worms that were added to the world before them.
+ * An event that starts turns records the maximal number of turns of the world; the events nested in it
+ * follow it, and an event that records the number of turns that had started ends them.
+ * The teams of the worms are recorded when the game starts, because worms can join a team without the facade.
+ */
+final class GameLog {
+
+	private GameLog() {
+	}
+
+	static final int MAGIC = 0x574F524D; // "WORM"
+	static final int VERSION = 1;
+
+	static final int CREATE_WORLD = 1;
+	static final int ADD_TEAM = 2;
+	static final int ADD_FOOD = 3;
+	static final int ADD_WORM = 4;
+	static final int DEFINE_PROGRAM = 5;
+	static final int CREATE_FOOD = 6;
+	static final int CREATE_WORM = 7;
+	static final int MOVE = 8;
+	static final int FALL = 9;
+	static final int JUMP_WORM = 10;
+	static final int JUMP_PROJECTILE = 11;
+	static final int TURN = 12;
+	static final int SHOOT = 13;
+	static final int SELECT_WEAPON = 14;
+	static final int RENAME = 15;
+	static final int SET_RADIUS = 16;
+	static final int START_GAME = 17;
+	static final int START_NEXT_TURN = 18;
+	static final int END_TURNS = 19;
+	static final int CHECKSUM = 20;
+	static final int SET_TEAM = 21;
+
+	static final int NESTED = 0x80;
+
+	/**
+	 * The number of the program of a worm without a program, and of a worm whose program
+	 * wasn't parsed by the recording facade.
+	 */
+	static final int NO_PROGRAM = 0, UNKNOWN_PROGRAM = 1;
+
+	static void writeVarLong(DataOutput out, long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			out.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+
+	static long readVarLong(DataInput in) throws IOException {
+		long result = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = in.readUnsignedByte();
+			result |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return result;
+		}
+		throw new IOException("Malformed variable-length number.");
+	}
+
+	static void writeString(DataOutput out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarLong(out, bytes.length);
+		out.write(bytes);
+	}
+
+	static String readString(DataInput in) throws IOException {
+		long length = readVarLong(in);
+		if (length > Integer.MAX_VALUE)
+			throw new EOFException();
+		byte[] bytes = new byte[(int) length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static final long FNV_OFFSET = 0xCBF29CE484222325L, FNV_PRIME = 0x100000001B3L;
+
+	private static long mix(long hash, long value) {
+		return (hash ^ value) * FNV_PRIME;
+	}
+
+	private static long mix(long hash, double value) {
+		return mix(hash, Double.doubleToLongBits(value));
+	}
+
+	private static long mix(long hash, String value) {
+		return mix(hash, (value == null) ? 0 : value.hashCode());
+	}
+
+	/**
+	 * Returns a hash of the given passable map.
+	 */
+	static long hashPassableMap(boolean[][] passableMap) {
+		long hash = mix(FNV_OFFSET, passableMap.length);
+		for (boolean[] row : passableMap) {
+			hash = mix(hash, row.length);
+			long word = 0;
+			for (int column = 0; column < row.length; column++) {
+				if (row[column])
+					word |= 1L << (column & 63);
+				if ((column & 63) == 63 || column == row.length - 1) {
+					hash = mix(hash, word);
+					word = 0;
+				}
+			}
+		}
+		return hash;
+	}
+
+	/**
+	 * Returns a checksum of the state of the given world: the position, direction, radius, action points,
+	 * hit points, selected weapon, name and team of its worms in their order, the position of its food rations,
+	 * its projectile, its current worm and the number of turns that have started.
+	 */
+	static long checksum(World world) {
+		long hash = mix(FNV_OFFSET, world.isTerminated() ? 1 : 0);
+		hash = mix(hash, world.getNbTurns());
+		for (Worm worm : world.getWorms()) {
+			hash = mix(hash, worm.getXCoordinate());
+			hash = mix(hash, worm.getYCoordinate());
+			hash = mix(hash, worm.getDirection());
+			hash = mix(hash, worm.getRadius());
+			hash = mix(hash, worm.getActionPoints());
+			hash = mix(hash, worm.getHitPoints());
+			hash = mix(hash, worm.getSelectedWeapon().getName());
+			hash = mix(hash, worm.getName());
+			hash = mix(hash, worm.hasTeam() ? worm.getTeam().getName() : null);
+		}
+		for (Food food : world.getFoodView()) {
+			hash = mix(hash, food.getXCoordinate());
+			hash = mix(hash, food.getYCoordinate());
+		}
+		Projectile projectile = world.getProjectile();
+		if (projectile != null) {
+			hash = mix(hash, projectile.getXCoordinate());
+			hash = mix(hash, projectile.getYCoordinate());
+		}
+		Worm current = world.getCurrentWorm();
+		return mix(hash, (current == null) ? -1 : world.getWorms().indexOf(current));
+	}
+}
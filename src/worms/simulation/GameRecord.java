@@ -0,0 +1,170 @@
+package worms.simulation;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * A class of records of games in a tournament between two programs: the first program and the second program,
+ * whose worms are in different teams.
+ */
+@Value
+public final class GameRecord {
+
+	/**
+	 * Creates a new game record.
+	 *
+	 * @param winningSide	0 if the first program won, 1 if the second program won, -1 if no program won.
+	 */
+	public GameRecord(int number, String levelName, String firstProgram, String secondProgram, long seed,
+			int winningSide, boolean finished, long nbTurns, int nbFirstRuntimeErrors, int nbSecondRuntimeErrors, long nanos) {
+		this.number = number;
+		this.levelName = levelName;
+		this.firstProgram = firstProgram;
+		this.secondProgram = secondProgram;
+		this.seed = seed;
+		this.winningSide = winningSide;
+		this.finished = finished;
+		this.nbTurns = nbTurns;
+		this.nbFirstRuntimeErrors = nbFirstRuntimeErrors;
+		this.nbSecondRuntimeErrors = nbSecondRuntimeErrors;
+		this.nanos = nanos;
+	}
+
+	/**
+	 * Returns the number of the game in its tournament.
+	 */
+	@Basic @Immutable
+	public int getNumber() {
+		return number;
+	}
+
+	private final int number;
+
+	@Basic @Immutable
+	public String getLevelName() {
+		return levelName;
+	}
+
+	private final String levelName;
+
+	@Basic @Immutable
+	public String getFirstProgram() {
+		return firstProgram;
+	}
+
+	private final String firstProgram;
+
+	@Basic @Immutable
+	public String getSecondProgram() {
+		return secondProgram;
+	}
+
+	private final String secondProgram;
+
+	/**
+	 * Returns the seed of the random number generator of the world of the game.
+	 */
+	@Basic @Immutable
+	public long getSeed() {
+		return seed;
+	}
+
+	private final long seed;
+
+	/**
+	 * Returns 0 if the first program won the game, 1 if the second program won the game,
+	 * or -1 if the game ended without survivors or wasn't finished.
+	 */
+	@Basic @Immutable
+	public int getWinningSide() {
+		return winningSide;
+	}
+
+	private final int winningSide;
+
+	/**
+	 * Returns the name of the program that won the game, or null if no program won.
+	 *
+	 * @return	| if(getWinningSide() == 0) then result == getFirstProgram()
+	 * 			| else if(getWinningSide() == 1) then result == getSecondProgram()
+	 * 			| else result == null
+	 */
+	public String getWinner() {
+		if (getWinningSide() == 0)
+			return getFirstProgram();
+		if (getWinningSide() == 1)
+			return getSecondProgram();
+		return null;
+	}
+
+	/**
+	 * Checks whether the game was finished before the maximal number of turns had started.
+	 */
+	@Basic @Immutable
+	public boolean isFinished() {
+		return finished;
+	}
+
+	private final boolean finished;
+
+	@Basic @Immutable
+	public long getNbTurns() {
+		return nbTurns;
+	}
+
+	private final long nbTurns;
+
+	/**
+	 * Returns the number of worms of the first program whose program encountered a runtime error.
+	 */
+	@Basic @Immutable
+	public int getNbFirstRuntimeErrors() {
+		return nbFirstRuntimeErrors;
+	}
+
+	private final int nbFirstRuntimeErrors;
+
+	/**
+	 * Returns the number of worms of the second program whose program encountered a runtime error.
+	 */
+	@Basic @Immutable
+	public int getNbSecondRuntimeErrors() {
+		return nbSecondRuntimeErrors;
+	}
+
+	private final int nbSecondRuntimeErrors;
+
+	/**
+	 * Returns the wall-clock time the game took, in nanoseconds.
+	 */
+	@Basic @Immutable
+	public long getNanos() {
+		return nanos;
+	}
+
+	private final long nanos;
+
+	/**
+	 * Checks whether this record has the same outcome as the given record: everything but the time the games took.
+	 */
+	public boolean hasSameOutcome(GameRecord other) {
+		return other != null && other.getNumber() == getNumber() && other.getLevelName().equals(getLevelName())
+				&& other.getFirstProgram().equals(getFirstProgram()) && other.getSecondProgram().equals(getSecondProgram())
+				&& other.getSeed() == getSeed() && other.getWinningSide() == getWinningSide()
+				&& other.isFinished() == isFinished() && other.getNbTurns() == getNbTurns()
+				&& other.getNbFirstRuntimeErrors() == getNbFirstRuntimeErrors()
+				&& other.getNbSecondRuntimeErrors() == getNbSecondRuntimeErrors();
+	}
+
+	@Override
+	public boolean equals(Object object) {
+		return (object instanceof GameRecord) && hasSameOutcome((GameRecord) object)
+				&& ((GameRecord) object).getNanos() == getNanos();
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * getNumber() + Long.hashCode(getSeed());
+	}
+}
@@ -0,0 +1,550 @@
+package worms.simulation;
+
+import static worms.simulation.GameLog.*;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import worms.model.Facade;
+import worms.model.IFacade;
+import worms.model.ModelException;
+import worms.model.Program;
+import worms.model.Projectile;
+import worms.model.Team;
+import worms.model.World;
+import worms.model.Worm;
+import worms.model.programs.ParseOutcome;
+
+/**
+ * A class of replayers of game logs written by a recording facade.
+ *
+ * A game replayer applies the events of a game log at full speed through a facade, without a GUI,
+ * and verifies the checksums in the log against the states of the replayed world. The programs of the
+ * replayed worms are parsed from the sources in the log and act through a direct action handler; every
+ * action they make while turns start is verified against the next nested event of the log.
+ *
+ * Run it from the project root with
+ * 	ant replay -Dreplay.args="game.log"
+ */
+public class GameReplayer {
+
+	/**
+	 * Creates a new game replayer that replays the game log read from the given stream through the given facade,
+	 * in worlds for the shipped levels with the names in the log.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			| facade == null || in == null
+	 */
+	public GameReplayer(IFacade facade, InputStream in) throws IllegalArgumentException {
+		this(facade, in, null);
+	}
+
+	/**
+	 * Creates a new game replayer that replays the game log read from the given stream through the given facade,
+	 * in worlds for the given map, or for the shipped levels with the names in the log if the given map is null.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			| facade == null || in == null
+	 */
+	public GameReplayer(IFacade facade, InputStream in, LevelMap map) throws IllegalArgumentException {
+		if (facade == null || in == null)
+			throw new IllegalArgumentException();
+		this.facade = facade;
+		this.actionHandler = new DirectActionHandler(new VerifyingFacade(facade));
+		this.in = new DataInputStream(new BufferedInputStream(in, 1 << 16));
+		this.map = map;
+	}
+
+	@Basic @Immutable
+	public IFacade getFacade() {
+		return facade;
+	}
+
+	private final IFacade facade;
+
+	/**
+	 * The action handler of the replayed programs, which verifies their actions against the log.
+	 */
+	private final DirectActionHandler actionHandler;
+
+	private final DataInputStream in;
+
+	/**
+	 * The map the worlds are replayed in, or null if they are replayed in the shipped levels.
+	 */
+	private final LevelMap map;
+
+	/**
+	 * The shipped levels that were loaded, by their names.
+	 */
+	private final Map<String, LevelMap> levels = new HashMap<String, LevelMap>();
+
+	/**
+	 * Returns the world the last world event of the log created, or null if no world has been created yet.
+	 */
+	@Basic
+	public World getWorld() {
+		return world;
+	}
+
+	private World world = null;
+
+	private final List<Worm> worms = new ArrayList<Worm>();
+
+	private final Map<Long, Program> programs = new HashMap<Long, Program>();
+
+	/**
+	 * Checks whether this game replayer is starting turns, so the actions of programs are verified.
+	 */
+	private boolean startingTurns = false;
+
+	/**
+	 * Returns the number of events this game replayer has replayed, including the nested events.
+	 */
+	@Basic
+	public long getNbEvents() {
+		return nbEvents;
+	}
+
+	private long nbEvents = 0;
+
+	/**
+	 * Returns the number of nested events this game replayer verified against the actions of programs.
+	 */
+	@Basic
+	public long getNbNestedEvents() {
+		return nbNestedEvents;
+	}
+
+	private long nbNestedEvents = 0;
+
+	/**
+	 * Returns the number of events that failed, as they did when they were recorded.
+	 */
+	@Basic
+	public long getNbFailedEvents() {
+		return nbFailedEvents;
+	}
+
+	private long nbFailedEvents = 0;
+
+	/**
+	 * Returns the number of checksums this game replayer verified.
+	 */
+	@Basic
+	public long getNbChecksums() {
+		return nbChecksums;
+	}
+
+	private long nbChecksums = 0;
+
+	/**
+	 * Returns the number of turns this game replayer started.
+	 */
+	@Basic
+	public long getNbTurns() {
+		return nbTurns;
+	}
+
+	private long nbTurns = 0;
+
+	/**
+	 * Returns the time the replay took, in nanoseconds.
+	 */
+	@Basic
+	public long getNanos() {
+		return nanos;
+	}
+
+	private long nanos = 0;
+
+	/**
+	 * Replays the whole game log, verifying every checksum and every action of a program in it.
+	 *
+	 * @throws	IOException
+	 * 			The log can't be read, doesn't start with the header of a game log, or ends in the middle of an event.
+	 * @throws	IllegalStateException
+	 * 			The replayed game diverged from the recorded game: a checksum, an action of a program or a number
+	 * 			of turns doesn't match, a map doesn't match the hash in the log, or a worm has a program that
+	 * 			wasn't recorded.
+	 */
+	public void replay() throws IOException, IllegalStateException {
+		long start = System.nanoTime();
+		if (in.readInt() != MAGIC)
+			throw new IOException("Not a game log.");
+		int version = in.readUnsignedByte();
+		if (version != VERSION)
+			throw new IOException("Unsupported game log version: " + version);
+		try {
+			while (true) {
+				int opcode = in.read();
+				if (opcode < 0)
+					break;
+				replay(opcode);
+			}
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		} finally {
+			nanos = System.nanoTime() - start;
+		}
+	}
+
+	private void replay(int opcode) throws IOException, IllegalStateException {
+		nbEvents++;
+		if ((opcode & NESTED) != 0)
+			throw diverged("the replayed programs didn't make a recorded action");
+		try {
+			switch (opcode) {
+			case CREATE_WORLD:
+				createWorld();
+				break;
+			case DEFINE_PROGRAM:
+				defineProgram();
+				break;
+			case ADD_TEAM:
+				getFacade().addEmptyTeam(getWorld(), readString(in));
+				break;
+			case ADD_FOOD:
+				getFacade().addNewFood(getWorld());
+				break;
+			case ADD_WORM: {
+				Program program = readProgram();
+				try {
+					getFacade().addNewWorm(getWorld(), program);
+				} finally {
+					registerWorms();
+				}
+				break;
+			}
+			case CREATE_FOOD:
+				getFacade().createFood(getWorld(), in.readDouble(), in.readDouble());
+				break;
+			case CREATE_WORM: {
+				double x = in.readDouble(), y = in.readDouble();
+				double direction = in.readDouble(), radius = in.readDouble();
+				String name = readString(in);
+				Program program = readProgram();
+				try {
+					getFacade().createWorm(getWorld(), x, y, direction, radius, name, program);
+				} finally {
+					registerWorms();
+				}
+				break;
+			}
+			case MOVE:
+				getFacade().move(readWorm());
+				break;
+			case FALL:
+				getFacade().fall(readWorm());
+				break;
+			case JUMP_WORM:
+				getFacade().jump(readWorm(), in.readDouble());
+				break;
+			case JUMP_PROJECTILE:
+				getFacade().jump(getFacade().getActiveProjectile(getWorld()), in.readDouble());
+				break;
+			case TURN:
+				getFacade().turn(readWorm(), in.readDouble());
+				break;
+			case SHOOT:
+				getFacade().shoot(readWorm(), (int) readVarLong(in));
+				break;
+			case SELECT_WEAPON:
+				getFacade().selectNextWeapon(readWorm());
+				break;
+			case RENAME:
+				getFacade().rename(readWorm(), readString(in));
+				break;
+			case SET_RADIUS:
+				getFacade().setRadius(readWorm(), in.readDouble());
+				break;
+			case SET_TEAM:
+				setTeam(readWorm(), readString(in));
+				break;
+			case START_GAME:
+			case START_NEXT_TURN:
+				startTurns(opcode == START_GAME, readVarLong(in));
+				break;
+			case CHECKSUM:
+				verifyChecksum();
+				break;
+			default:
+				throw new IOException("Unknown event: " + opcode);
+			}
+		} catch (ModelException e) {
+			nbFailedEvents++;
+		}
+	}
+
+	private void createWorld() throws IOException, IllegalStateException {
+		long seed = in.readLong();
+		String levelName = readString(in);
+		double width = in.readDouble(), height = in.readDouble();
+		long nbRows = readVarLong(in), nbColumns = readVarLong(in);
+		long hash = in.readLong();
+		LevelMap map = this.map;
+		if (map == null) {
+			map = levels.get(levelName);
+			if (map == null) {
+				map = new LevelMap(HeadlessGame.findLevel(levelName));
+				levels.put(levelName, map);
+			}
+		}
+		boolean[][] passableMap = map.getPassableMap();
+		if (passableMap.length != nbRows || (nbRows > 0 && passableMap[0].length != nbColumns)
+				|| hashPassableMap(passableMap) != hash)
+			throw new IllegalStateException("The map of level " + map.getName() + " doesn't match the recorded map.");
+		world = getFacade().createWorld(width, height, passableMap, new Random(seed));
+		worms.clear();
+	}
+
+	private void defineProgram() throws IOException, IllegalStateException {
+		long number = readVarLong(in);
+		String source = readString(in);
+		ParseOutcome<?> outcome = getFacade().parseProgram(source, actionHandler);
+		if (!outcome.isSuccess())
+			throw new IllegalStateException("A recorded program can't be parsed: " + outcome.getResult());
+		programs.put(number, (Program) outcome.getResult());
+	}
+
+	private Program readProgram() throws IOException, IllegalStateException {
+		long number = readVarLong(in);
+		if (number == NO_PROGRAM)
+			return null;
+		if (number == UNKNOWN_PROGRAM || !programs.containsKey(number))
+			throw new IllegalStateException("A worm has a program that wasn't recorded.");
+		return programs.get(number);
+	}
+
+	private Worm readWorm() throws IOException {
+		long number = readVarLong(in);
+		if (number >= worms.size())
+			throw new IOException("Unknown worm: " + number);
+		return worms.get((int) number);
+	}
+
+	/**
+	 * Registers the worms of the replayed world that weren't registered yet, in their order.
+	 */
+	private void registerWorms() {
+		for (Worm worm : getWorld().getWorms())
+			if (!worms.contains(worm))
+				worms.add(worm);
+	}
+
+	private void setTeam(Worm worm, String name) {
+		Team team = null;
+		for (Team candidate : getWorld().getTeams())
+			if (candidate.getName().equals(name))
+				team = candidate;
+		if (worm.getTeam() != team)
+			worm.setTeam(team);
+	}
+
+	private void verifyChecksum() throws IOException, IllegalStateException {
+		if (checksum(getWorld()) != in.readLong())
+			throw diverged("its state doesn't match the recorded checksum");
+		nbChecksums++;
+	}
+
+	private IllegalStateException diverged(String reason) {
+		return new IllegalStateException("The replayed game diverged at event " + getNbEvents()
+				+ ((getWorld() == null) ? "" : " (turn " + getWorld().getNbTurns() + ")") + ": " + reason + ".");
+	}
+
+	/**
+	 * Starts the game or the next turn with the recorded maximal number of turns, verifying the actions of
+	 * the programs against the nested events, and verifies the number of turns that started.
+	 */
+	private void startTurns(boolean startsGame, long maxNbTurns) throws IOException, IllegalStateException {
+		long previousMaxNbTurns = getWorld().getMaxNbTurns();
+		long nbTurnsBefore = getWorld().getNbTurns();
+		getWorld().setMaxNbTurns(maxNbTurns);
+		startingTurns = true;
+		try {
+			if (startsGame)
+				getFacade().startGame(getWorld());
+			else
+				getFacade().startNextTurn(getWorld());
+		} catch (ModelException e) {
+			nbFailedEvents++;
+		} finally {
+			startingTurns = false;
+			getWorld().setMaxNbTurns(previousMaxNbTurns);
+			nbTurns += getWorld().getNbTurns() - nbTurnsBefore;
+		}
+		int opcode = in.readUnsignedByte();
+		nbEvents++;
+		if (opcode != END_TURNS)
+			throw diverged("the replayed programs didn't make a recorded action");
+		long recordedNbTurns = readVarLong(in);
+		if (getWorld().getNbTurns() != recordedNbTurns)
+			throw diverged(getWorld().getNbTurns() + " turns started instead of " + recordedNbTurns);
+	}
+
+	/**
+	 * A facade through which the programs of the replayed worms act, which verifies their actions
+	 * against the nested events of the log, and the nested checksums that precede those events.
+	 */
+	private class VerifyingFacade extends ForwardingFacade {
+
+		private VerifyingFacade(IFacade facade) {
+			super(facade);
+		}
+
+		/**
+		 * Reads the next nested event, after verifying the nested checksums before it,
+		 * and checks whether it has the given opcode.
+		 */
+		private void expect(int opcode) throws IOException, IllegalStateException {
+			int actual = in.readUnsignedByte();
+			nbEvents++;
+			while (actual == (CHECKSUM | NESTED)) {
+				verifyChecksum();
+				actual = in.readUnsignedByte();
+				nbEvents++;
+			}
+			if (actual != (opcode | NESTED))
+				throw diverged("a replayed program made another action than the recorded action");
+			nbNestedEvents++;
+		}
+
+		private void expect(int opcode, Worm worm) throws IOException, IllegalStateException {
+			expect(opcode);
+			if (readWorm() != worm)
+				throw diverged("a replayed program made an action with another worm");
+		}
+
+		private void expect(int opcode, Worm worm, double argument) throws IOException, IllegalStateException {
+			expect(opcode, worm);
+			expect(argument);
+		}
+
+		private void expect(double argument) throws IOException, IllegalStateException {
+			if (Double.doubleToLongBits(in.readDouble()) != Double.doubleToLongBits(argument))
+				throw diverged("a replayed program made an action with another argument");
+		}
+
+		@Override
+		public void fall(Worm worm) {
+			try {
+				if (startingTurns)
+					expect(FALL, worm);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			super.fall(worm);
+		}
+
+		@Override
+		public void jump(Projectile projectile, double timeStep) {
+			try {
+				if (startingTurns) {
+					expect(JUMP_PROJECTILE);
+					expect(timeStep);
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			super.jump(projectile, timeStep);
+		}
+
+		@Override
+		public void jump(Worm worm, double timeStep) {
+			try {
+				if (startingTurns)
+					expect(JUMP_WORM, worm, timeStep);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			super.jump(worm, timeStep);
+		}
+
+		@Override
+		public void move(Worm worm) {
+			try {
+				if (startingTurns)
+					expect(MOVE, worm);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			super.move(worm);
+		}
+
+		@Override
+		public void selectNextWeapon(Worm worm) {
+			try {
+				if (startingTurns)
+					expect(SELECT_WEAPON, worm);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			super.selectNextWeapon(worm);
+		}
+
+		@Override
+		public void shoot(Worm worm, int yield) {
+			try {
+				if (startingTurns) {
+					expect(SHOOT, worm);
+					if (readVarLong(in) != yield)
+						throw diverged("a replayed program made an action with another argument");
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			super.shoot(worm, yield);
+		}
+
+		@Override
+		public void turn(Worm worm, double angle) {
+			try {
+				if (startingTurns)
+					expect(TURN, worm, angle);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			super.turn(worm, angle);
+		}
+	}
+
+	/**
+	 * Replays the game logs in the given files and prints the number of events, checksums and turns per second.
+	 *
+	 * Arguments: [-compile] log files...
+	 */
+	public static void main(String[] args) throws IOException {
+		boolean compiling = false;
+		List<File> files = new ArrayList<File>();
+		for (String arg : args) {
+			if ("-compile".equals(arg))
+				compiling = true;
+			else
+				files.add(new File(arg));
+		}
+		for (File file : files) {
+			try (InputStream in = new FileInputStream(file)) {
+				GameReplayer replayer = new GameReplayer(new Facade(compiling), in);
+				replayer.replay();
+				System.out.printf("%s: %d events (%d nested), %d checksums verified, %d turns, %.1f turns/s%n", file,
+						replayer.getNbEvents(), replayer.getNbNestedEvents(), replayer.getNbChecksums(),
+						replayer.getNbTurns(), replayer.getNbTurns() / (replayer.getNanos() / 1e9));
+			} catch (EOFException e) {
+				System.out.println(file + ": the log ends in the middle of an event.");
+			}
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package worms.simulation;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * A class of results of games played without a GUI.
+ */
+@Value
+public final class GameResult {
+
+	/**
+	 * Creates a new game result.
+	 *
+	 * @param winner	The winners of the game, or null if the game wasn't finished.
+	 * @post	| new.getWinner() == winner
+	 * @post	| new.getNbTurns() == nbTurns
+	 * @post	| new.getNbActions() == nbActions
+	 * @post	| new.getNbRuntimeErrors() == nbRuntimeErrors
+	 * @post	| new.getNanos() == nanos
+	 */
+	public GameResult(String winner, long nbTurns, long nbActions, int nbRuntimeErrors, long nanos) {
+		this.winner = winner;
+		this.nbTurns = nbTurns;
+		this.nbActions = nbActions;
+		this.nbRuntimeErrors = nbRuntimeErrors;
+		this.nanos = nanos;
+	}
+
+	/**
+	 * Returns the winners of the game: the name of the winning team or worm, the empty string
+	 * if no worm survived, or null if the game wasn't finished.
+	 */
+	@Basic @Immutable
+	public String getWinner() {
+		return winner;
+	}
+
+	private final String winner;
+
+	/**
+	 * Checks whether the game was finished.
+	 *
+	 * @return	| result == (getWinner() != null)
+	 */
+	public boolean isFinished() {
+		return getWinner() != null;
+	}
+
+	/**
+	 * Returns the number of turns that started in the game.
+	 */
+	@Basic @Immutable
+	public long getNbTurns() {
+		return nbTurns;
+	}
+
+	private final long nbTurns;
+
+	/**
+	 * Returns the number of actions the worms executed in the game.
+	 */
+	@Basic @Immutable
+	public long getNbActions() {
+		return nbActions;
+	}
+
+	private final long nbActions;
+
+	/**
+	 * Returns the number of programs in the game that encountered a runtime error.
+	 */
+	@Basic @Immutable
+	public int getNbRuntimeErrors() {
+		return nbRuntimeErrors;
+	}
+
+	private final int nbRuntimeErrors;
+
+	/**
+	 * Returns the wall-clock time the game took, in nanoseconds.
+	 */
+	@Basic @Immutable
+	public long getNanos() {
+		return nanos;
+	}
+
+	private final long nanos;
+
+	/**
+	 * Returns the number of turns per second of wall-clock time in the game.
+	 *
+	 * @return	| result == getNbTurns() / (getNanos() / 1e9)
+	 */
+	public double getTurnsPerSecond() {
+		return getNbTurns() / (getNanos() / 1e9);
+	}
+
+	@Override
+	public boolean equals(Object object) {
+		if (!(object instanceof GameResult))
+			return false;
+		GameResult other = (GameResult) object;
+		return (getWinner() == null ? other.getWinner() == null : getWinner().equals(other.getWinner()))
+				&& other.getNbTurns() == getNbTurns() && other.getNbActions() == getNbActions()
+				&& other.getNbRuntimeErrors() == getNbRuntimeErrors() && other.getNanos() == getNanos();
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Long.hashCode(getNbTurns()) + Long.hashCode(getNanos());
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s after %d turns, %d actions, %d runtime errors, %.1f turns/s",
+				isFinished() ? "won by '" + getWinner() + "'" : "unfinished",
+				getNbTurns(), getNbActions(), getNbRuntimeErrors(), getTurnsPerSecond());
+	}
+}
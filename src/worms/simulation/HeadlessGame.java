@@ -0,0 +1,343 @@
+package worms.simulation;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import worms.gui.GUIConstants;
+import worms.gui.Level;
+import worms.model.Facade;
+import worms.model.IFacade;
+import worms.model.ModelException;
+import worms.model.Program;
+import worms.model.Team;
+import worms.model.TurnPlanner;
+import worms.model.World;
+import worms.model.Worm;
+import worms.model.programs.ParseOutcome;
+
+/**
+ * A class of games that are played at full speed without a GUI.
+ *
+ * A headless game builds the world of a level through a facade, lets the programs of its worms
+ * act through a direct action handler and starts turns until the game is finished or
+ * a maximal number of turns has started. Worms with a turn planner let it plan their turns,
+ * and other worms without a program skip their turns.
+ *
+ * Run it from the project root with
+ * 	ant simulate -Dsimulate.args="-level Skulls -worms 2 programs/program.txt programs/kamikaze.txt"
+ */
+public class HeadlessGame {
+
+	/**
+	 * Creates a new headless game in a world for the given level, created through the given facade
+	 * with a random number generator with the given seed.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			| facade == null || level == null
+	 */
+	public HeadlessGame(IFacade facade, Level level, long seed) throws IllegalArgumentException {
+		this(facade, load(level), seed);
+	}
+
+	/**
+	 * Creates a new headless game in a world for the given loaded map, created through the given facade
+	 * with a random number generator with the given seed. The passable map of the given map is only read,
+	 * so a map can be shared by games that are played at the same time.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			| facade == null || map == null
+	 */
+	public HeadlessGame(IFacade facade, LevelMap map, long seed) throws IllegalArgumentException {
+		if (facade == null || map == null)
+			throw new IllegalArgumentException();
+		this.facade = facade;
+		this.actionHandler = new DirectActionHandler(facade);
+		this.world = facade.createWorld(map.getWidth(), map.getHeight(), map.getPassableMap(), new Random(seed));
+	}
+
+	private static LevelMap load(Level level) throws IllegalArgumentException {
+		if (level == null)
+			throw new IllegalArgumentException();
+		return new LevelMap(level);
+	}
+
+	@Basic @Immutable
+	public IFacade getFacade() {
+		return facade;
+	}
+
+	private final IFacade facade;
+
+	/**
+	 * Returns the action handler through which the programs of the worms in this game act.
+	 */
+	@Basic @Immutable
+	public DirectActionHandler getActionHandler() {
+		return actionHandler;
+	}
+
+	private final DirectActionHandler actionHandler;
+
+	@Basic @Immutable
+	public World getWorld() {
+		return world;
+	}
+
+	private final World world;
+
+	/**
+	 * Adds an empty team with the given name to the world of this game, and returns it.
+	 */
+	public Team addTeam(String name) {
+		getFacade().addEmptyTeam(getWorld(), name);
+		for (Team team : getWorld().getTeams())
+			if (team.getName().equals(name))
+				return team;
+		return null;
+	}
+
+	/**
+	 * Adds a new worm with the program with the given source to the world of this game,
+	 * or a new worm without a program if the given source is null, and returns it.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			The given source can't be parsed, or its program isn't well-formed.
+	 * @throws	IllegalStateException
+	 * 			This game has been played already.
+	 */
+	public Worm addWorm(String source) throws IllegalArgumentException, IllegalStateException {
+		return addWorm(source, null);
+	}
+
+	/**
+	 * Adds a new worm with the program with the given source to the given team in the world of this game,
+	 * or a new worm without a program if the given source is null, and returns it.
+	 * If the given team is null, the worm joins a random team or no team, like any new worm.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			The given source can't be parsed, or its program isn't well-formed.
+	 * @throws	IllegalStateException
+	 * 			This game has been played already.
+	 */
+	public Worm addWorm(String source, Team team) throws IllegalArgumentException, IllegalStateException {
+		if (hasBeenPlayed())
+			throw new IllegalStateException("This game has been played already.");
+		Program program = null;
+		if (source != null) {
+			ParseOutcome<?> outcome = getFacade().parseProgram(source, getActionHandler());
+			if (!outcome.isSuccess())
+				throw new IllegalArgumentException("Parsing failed with the following errors: " + outcome.getResult());
+			program = (Program) outcome.getResult();
+			if (!getFacade().isWellFormed(program))
+				throw new IllegalArgumentException("The program is not well-formed.");
+		}
+		getFacade().addNewWorm(getWorld(), program);
+		List<Worm> worms = getWorld().getWorms();
+		Worm worm = worms.get(worms.size() - 1);
+		if (team != null && worm.getTeam() != team)
+			worm.setTeam(team);
+		if (worm.hasProgram())
+			programmedWorms.add(worm);
+		return worm;
+	}
+
+	/**
+	 * Adds a new worm whose turns the given planner plays to the given team in the world of this game, and returns it.
+	 * If the given team is null, the worm joins a random team or no team, like any new worm.
+	 * The given planner should execute its plans through the action handler of this game.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			| planner == null
+	 * @throws	IllegalStateException
+	 * 			This game has been played already.
+	 */
+	public Worm addPlannedWorm(TurnPlanner planner, Team team) throws IllegalArgumentException, IllegalStateException {
+		if (planner == null)
+			throw new IllegalArgumentException();
+		Worm worm = addWorm(null, team);
+		worm.setPlanner(planner);
+		return worm;
+	}
+
+	/**
+	 * The worms with a program that were added to this game, including the worms that died.
+	 */
+	private final List<Worm> programmedWorms = new ArrayList<Worm>();
+
+	/**
+	 * Adds the given number of food rations to the world of this game.
+	 */
+	public void addFood(int nbFood) {
+		for (int i = 0; i < nbFood; i++)
+			getFacade().addNewFood(getWorld());
+	}
+
+	/**
+	 * Plays this game until it is finished or the given number of turns has started, and returns its result.
+	 * Afterwards, the facade writes the profiles of the programs of the worms of this game if it profiles programs.
+	 *
+	 * @throws	IllegalStateException
+	 * 			This game has been played already, or there are no worms in its world.
+	 * @throws	ModelException
+	 * 			The profiles of the programs could not be written.
+	 */
+	public GameResult play(long maxNbTurns) throws IllegalStateException, ModelException {
+		if (hasBeenPlayed())
+			throw new IllegalStateException("This game has been played already.");
+		if (getWorld().getNbWorms() == 0)
+			throw new IllegalStateException("Cannot start the game without worms.");
+		hasBeenPlayed = true;
+		getWorld().setMaxNbTurns(maxNbTurns);
+
+		long start = System.nanoTime();
+		getFacade().startGame(getWorld());
+		while (!getFacade().isGameFinished(getWorld()) && getWorld().getNbTurns() < maxNbTurns)
+			getFacade().startNextTurn(getWorld());
+		long nanos = System.nanoTime() - start;
+		getFacade().writeProfiles(getWorld());
+
+		int nbRuntimeErrors = 0;
+		for (Worm worm : programmedWorms)
+			if (worm.getProgram().hasRuntimeErrorOccurred())
+				nbRuntimeErrors++;
+		String winner = getFacade().isGameFinished(getWorld()) ? getFacade().getWinner(getWorld()) : null;
+		return new GameResult(winner, getWorld().getNbTurns(), getActionHandler().getNbActions(), nbRuntimeErrors, nanos);
+	}
+
+	/**
+	 * Checks whether this game has been played already.
+	 */
+	@Basic
+	public boolean hasBeenPlayed() {
+		return hasBeenPlayed;
+	}
+
+	private boolean hasBeenPlayed = false;
+
+	/**
+	 * Returns the shipped level with the given name (e.g. "Skulls").
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			There is no level with the given name.
+	 */
+	public static Level findLevel(String name) throws IllegalArgumentException {
+		for (Level level : Level.getAvailableLevels())
+			if (level.getName().equals(name))
+				return level;
+		throw new IllegalArgumentException("Unknown level: " + name);
+	}
+
+	/**
+	 * Returns the source of the program in the given file.
+	 */
+	public static String readProgram(File file) throws IOException {
+		return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Plays headless games and prints their results and the number of turns per second.
+	 *
+	 * Arguments: [-level name] [-seed n] [-games n] [-turns n] [-worms n] [-food n] [-teams n] [-compile] [-record file]
+	 * 		[-planners n] [-budget ms] [-profile directory] program files...
+	 * Every game gets the next seed, and -worms worms for every given program file.
+	 * With -record, the games are recorded in the given game log, which a game replayer can replay.
+	 * With -planners, every game also gets that many worms whose turns a turn planner plays, which spends
+	 * at most -budget milliseconds on a turn; games with such worms can't be recorded.
+	 * With -profile, the programs are profiled and the profiles of game n are written to the subdirectory game-n
+	 * of the given directory.
+	 */
+	public static void main(String[] args) throws IOException {
+		String levelName = "Skulls";
+		long seed = 0;
+		int nbGames = 1;
+		long maxNbTurns = 1000;
+		int nbWormsPerProgram = 1;
+		int nbFood = 5;
+		int nbTeams = 0;
+		boolean compiling = false;
+		File recordFile = null;
+		int nbPlanners = 0;
+		long budget = 50;
+		File profileDirectory = null;
+		List<String> sources = new ArrayList<String>();
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			if ("-level".equals(arg))
+				levelName = args[++i];
+			else if ("-seed".equals(arg))
+				seed = Long.parseLong(args[++i]);
+			else if ("-games".equals(arg))
+				nbGames = Integer.parseInt(args[++i]);
+			else if ("-turns".equals(arg))
+				maxNbTurns = Long.parseLong(args[++i]);
+			else if ("-worms".equals(arg))
+				nbWormsPerProgram = Integer.parseInt(args[++i]);
+			else if ("-food".equals(arg))
+				nbFood = Integer.parseInt(args[++i]);
+			else if ("-teams".equals(arg))
+				nbTeams = Integer.parseInt(args[++i]);
+			else if ("-compile".equals(arg))
+				compiling = true;
+			else if ("-record".equals(arg))
+				recordFile = new File(args[++i]);
+			else if ("-planners".equals(arg))
+				nbPlanners = Integer.parseInt(args[++i]);
+			else if ("-budget".equals(arg))
+				budget = Long.parseLong(args[++i]);
+			else if ("-profile".equals(arg))
+				profileDirectory = new File(args[++i]);
+			else
+				sources.add(readProgram(new File(arg)));
+		}
+		if (sources.isEmpty() && nbPlanners == 0)
+			sources.add(readProgram(new File("programs/program.txt")));
+		if (recordFile != null && nbPlanners > 0)
+			throw new IllegalArgumentException("Games with planned worms can't be recorded.");
+
+		LevelMap map = new LevelMap(findLevel(levelName));
+		IFacade facade = new Facade(compiling);
+		RecordingFacade recordingFacade = null;
+		if (recordFile != null) {
+			recordingFacade = new RecordingFacade(facade, new FileOutputStream(recordFile));
+			recordingFacade.setLevelName(levelName);
+			facade = recordingFacade;
+		}
+		ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+		long totalNbTurns = 0;
+		long totalNanos = 0;
+		for (int game = 0; game < nbGames; game++) {
+			if (profileDirectory != null)
+				facade.setProfileDirectory(new File(profileDirectory, "game-" + game));
+			HeadlessGame headlessGame = new HeadlessGame(facade, map, seed + game);
+			for (int team = 0; team < nbTeams; team++)
+				headlessGame.addTeam("Team" + (char) ('A' + team));
+			for (int i = 0; i < nbWormsPerProgram; i++)
+				for (String source : sources)
+					headlessGame.addWorm(source);
+			for (int i = 0; i < nbPlanners; i++) {
+				TurnPlanner planner = new TurnPlanner(headlessGame.getActionHandler(), pool);
+				planner.setTimeBudget(budget * 1_000_000L);
+				planner.setJumpTimeStep(GUIConstants.JUMP_TIME_STEP);
+				headlessGame.addPlannedWorm(planner, null);
+			}
+			headlessGame.addFood(nbFood);
+			GameResult result = headlessGame.play(maxNbTurns);
+			System.out.println("Game " + game + " (seed " + (seed + game) + "): " + result);
+			totalNbTurns += result.getNbTurns();
+			totalNanos += result.getNanos();
+		}
+		pool.shutdown();
+		if (recordingFacade != null)
+			recordingFacade.close();
+		System.out.printf("%d games, %d turns, %.1f turns/s%n", nbGames, totalNbTurns, totalNbTurns / (totalNanos / 1e9));
+	}
+}
@@ -0,0 +1,56 @@
+package worms.simulation;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import worms.gui.Level;
+
+/**
+ * A class of maps of levels: the dimensions and the passable map of a loaded level.
+ *
+ * A level loads its map image every time it is loaded, so a level must not be loaded by several threads
+ * at the same time; a level map is loaded once and can be shared by games in different threads.
+ */
+public final class LevelMap {
+
+	/**
+	 * Creates a new level map by loading the given level.
+	 */
+	public LevelMap(Level level) {
+		level.load();
+		this.name = level.getName();
+		this.width = level.getWorldWidth();
+		this.height = level.getWorldHeight();
+		this.passableMap = level.getPassableMap();
+	}
+
+	@Basic @Immutable
+	public String getName() {
+		return name;
+	}
+
+	private final String name;
+
+	@Basic @Immutable
+	public double getWidth() {
+		return width;
+	}
+
+	private final double width;
+
+	@Basic @Immutable
+	public double getHeight() {
+		return height;
+	}
+
+	private final double height;
+
+	/**
+	 * Returns the passable map of this level map. The result must not be modified.
+	 */
+	@Basic @Immutable
+	public boolean[][] getPassableMap() {
+		return passableMap;
+	}
+
+	private final boolean[][] passableMap;
+}
@@ -0,0 +1,503 @@
+package worms.simulation;
+
+import static worms.simulation.GameLog.*;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import worms.gui.game.IActionHandler;
+import worms.model.Food;
+import worms.model.IFacade;
+import worms.model.ModelException;
+import worms.model.Program;
+import worms.model.Projectile;
+import worms.model.World;
+import worms.model.Worm;
+import worms.model.programs.ParseOutcome;
+
+/**
+ * A facade that records every mutation it makes through another facade in a game log, from which
+ * a game replayer can replay the game and verify that it reaches the same states.
+ *
+ * The log is written to a buffered stream, which is flushed when a call that starts turns returns.
+ * It records the seed of the world, which this facade draws from the random number generator it is given,
+ * the name of the level and a hash of its passable map, the sources of the programs this facade parsed,
+ * and every mutation with its arguments. The mutations programs make while turns start are nested in the
+ * event of the call that started those turns. A checksum of the state of the world is recorded every given
+ * number of turns, also while a call starts several turns, before the first mutation of the next turn.
+ *
+ * A recording facade records one world at a time: a new world replaces the world that was recorded before,
+ * and it forgets the programs that were parsed for that world. Programs are parsed for the world that was created last.
+ */
+public class RecordingFacade extends ForwardingFacade implements Closeable {
+
+	/**
+	 * Creates a new recording facade that makes its mutations through the given facade
+	 * and writes its game log to the given stream.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			| facade == null || out == null
+	 * @throws	ModelException
+	 * 			The header of the log can't be written.
+	 */
+	public RecordingFacade(IFacade facade, OutputStream out) throws IllegalArgumentException, ModelException {
+		super(facade);
+		if (out == null)
+			throw new IllegalArgumentException();
+		this.out = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+		try {
+			this.out.writeInt(MAGIC);
+			this.out.writeByte(VERSION);
+		} catch (IOException e) {
+			throw new ModelException(e);
+		}
+	}
+
+	private final DataOutputStream out;
+
+	/**
+	 * Returns the name of the level that is recorded with the next world that is created.
+	 */
+	@Basic
+	public String getLevelName() {
+		return levelName;
+	}
+
+	/**
+	 * Sets the name of the level that is recorded with the next world that is created, so a replayer can load it.
+	 */
+	public void setLevelName(String levelName) {
+		this.levelName = levelName;
+	}
+
+	private String levelName = "";
+
+	/**
+	 * Returns the number of turns between two checksums of the state of the recorded world.
+	 */
+	@Basic
+	public int getChecksumInterval() {
+		return checksumInterval;
+	}
+
+	/**
+	 * Sets the number of turns between two checksums of the state of the recorded world.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			| checksumInterval < 1
+	 */
+	public void setChecksumInterval(int checksumInterval) throws IllegalArgumentException {
+		if (checksumInterval < 1)
+			throw new IllegalArgumentException();
+		this.checksumInterval = checksumInterval;
+	}
+
+	private int checksumInterval = 1;
+
+	/**
+	 * Returns the number of checksums this recording facade has recorded.
+	 */
+	@Basic
+	public long getNbChecksums() {
+		return nbChecksums;
+	}
+
+	private long nbChecksums = 0;
+
+	/**
+	 * Returns the world this facade is recording, or null if no world has been created yet.
+	 */
+	@Basic
+	public World getWorld() {
+		return world;
+	}
+
+	private World world = null;
+
+	/**
+	 * The numbers of the worms of the recorded world.
+	 */
+	private final Map<Worm, Integer> wormNumbers = new IdentityHashMap<Worm, Integer>();
+
+	/**
+	 * The sources of the programs this facade parsed for the recorded world, and the numbers of the programs
+	 * that were recorded in it.
+	 */
+	private final Map<Program, String> sources = new IdentityHashMap<Program, String>();
+	private final Map<Program, Integer> programNumbers = new IdentityHashMap<Program, Integer>();
+
+	/**
+	 * The number of calls that start turns this facade is in; mutations made during such a call are nested.
+	 */
+	private int depth = 0;
+
+	/**
+	 * The number of turns after which the next checksum is recorded.
+	 */
+	private long nextChecksumTurn = 0;
+
+	/**
+	 * Flushes the game log.
+	 */
+	public void flush() throws ModelException {
+		try {
+			out.flush();
+		} catch (IOException e) {
+			throw new ModelException(e);
+		}
+	}
+
+	/**
+	 * Records a checksum of the recorded world, if there is one, and closes the game log.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (getWorld() != null)
+			writeChecksum();
+		out.close();
+	}
+
+	/**
+	 * Writes the given opcode, nested if a call that starts turns is going on, after a checksum
+	 * if the turn of the next checksum has started.
+	 */
+	private void writeOpcode(int opcode) throws IOException {
+		if (depth > 0) {
+			if (getWorld().getNbTurns() >= nextChecksumTurn)
+				writeChecksum();
+			opcode |= NESTED;
+		}
+		out.writeByte(opcode);
+	}
+
+	private void writeEvent(int opcode) {
+		try {
+			writeOpcode(opcode);
+		} catch (IOException e) {
+			throw new ModelException(e);
+		}
+	}
+
+	private void writeEvent(int opcode, Worm worm) {
+		try {
+			writeOpcode(opcode);
+			writeWorm(worm);
+		} catch (IOException e) {
+			throw new ModelException(e);
+		}
+	}
+
+	private void writeEvent(int opcode, Worm worm, double argument) {
+		try {
+			writeOpcode(opcode);
+			writeWorm(worm);
+			out.writeDouble(argument);
+		} catch (IOException e) {
+			throw new ModelException(e);
+		}
+	}
+
+	private void writeWorm(Worm worm) throws IOException {
+		Integer number = wormNumbers.get(worm);
+		if (number == null)
+			throw new ModelException("The worm wasn't added through this facade.");
+		writeVarLong(out, number);
+	}
+
+	/**
+	 * Defines the given program in the log if it was parsed by this facade and wasn't defined yet.
+	 */
+	private void defineProgram(Program program) throws IOException {
+		if (program == null || programNumbers.containsKey(program))
+			return;
+		String source = sources.get(program);
+		if (source == null)
+			return;
+		int number = programNumbers.size() + 2;
+		programNumbers.put(program, number);
+		out.writeByte(DEFINE_PROGRAM);
+		writeVarLong(out, number);
+		writeString(out, source);
+	}
+
+	/**
+	 * Writes the number of the given program, which has been defined already if it is known.
+	 */
+	private void writeProgramNumber(Program program) throws IOException {
+		if (program == null)
+			writeVarLong(out, NO_PROGRAM);
+		else if (!programNumbers.containsKey(program))
+			writeVarLong(out, UNKNOWN_PROGRAM);
+		else
+			writeVarLong(out, programNumbers.get(program));
+	}
+
+	/**
+	 * Registers the worms of the recorded world that weren't registered yet, in their order.
+	 */
+	private void registerWorms() {
+		for (Worm worm : getWorld().getWorms())
+			if (!wormNumbers.containsKey(worm))
+				wormNumbers.put(worm, wormNumbers.size());
+	}
+
+	/**
+	 * Writes the team of every worm of the recorded world.
+	 */
+	private void writeTeams() throws IOException {
+		for (Worm worm : getWorld().getWorms()) {
+			out.writeByte(SET_TEAM);
+			writeWorm(worm);
+			writeString(out, worm.hasTeam() ? worm.getTeam().getName() : "");
+		}
+	}
+
+	private void writeChecksum() throws IOException {
+		out.writeByte((depth > 0) ? (CHECKSUM | NESTED) : CHECKSUM);
+		out.writeLong(checksum(getWorld()));
+		nbChecksums++;
+		nextChecksumTurn = getWorld().getNbTurns() + getChecksumInterval();
+	}
+
+	/*
+	 * Mutations.
+	 */
+
+	@Override
+	public World createWorld(double width, double height, boolean[][] passableMap, Random random) {
+		long seed = random.nextLong();
+		try {
+			out.writeByte(CREATE_WORLD);
+			out.writeLong(seed);
+			writeString(out, (getLevelName() == null) ? "" : getLevelName());
+			out.writeDouble(width);
+			out.writeDouble(height);
+			writeVarLong(out, passableMap.length);
+			writeVarLong(out, (passableMap.length == 0) ? 0 : passableMap[0].length);
+			out.writeLong(hashPassableMap(passableMap));
+		} catch (IOException e) {
+			throw new ModelException(e);
+		}
+		world = super.createWorld(width, height, passableMap, new Random(seed));
+		wormNumbers.clear();
+		sources.clear();
+		programNumbers.clear();
+		nextChecksumTurn = 0;
+		return world;
+	}
+
+	@Override
+	public void addEmptyTeam(World world, String newName) {
+		try {
+			writeOpcode(ADD_TEAM);
+			writeString(out, newName);
+		} catch (IOException e) {
+			throw new ModelException(e);
+		}
+		super.addEmptyTeam(world, newName);
+	}
+
+	@Override
+	public void addNewFood(World world) {
+		writeEvent(ADD_FOOD);
+		super.addNewFood(world);
+	}
+
+	@Override
+	public void addNewWorm(World world, Program program) {
+		try {
+			defineProgram(program);
+			writeOpcode(ADD_WORM);
+			writeProgramNumber(program);
+		} catch (IOException e) {
+			throw new ModelException(e);
+		}
+		try {
+			super.addNewWorm(world, program);
+		} finally {
+			registerWorms();
+		}
+	}
+
+	@Override
+	public Food createFood(World world, double x, double y) {
+		try {
+			writeOpcode(CREATE_FOOD);
+			out.writeDouble(x);
+			out.writeDouble(y);
+		} catch (IOException e) {
+			throw new ModelException(e);
+		}
+		return super.createFood(world, x, y);
+	}
+
+	@Override
+	public Worm createWorm(World world, double x, double y, double direction, double radius, String name,
+			Program program) {
+		try {
+			defineProgram(program);
+			writeOpcode(CREATE_WORM);
+			out.writeDouble(x);
+			out.writeDouble(y);
+			out.writeDouble(direction);
+			out.writeDouble(radius);
+			writeString(out, name);
+			writeProgramNumber(program);
+		} catch (IOException e) {
+			throw new ModelException(e);
+		}
+		try {
+			return super.createWorm(world, x, y, direction, radius, name, program);
+		} finally {
+			registerWorms();
+		}
+	}
+
+	@Override
+	public void fall(Worm worm) {
+		writeEvent(FALL, worm);
+		super.fall(worm);
+	}
+
+	@Override
+	public void jump(Projectile projectile, double timeStep) {
+		try {
+			writeOpcode(JUMP_PROJECTILE);
+			out.writeDouble(timeStep);
+		} catch (IOException e) {
+			throw new ModelException(e);
+		}
+		super.jump(projectile, timeStep);
+	}
+
+	@Override
+	public void jump(Worm worm, double timeStep) {
+		writeEvent(JUMP_WORM, worm, timeStep);
+		super.jump(worm, timeStep);
+	}
+
+	@Override
+	public void move(Worm worm) {
+		writeEvent(MOVE, worm);
+		super.move(worm);
+	}
+
+	@Override
+	public void rename(Worm worm, String newName) {
+		try {
+			writeOpcode(RENAME);
+			writeWorm(worm);
+			writeString(out, newName);
+		} catch (IOException e) {
+			throw new ModelException(e);
+		}
+		super.rename(worm, newName);
+	}
+
+	@Override
+	public void selectNextWeapon(Worm worm) {
+		writeEvent(SELECT_WEAPON, worm);
+		super.selectNextWeapon(worm);
+	}
+
+	@Override
+	public void setRadius(Worm worm, double newRadius) {
+		writeEvent(SET_RADIUS, worm, newRadius);
+		super.setRadius(worm, newRadius);
+	}
+
+	@Override
+	public void shoot(Worm worm, int yield) {
+		try {
+			writeOpcode(SHOOT);
+			writeWorm(worm);
+			writeVarLong(out, yield);
+		} catch (IOException e) {
+			throw new ModelException(e);
+		}
+		super.shoot(worm, yield);
+	}
+
+	@Override
+	public void turn(Worm worm, double angle) {
+		writeEvent(TURN, worm, angle);
+		super.turn(worm, angle);
+	}
+
+	@Override
+	public void startGame(World world) {
+		writeStartTurns(START_GAME, true);
+		depth++;
+		try {
+			super.startGame(world);
+		} finally {
+			depth--;
+			writeEndTurns();
+		}
+	}
+
+	@Override
+	public void startNextTurn(World world) {
+		writeStartTurns(START_NEXT_TURN, false);
+		depth++;
+		try {
+			super.startNextTurn(world);
+		} finally {
+			depth--;
+			writeEndTurns();
+		}
+	}
+
+	/**
+	 * Writes the event of a call that starts turns, with the maximal number of turns of the recorded world,
+	 * after the teams of its worms if the call starts the game.
+	 */
+	private void writeStartTurns(int opcode, boolean startsGame) {
+		try {
+			if (startsGame && depth == 0)
+				writeTeams();
+			writeOpcode(opcode);
+			writeVarLong(out, getWorld().getMaxNbTurns());
+		} catch (IOException e) {
+			throw new ModelException(e);
+		}
+	}
+
+	/**
+	 * Writes the number of turns that have started at the end of a call that started turns,
+	 * and a checksum if the turn of the next checksum has started.
+	 * The log is flushed at the end of every outermost such call.
+	 */
+	private void writeEndTurns() {
+		try {
+			writeOpcode(END_TURNS);
+			writeVarLong(out, getWorld().getNbTurns());
+			if (getWorld().getNbTurns() >= nextChecksumTurn)
+				writeChecksum();
+			if (depth == 0)
+				out.flush();
+		} catch (IOException e) {
+			throw new ModelException(e);
+		}
+	}
+
+	/**
+	 * Parses the given program text through the facade of this recording facade, and remembers the source
+	 * of the resulting program until the next world is created, so it can be recorded when a worm with that program
+	 * is added to the recorded world.
+	 */
+	@Override
+	public ParseOutcome<?> parseProgram(String programText, IActionHandler handler) {
+		ParseOutcome<?> outcome = super.parseProgram(programText, handler);
+		if (outcome.isSuccess())
+			sources.put((Program) outcome.getResult(), programText);
+		return outcome;
+	}
+}
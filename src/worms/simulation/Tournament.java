@@ -0,0 +1,390 @@
+package worms.simulation;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import worms.gui.Level;
+import worms.model.Facade;
+import worms.model.IFacade;
+import worms.model.Program;
+import worms.model.Team;
+import worms.model.Worm;
+import worms.model.programs.ParseOutcome;
+
+/**
+ * A class of tournaments between worm programs: independent headless games, played in parallel,
+ * between every pair of programs on every level.
+ *
+ * Every game gets its own seed, derived from the master seed of the tournament and the number of the game,
+ * so the outcome of a tournament doesn't depend on the number of threads that play it.
+ * Every thread parses programs through its own facade, because a facade must not be used by several threads
+ * at the same time; worlds share no mutable state, so games in different threads never interfere.
+ *
+ * Run it from the project root with
+ * 	ant tournament -Dtournament.args="-games 20 -threads 8 -csv standings.csv programs/program.txt programs/kamikaze.txt"
+ */
+public class Tournament {
+
+	/**
+	 * Creates a new tournament on the given maps between the programs with the given names and sources,
+	 * with the given master seed.
+	 * A tournament between one program plays that program against itself; otherwise, every program plays
+	 * against every other program.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			There are no maps or no programs, or one of the programs can't be parsed or isn't well-formed.
+	 */
+	public Tournament(List<LevelMap> maps, Map<String, String> programs, long masterSeed) throws IllegalArgumentException {
+		if (maps == null || maps.isEmpty() || programs == null || programs.isEmpty())
+			throw new IllegalArgumentException();
+		IFacade facade = new Facade();
+		for (Map.Entry<String, String> program : programs.entrySet()) {
+			ParseOutcome<?> outcome = facade.parseProgram(program.getValue(), null);
+			if (!outcome.isSuccess())
+				throw new IllegalArgumentException("Program " + program.getKey() + " can't be parsed: " + outcome.getResult());
+			if (!facade.isWellFormed((Program) outcome.getResult()))
+				throw new IllegalArgumentException("Program " + program.getKey() + " is not well-formed.");
+		}
+		this.maps = Collections.unmodifiableList(new ArrayList<LevelMap>(maps));
+		this.programs = Collections.unmodifiableMap(new LinkedHashMap<String, String>(programs));
+		this.masterSeed = masterSeed;
+	}
+
+	@Basic @Immutable
+	public List<LevelMap> getMaps() {
+		return maps;
+	}
+
+	private final List<LevelMap> maps;
+
+	/**
+	 * Returns the sources of the programs of this tournament by their names.
+	 */
+	@Basic @Immutable
+	public Map<String, String> getPrograms() {
+		return programs;
+	}
+
+	private final Map<String, String> programs;
+
+	@Basic @Immutable
+	public long getMasterSeed() {
+		return masterSeed;
+	}
+
+	private final long masterSeed;
+
+	/**
+	 * Returns the number of games every pair of programs plays on every map.
+	 * The programs take turns to add their worms first.
+	 */
+	@Basic
+	public int getNbGamesPerPairing() {
+		return nbGamesPerPairing;
+	}
+
+	public void setNbGamesPerPairing(int nbGamesPerPairing) {
+		this.nbGamesPerPairing = nbGamesPerPairing;
+	}
+
+	private int nbGamesPerPairing = 10;
+
+	/**
+	 * Returns the maximal number of turns of a game; a game that isn't finished by then is a draw.
+	 */
+	@Basic
+	public long getMaxNbTurns() {
+		return maxNbTurns;
+	}
+
+	public void setMaxNbTurns(long maxNbTurns) {
+		this.maxNbTurns = maxNbTurns;
+	}
+
+	private long maxNbTurns = 1000;
+
+	/**
+	 * Returns the number of worms every program has in a game.
+	 */
+	@Basic
+	public int getNbWormsPerProgram() {
+		return nbWormsPerProgram;
+	}
+
+	public void setNbWormsPerProgram(int nbWormsPerProgram) {
+		this.nbWormsPerProgram = nbWormsPerProgram;
+	}
+
+	private int nbWormsPerProgram = 2;
+
+	/**
+	 * Returns the number of food rations in the world of a game.
+	 */
+	@Basic
+	public int getNbFood() {
+		return nbFood;
+	}
+
+	public void setNbFood(int nbFood) {
+		this.nbFood = nbFood;
+	}
+
+	private int nbFood = 5;
+
+	/**
+	 * Checks whether the programs are compiled to bytecode.
+	 */
+	@Basic
+	public boolean isCompilingPrograms() {
+		return compilingPrograms;
+	}
+
+	public void setCompilingPrograms(boolean compilingPrograms) {
+		this.compilingPrograms = compilingPrograms;
+	}
+
+	private boolean compilingPrograms = false;
+
+	/**
+	 * Returns the directory the profiles of the programs are written to, or null if the programs aren't profiled.
+	 * The profiles of the game with number n are written to the subdirectory game-n of this directory.
+	 */
+	@Basic
+	public File getProfileDirectory() {
+		return profileDirectory;
+	}
+
+	public void setProfileDirectory(File profileDirectory) {
+		this.profileDirectory = profileDirectory;
+	}
+
+	private File profileDirectory = null;
+
+	/**
+	 * Returns the seed of the game with the given number in a tournament with the given master seed.
+	 * The seeds of different games are unrelated, even if their numbers are consecutive.
+	 */
+	public static long deriveSeed(long masterSeed, long gameNumber) {
+		// The finalizer of SplitMix64.
+		long z = masterSeed + (gameNumber + 1) * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Returns the number of games of this tournament.
+	 */
+	public int getNbGames() {
+		int nbPrograms = getPrograms().size();
+		int nbPairings = (nbPrograms == 1) ? 1 : nbPrograms * (nbPrograms - 1) / 2;
+		return nbPairings * getMaps().size() * getNbGamesPerPairing();
+	}
+
+	/**
+	 * Plays all games of this tournament with the given number of threads, and returns the result.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			| parallelism < 1
+	 */
+	public TournamentResult play(int parallelism) throws IllegalArgumentException {
+		if (parallelism < 1)
+			throw new IllegalArgumentException();
+		List<String> names = new ArrayList<String>(getPrograms().keySet());
+		final ThreadLocal<IFacade> facades = new ThreadLocal<IFacade>() {
+			@Override
+			protected IFacade initialValue() {
+				return new Facade(isCompilingPrograms());
+			}
+		};
+
+		List<Callable<GameRecord>> games = new ArrayList<Callable<GameRecord>>();
+		for (int first = 0; first < names.size(); first++) {
+			for (int second = (names.size() == 1) ? first : first + 1; second < names.size(); second++) {
+				for (final LevelMap map : getMaps()) {
+					for (int i = 0; i < getNbGamesPerPairing(); i++) {
+						final int number = games.size();
+						final String firstProgram = names.get((i % 2 == 0) ? first : second);
+						final String secondProgram = names.get((i % 2 == 0) ? second : first);
+						games.add(new Callable<GameRecord>() {
+							@Override
+							public GameRecord call() {
+								return playGame(facades.get(), number, map, firstProgram, secondProgram);
+							}
+						});
+					}
+				}
+			}
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			long start = System.nanoTime();
+			List<GameRecord> records = new ArrayList<GameRecord>();
+			for (Future<GameRecord> game : pool.invokeAll(games))
+				records.add(game.get());
+			long nanos = System.nanoTime() - start;
+			return new TournamentResult(names, records, getMasterSeed(), parallelism, nanos);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * The names of the teams of the first and the second program in a game.
+	 */
+	private static final String[] TEAM_NAMES = { "First", "Second" };
+
+	/**
+	 * Plays the game with the given number between the given programs on the given map through the given facade.
+	 */
+	private GameRecord playGame(IFacade facade, int number, LevelMap map, String firstProgram, String secondProgram) {
+		long seed = deriveSeed(getMasterSeed(), number);
+		facade.setProfileDirectory((getProfileDirectory() == null) ? null : new File(getProfileDirectory(), "game-" + number));
+		HeadlessGame game = new HeadlessGame(facade, map, seed);
+		Team[] teams = { game.addTeam(TEAM_NAMES[0]), game.addTeam(TEAM_NAMES[1]) };
+		String[] sources = { getPrograms().get(firstProgram), getPrograms().get(secondProgram) };
+		List<List<Worm>> worms = Arrays.asList(new ArrayList<Worm>(), new ArrayList<Worm>());
+		for (int i = 0; i < getNbWormsPerProgram(); i++)
+			for (int side = 0; side < 2; side++)
+				worms.get(side).add(game.addWorm(sources[side], teams[side]));
+		game.addFood(getNbFood());
+
+		GameResult result = game.play(getMaxNbTurns());
+
+		int winningSide = -1;
+		for (int side = 0; side < 2; side++)
+			if (TEAM_NAMES[side].equals(result.getWinner()))
+				winningSide = side;
+		int[] nbRuntimeErrors = new int[2];
+		for (int side = 0; side < 2; side++)
+			for (Worm worm : worms.get(side))
+				if (worm.getProgram().hasRuntimeErrorOccurred())
+					nbRuntimeErrors[side]++;
+		return new GameRecord(number, map.getName(), firstProgram, secondProgram, seed, winningSide,
+				result.isFinished(), result.getNbTurns(), nbRuntimeErrors[0], nbRuntimeErrors[1], result.getNanos());
+	}
+
+	/**
+	 * Plays a tournament and prints the standings of its programs.
+	 *
+	 * Arguments: [-seed n] [-games n] [-turns n] [-worms n] [-food n] [-threads n] [-compile] [-levels name,name]
+	 * 		[-csv file] [-gamescsv file] [-json file] [-profile directory] program files...
+	 * Without program files, the tournament is played between the well-formed programs in the programs directory.
+	 * Without levels, it is played on all levels in levels/levels.txt.
+	 */
+	public static void main(String[] args) throws IOException {
+		long seed = 0;
+		int nbGames = 10;
+		long maxNbTurns = 1000;
+		int nbWorms = 2;
+		int nbFood = 5;
+		int nbThreads = Runtime.getRuntime().availableProcessors();
+		boolean compiling = false;
+		List<String> levelNames = null;
+		File csvFile = null, gamesCsvFile = null, jsonFile = null, profileDirectory = null;
+		List<File> programFiles = new ArrayList<File>();
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			if ("-seed".equals(arg))
+				seed = Long.parseLong(args[++i]);
+			else if ("-games".equals(arg))
+				nbGames = Integer.parseInt(args[++i]);
+			else if ("-turns".equals(arg))
+				maxNbTurns = Long.parseLong(args[++i]);
+			else if ("-worms".equals(arg))
+				nbWorms = Integer.parseInt(args[++i]);
+			else if ("-food".equals(arg))
+				nbFood = Integer.parseInt(args[++i]);
+			else if ("-threads".equals(arg))
+				nbThreads = Integer.parseInt(args[++i]);
+			else if ("-compile".equals(arg))
+				compiling = true;
+			else if ("-levels".equals(arg))
+				levelNames = Arrays.asList(args[++i].split(","));
+			else if ("-csv".equals(arg))
+				csvFile = new File(args[++i]);
+			else if ("-gamescsv".equals(arg))
+				gamesCsvFile = new File(args[++i]);
+			else if ("-json".equals(arg))
+				jsonFile = new File(args[++i]);
+			else if ("-profile".equals(arg))
+				profileDirectory = new File(args[++i]);
+			else
+				programFiles.add(new File(arg));
+		}
+
+		Map<String, String> programs = new LinkedHashMap<String, String>();
+		if (programFiles.isEmpty()) {
+			File[] files = new File("programs").listFiles();
+			Arrays.sort(files);
+			IFacade facade = new Facade();
+			for (File file : files) {
+				String source = HeadlessGame.readProgram(file);
+				ParseOutcome<?> outcome = facade.parseProgram(source, null);
+				if (outcome.isSuccess() && facade.isWellFormed((Program) outcome.getResult()))
+					programs.put(file.getName(), source);
+				else
+					System.err.println("Skipping " + file + ": it can't be parsed or it is not well-formed.");
+			}
+		} else {
+			for (File file : programFiles)
+				programs.put(file.getName(), HeadlessGame.readProgram(file));
+		}
+
+		List<LevelMap> maps = new ArrayList<LevelMap>();
+		for (Level level : Level.getAvailableLevels())
+			if (levelNames == null || levelNames.contains(level.getName()))
+				maps.add(new LevelMap(level));
+
+		Tournament tournament = new Tournament(maps, programs, seed);
+		tournament.setNbGamesPerPairing(nbGames);
+		tournament.setMaxNbTurns(maxNbTurns);
+		tournament.setNbWormsPerProgram(nbWorms);
+		tournament.setNbFood(nbFood);
+		tournament.setCompilingPrograms(compiling);
+		tournament.setProfileDirectory(profileDirectory);
+		TournamentResult result = tournament.play(nbThreads);
+
+		Writer out = new OutputStreamWriter(System.out);
+		result.writeCsv(out);
+		out.flush();
+		System.out.printf("%d games on %d threads in %.2f s: %.1f games/s, %.2f games at the same time%n",
+				result.getGames().size(), result.getParallelism(), result.getNanos() / 1e9,
+				result.getGamesPerSecond(), (double) result.getGameNanos() / result.getNanos());
+		if (csvFile != null)
+			try (Writer writer = new FileWriter(csvFile)) {
+				result.writeCsv(writer);
+			}
+		if (gamesCsvFile != null)
+			try (Writer writer = new FileWriter(gamesCsvFile)) {
+				result.writeGamesCsv(writer);
+			}
+		if (jsonFile != null)
+			try (Writer writer = new FileWriter(jsonFile)) {
+				result.writeJson(writer);
+			}
+	}
+}
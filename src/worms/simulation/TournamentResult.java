@@ -0,0 +1,255 @@
+package worms.simulation;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+
+/**
+ * A class of results of tournaments: the records of their games, in the order of their numbers,
+ * and the standings of their programs.
+ */
+public class TournamentResult {
+
+	/**
+	 * Creates a new tournament result with the given records of games, of a tournament between the given programs
+	 * that was played by the given number of threads in the given wall-clock time.
+	 */
+	public TournamentResult(List<String> programs, List<GameRecord> games, long masterSeed, int parallelism, long nanos) {
+		this.games = Collections.unmodifiableList(new ArrayList<GameRecord>(games));
+		this.masterSeed = masterSeed;
+		this.parallelism = parallelism;
+		this.nanos = nanos;
+
+		Map<String, Standing> standings = new LinkedHashMap<String, Standing>();
+		for (String program : programs)
+			standings.put(program, new Standing(program));
+		for (GameRecord game : games) {
+			standings.get(game.getFirstProgram()).add(game, 0);
+			standings.get(game.getSecondProgram()).add(game, 1);
+		}
+		this.standings = Collections.unmodifiableList(new ArrayList<Standing>(standings.values()));
+	}
+
+	/**
+	 * Returns the records of the games of the tournament, in the order of their numbers.
+	 */
+	@Basic @Immutable
+	public List<GameRecord> getGames() {
+		return games;
+	}
+
+	private final List<GameRecord> games;
+
+	/**
+	 * Returns the standings of the programs of the tournament, in the order of the programs.
+	 */
+	@Basic @Immutable
+	public List<Standing> getStandings() {
+		return standings;
+	}
+
+	private final List<Standing> standings;
+
+	@Basic @Immutable
+	public long getMasterSeed() {
+		return masterSeed;
+	}
+
+	private final long masterSeed;
+
+	/**
+	 * Returns the number of threads that played the games of the tournament.
+	 */
+	@Basic @Immutable
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	private final int parallelism;
+
+	/**
+	 * Returns the wall-clock time the tournament took, in nanoseconds.
+	 */
+	@Basic @Immutable
+	public long getNanos() {
+		return nanos;
+	}
+
+	private final long nanos;
+
+	/**
+	 * Returns the number of games per second of wall-clock time in the tournament.
+	 */
+	public double getGamesPerSecond() {
+		return getGames().size() / (getNanos() / 1e9);
+	}
+
+	/**
+	 * Returns the sum of the wall-clock times of the games of the tournament, in nanoseconds.
+	 * Divided by the time of the tournament, it shows how many games were played at the same time on average.
+	 */
+	public long getGameNanos() {
+		long result = 0;
+		for (GameRecord game : getGames())
+			result += game.getNanos();
+		return result;
+	}
+
+	/**
+	 * A class of standings of a program in a tournament.
+	 * A game of a program against itself counts for both of its sides.
+	 */
+	public static class Standing {
+
+		private Standing(String program) {
+			this.program = program;
+		}
+
+		private void add(GameRecord game, int side) {
+			nbGames++;
+			if (game.getWinningSide() == side)
+				nbWins++;
+			else if (game.getWinningSide() >= 0)
+				nbLosses++;
+			if (game.isFinished()) {
+				nbFinishedGames++;
+				nbTurnsToFinish += game.getNbTurns();
+			}
+			nbRuntimeErrors += (side == 0) ? game.getNbFirstRuntimeErrors() : game.getNbSecondRuntimeErrors();
+		}
+
+		@Basic @Immutable
+		public String getProgram() {
+			return program;
+		}
+
+		private final String program;
+
+		@Basic
+		public int getNbGames() {
+			return nbGames;
+		}
+
+		private int nbGames = 0;
+
+		@Basic
+		public int getNbWins() {
+			return nbWins;
+		}
+
+		private int nbWins = 0;
+
+		@Basic
+		public int getNbLosses() {
+			return nbLosses;
+		}
+
+		private int nbLosses = 0;
+
+		/**
+		 * Returns the number of games that no program won: games without survivors and unfinished games.
+		 */
+		public int getNbDraws() {
+			return getNbGames() - getNbWins() - getNbLosses();
+		}
+
+		/**
+		 * Returns the fraction of the games of the program it won.
+		 */
+		public double getWinRate() {
+			return (getNbGames() == 0) ? 0 : (double) getNbWins() / getNbGames();
+		}
+
+		/**
+		 * Returns the mean number of turns of the finished games of the program, or NaN if none of its games finished.
+		 */
+		public double getMeanTurnsToFinish() {
+			return (nbFinishedGames == 0) ? Double.NaN : (double) nbTurnsToFinish / nbFinishedGames;
+		}
+
+		private int nbFinishedGames = 0;
+
+		private long nbTurnsToFinish = 0;
+
+		/**
+		 * Returns the number of worms with the program whose program encountered a runtime error.
+		 */
+		@Basic
+		public int getNbRuntimeErrors() {
+			return nbRuntimeErrors;
+		}
+
+		private int nbRuntimeErrors = 0;
+	}
+
+	/**
+	 * Writes the standings of the programs as comma-separated values, with a header line.
+	 */
+	public void writeCsv(Writer writer) throws IOException {
+		writer.write("program,games,wins,losses,draws,win_rate,mean_turns_to_finish,runtime_errors\n");
+		for (Standing standing : getStandings())
+			writer.write(String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%.4f,%.1f,%d%n", csv(standing.getProgram()),
+					standing.getNbGames(), standing.getNbWins(), standing.getNbLosses(), standing.getNbDraws(),
+					standing.getWinRate(), standing.getMeanTurnsToFinish(), standing.getNbRuntimeErrors()));
+	}
+
+	/**
+	 * Writes the records of the games as comma-separated values, with a header line.
+	 */
+	public void writeGamesCsv(Writer writer) throws IOException {
+		writer.write("game,level,first,second,seed,winner,finished,turns,first_runtime_errors,second_runtime_errors,millis\n");
+		for (GameRecord game : getGames())
+			writer.write(String.format(Locale.ROOT, "%d,%s,%s,%s,%d,%s,%b,%d,%d,%d,%.3f%n", game.getNumber(),
+					csv(game.getLevelName()), csv(game.getFirstProgram()), csv(game.getSecondProgram()), game.getSeed(),
+					(game.getWinner() == null) ? "" : csv(game.getWinner()), game.isFinished(), game.getNbTurns(),
+					game.getNbFirstRuntimeErrors(), game.getNbSecondRuntimeErrors(), game.getNanos() / 1e6));
+	}
+
+	/**
+	 * Writes a summary of this tournament result and the standings of its programs as a JSON object.
+	 */
+	public void writeJson(Writer writer) throws IOException {
+		writer.write(String.format(Locale.ROOT,
+				"{\"masterSeed\":%d,\"parallelism\":%d,\"games\":%d,\"seconds\":%.3f,\"gamesPerSecond\":%.2f,\"programs\":[",
+				getMasterSeed(), getParallelism(), getGames().size(), getNanos() / 1e9, getGamesPerSecond()));
+		for (int i = 0; i < getStandings().size(); i++) {
+			Standing standing = getStandings().get(i);
+			double meanTurns = standing.getMeanTurnsToFinish();
+			writer.write(String.format(Locale.ROOT,
+					"%s{\"program\":%s,\"games\":%d,\"wins\":%d,\"losses\":%d,\"draws\":%d,\"winRate\":%.4f,"
+							+ "\"meanTurnsToFinish\":%s,\"runtimeErrors\":%d}",
+					(i == 0) ? "" : ",", json(standing.getProgram()), standing.getNbGames(), standing.getNbWins(),
+					standing.getNbLosses(), standing.getNbDraws(), standing.getWinRate(),
+					Double.isNaN(meanTurns) ? "null" : String.format(Locale.ROOT, "%.1f", meanTurns),
+					standing.getNbRuntimeErrors()));
+		}
+		writer.write("]}\n");
+	}
+
+	private static String csv(String value) {
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0)
+			return value;
+		return "\"" + value.replace("\"", "\"\"") + "\"";
+	}
+
+	private static String json(String value) {
+		StringBuilder result = new StringBuilder("\"");
+		for (char c : value.toCharArray()) {
+			if (c == '"' || c == '\\')
+				result.append('\\').append(c);
+			else if (c < ' ')
+				result.append(String.format("\\u%04x", (int) c));
+			else
+				result.append(c);
+		}
+		return result.append('"').toString();
+	}
+}
@@ -0,0 +1,89 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+import static worms.util.AssertUtil.*;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class DistanceFieldTest {
+
+	boolean[][] passableMap;
+	DistanceField field;
+
+	@Before
+	public void setUp() throws Exception {
+		passableMap = new boolean[][]{
+				{true,true,true,true},
+				{true,true,true,true},
+				{true,true,true,false}};
+		field = new DistanceField(new Terrain(passableMap), 2, 1);
+	}
+
+	@Test
+	public void testConstructor_LegalCase(){
+		assertEquals(3, field.getNbRows());
+		assertEquals(4, field.getNbColumns());
+		assertFuzzyEquals(2, field.getCellWidth());
+		assertFuzzyEquals(1, field.getCellHeight());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testConstructor_IllegalCellSizeCase(){
+		new DistanceField(new Terrain(passableMap), 0, 1);
+	}
+
+	@Test
+	public void testGetDistance(){
+		assertFuzzyEquals(0, field.getDistance(2, 3));
+		assertFuzzyEquals(1, field.getDistance(1, 3));
+		assertFuzzyEquals(2, field.getDistance(2, 2));
+		assertFuzzyEquals(Math.sqrt(36+4), field.getDistance(0, 0));
+	}
+
+	@Test
+	public void testGetDistance_NoImpassableCellCase(){
+		field = new DistanceField(new Terrain(new boolean[][]{{true,true},{true,true}}), 1, 1);
+		assertTrue(Double.isInfinite(field.getDistance(1, 1)));
+		assertTrue(Double.isInfinite(field.getLowerBound(1, 1)));
+	}
+
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void testGetDistance_OutOfBoundsCase(){
+		field.getDistance(3, 0);
+	}
+
+	@Test
+	public void testGetDistance_RandomCase(){
+		Random random = new Random(3);
+		boolean[][] map = new boolean[40][55];
+		for (int i = 0; i < map.length; i++) {
+			for (int j = 0; j < map[i].length; j++) {
+				map[i][j] = random.nextInt(30) != 0;
+			}
+		}
+		double cellWidth = 0.3, cellHeight = 0.7;
+		field = new DistanceField(new Terrain(map), cellWidth, cellHeight);
+		for (int i = 0; i < map.length; i++) {
+			for (int j = 0; j < map[i].length; j++) {
+				double expected = Double.POSITIVE_INFINITY;
+				for (int k = 0; k < map.length; k++) {
+					for (int l = 0; l < map[k].length; l++) {
+						if(!map[k][l])
+							expected = Math.min(expected, Math.hypot((k-i)*cellHeight, (l-j)*cellWidth));
+					}
+				}
+				assertEquals(expected, field.getDistance(i, j), 1e-5);
+			}
+		}
+	}
+
+	@Test
+	public void testBounds(){
+		assertTrue(field.getLowerBound(0, 0) <= field.getDistance(0, 0));
+		assertTrue(field.getUpperBound(0, 0) >= field.getDistance(0, 0));
+		assertFuzzyEquals(0, field.getLowerBound(2, 3));
+	}
+}
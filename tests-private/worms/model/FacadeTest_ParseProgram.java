@@ -0,0 +1,89 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import worms.model.programs.ParseOutcome;
+
+public class FacadeTest_ParseProgram {
+
+	Facade facade;
+	World world;
+
+	@Before
+	public void setUp() throws Exception {
+		facade = new Facade();
+		boolean[][] passableMap = new boolean[][] { { true, true, true, true }, { true, true, true, true },
+				{ false, false, false, false }, { false, false, false, false } };
+		world = new World(40, 40, passableMap, new Random(7));
+	}
+
+	private static final String SOURCE = "double n; while (n < 3) { n := (n + 1); } print n;";
+
+	@Test
+	public void testParseProgram_SameSourceIsParsedOnce() {
+		Program first = (Program) facade.parseProgram(SOURCE, new SimpleActionHandler(facade)).getResult();
+		Program second = (Program) facade.parseProgram(SOURCE, new SimpleActionHandler(facade)).getResult();
+		assertEquals(1, facade.getNbParsedPrograms());
+		assertNotSame(first, second);
+		assertSame(first.getMainStatement(), second.getMainStatement());
+	}
+
+	@Test
+	public void testParseProgram_DifferentSourcesAreParsedApart() {
+		Program first = (Program) facade.parseProgram(SOURCE, new SimpleActionHandler(facade)).getResult();
+		Program second = (Program) facade.parseProgram(SOURCE + " print n;", new SimpleActionHandler(facade)).getResult();
+		assertEquals(2, facade.getNbParsedPrograms());
+		assertNotSame(first.getMainStatement(), second.getMainStatement());
+	}
+
+	@Test
+	public void testParseProgram_FailuresAreNotCached() {
+		ParseOutcome<?> outcome = facade.parseProgram("double n; n := ;", new SimpleActionHandler(facade));
+		assertFalse(outcome.isSuccess());
+		assertEquals(0, facade.getNbParsedPrograms());
+		assertFalse(facade.parseProgram("double n; n := ;", new SimpleActionHandler(facade)).isSuccess());
+	}
+
+	@Test
+	public void testParseProgram_EveryProgramHasItsOwnHandlerAndState() {
+		final List<String> firstLog = new ArrayList<String>();
+		final List<String> secondLog = new ArrayList<String>();
+		Program first = (Program) facade.parseProgram(SOURCE, new SimpleActionHandler(facade) {
+			@Override
+			public void print(String message) {
+				firstLog.add(message);
+			}
+		}).getResult();
+		Program second = (Program) facade.parseProgram(SOURCE, new SimpleActionHandler(facade) {
+			@Override
+			public void print(String message) {
+				secondLog.add(message);
+			}
+		}).getResult();
+		Worm willy = facade.createWorm(world, 5, 21, 0.6, 1, "Willy", first);
+		Worm billy = facade.createWorm(world, 15, 21, 2.1, 1, "Billy", second);
+
+		willy.getProgram().run();
+		assertEquals(3.0, willy.getProgram().getVariableValue("n").getValue());
+		assertEquals(0.0, billy.getProgram().getVariableValue("n").getValue());
+		assertEquals(1, firstLog.size());
+		assertEquals(0, secondLog.size());
+
+		billy.getProgram().run();
+		assertEquals(1, secondLog.size());
+	}
+
+	@Test
+	public void testParseProgram_ManyWormsShareOneParse() {
+		for(int i = 0; i < 500; i++)
+			facade.parseProgram(SOURCE, new SimpleActionHandler(facade));
+		assertEquals(1, facade.getNbParsedPrograms());
+	}
+}
@@ -0,0 +1,75 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class GroundIndexTest {
+
+	boolean[][] passableMap;
+	GroundIndex index;
+
+	@Before
+	public void setUp() throws Exception {
+		passableMap = new boolean[][]{
+				{true,false,true},
+				{true,false,true},
+				{true,true,true},
+				{true,false,false}};
+		index = new GroundIndex(new Terrain(passableMap));
+	}
+
+	@Test
+	public void testConstructor_LegalCase(){
+		assertEquals(4, index.getNbRows());
+		assertEquals(3, index.getNbColumns());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testConstructor_NullCase(){
+		new GroundIndex(null);
+	}
+
+	@Test
+	public void testGetGroundRow(){
+		assertEquals(0, index.getGroundRow(0, 1));
+		assertEquals(1, index.getGroundRow(1, 1));
+		assertEquals(3, index.getGroundRow(2, 1));
+		assertEquals(3, index.getGroundRow(0, 2));
+		assertEquals(0, index.getGroundRow(-5, 1));
+	}
+
+	@Test
+	public void testGetGroundRow_NoGroundCase(){
+		assertEquals(4, index.getGroundRow(0, 0));
+		assertEquals(4, index.getGroundRow(4, 1));
+	}
+
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void testGetGroundRow_OutOfBoundsCase(){
+		index.getGroundRow(0, 3);
+	}
+
+	@Test
+	public void testGetGroundRow_RandomCase(){
+		Random random = new Random(23);
+		boolean[][] map = new boolean[50][20];
+		for (int i = 0; i < map.length; i++) {
+			for (int j = 0; j < map[i].length; j++) {
+				map[i][j] = random.nextInt(8) != 0;
+			}
+		}
+		index = new GroundIndex(new Terrain(map));
+		for (int j = 0; j < map[0].length; j++) {
+			for (int i = 0; i < map.length; i++) {
+				int expected = i;
+				while(expected < map.length && map[expected][j])
+					expected++;
+				assertEquals(expected, index.getGroundRow(i, j));
+			}
+		}
+	}
+}
@@ -0,0 +1,181 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import worms.model.programs.ParseOutcome;
+
+public class ProgramTest_Compiled {
+
+	/**
+	 * An action handler that logs every action and message, with the state of the worm after the action.
+	 */
+	private static class LoggingActionHandler extends SimpleActionHandler {
+
+		LoggingActionHandler(IFacade facade, List<String> log) {
+			super(facade);
+			this.log = log;
+		}
+
+		private final List<String> log;
+
+		private boolean log(String action, Worm worm, boolean result) {
+			log.add(action + " " + result + " " + worm.getXCoordinate() + " " + worm.getYCoordinate() + " "
+					+ worm.getDirection() + " " + worm.getActionPoints() + " " + worm.getHitPoints());
+			return result;
+		}
+
+		@Override
+		public boolean turn(Worm worm, double angle) {
+			return log("turn", worm, super.turn(worm, angle));
+		}
+
+		@Override
+		public boolean toggleWeapon(Worm worm) {
+			return log("toggleweap", worm, super.toggleWeapon(worm));
+		}
+
+		@Override
+		public boolean move(Worm worm) {
+			return log("move", worm, super.move(worm));
+		}
+
+		@Override
+		public boolean jump(Worm worm) {
+			return log("jump", worm, super.jump(worm));
+		}
+
+		@Override
+		public boolean fire(Worm worm, int propulsion) {
+			return log("fire", worm, super.fire(worm, propulsion));
+		}
+
+		@Override
+		public void print(String message) {
+			log.add("print " + message);
+		}
+	}
+
+	/**
+	 * Plays the given number of turns of a game with two worms that run the given program,
+	 * and one worm without a program, and returns the log of that game.
+	 */
+	private static List<String> play(String source, boolean compiled, boolean optimized, int nbTurns) {
+		List<String> log = new ArrayList<String>();
+		Facade facade = new Facade(compiled, optimized);
+		ParseOutcome<?> outcome = facade.parseProgram(source, new LoggingActionHandler(facade, log));
+		assertTrue(outcome.isSuccess());
+		Program program = (Program) outcome.getResult();
+
+		boolean[][] passableMap = new boolean[][] { { true, true, true, true }, { true, true, true, true },
+				{ false, false, false, false }, { false, false, false, false } };
+		World world = new World(40, 40, passableMap, new Random(7));
+		Team team = new Team(world, "Team");
+		world.addNewFood();
+		world.addNewFood();
+		Worm willy = new Worm(world, 5, 21, 0.6, 1, "Willy", team, program);
+		Worm billy = new Worm(world, 15, 21, 2.1, 1, "Billy", team, program);
+		new Worm(world, 35, 21, 0, 1, "Chilly");
+		assertEquals(compiled, willy.getProgram().isCompiled());
+
+		world.start();
+		for (int i = 0; i < nbTurns && !world.isTerminated(); i++) {
+			world.startNextTurn();
+			log.add("turn " + world.getNbWorms());
+		}
+		for (Worm worm : new Worm[] { willy, billy })
+			log.add(worm.getName() + " " + worm.isTerminated() + " " + worm.getProgram().hasRuntimeErrorOccurred());
+		return log;
+	}
+
+	private static void assertSameGame(String source, int nbTurns) {
+		List<String> interpreted = play(source, false, false, nbTurns);
+		assertEquals(interpreted, play(source, false, true, nbTurns));
+		assertEquals(interpreted, play(source, true, false, nbTurns));
+		assertEquals(interpreted, play(source, true, true, nbTurns));
+	}
+
+	@Test
+	public void testRun_ArithmeticCase() {
+		assertSameGame("double x := 3; double y; bool b; "
+				+ "y := (x * 4 - 1) / 2 + sqrt(16) - sin(0.5) * cos(0.5); print y; "
+				+ "b := (x < y) && !(x >= 3) || (y != y); print b; "
+				+ "print x <= 3; print x > 3; print x == 3; print b == false;", 4);
+	}
+
+	@Test
+	public void testRun_BudgetCase() {
+		assertSameGame("double n; while true { n := n + 1; if (n / 10 == 37) { print n; } }", 6);
+	}
+
+	@Test
+	public void testRun_ActionsCase() {
+		assertSameGame("double n; while (n < 40) { turn 0.2; move; toggleweap; jump; fire 30; "
+				+ "n := n + 1; print getap self; }", 8);
+	}
+
+	@Test
+	public void testRun_UnaffordableActionCase() {
+		assertSameGame("double n; while (n < 100) { turn 3; print n; n := n + 1; }", 5);
+	}
+
+	@Test
+	public void testRun_ForeachCase() {
+		assertSameGame("entity e; entity f; foreach(any, e) { print getx e; print isworm e; print isfood e; "
+				+ "if (isworm e) { print sameteam e; } foreach(worm, f) { print e == f; print gethp f; } } "
+				+ "foreach(food, e) { print getradius e; }", 6);
+	}
+
+	@Test
+	public void testRun_SearchCase() {
+		assertSameGame("entity e; double d; while (d < 7) { e := searchobj d; print e == null; "
+				+ "if (e != null) { print gety e; print getdir e; print getmaxhp e; print getmaxap e; } "
+				+ "d := d + 0.5; turn 0.5; }", 6);
+	}
+
+	@Test
+	public void testRun_SpatialQueryCase() {
+		assertSameGame("entity e; double r; while (r < 40) { e := nearestworm; print getx e; e := nearestenemy; "
+				+ "print e == null; print gety e; e := nearestfood; print e == null; "
+				+ "print countwithin(worm, r); print countwithin(food, r) + countwithin(any, r); "
+				+ "r := r + 5; turn 0.3; }", 6);
+	}
+
+	@Test
+	public void testRun_RuntimeErrorCase() {
+		assertSameGame("double x := 0; entity e; print 1 / x; print getx e;", 3);
+		assertSameGame("entity e; print 5; e := searchobj 0; print getx e; print getap null; print 6;", 3);
+		assertSameGame("print sqrt(0 - 1); print 3;", 3);
+	}
+
+	@Test
+	public void testRun_MistypedAssignmentCase() {
+		assertSameGame("double x; bool b; print 1; b := x < 1; print b; x := b; print 2;", 3);
+		assertSameGame("double x; print 1; if (x > 0) { x := true; } print 2; foreach(worm, x) { print 3; }", 3);
+		assertTrue(play("double x; print 1; x := true; print 2;", true, true, 1).contains("Willy false true"));
+	}
+
+	@Test
+	public void testRun_RestartCase() {
+		assertSameGame("double n; n := n + 1; print n; turn 1;", 5);
+	}
+
+	@Test
+	public void testRun_OptimizedCase() {
+		assertSameGame("double x; bool b; if (1 > 2) { print 1; move; } else { print 2; } "
+				+ "while (1 == 2) { print 3; } b := !!(x == 0) && true; print b; print !(x != 1); "
+				+ "print (2 + 3) * 4; print sqrt(0 - 1);", 3);
+	}
+
+	@Test
+	public void testRun_HoistedCase() {
+		assertSameGame("double n; double a := 3; double m; "
+				+ "while true { n := 0; while (n < (a * a + 1)) { n := n + sin(a) * 2; m := m + (cos(a) - 1); } "
+				+ "print m; turn a / 100; a := a + 1; }", 4);
+	}
+}
@@ -0,0 +1,117 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import worms.model.programs.ParseOutcome;
+
+public class ProgramTest_Frames {
+
+	World world;
+	Worm willy, billy;
+	List<String> log;
+
+	@Before
+	public void setUp() throws Exception {
+		boolean[][] passableMap = new boolean[][] { { true, true, true, true }, { true, true, true, true },
+				{ false, false, false, false }, { false, false, false, false } };
+		world = new World(40, 40, passableMap, new Random(7));
+		billy = new Worm(world, 15, 21, 2.1, 1, "Billy");
+		log = new ArrayList<String>();
+	}
+
+	private Program createProgram(String source) {
+		Facade facade = new Facade(false, false);
+		ParseOutcome<?> outcome = facade.parseProgram(source, new SimpleActionHandler(facade) {
+			@Override
+			public void print(String message) {
+				log.add(message);
+			}
+		});
+		assertTrue(outcome.isSuccess());
+		willy = new Worm(world, 5, 21, 0.6, 1, "Willy", null, (Program) outcome.getResult());
+		return willy.getProgram();
+	}
+
+	@Test
+	public void testRun_BudgetOfWhile() {
+		Program program = createProgram("double n; while true { n := n + 1; }");
+		program.run();
+		// Every iteration checks the condition and executes the assignment.
+		assertEquals(500.0, program.getVariableValue("n").getValue());
+		program.run();
+		assertEquals(1000.0, program.getVariableValue("n").getValue());
+	}
+
+	@Test
+	public void testRun_BudgetOfSequence() {
+		Program program = createProgram("double n; while true { n := n + 1; n := n + 1; }");
+		program.run();
+		// The sequence of the body counts as a statement when it starts.
+		assertEquals(500.0, program.getVariableValue("n").getValue());
+	}
+
+	@Test
+	public void testRun_BudgetOfForeach() {
+		new Worm(world, 25, 21, 0, 1, "Chilly");
+		Program program = createProgram("double n; entity e; while true { foreach(worm, e) { n := n + 1; } }");
+		program.run();
+		// Every iteration checks the condition, starts the foreach and visits 3 worms in 2 statements each.
+		assertEquals(375.0, program.getVariableValue("n").getValue());
+	}
+
+	@Test
+	public void testRun_ForeachVisitsEntitiesFromLastToFirst() {
+		Program program = createProgram("entity e; foreach(worm, e) { print getx e; }");
+		program.run();
+		assertEquals(2, log.size());
+		assertEquals(Double.toString(willy.getXCoordinate()), log.get(0));
+		assertEquals(Double.toString(billy.getXCoordinate()), log.get(1));
+	}
+
+	@Test
+	public void testRun_ForeachSeesNewEntities() {
+		Program program = createProgram("entity e; double n; n := 0; foreach(worm, e) { n := n + 1; } print n;");
+		program.run();
+		new Worm(world, 25, 21, 0, 1, "Chilly");
+		program.run();
+		assertEquals("2.0", log.get(0));
+		assertEquals("3.0", log.get(1));
+	}
+
+	@Test
+	public void testRun_RestartsWhenFinished() {
+		Program program = createProgram("double n; n := n + 1; print n;");
+		program.run();
+		program.run();
+		assertEquals("1.0", log.get(0));
+		assertEquals("1.0", log.get(1));
+	}
+
+	@Test
+	public void testRun_ResumesAfterBudget() {
+		Program program = createProgram("double n; while (n < 600) { n := n + 1; } print n;");
+		program.run();
+		assertTrue(log.isEmpty());
+		program.run();
+		assertEquals("600.0", log.get(0));
+	}
+
+	@Test
+	public void testRun_UnaffordableActionIsDropped() {
+		Program program = createProgram("double n; while true { turn 3; n := n + 1; print n; }");
+		program.run();
+		int nbTurns = log.size();
+		assertTrue(nbTurns > 0);
+		// The action points aren't restored, so the next run skips the turn and stops at the next one.
+		program.run();
+		assertEquals(nbTurns + 1, log.size());
+		assertEquals(Double.toString(nbTurns + 1), log.get(nbTurns));
+	}
+}
@@ -2,15 +2,25 @@ package worms.model;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import worms.model.programs.ParseOutcome;
 import worms.model.programs.WormsRuntimeException;
+import worms.model.programs.expressions.Equality;
+import worms.model.programs.expressions.Inequality;
 import worms.model.programs.expressions.VariableAccess;
+import worms.model.programs.statements.Assignment;
+import worms.model.programs.statements.Foreach;
+import worms.model.programs.statements.Sequence;
+import worms.model.programs.statements.Statement;
 import worms.model.programs.types.BooleanType;
 import worms.model.programs.types.DoubleType;
 import worms.model.programs.types.EntityType;
@@ -96,6 +106,114 @@ public class ProgramTest_Globals {
 		program.setVariableValue("b", new BooleanType(true));
 	}
 
+	@Test
+	public void testGetVariableSlot() {
+		assertTrue(program.getVariableSlot("a") >= 0);
+		assertEquals(-1, program.getVariableSlot("b"));
+		assertEquals(3.14, program.getVariableValue(program.getVariableSlot("a")).getValue());
+	}
+
+	@Test
+	public void testProgram_SlotsCase() {
+		Map<String, Type<?>>globals = new HashMap<String, Type<?>>();
+		globals.put("a", new DoubleType(3.14));
+		globals.put("bool", new BooleanType(true));
+		Program prog = new Program.Builder(null, globals, null).setVariableNames(Arrays.asList("b", "a")).build();
+		assertEquals(0, prog.getVariableSlot("b"));
+		assertEquals(1, prog.getVariableSlot("a"));
+		assertEquals(2, prog.getVariableSlot("bool"));
+		assertEquals(3.14, prog.getVariableValue(1).getValue());
+		assertEquals(true, prog.getVariableValue(2).getValue());
+		assertEquals(prog.getVariableSlot("bool"), prog.clone().getVariableSlot("bool"));
+	}
+
+	@Test(expected = WormsRuntimeException.class)
+	public void testGetVariableValue_UndeclaredSlotCase() {
+		Program prog = new Program.Builder(null, new HashMap<String, Type<?>>(), null).setVariableNames(Arrays.asList("b")).build();
+		prog.getVariableValue(0);
+	}
+
+	@Test(expected = WormsRuntimeException.class)
+	public void testGetVariableValue_IllegalSlotCase() {
+		program.getVariableValue(3);
+	}
+
+	@Test
+	public void testSetVariableValue_SlotCase() {
+		int slot = program.getVariableSlot("a");
+		program.setVariableValue(slot, new DoubleType(5));
+		assertEquals(5.0, program.getVariableValue("a").getValue());
+	}
+
+	/**
+	 * Adds the slots the assignments and foreach statements in the given statement write to the given list,
+	 * in the order of the source.
+	 */
+	private static void collectSlots(Statement statement, List<Integer> slots) {
+		if(statement instanceof Assignment)
+			slots.add(((Assignment) statement).getSlot());
+		if(statement instanceof Foreach)
+			slots.add(((Foreach) statement).getSlot());
+		if(statement instanceof Sequence)
+			for(int i = 0; i < ((Sequence) statement).getNbArguments(); i++)
+				collectSlots(((Sequence) statement).getArgumentAt(i), slots);
+	}
+
+	@Test
+	public void testParseProgram_MistypedStoresByNameCase() {
+		ParseOutcome<?> outcome = new Facade(false, false).parseProgram("double a; bool b; entity e; "
+				+ "a := 1; a := true; b := a; e := self; foreach(worm, a) { skip; } foreach(any, e) { skip; }", null);
+		assertTrue(outcome.isSuccess());
+		List<Integer> slots = new ArrayList<Integer>();
+		collectSlots(((Program) outcome.getResult()).getMainStatement(), slots);
+		assertEquals(6, slots.size());
+		assertTrue(slots.get(0) >= 0);
+		assertEquals(-1, (int) slots.get(1));
+		assertEquals(-1, (int) slots.get(2));
+		assertTrue(slots.get(3) >= 0);
+		assertEquals(-1, (int) slots.get(4));
+		assertTrue(slots.get(5) >= 0);
+	}
+
+	private static void collectAssignments(Statement statement, List<Assignment> assignments) {
+		if(statement instanceof Assignment)
+			assignments.add((Assignment) statement);
+		if(statement instanceof Sequence)
+			for(int i = 0; i < ((Sequence) statement).getNbArguments(); i++)
+				collectAssignments(((Sequence) statement).getArgumentAt(i), assignments);
+	}
+
+	private static Class<?> getOperandType(Assignment assignment) {
+		Object comparison = assignment.getFirstArgument();
+		if(comparison instanceof Equality)
+			return ((Equality) comparison).getOperandType();
+		return ((Inequality) comparison).getOperandType();
+	}
+
+	@Test
+	public void testParseProgram_TypedComparisonsCase() {
+		ParseOutcome<?> outcome = new Facade(false, false).parseProgram("double a; bool b; entity e; "
+				+ "b := (a == 1); b := (b != true); b := (e != self); b := (a == self); b := (a == c);", null);
+		assertTrue(outcome.isSuccess());
+		List<Assignment> assignments = new ArrayList<Assignment>();
+		collectAssignments(((Program) outcome.getResult()).getMainStatement(), assignments);
+		assertEquals(5, assignments.size());
+		assertEquals(DoubleType.class, getOperandType(assignments.get(0)));
+		assertEquals(BooleanType.class, getOperandType(assignments.get(1)));
+		assertEquals(EntityType.class, getOperandType(assignments.get(2)));
+		assertNull(getOperandType(assignments.get(3)));
+		assertNull(getOperandType(assignments.get(4)));
+	}
+
+	@Test
+	public void testClone_ValuesCase() {
+		program.setVariableValue("a", new DoubleType(5));
+		Program prog = program.clone();
+		prog.setVariableValue("a", new DoubleType(6));
+		assertEquals(5.0, program.getVariableValue("a").getValue());
+		assertEquals(6.0, prog.getVariableValue("a").getValue());
+	}
+
 	@Test
 	public void testInitGlobals() {
 		program.initGlobals();
@@ -0,0 +1,169 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import worms.model.programs.ParseOutcome;
+import worms.model.programs.profiler.HotSpot;
+
+public class ProgramTest_Profiling {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	World world;
+
+	@Before
+	public void setUp() throws Exception {
+		boolean[][] passableMap = new boolean[][] { { true, true, true, true }, { true, true, true, true },
+				{ false, false, false, false }, { false, false, false, false } };
+		world = new World(40, 40, passableMap, new Random(7));
+	}
+
+	private Program createProgram(String source, boolean compiling, boolean profiling) {
+		Facade facade = new Facade(compiling);
+		ParseOutcome<?> outcome = facade.parseProgram(source, new SimpleActionHandler(facade));
+		assertTrue(outcome.isSuccess());
+		Program program = (Program) outcome.getResult();
+		if(profiling)
+			program.startProfiling();
+		return new Worm(world, 5, 21, 0.6, 1, "Willy", null, program).getProgram();
+	}
+
+	private static HotSpot getHotSpot(Program program, String name, int line) {
+		HotSpot result = null;
+		for(HotSpot hotSpot : program.getProfiler().getHotSpots())
+			if(hotSpot.getName().equals(name) && hotSpot.getLocation() != null && hotSpot.getLocation().getLine() == line){
+				assertNull("More than one " + name + " at line " + line, result);
+				result = hotSpot;
+			}
+		assertNotNull("No " + name + " at line " + line, result);
+		return result;
+	}
+
+	private static final String COUNTING_LOOP = "double n;\nwhile (n < 10) {\n  n := (n + 1);\n}\nprint n;";
+
+	@Test
+	public void testStartProfiling_NotProfilingByDefault() {
+		Program program = createProgram(COUNTING_LOOP, false, false);
+		assertFalse(program.isProfiling());
+		assertNull(program.getProfiler());
+	}
+
+	@Test
+	public void testRun_CountsExecutionsPerLine() {
+		Program program = createProgram(COUNTING_LOOP, false, true);
+		assertTrue(program.isProfiling());
+		program.run();
+		assertEquals(10.0, program.getVariableValue("n").getValue());
+		// The loop checks its condition 11 times.
+		assertEquals(11, getHotSpot(program, "While", 2).getNbExecutions());
+		assertEquals(11, getHotSpot(program, "LessThan", 2).getNbExecutions());
+		assertEquals(10, getHotSpot(program, "Assignment", 3).getNbExecutions());
+		assertEquals(10, getHotSpot(program, "Addition", 3).getNbExecutions());
+		assertEquals(1, getHotSpot(program, "Print", 5).getNbExecutions());
+	}
+
+	@Test
+	public void testRun_SelfTimeIsPartOfTotalTime() {
+		Program program = createProgram(COUNTING_LOOP, false, true);
+		program.run();
+		List<HotSpot> hotSpots = program.getProfiler().getHotSpots();
+		assertFalse(hotSpots.isEmpty());
+		for(int i = 0; i < hotSpots.size(); i++){
+			assertTrue(hotSpots.get(i).getSelfNanos() <= hotSpots.get(i).getTotalNanos());
+			if(i > 0)
+				assertTrue(hotSpots.get(i).getSelfNanos() <= hotSpots.get(i - 1).getSelfNanos());
+		}
+	}
+
+	@Test
+	public void testRun_CompiledProgramIsInterpretedWhileProfiling() {
+		Program program = createProgram(COUNTING_LOOP, true, true);
+		assertTrue(program.isCompiled());
+		program.run();
+		assertEquals(10.0, program.getVariableValue("n").getValue());
+		assertEquals(10, getHotSpot(program, "Assignment", 3).getNbExecutions());
+	}
+
+	@Test
+	public void testRun_SameResultsAsWithoutProfiling() {
+		String source = "double n; double m; entity e;\nwhile (m < 50) {\n  foreach(worm, e) {\n    n := (n + (getx e));\n  }\n  m := (m + 1);\n}";
+		Program plain = createProgram(source, false, false);
+		Program profiled = createProgram(source, false, true);
+		for(int turn = 0; turn < 3; turn++){
+			plain.run();
+			profiled.run();
+			assertEquals(plain.getVariableValue("n").getValue(), profiled.getVariableValue("n").getValue());
+			assertEquals(plain.getVariableValue("m").getValue(), profiled.getVariableValue("m").getValue());
+		}
+	}
+
+	@Test
+	public void testStartProfiling_WhileRunning() {
+		Program program = createProgram("double n; while true { n := (n + 1); }", false, false);
+		program.run();
+		try{
+			program.startProfiling();
+			fail();
+		}catch(IllegalStateException e){
+			assertFalse(program.isProfiling());
+		}
+	}
+
+	@Test
+	public void testWriteFoldedStacks_Format() throws IOException {
+		Program program = createProgram(COUNTING_LOOP, false, true);
+		program.run();
+		StringWriter writer = new StringWriter();
+		program.getProfiler().writeFoldedStacks(writer);
+		String[] lines = writer.toString().split("\n");
+		assertTrue(lines.length > 1);
+		for(String line : lines){
+			assertTrue(line, line.matches("[^ ;]+(;[^ ;]+)* [0-9]+"));
+			assertTrue(line, line.startsWith("Sequence@"));
+		}
+		boolean hasAddition = false;
+		for(String line : lines)
+			hasAddition |= line.matches("Sequence@[0-9:]+;While@2:[0-9]+;Assignment@3:[0-9]+;Addition@3:[0-9]+ [0-9]+");
+		assertTrue(hasAddition);
+	}
+
+	@Test
+	public void testFacade_WriteProfiles() throws IOException {
+		File directory = folder.newFolder("profiles");
+		Facade facade = new Facade();
+		facade.setProfileDirectory(directory);
+		Program program = (Program) facade.parseProgram(COUNTING_LOOP, new SimpleActionHandler(facade)).getResult();
+		assertTrue(program.isProfiling());
+		Worm worm = facade.createWorm(world, 5, 21, 0.6, 1, "Willy", program);
+		worm.getProgram().run();
+
+		world.terminate();
+		assertTrue(facade.isGameFinished(world));
+		assertEquals(0, directory.list().length);
+		facade.writeProfiles(world);
+
+		File hotSpots = new File(directory, "Willy-0.hotspots.txt");
+		File folded = new File(directory, "Willy-0.folded");
+		assertTrue(hotSpots.isFile());
+		assertTrue(folded.isFile());
+		assertTrue(new String(Files.readAllBytes(hotSpots.toPath())).contains("Assignment@3:"));
+		assertTrue(new String(Files.readAllBytes(folded.toPath())).contains(";While@2:"));
+
+		assertTrue(hotSpots.delete() && folded.delete());
+		facade.writeProfiles(world);
+		assertEquals(0, directory.list().length);
+	}
+}
@@ -131,4 +131,27 @@ public class ProjectileTest_Jump {
 		assertTrue(projectileContactLocation.afterJumpRemove(projectileContactLocation.getPosition()));
 	}
 
+
+	@Test
+	public void testGetJumpTime_GrazesWorm() {
+		//Rifle projectiles that pass a worm at a distance just below the sum of their radii.
+		World open = new World(40, 20, new boolean[][]{{true}}, new Random(7));
+		open.start();
+		RifleProjectile probe = new RifleProjectile(open, 50);
+		probe.setPosition(new Position(5, 15));
+		probe.setDirection(0.1);
+		Position pass = probe.getPosition();
+		for (long step = 0; pass.getX() < 15; step++)
+			pass = probe.getJumpStep(step * TIMESTEP);
+		for (int n = 0; n < 20; n++) {
+			double offset = 0.5 + probe.getRadius() - 0.0005 * (n + 1);
+			World world = new World(40, 20, new boolean[][]{{true}}, new Random(7));
+			new Worm(world, pass.getX(), pass.getY() - offset, 0, 0.5, "Target");
+			world.start();
+			RifleProjectile projectile = new RifleProjectile(world, 50);
+			projectile.setPosition(new Position(5, 15));
+			projectile.setDirection(0.1);
+			assertEquals(WormTest_Jump.getLinearJumpTime(projectile), projectile.getJumpTime(TIMESTEP), 1e-9);
+		}
+	}
 }
@@ -0,0 +1,116 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+import static worms.util.ArrayUtil.*;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TerrainTest {
+
+	boolean[][] passableMap;
+	Terrain terrain;
+
+	@Before
+	public void setUp() throws Exception {
+		passableMap = new boolean[3][150];
+		for (int i = 0; i < passableMap.length; i++) {
+			for (int j = 0; j < passableMap[i].length; j++) {
+				passableMap[i][j] = true;
+			}
+		}
+		passableMap[0][0] = false;
+		passableMap[1][63] = false;
+		passableMap[1][64] = false;
+		passableMap[2][149] = false;
+		terrain = new Terrain(passableMap);
+	}
+
+	@Test
+	public void testConstructor_LegalCase(){
+		assertEquals(3, terrain.getNbRows());
+		assertEquals(150, terrain.getNbColumns());
+		assertTrue(deepEquals(passableMap, terrain.toPassableMap()));
+	}
+
+	@Test
+	public void testConstructor_EmptyCase(){
+		terrain = new Terrain(new boolean[][]{});
+		assertEquals(0, terrain.getNbRows());
+		assertEquals(0, terrain.getNbColumns());
+		assertFalse(terrain.hasImpassableCellInSpan(0, 0, 10));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testConstructor_IllegalCase(){
+		new Terrain(new boolean[][]{{true,true},{true}});
+	}
+
+	@Test
+	public void testIsPassable(){
+		assertFalse(terrain.isPassable(0, 0));
+		assertTrue(terrain.isPassable(0, 1));
+		assertFalse(terrain.isPassable(1, 63));
+		assertFalse(terrain.isPassable(1, 64));
+		assertTrue(terrain.isPassable(1, 65));
+		assertFalse(terrain.isPassable(2, 149));
+	}
+
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void testIsPassable_OutOfBoundsCase(){
+		terrain.isPassable(0, 150);
+	}
+
+	@Test
+	public void testHasImpassableCellInSpan_SingleWordCase(){
+		assertTrue(terrain.hasImpassableCellInSpan(0, 0, 1));
+		assertFalse(terrain.hasImpassableCellInSpan(0, 1, 64));
+		assertFalse(terrain.hasImpassableCellInSpan(1, 0, 63));
+		assertTrue(terrain.hasImpassableCellInSpan(1, 0, 64));
+		assertTrue(terrain.hasImpassableCellInSpan(1, 63, 64));
+	}
+
+	@Test
+	public void testHasImpassableCellInSpan_MultipleWordsCase(){
+		assertTrue(terrain.hasImpassableCellInSpan(1, 60, 70));
+		assertTrue(terrain.hasImpassableCellInSpan(1, 64, 150));
+		assertFalse(terrain.hasImpassableCellInSpan(1, 65, 150));
+		assertTrue(terrain.hasImpassableCellInSpan(2, 0, 150));
+		assertFalse(terrain.hasImpassableCellInSpan(2, 0, 149));
+	}
+
+	@Test
+	public void testHasImpassableCellInSpan_OutOfBoundsCase(){
+		assertTrue(terrain.hasImpassableCellInSpan(0, -10, 1));
+		assertTrue(terrain.hasImpassableCellInSpan(2, 140, 1000));
+		assertFalse(terrain.hasImpassableCellInSpan(-1, 0, 150));
+		assertFalse(terrain.hasImpassableCellInSpan(3, 0, 150));
+		assertFalse(terrain.hasImpassableCellInSpan(0, 10, 10));
+		assertFalse(terrain.hasImpassableCellInSpan(0, 10, 5));
+	}
+
+	@Test
+	public void testHasImpassableCellInSpan_RandomCase(){
+		Random random = new Random(7);
+		boolean[][] map = new boolean[20][300];
+		for (int i = 0; i < map.length; i++) {
+			for (int j = 0; j < map[i].length; j++) {
+				map[i][j] = random.nextInt(40) != 0;
+			}
+		}
+		Terrain terrain = new Terrain(map);
+		for (int n = 0; n < 5000; n++) {
+			int row = random.nextInt(map.length);
+			int from = random.nextInt(320) - 10;
+			int to = from + random.nextInt(200);
+			boolean expected = false;
+			for (int j = Math.max(from, 0); j < Math.min(to, map[row].length); j++) {
+				if(!map[row][j])
+					expected = true;
+			}
+			assertEquals(expected, terrain.hasImpassableCellInSpan(row, from, to));
+		}
+	}
+}
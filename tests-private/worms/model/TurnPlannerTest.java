@@ -0,0 +1,163 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import worms.simulation.DirectActionHandler;
+
+public class TurnPlannerTest {
+
+	World world;
+	Team alpha, beta;
+	Worm first, second;
+	ForkJoinPool pool;
+	TurnPlanner planner;
+
+	@Before
+	public void setUp() throws Exception {
+		boolean[][] passableMap = new boolean[30][20];
+		for (int row = 0; row < passableMap.length; row++)
+			for (int column = 0; column < passableMap[row].length; column++)
+				passableMap[row][column] = row < 25;
+		world = new World(20, 30, passableMap, new Random(3));
+		alpha = new Team(world, "Alpha");
+		beta = new Team(world, "Beta");
+		first = new Worm(world, 5, 5.5, 0.5, 0.5, "First", alpha);
+		second = new Worm(world, 15, 5.5, 2.5, 0.5, "Second", beta);
+		pool = new ForkJoinPool(2);
+		planner = new TurnPlanner(new DirectActionHandler(new Facade()), pool);
+	}
+
+	@After
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	@Test
+	public void testGetPlans() {
+		planner.setNbDirections(4);
+		planner.setMaxNbMoves(1);
+		planner.setYields(50);
+		List<TurnPlan> plans = planner.getPlans(first);
+		assertEquals(TurnPlan.NOTHING, plans.get(0));
+		// 4 directions, 2 move counts, and no jump or shot, a jump, or a shot with one of 2 weapons.
+		assertEquals(1 + 4 * 2 * 4, plans.size());
+		assertEquals(plans.size(), new HashSet<TurnPlan>(plans).size());
+		assertEquals(plans, planner.getPlans(first));
+		for (TurnPlan plan : plans)
+			assertTrue(Worm.isValidTurningAngle(plan.getAngle()));
+	}
+
+	@Test
+	public void testPlan_LeavesWorld() {
+		world.start();
+		planner.setTimeBudget(60_000_000_000L);
+		long version = world.getVersion();
+		Position position = first.getPosition();
+		planner.plan(first);
+		assertEquals(version, world.getVersion());
+		assertEquals(position, first.getPosition());
+		assertEquals(first.getMaxActionPoints(), first.getActionPoints());
+		assertSame(first, world.getCurrentWorm());
+		assertEquals(planner.getPlans(first).size() - 1, planner.getNbSimulations());
+	}
+
+	@Test
+	public void testPlan_TimeBudgetSpent() {
+		world.start();
+		planner.setTimeBudget(1);
+		assertEquals(TurnPlan.NOTHING, planner.plan(first));
+		assertEquals(0, planner.getNbSimulations());
+	}
+
+	@Test
+	public void testPlan_ApproachesEnemy() {
+		world.start();
+		planner.setTimeBudget(60_000_000_000L);
+		planner.setYields();
+		TurnPlan plan = planner.plan(first);
+		double distance = first.getPosition().squaredDistance(second.getPosition());
+		planner.execute(first, plan);
+		assertTrue(first.getPosition().squaredDistance(second.getPosition()) < distance);
+	}
+
+	@Test
+	public void testStart_PlannedWormPlaysTurn() {
+		first.setPlanner(planner);
+		assertTrue(first.isComputerControlled());
+		assertFalse(second.isComputerControlled());
+		world.start();
+		assertTrue(planner.getNbSimulations() > 0);
+		assertSame(second, world.getCurrentWorm());
+		assertEquals(2, world.getNbTurns());
+	}
+
+	@Test
+	public void testStartNextTurn_PlannedWorms() {
+		first.setPlanner(planner);
+		second.setPlanner(planner);
+		planner.setNbDirections(4);
+		planner.setMaxNbMoves(1);
+		world.setMaxNbTurns(6);
+		world.start();
+		assertEquals(6, world.getNbTurns());
+	}
+
+	@Test
+	public void testFork_NoPlanner() {
+		first.setPlanner(planner);
+		assertFalse(world.fork().getWormAt(0).hasPlanner());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetPlanner_WormWithProgram() {
+		Program program = new Program(null, new java.util.HashMap<String, worms.model.programs.types.Type<?>>(), null);
+		Worm programmed = new Worm(world, 10, 5.5, 0, 0.5, "Programmed", null, program);
+		programmed.setPlanner(planner);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructor_NoHandler() {
+		new TurnPlanner(null, pool);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructor_NoPool() {
+		new TurnPlanner(new DirectActionHandler(new Facade()), null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetTimeBudget_NotPositive() {
+		planner.setTimeBudget(0);
+	}
+
+	@Test
+	public void testSetJumpTimeStep() {
+		assertEquals(TurnPlanner.DEFAULT_JUMP_TIME_STEP, planner.getJumpTimeStep(), 0);
+		planner.setJumpTimeStep(1e-3);
+		assertEquals(1e-3, planner.getJumpTimeStep(), 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetJumpTimeStep_NotPositive() {
+		planner.setJumpTimeStep(0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetYields_OutOfRange() {
+		planner.setYields(50, 101);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTurnPlan_JumpingAndFiring() {
+		new TurnPlan(0, 0, 1, true, 50);
+	}
+}
@@ -2,8 +2,12 @@ package worms.model;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Random;
 import java.util.Set;
 
@@ -117,4 +121,106 @@ public class WorldTest_Entities {
 		world.removeAsEntity(bullet);
 		world.removeAsEntity(bullet);
 	}
+	@Test
+	public void testGetEntitiesOverlapping(){
+		pizzaCalzone.setPosition(new Position(3, 3));
+		zacherTorte.setPosition(new Position(15, 25));
+		bullet.setPosition(new Position(4, 3));
+		assertEquals(Arrays.asList(chilly), world.getEntitiesOverlapping(Worm.class, new Position(3, 3), 1));
+		assertEquals(Arrays.asList(pizzaCalzone), world.getEntitiesOverlapping(Food.class, new Position(3, 3), 1));
+		assertEquals(new HashSet<Entity>(Arrays.asList(chilly, pizzaCalzone, bullet)),
+				new HashSet<Entity>(world.getEntitiesOverlapping(Entity.class, new Position(3, 3), 1)));
+		assertTrue(world.getEntitiesOverlapping(Food.class, new Position(15, 20), 1).isEmpty());
+		assertTrue(world.hasEntityOverlapping(Food.class, new Position(15, 24), 1));
+	}
+	
+	@Test
+	public void testGetEntitiesOverlapping_MovedCase(){
+		pizzaCalzone.setPosition(new Position(3, 3));
+		pizzaCalzone.setPosition(new Position(15, 25));
+		assertFalse(world.hasEntityOverlapping(Food.class, new Position(3, 3), 1));
+		assertTrue(world.hasEntityOverlapping(Food.class, new Position(15, 25), 1));
+	}
+	
+	@Test
+	public void testGetEntitiesOverlapping_RemovedCase(){
+		pizzaCalzone.setPosition(new Position(3, 3));
+		world.removeAsEntity(pizzaCalzone);
+		assertFalse(world.hasEntityOverlapping(Food.class, new Position(3, 3), 1));
+	}
+	
+	@Test
+	public void testGetEntitiesOverlapping_RandomCase(){
+		Random random = new Random(19);
+		World world = new World(40, 40, passableMap, new Random());
+		Food[] foods = new Food[200];
+		for (int i = 0; i < foods.length; i++)
+			foods[i] = new Food(world);
+		for (int n = 0; n < 500; n++) {
+			for (int i = 0; i < 10; i++)
+				foods[random.nextInt(foods.length)].setPosition(new Position(random.nextDouble() * 40, random.nextDouble() * 40));
+			Position pos = new Position(random.nextDouble() * 44 - 2, random.nextDouble() * 44 - 2);
+			double radius = random.nextDouble() * 3;
+			Set<Food> expected = new HashSet<Food>();
+			for (Food food : foods)
+				if(food.getPosition() != null && food.collidesWith(pos, radius))
+					expected.add(food);
+			assertEquals(expected, new HashSet<Food>(world.getEntitiesOverlapping(Food.class, pos, radius)));
+		}
+	}
+	
+	@Test
+	public void testGetEntitiesInRectangle(){
+		pizzaCalzone.setPosition(new Position(3, 3));
+		zacherTorte.setPosition(new Position(15, 25));
+		assertEquals(Arrays.asList(zacherTorte), world.getEntitiesInRectangle(Food.class, 10, 20, 20, 30));
+		assertEquals(Arrays.asList(chilly), world.getEntitiesInRectangle(Worm.class, 0, 0, 10, 10));
+	}
+
+	@Test
+	public void testGetEntityView(){
+		assertEquals(world.getEntities(), new HashSet<Entity>(world.getEntityView()));
+		assertEquals(5, world.getEntityView().size());
+		assertEquals(world.getWorms(), new ArrayList<Worm>(world.getWormView()));
+		assertEquals(world.getFoods(), new HashSet<Food>(world.getFoodView()));
+		assertEquals(Arrays.asList(bullet), new ArrayList<Projectile>(world.getEntityView(Projectile.class)));
+		assertEquals(1, world.getEntityView(RifleProjectile.class).size());
+		assertEquals(0, world.getEntityView(BazookaProjectile.class).size());
+		assertTrue(world.getWormView().contains(chilly));
+		assertFalse(world.getWormView().contains(pizzaCalzone));
+	}
+
+	@Test
+	public void testGetEntityView_LiveCase(){
+		Collection<Food> foods = world.getFoodView();
+		world.removeFood(pizzaCalzone);
+		assertEquals(Arrays.asList(zacherTorte), new ArrayList<Food>(foods));
+		assertFalse(foods.contains(pizzaCalzone));
+	}
+
+	@Test(expected=UnsupportedOperationException.class)
+	public void testGetEntityView_ReadOnlyCase(){
+		Iterator<Entity> iterator = world.getEntityView().iterator();
+		iterator.next();
+		iterator.remove();
+	}
+
+	@Test(expected=UnsupportedOperationException.class)
+	public void testGetEntityView_AddCase(){
+		world.getFoodView().add(new Food(otherWorld));
+	}
+
+	@Test(expected=ConcurrentModificationException.class)
+	public void testGetEntityView_ConcurrentModificationCase(){
+		for (Worm worm : world.getWormView())
+			world.removeWorm(worm);
+	}
+
+	@Test(expected=ConcurrentModificationException.class)
+	public void testGetEntityView_ConcurrentProjectileCase(){
+		Iterator<Entity> iterator = world.getEntityView().iterator();
+		iterator.next();
+		world.removeProjectile();
+		iterator.hasNext();
+	}
 }
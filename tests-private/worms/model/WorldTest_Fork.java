@@ -0,0 +1,137 @@
+package worms.model;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class WorldTest_Fork {
+
+	World world;
+	boolean[][] passableMap;
+	Team team;
+	Worm first, second;
+	Food food;
+
+	@Before
+	public void setUp() throws Exception {
+		passableMap = new boolean[30][20];
+		for (int row = 0; row < passableMap.length; row++)
+			for (int column = 0; column < passableMap[row].length; column++)
+				passableMap[row][column] = row < 25;
+		world = new World(20, 30, passableMap, new Random(3));
+		team = new Team(world, "Alpha");
+		first = new Worm(world, 5, 5.5, 0.5, 0.5, "First", team);
+		second = new Worm(world, 15, 5.5, 2.5, 0.75, "Second");
+		food = new Food(world);
+		food.setPosition(new Position(10, 5.2));
+		world.start();
+		second.selectNextWeapon();
+	}
+
+	@Test
+	public void testFork_SharesTerrain() {
+		World fork = world.fork();
+		assertNotSame(world, fork);
+		assertSame(world.getTerrain(), fork.getTerrain());
+		assertEquals(world.getWidth(), fork.getWidth(), 0);
+		assertEquals(world.getHeight(), fork.getHeight(), 0);
+		assertTrue(fork.isPassablePosition(new Position(10, 20), 1));
+		assertFalse(fork.isPassablePosition(new Position(10, 1), 1));
+	}
+
+	@Test
+	public void testFork_CopiesWorms() {
+		World fork = world.fork();
+		assertEquals(world.getNbWorms(), fork.getNbWorms());
+		for (int i = 0; i < world.getNbWorms(); i++) {
+			Worm worm = world.getWormAt(i), copy = fork.getWormAt(i);
+			assertNotSame(worm, copy);
+			assertSame(fork, copy.getWorld());
+			assertEquals(worm.getPosition(), copy.getPosition());
+			assertEquals(worm.getDirection(), copy.getDirection(), 0);
+			assertEquals(worm.getRadius(), copy.getRadius(), 0);
+			assertEquals(worm.getName(), copy.getName());
+			assertEquals(worm.getActionPoints(), copy.getActionPoints());
+			assertEquals(worm.getHitPoints(), copy.getHitPoints());
+			assertEquals(worm.getSelectedWeapon().getName(), copy.getSelectedWeapon().getName());
+			assertFalse(copy.hasProgram());
+			assertTrue(copy.hasProperWeapons());
+		}
+		assertEquals("Alpha", fork.getWormAt(0).getTeam().getName());
+		assertSame(fork, fork.getWormAt(0).getTeam().getWorld());
+		assertNull(fork.getWormAt(1).getTeam());
+	}
+
+	@Test
+	public void testFork_CopiesFoodAndTurns() {
+		World fork = world.fork();
+		assertEquals(1, fork.getFoods().size());
+		assertEquals(food.getPosition(), fork.getFoods().iterator().next().getPosition());
+		assertTrue(fork.hasStarted());
+		assertEquals(world.getNbTurns(), fork.getNbTurns());
+		assertEquals(world.getMaxNbTurns(), fork.getMaxNbTurns());
+		assertSame(fork.getWormAt(0), fork.getCurrentWorm());
+	}
+
+	@Test
+	public void testFork_CopiesProjectile() {
+		first.fire(40);
+		World fork = world.fork();
+		Projectile projectile = world.getProjectile(), copy = fork.getProjectile();
+		assertNotNull(copy);
+		assertNotSame(projectile, copy);
+		assertSame(projectile.getClass(), copy.getClass());
+		assertEquals(projectile.getPropulsionYield(), copy.getPropulsionYield());
+		assertEquals(projectile.getPosition(), copy.getPosition());
+		assertEquals(projectile.getDirection(), copy.getDirection(), 0);
+		assertSame(fork, copy.getWorld());
+	}
+
+	@Test
+	public void testFork_ChangesToForkLeaveWorld() {
+		long version = world.getVersion();
+		Position position = first.getPosition();
+		int actionPoints = first.getActionPoints();
+		World fork = world.fork();
+		Worm copy = fork.getWormAt(0);
+		copy.turn(1);
+		copy.jump(1e-4);
+		assertEquals(version, world.getVersion());
+		assertEquals(position, first.getPosition());
+		assertEquals(actionPoints, first.getActionPoints());
+		assertEquals(0.5, first.getDirection(), 0);
+		assertSame(first, world.getCurrentWorm());
+	}
+
+	@Test
+	public void testFork_ChangesToWorldLeaveFork() {
+		World fork = world.fork();
+		first.turn(1);
+		world.startNextTurn();
+		assertEquals(0.5, fork.getWormAt(0).getDirection(), 0);
+		assertSame(fork.getWormAt(0), fork.getCurrentWorm());
+		fork.startNextTurn();
+		assertSame(fork.getWormAt(1), fork.getCurrentWorm());
+		assertEquals(world.getNbTurns(), fork.getNbTurns());
+	}
+
+	@Test
+	public void testFork_NotStartedWorld() {
+		World notStarted = new World(20, 30, passableMap, new Random(3));
+		new Worm(notStarted, 5, 5.5, 0.5, 0.5, "Only");
+		World fork = notStarted.fork();
+		assertFalse(fork.hasStarted());
+		new Worm(fork, 15, 5.5, 0.5, 0.5, "Other");
+		assertEquals(2, fork.getNbWorms());
+		assertEquals(1, notStarted.getNbWorms());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testFork_TerminatedWorld() {
+		world.terminate();
+		world.fork();
+	}
+}
@@ -73,6 +73,31 @@ public class WorldTest_GameLogic {
 		assertTrue(world.hasStarted());
 	}
 
+	@Test
+	public void testGetNbTurns() {
+		assertEquals(0, world.getNbTurns());
+		world.start();
+		assertEquals(1, world.getNbTurns());
+		world.startNextTurn();
+		assertEquals(2, world.getNbTurns());
+	}
+	
+	@Test
+	public void testStartNextTurn_MaxNbTurnsReached() {
+		world.setMaxNbTurns(2);
+		world.start();
+		world.startNextTurn();
+		assertEquals(willy, world.getCurrentWorm());
+		world.startNextTurn();
+		assertEquals(2, world.getNbTurns());
+		assertEquals(willy, world.getCurrentWorm());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetMaxNbTurns_Negative() {
+		world.setMaxNbTurns(-1);
+	}
+	
 	@Test
 	public void testStart() {
 		world.start();
@@ -269,4 +269,66 @@ public class WorldTest_Passability {
 	public void testGetYCoordinate_SingleCase() {
 		assertFuzzyEquals(world.getYCoordinate(2),10);
 	}
+	
+	@Test
+	public void testIsPassablePosition_RandomCase(){
+		Random random = new Random(11);
+		boolean[][] map = new boolean[30][45];
+		for (int i = 0; i < map.length; i++) {
+			for (int j = 0; j < map[i].length; j++) {
+				map[i][j] = random.nextInt(25) != 0;
+			}
+		}
+		World world = new World(9, 12, map, new Random());
+		for (int n = 0; n < 20000; n++) {
+			double radius = random.nextDouble() * 2;
+			Position pos = new Position(random.nextDouble() * 11 - 1, random.nextDouble() * (12 - radius));
+			assertEquals(!overlapsImpassableCell(world, map, pos, radius), world.isPassablePosition(pos, radius));
+		}
+	}
+	
+	@Test
+	public void testGetBoundaryClearance(){
+		assertFuzzyEquals(5, world.getBoundaryClearance(new Position(15,15), 0));
+		assertFuzzyEquals(2, world.getBoundaryClearance(new Position(15,15), 3));
+		assertTrue(world.getBoundaryClearance(new Position(15,15), 10) < 0);
+		assertFuzzyEquals(0, world.getBoundaryClearance(null, 1));
+	}
+	
+	@Test
+	public void testGetPassableClearance_RandomCase(){
+		Random random = new Random(13);
+		boolean[][] map = new boolean[30][45];
+		for (int i = 0; i < map.length; i++) {
+			for (int j = 0; j < map[i].length; j++) {
+				map[i][j] = random.nextInt(25) != 0;
+			}
+		}
+		World world = new World(9, 12, map, new Random());
+		for (int n = 0; n < 2000; n++) {
+			double radius = random.nextDouble();
+			Position pos = new Position(random.nextDouble() * 9, random.nextDouble() * 12);
+			double clearance = world.getPassableClearance(pos, radius);
+			if(clearance <= 0)
+				continue;
+			double angle = random.nextDouble() * 2 * Math.PI;
+			double distance = random.nextDouble() * clearance;
+			Position other = pos.offset(distance*Math.cos(angle), distance*Math.sin(angle));
+			assertFalse(overlapsImpassableCell(world, map, other, radius));
+		}
+	}
+	
+	private static boolean overlapsImpassableCell(World world, boolean[][] map, Position pos, double radius){
+		for (int i = 0; i < map.length; i++) {
+			for (int j = 0; j < map[i].length; j++) {
+				if(map[i][j])
+					continue;
+				double dx = Math.max(0, Math.max(world.getXCoordinate(j) - pos.getX(), pos.getX() - world.getXCoordinate(j+1)));
+				double dy = Math.max(0, Math.max(world.getYCoordinate(i+1) - pos.getY(), pos.getY() - world.getYCoordinate(i)));
+				if(dx*dx + dy*dy < radius*radius)
+					return true;
+			}
+		}
+		return false;
+	}
 }
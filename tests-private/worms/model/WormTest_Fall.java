@@ -8,6 +8,8 @@ import java.util.Random;
 import org.junit.Before;
 import org.junit.Test;
 
+import worms.util.Util;
+
 public class WormTest_Fall {
 	
 	World world;
@@ -123,4 +125,31 @@ public class WormTest_Fall {
 		assertFalse(wormContactEnd.blocksFall(new Position(15.35, 24.39)));
 	}
 
+	@Test
+	public void testFindFallPosition_RandomCase() {
+		Random random = new Random(17);
+		boolean[][] map = new boolean[60][40];
+		for (int i = 0; i < map.length; i++) {
+			for (int j = 0; j < map[i].length; j++) {
+				map[i][j] = random.nextInt(60) != 0;
+			}
+		}
+		World world = new World(20, 30, map, new Random());
+		for (int n = 0; n < 40; n++) {
+			Worm worm = new Worm(world, 1 + random.nextDouble() * 18, 1 + random.nextDouble() * 28, 0, 0.5, "Faller");
+			Position expected = worm.getPosition();
+			if(!worm.blocksFall(expected)){
+				while(!worm.blocksFall(expected))
+					expected = expected.offset(0, -world.cellHeight());
+				expected = expected.offset(0, world.cellHeight());
+				while(!worm.blocksFall(expected))
+					expected = expected.offset(0, -Util.DEFAULT_EPSILON);
+				if(!world.isPassablePosition(expected, worm.getRadius()))
+					expected = expected.offset(0, Util.DEFAULT_EPSILON);
+			}
+			Position actual = worm.findFallPosition();
+			assertFuzzyEquals(expected.getX(), actual.getX());
+			assertFuzzyEquals(expected.getY(), actual.getY());
+		}
+	}
 }
@@ -73,6 +73,22 @@ public class WormTest_Food {
 		assertTrue(world.hasAsFood(bicky));
 	}
 	
+	@Test
+	public void testCheckForFood_ReachableAfterGrowingCase() {
+		pizzaCalzone.setPosition(new Position(18,20));
+		zacherTorte.setPosition(new Position(29,20));
+		bicky.setPosition(new Position(0, 0));
+
+		willy.checkForFood();
+
+		assertFuzzyEquals(11, willy.getRadius());
+
+		assertTrue(pizzaCalzone.isTerminated());
+
+		assertFalse(zacherTorte.isTerminated());
+		assertTrue(world.hasAsFood(zacherTorte));
+	}
+	
 	@Test
 	public void testCheckForFood_TooFat() {
 		world = new World(20,40,new boolean[][]{{}},new Random());
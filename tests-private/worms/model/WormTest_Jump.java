@@ -83,6 +83,75 @@ public class WormTest_Jump {
 		assertFuzzyEquals(1.0366, jumperContactStart.getJumpTime(TIMESTEP));
 	}
 	
+	@Test
+	public void testGetJumpTime_RandomCase() {
+		Random random = new Random(5);
+		boolean[][] map = new boolean[40][60];
+		for (int i = 0; i < map.length; i++) {
+			for (int j = 0; j < map[i].length; j++) {
+				map[i][j] = i < 30 && random.nextInt(50) != 0;
+			}
+		}
+		World world = new World(30, 20, map, new Random(5));
+		for (int n = 0; n < 25; n++) {
+			Position pos = world.findContactLocation(0.5);
+			Worm jumper = new Worm(world, pos.getX(), pos.getY(), random.nextDouble() * Math.PI, 0.5, "Jumper");
+			double t = 0;
+			while(!jumper.blocksJump(jumper.getJumpStep(t)))
+				t += TIMESTEP;
+			assertEquals(t, jumper.getJumpTime(TIMESTEP), TIMESTEP);
+		}
+	}
+	
+	@Test
+	public void testGetJumpTime_GrazesThinSpikes() {
+		//Single impassable pixels of 5 cm, which a jump can pass within a tenth of the radius of the jumper.
+		for (int seed = 0; seed < 4; seed++) {
+			Random random = new Random(seed);
+			boolean[][] map = new boolean[200][400];
+			for (int i = 0; i < map.length; i++)
+				for (int j = 0; j < map[i].length; j++)
+					map[i][j] = i < 180 && random.nextInt(300) != 0;
+			World world = new World(20, 10, map, new Random(7));
+			for (int n = 0; n < 60; n++) {
+				Position pos = world.findContactLocation(0.25);
+				Worm jumper = new Worm(world, pos.getX(), pos.getY(), random.nextDouble() * Math.PI, 0.25, "Jumper");
+				assertEquals(getLinearJumpTime(jumper), jumper.getJumpTime(TIMESTEP), 1e-9);
+			}
+		}
+	}
+	
+	@Test
+	public void testGetJumpTime_GrazesContactBand() {
+		//The top of each jump passes a flat ceiling at 1.0999 times the radius of the jumper,
+		//just inside the band of 1.1 times its radius that ends a jump.
+		boolean[][] map = new boolean[100][200];
+		for (int i = 0; i < map.length; i++)
+			for (int j = 0; j < map[i].length; j++)
+				map[i][j] = i >= 10;
+		World open = new World(20, 10, new boolean[][]{{true}}, new Random(7));
+		World world = new World(20, 10, map, new Random(7));
+		for (int n = 0; n < 20; n++) {
+			double direction = Math.PI/4 + n * 0.05;
+			Worm probe = new Worm(open, 5, 5, direction, 0.25, "Probe");
+			double height = 0;
+			for (double t = 0; probe.getJumpStep(t).getY() - 5 >= height; t += TIMESTEP)
+				height = probe.getJumpStep(t).getY() - 5;
+			Worm jumper = new Worm(world, 5, 9 - 1.0999 * 0.25 - height, direction, 0.25, "Jumper");
+			assertEquals(getLinearJumpTime(jumper), jumper.getJumpTime(TIMESTEP), 1e-9);
+		}
+	}
+	
+	/**
+	 * Returns the jump time of the given worm, found by checking every multiple of the time step.
+	 */
+	static double getLinearJumpTime(MassiveEntity entity) {
+		long step = 0;
+		while(!entity.blocksJump(entity.getJumpStep(step * TIMESTEP)))
+			step++;
+		return step * TIMESTEP;
+	}
+	
 	@Test
 	public void testCanJump_ContactStartCase() {
 		assertTrue(jumperContactStart.canJump());
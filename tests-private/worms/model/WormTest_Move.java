@@ -62,6 +62,29 @@ public class WormTest_Move {
 		assertTrue(Math.abs(theta-s) <= 0.7875 || Math.abs(2*PI-theta) + Math.abs(s) <= 0.7875 || Math.abs(2*PI-s) + Math.abs(theta) <= 0.7875);
 	}
 	
+	@Test
+	public void testGetPositionAfterMove_CachedCase() {
+		willy = new Worm(world, 18, 20, PI/4, 10, "Willy Wonka");
+		Position result = willy.getPositionAfterMove();
+		assertSame(result, willy.getPositionAfterMove());
+		assertEquals(willy.getCostForMove(result), willy.getCostForMove());
+		willy.turn(-PI/4);
+		assertNotSame(result, willy.getPositionAfterMove());
+		assertEquals(willy.getCostForMove(willy.getPositionAfterMove()), willy.getCostForMove());
+	}
+	
+	@Test
+	public void testGetPositionAfterMove_WorldChangedCase() {
+		willy = new Worm(world, 18, 20, PI/4, 10, "Willy Wonka");
+		Position result = willy.getPositionAfterMove();
+		long version = world.getVersion();
+		new Worm(world, 80, 20, 0, 10, "Other");
+		assertTrue(world.getVersion() > version);
+		Position recomputed = willy.getPositionAfterMove();
+		assertNotSame(result, recomputed);
+		assertEquals(result, recomputed);
+	}
+	
 	@Test
 	public void testMove_Normal(){
 		willy = new Worm(world, 18, 20, PI/4, 10, "Willy Wonka");
@@ -127,6 +150,26 @@ public class WormTest_Move {
 		assertFalse(world.hasAsWorm(willy));
 	}
 	
+	@Test
+	public void testGetPositionAfterMove_GrazedObstacle(){
+		//A single impassable cell that the worm grazes between two probes a tenth of its radius apart,
+		//and a wall behind it that blocks the worm before the next probe.
+		boolean[][] passableMap = new boolean[400][400];
+		for (int row = 0; row < passableMap.length; row++)
+			for (int column = 0; column < passableMap[row].length; column++)
+				passableMap[row][column] = column < 358;
+		passableMap[100][252] = false;
+		world = new World(4, 4, passableMap, new Random());
+		willy = new Worm(world, 2, 1.99005, 0, 1, "Grazer");
+		Position afterMove = willy.getPositionAfterMove();
+		double distance = Math.sqrt(afterMove.squaredDistance(willy.getPosition()));
+		double cosine = (afterMove.getX() - willy.getXCoordinate())/distance;
+		double sine = (afterMove.getY() - willy.getYCoordinate())/distance;
+		assertTrue(distance >= 0.1);
+		for (double d = 0; d <= distance; d += 1e-4)
+			assertTrue(world.isPassablePosition(willy.getPosition().offset(d*cosine, d*sine), willy.getRadius()));
+	}
+
 	@Test
 	public void testGetUnitStepCost_RightDirection(){
 		assertFuzzyEquals(Worm.getUnitStepCost(0),1);
@@ -0,0 +1,91 @@
+package worms.model.programs;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import worms.model.Program;
+import worms.model.programs.ProgramFactory.ForeachType;
+import worms.model.programs.expressions.Addition;
+import worms.model.programs.expressions.DoubleLiteral;
+import worms.model.programs.expressions.Expression;
+import worms.model.programs.statements.*;
+import worms.model.programs.types.DoubleType;
+import worms.model.programs.types.Type;
+
+public class ArgumentExecutableTest_LargePrograms {
+
+	private static final int NB_NODES = 100000;
+
+	/**
+	 * Returns a sequence of the given statements, nested like the parser nests them:
+	 * every sequence has a statement and the sequence of the remaining statements.
+	 */
+	private static Statement nest(List<Statement> statements) {
+		Statement result = statements.get(statements.size() - 1);
+		for(int i = statements.size() - 2; i >= 0; i--)
+			result = new Sequence(Arrays.asList(statements.get(i), result));
+		return result;
+	}
+
+	private static List<Statement> createAssignments(int nbStatements) {
+		List<Statement> result = new ArrayList<Statement>();
+		for(int i = 0; i < nbStatements; i++)
+			result.add(new Assignment("x", new DoubleLiteral(i)));
+		return result;
+	}
+
+	@Test(timeout = 10000)
+	public void testConstructor_DeepSequence() {
+		Statement main = nest(createAssignments(NB_NODES / 3));
+		assertEquals(NB_NODES / 3, ((ArgumentExecutable) main).getDepth());
+		assertFalse(((ArgumentExecutable) main).hasActionStatementInsideForEach());
+
+		Map<String, Type<?>> globals = new HashMap<String, Type<?>>();
+		globals.put("x", new DoubleType(0));
+		Program program = new Program(main, globals, null);
+		assertTrue(program.isWellFormed());
+	}
+
+	@Test(timeout = 10000)
+	public void testConstructor_DeepExpression() {
+		Expression<DoubleType> expression = new DoubleLiteral(0);
+		for(int i = 0; i < NB_NODES / 2; i++)
+			expression = new Addition(expression, new DoubleLiteral(1));
+		assertEquals(NB_NODES / 2, ((ArgumentExecutable) expression).getDepth());
+		Statement statement = new Assignment("x", expression);
+		assertFalse(((ArgumentExecutable) statement).hasActionStatementAsSubExecutable());
+	}
+
+	@Test(timeout = 10000)
+	public void testConstructor_WideSequence() {
+		Sequence sequence = new Sequence(createAssignments(NB_NODES / 2));
+		assertEquals(2, sequence.getDepth());
+		assertFalse(sequence.hasActionStatementAsSubExecutable());
+	}
+
+	@Test(timeout = 10000)
+	public void testIsWellFormed_ActionDeepInsideForeach() {
+		List<Statement> statements = createAssignments(NB_NODES / 3);
+		statements.add(new Move());
+		Statement body = nest(statements);
+		Statement main = new Sequence(Arrays.asList(new Skip(), new Foreach(ForeachType.ANY, "e", body)));
+		assertTrue(((ArgumentExecutable) main).hasActionStatementInsideForEach());
+		assertFalse(new Program(main, new HashMap<String, Type<?>>(), null).isWellFormed());
+	}
+
+	@Test(timeout = 10000)
+	public void testHasAsSubExecutable_DeepSequence() {
+		List<Statement> statements = createAssignments(NB_NODES / 3);
+		ArgumentExecutable main = (ArgumentExecutable) nest(statements);
+		assertTrue(main.hasAsSubExecutable(statements.get(statements.size() - 1)));
+		assertFalse(main.hasAsSubExecutable(new Skip()));
+		assertFalse(((ArgumentExecutable) statements.get(0)).canHaveAsSubExecutable(main));
+	}
+}
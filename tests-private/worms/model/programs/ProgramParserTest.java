@@ -0,0 +1,81 @@
+package worms.model.programs;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import worms.model.programs.expressions.Expression;
+import worms.model.programs.statements.Statement;
+import worms.model.programs.types.Type;
+
+public class ProgramParserTest {
+
+	ProgramParser<Expression<?>, Statement, Type<?>> twoStageParser, llParser;
+
+	@Before
+	public void setUp() {
+		twoStageParser = new ProgramParser<Expression<?>, Statement, Type<?>>(new ProgramFactoryImpl());
+		llParser = new ProgramParser<Expression<?>, Statement, Type<?>>(new ProgramFactoryImpl());
+		llParser.setTwoStageParsing(false);
+	}
+
+	private void parse(String source) {
+		twoStageParser.setFactory(new ProgramFactoryImpl());
+		llParser.setFactory(new ProgramFactoryImpl());
+		twoStageParser.parse(source);
+		llParser.parse(source);
+	}
+
+	@Test
+	public void testParse_TwoStageByDefault() {
+		assertTrue(twoStageParser.isTwoStageParsing());
+		assertFalse(llParser.isTwoStageParsing());
+	}
+
+	@Test
+	public void testParse_ShippedProgramsParseInBothModes() throws IOException {
+		File[] files = new File("programs").listFiles();
+		assertNotNull(files);
+		for (File file : files) {
+			if(!file.getName().endsWith(".txt"))
+				continue;
+			parse(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+			assertEquals(file.getName(), llParser.getErrors(), twoStageParser.getErrors());
+			assertEquals(file.getName(), llParser.getGlobals().keySet(), twoStageParser.getGlobals().keySet());
+			assertEquals(file.getName(), llParser.getStatement() == null, twoStageParser.getStatement() == null);
+		}
+	}
+
+	@Test
+	public void testParse_SyntaxErrorsAreReportedAsInLLMode() {
+		parse("double x; x := (3 + ; while { move; }");
+		assertFalse(twoStageParser.getErrors().isEmpty());
+		assertEquals(llParser.getErrors(), twoStageParser.getErrors());
+		assertNull(twoStageParser.getStatement());
+	}
+
+	@Test
+	public void testParse_ReusedParserForgetsPreviousErrors() {
+		parse("double x; x := ;");
+		assertFalse(twoStageParser.getErrors().isEmpty());
+		parse("double x; x := 1;");
+		assertTrue(twoStageParser.getErrors().isEmpty());
+		assertTrue(twoStageParser.getGlobals().containsKey("x"));
+		assertNotNull(twoStageParser.getStatement());
+	}
+
+	@Test
+	public void testParse_ReusedParserParsesNewText() {
+		parse("double x; x := 1;");
+		parse("bool b; double y; y := 2; b := true;");
+		assertEquals(2, twoStageParser.getGlobals().size());
+		assertTrue(twoStageParser.getGlobals().containsKey("y"));
+		assertFalse(twoStageParser.getGlobals().containsKey("x"));
+	}
+}
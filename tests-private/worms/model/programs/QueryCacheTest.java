@@ -0,0 +1,137 @@
+package worms.model.programs;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import worms.model.Facade;
+import worms.model.Food;
+import worms.model.Program;
+import worms.model.World;
+import worms.model.Worm;
+import worms.model.programs.ProgramFactory.ForeachType;
+import worms.model.programs.expressions.NearestEntity;
+import worms.model.programs.types.Type;
+
+public class QueryCacheTest {
+
+	Facade facade;
+	World world;
+	Worm willy, friend;
+	QueryCache cache;
+
+	@Before
+	public void setUp() {
+		facade = new Facade();
+		world = new World(40, 40, new boolean[][] { { true, true }, { true, true } }, new Random(7));
+		willy = new Worm(world, 10, 10, 0, 1, "Willy", null, new Program(null, new HashMap<String, Type<?>>(), null));
+		friend = new Worm(world, 13, 10, 0, 1, "Friend");
+		cache = new QueryCache();
+	}
+
+	@Test
+	public void testSearchEntity_RepeatedQueryHits() {
+		assertSame(friend, cache.searchEntity(willy, 0));
+		assertSame(friend, cache.searchEntity(willy, 0));
+		assertEquals(1, cache.getNbHits());
+		assertEquals(1, cache.getNbMisses());
+	}
+
+	@Test
+	public void testSearchEntity_NoResultIsCached() {
+		assertNull(cache.searchEntity(willy, Math.PI));
+		assertNull(cache.searchEntity(willy, Math.PI));
+		assertEquals(1, cache.getNbHits());
+	}
+
+	@Test
+	public void testSearchEntity_DifferentArgumentsMiss() {
+		cache.searchEntity(willy, 0);
+		cache.searchEntity(willy, 0.5);
+		assertEquals(0, cache.getNbHits());
+		assertEquals(2, cache.getNbResults());
+	}
+
+	@Test
+	public void testSearchEntity_TurnInvalidates() {
+		assertSame(friend, cache.searchEntity(willy, 0));
+		willy.turn(Math.PI);
+		assertNull(cache.searchEntity(willy, 0));
+		assertEquals(0, cache.getNbHits());
+	}
+
+	@Test
+	public void testSearchEntity_ChangeOfOtherEntityInvalidates() {
+		Worm far = new Worm(world, 30, 10, 0, 1, "Far");
+		assertSame(friend, cache.searchEntity(willy, 0));
+		friend.setRadius(0.5);
+		far.setRadius(0.5);
+		assertSame(friend, cache.searchEntity(willy, 0));
+		assertEquals(0, cache.getNbHits());
+	}
+
+	@Test
+	public void testSelectNextWeapon_Invalidates() {
+		cache.nearestEntity(willy, NearestEntity.Target.WORM);
+		willy.selectNextWeapon();
+		cache.nearestEntity(willy, NearestEntity.Target.WORM);
+		assertEquals(0, cache.getNbHits());
+	}
+
+	@Test
+	public void testNearestEntity_NewFoodInvalidates() {
+		assertNull(cache.nearestEntity(willy, NearestEntity.Target.FOOD));
+		Food food = facade.createFood(world, 10, 13);
+		assertSame(food, cache.nearestEntity(willy, NearestEntity.Target.FOOD));
+		assertSame(food, cache.nearestEntity(willy, NearestEntity.Target.FOOD));
+		assertEquals(1, cache.getNbHits());
+	}
+
+	@Test
+	public void testNearestEntity_TargetsAreCachedSeparately() {
+		assertSame(friend, cache.nearestEntity(willy, NearestEntity.Target.WORM));
+		assertNull(cache.nearestEntity(willy, NearestEntity.Target.FOOD));
+		assertEquals(0, cache.getNbHits());
+	}
+
+	@Test
+	public void testCountWithin_RepeatedQueryHits() {
+		assertEquals(1, cache.countWithin(willy, ForeachType.WORM, 5), 0);
+		assertEquals(0, cache.countWithin(willy, ForeachType.FOOD, 5), 0);
+		assertEquals(1, cache.countWithin(willy, ForeachType.WORM, 5), 0);
+		assertEquals(1, cache.getNbHits());
+	}
+
+	@Test
+	public void testOtherWormMisses() {
+		cache.nearestEntity(willy, NearestEntity.Target.WORM);
+		assertSame(willy, cache.nearestEntity(friend, NearestEntity.Target.WORM));
+		assertEquals(0, cache.getNbHits());
+		assertEquals(1, cache.getNbResults());
+	}
+
+	@Test
+	public void testNbResults_Bounded() {
+		for (int i = 0; i <= QueryCache.MAX_NB_RESULTS; i++)
+			cache.searchEntity(willy, i / 1000.0);
+		assertTrue(cache.getNbResults() <= QueryCache.MAX_NB_RESULTS);
+	}
+
+	@Test
+	public void testProgram_RepeatedSearchesHit() {
+		for (boolean compiled : new boolean[] { false, true }) {
+			Program program = (Program) new Facade(compiled).parseProgram(
+					"double n; entity e; while (n < 10) { e := searchobj(0); n := (n + 1); }", null).getResult();
+			Worm worm = new Worm(world, 10, 20, 0, 1, "Searcher", null, program);
+			program = worm.getProgram();
+			program.run();
+			assertEquals(10.0, program.getVariableValue("n").getValue());
+			assertEquals(9, program.getQueryCache().getNbHits());
+			assertEquals(1, program.getQueryCache().getNbMisses());
+		}
+	}
+}
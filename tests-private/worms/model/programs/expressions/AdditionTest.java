@@ -34,4 +34,10 @@ public class AdditionTest {
 		assertFuzzyEquals(-40, addExpr.calculate(null).getValue());
 	}
 
+	@Test
+	public void testEvalDouble() {
+		Addition addExpr = new Addition(new Addition(literal3, literal5), literal17);
+		assertFuzzyEquals(25, addExpr.evalDouble(null));
+	}
+
 }
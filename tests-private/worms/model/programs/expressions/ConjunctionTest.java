@@ -36,6 +36,13 @@ public class ConjunctionTest {
 				};
 		Conjunction conj = new Conjunction(FALSE_LITERAL, nullExpression);
 		assertFalse(conj.calculate(null).getValue());
+		assertFalse(conj.evalBoolean(null));
+	}
+	
+	@Test
+	public void testEvalBoolean() {
+		assertTrue(new Conjunction(TRUE_LITERAL, TRUE_LITERAL).evalBoolean(null));
+		assertFalse(new Conjunction(TRUE_LITERAL, FALSE_LITERAL).evalBoolean(null));
 	}
 
 }
@@ -0,0 +1,74 @@
+package worms.model.programs.expressions;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import worms.model.Facade;
+import worms.model.Program;
+import worms.model.World;
+import worms.model.Worm;
+import worms.model.programs.ProgramFactory.ForeachType;
+import worms.model.programs.WormsRuntimeException;
+import worms.model.programs.types.Type;
+
+public class CountWithinTest {
+
+	World world;
+	Worm willy;
+	Program program;
+
+	@Before
+	public void setUp() {
+		Facade facade = new Facade();
+		world = new World(40, 40, new boolean[][] { { true, true }, { true, true } }, new Random(7));
+		willy = new Worm(world, 10, 10, 0, 1, "Willy", null, new Program(null, new HashMap<String, Type<?>>(), null));
+		program = willy.getProgram();
+		new Worm(world, 13, 10, 0, 1, "Near");
+		new Worm(world, 30, 10, 0, 1, "Far");
+		facade.createFood(world, 10, 12);
+		facade.createFood(world, 10, 25);
+	}
+
+	@Test
+	public void testEvalDouble_Worms() {
+		assertEquals(1, new CountWithin(ForeachType.WORM, new DoubleLiteral(5)).evalDouble(program), 0);
+		assertEquals(2, new CountWithin(ForeachType.WORM, new DoubleLiteral(20)).evalDouble(program), 0);
+	}
+
+	@Test
+	public void testEvalDouble_Food() {
+		assertEquals(1, new CountWithin(ForeachType.FOOD, new DoubleLiteral(5)).evalDouble(program), 0);
+		assertEquals(2, new CountWithin(ForeachType.FOOD, new DoubleLiteral(15)).evalDouble(program), 0);
+	}
+
+	@Test
+	public void testEvalDouble_Any() {
+		assertEquals(2, new CountWithin(ForeachType.ANY, new DoubleLiteral(5)).evalDouble(program), 0);
+		assertEquals(4, new CountWithin(ForeachType.ANY, new DoubleLiteral(100)).calculate(program).getValue(), 0);
+	}
+
+	@Test
+	public void testEvalDouble_BoundaryIsIncluded() {
+		assertEquals(1, new CountWithin(ForeachType.WORM, new DoubleLiteral(3)).evalDouble(program), 0);
+	}
+
+	@Test
+	public void testEvalDouble_NegativeRadius() {
+		assertEquals(0, new CountWithin(ForeachType.ANY, new DoubleLiteral(-1)).evalDouble(program), 0);
+	}
+
+	@Test(expected = WormsRuntimeException.class)
+	public void testEvalDouble_NoWorm() {
+		new CountWithin(ForeachType.ANY, new DoubleLiteral(5)).evalDouble(new Program(null, new HashMap<String, Type<?>>(), null));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructor_NullType() {
+		new CountWithin(null, new DoubleLiteral(5));
+	}
+}
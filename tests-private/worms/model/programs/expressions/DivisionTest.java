@@ -39,6 +39,17 @@ public class DivisionTest {
 		assertFuzzyEquals(0, division.calculate(null).getValue());
 	}
 	
+	@Test
+	public void testEvalDouble() {
+		Division division = new Division(literal17, new Division(literalNegative20, literal5));
+		assertFuzzyEquals(-4.25, division.evalDouble(null));
+	}
+	
+	@Test(expected = WormsRuntimeException.class)
+	public void testEvalDouble_DivisionByZeroCase() throws Exception {
+		new Division(literal3, literal0).evalDouble(null);
+	}
+	
 	@Test(expected = WormsRuntimeException.class)
 	public void testCalculate_DivisionByZeroCase() throws Exception {
 		Division division = new Division(literal3, literal0);
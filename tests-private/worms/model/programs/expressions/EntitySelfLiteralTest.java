@@ -41,6 +41,11 @@ public class EntitySelfLiteralTest {
 		assertEquals(willy, e.calculate(programWithWorm).getValue());
 	}
 	
+	@Test
+	public void testEvalEntity_ValidProgram() {
+		assertEquals(willy, e.evalEntity(programWithWorm));
+	}
+	
 	@Test(expected = WormsRuntimeException.class)
 	public void testCalculate_NullProgram() {
 		e.calculate(null);
@@ -92,4 +92,21 @@ public class EqualityTest {
 		equality = new Equality(literalSelf, literalNegative20);
 		assertFalse(equality.calculate(program).getValue());
 	}
+
+	@Test
+	public void testEvalBoolean_TypedOperands() {
+		// The typed comparisons agree with the boxed ones, also for -0.0.
+		Expression<DoubleType> zero = new DoubleLiteral(0.0), negativeZero = new DoubleLiteral(-0.0);
+		assertFalse(new Equality(zero, negativeZero, DoubleType.class).evalBoolean(null));
+		assertFalse(new Equality(zero, negativeZero).evalBoolean(null));
+		assertTrue(new Equality(literal5, literal5, DoubleType.class).evalBoolean(null));
+		assertFalse(new Equality(literal3, literal5, DoubleType.class).evalBoolean(null));
+		
+		assertTrue(new Equality(literalFalse, literalFalse, BooleanType.class).evalBoolean(null));
+		assertFalse(new Equality(literalTrue, literalFalse, BooleanType.class).evalBoolean(null));
+		
+		assertTrue(new Equality(literalSelf, literalSelf, EntityType.class).evalBoolean(program));
+		assertTrue(new Equality(literalNull, literalNull, EntityType.class).evalBoolean(program));
+		assertFalse(new Equality(literalSelf, literalNull, EntityType.class).evalBoolean(program));
+	}
 }
@@ -92,4 +92,21 @@ public class InequalityTest {
 		inequality = new Inequality(literalSelf, literalNegative20);
 		assertTrue(inequality.calculate(program).getValue());
 	}
+
+	@Test
+	public void testEvalBoolean_TypedOperands() {
+		// The typed comparisons agree with the boxed ones, also for -0.0.
+		Expression<DoubleType> zero = new DoubleLiteral(0.0), negativeZero = new DoubleLiteral(-0.0);
+		assertTrue(new Inequality(zero, negativeZero, DoubleType.class).evalBoolean(null));
+		assertTrue(new Inequality(zero, negativeZero).evalBoolean(null));
+		assertFalse(new Inequality(literal5, literal5, DoubleType.class).evalBoolean(null));
+		assertTrue(new Inequality(literal3, literal5, DoubleType.class).evalBoolean(null));
+		
+		assertFalse(new Inequality(literalFalse, literalFalse, BooleanType.class).evalBoolean(null));
+		assertTrue(new Inequality(literalTrue, literalFalse, BooleanType.class).evalBoolean(null));
+		
+		assertFalse(new Inequality(literalSelf, literalSelf, EntityType.class).evalBoolean(program));
+		assertFalse(new Inequality(literalNull, literalNull, EntityType.class).evalBoolean(program));
+		assertTrue(new Inequality(literalSelf, literalNull, EntityType.class).evalBoolean(program));
+	}
 }
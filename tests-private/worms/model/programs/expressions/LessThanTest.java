@@ -34,4 +34,10 @@ public class LessThanTest {
 		assertFalse(expr.calculate(null).getValue());
 	}
 
+	@Test
+	public void testEvalBoolean() {
+		assertTrue(new LessThan(literalNegative20, new Addition(literal3, literal5)).evalBoolean(null));
+		assertFalse(new LessThan(literal17, literal5).evalBoolean(null));
+	}
+
 }
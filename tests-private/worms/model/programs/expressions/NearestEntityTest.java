@@ -0,0 +1,85 @@
+package worms.model.programs.expressions;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import worms.model.Facade;
+import worms.model.Food;
+import worms.model.Program;
+import worms.model.Team;
+import worms.model.World;
+import worms.model.Worm;
+import worms.model.programs.WormsRuntimeException;
+import worms.model.programs.types.Type;
+
+public class NearestEntityTest {
+
+	Facade facade;
+	World world;
+	Team teamA, teamB;
+	Worm willy, friend, enemy;
+	Program program;
+
+	@Before
+	public void setUp() {
+		facade = new Facade();
+		world = new World(40, 40, new boolean[][] { { true, true }, { true, true } }, new Random(7));
+		teamA = new Team(world, "TeamA");
+		teamB = new Team(world, "TeamB");
+		willy = new Worm(world, 10, 10, 0, 1, "Willy", teamA, new Program(null, new HashMap<String, Type<?>>(), null));
+		program = willy.getProgram();
+		friend = new Worm(world, 13, 10, 0, 1, "Friend", teamA);
+		enemy = new Worm(world, 20, 10, 0, 1, "Enemy", teamB);
+	}
+
+	@Test
+	public void testEvalEntity_NearestWorm() {
+		assertSame(friend, new NearestEntity(NearestEntity.Target.WORM).evalEntity(program));
+	}
+
+	@Test
+	public void testEvalEntity_NearestEnemy() {
+		assertSame(enemy, new NearestEntity(NearestEntity.Target.ENEMY).evalEntity(program));
+		Worm closerEnemy = new Worm(world, 10, 15, 0, 1, "Closer", teamB);
+		assertSame(closerEnemy, new NearestEntity(NearestEntity.Target.ENEMY).evalEntity(program));
+	}
+
+	@Test
+	public void testEvalEntity_NearestEnemyWithoutTeam() {
+		Worm loner = new Worm(world, 30, 30, 0, 1, "Loner", null, new Program(null, new HashMap<String, Type<?>>(), null));
+		assertSame(enemy, new NearestEntity(NearestEntity.Target.ENEMY).evalEntity(loner.getProgram()));
+	}
+
+	@Test
+	public void testEvalEntity_NearestFood() {
+		assertNull(new NearestEntity(NearestEntity.Target.FOOD).evalEntity(program));
+		Food far = facade.createFood(world, 30, 30);
+		Food near = facade.createFood(world, 8, 12);
+		assertSame(near, new NearestEntity(NearestEntity.Target.FOOD).evalEntity(program));
+		assertSame(near, new NearestEntity(NearestEntity.Target.FOOD).calculate(program).getValue());
+		assertNotSame(far, near);
+	}
+
+	@Test
+	public void testEvalEntity_NoOtherWorms() {
+		World emptyWorld = new World(40, 40, new boolean[][] { { true, true }, { true, true } }, new Random(7));
+		Worm loner = new Worm(emptyWorld, 10, 10, 0, 1, "Loner", null, new Program(null, new HashMap<String, Type<?>>(), null));
+		assertNull(new NearestEntity(NearestEntity.Target.WORM).evalEntity(loner.getProgram()));
+		assertNull(new NearestEntity(NearestEntity.Target.ENEMY).evalEntity(loner.getProgram()));
+	}
+
+	@Test(expected = WormsRuntimeException.class)
+	public void testEvalEntity_NoWorm() {
+		new NearestEntity(NearestEntity.Target.WORM).evalEntity(new Program(null, new HashMap<String, Type<?>>(), null));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructor_NullTarget() {
+		new NearestEntity(null);
+	}
+}
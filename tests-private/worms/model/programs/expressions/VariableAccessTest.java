@@ -58,6 +58,20 @@ public class VariableAccessTest {
 		assertTrue(expressionBoolean.calculate(program).getValue());
 	}
 	
+	@Test
+	public void testCalculate_SlotCase() {
+		VariableAccess<DoubleType> access = new VariableAccess<>("a", program.getVariableSlot("a"));
+		assertEquals(program.getVariableSlot("a"), access.getSlot());
+		assertFuzzyEquals(3.14, access.calculate(program).getValue());
+	}
+	
+	@Test
+	public void testEvalDouble_testEvalBoolean_testEvalEntity() {
+		assertFuzzyEquals(3.14, expressionDoubleA.evalDouble(program));
+		assertEquals(pizza, expressionEntity.evalEntity(program));
+		assertTrue(expressionBoolean.evalBoolean(program));
+	}
+	
 	@Test(expected=WormsRuntimeException.class)
 	public void testCalculate_DoesntHaveVariableCase() {
 		expressionDoubleB.calculate(program);
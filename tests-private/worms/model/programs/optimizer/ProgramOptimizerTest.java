@@ -0,0 +1,118 @@
+package worms.model.programs.optimizer;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import worms.model.Facade;
+import worms.model.Program;
+import worms.model.programs.ParseOutcome;
+import worms.model.programs.expressions.*;
+import worms.model.programs.statements.*;
+
+public class ProgramOptimizerTest {
+
+	private static Program parse(String source, boolean optimizing) {
+		ParseOutcome<?> outcome = new Facade(false, optimizing).parseProgram(source, null);
+		assertTrue(outcome.isSuccess());
+		return (Program) outcome.getResult();
+	}
+
+	/**
+	 * Returns the main statement of the optimized version of the given program.
+	 */
+	private static Statement optimize(String source) {
+		return parse(source, true).getMainStatement();
+	}
+
+	@Test
+	public void testOptimize_FoldConstants() {
+		Print print = (Print) optimize("print ((1 + 2) * 4) - (sqrt(16) / 2);");
+		assertTrue(print.getFirstArgument() instanceof DoubleLiteral);
+		assertEquals(10, ((DoubleLiteral) print.getFirstArgument()).getValue(), 0);
+
+		print = (Print) optimize("print (1 < 2) && !(3 >= 4);");
+		assertSame(BooleanLiteral.TRUE_LITERAL, print.getFirstArgument());
+	}
+
+	@Test
+	public void testOptimize_FailingConstantsAreKept() {
+		Print print = (Print) optimize("print sqrt(0 - 1);");
+		assertTrue(print.getFirstArgument() instanceof Sqrt);
+		print = (Print) optimize("print 1 / 0;");
+		assertTrue(print.getFirstArgument() instanceof Division);
+	}
+
+	@Test
+	public void testOptimize_ShortCircuit() {
+		Print print = (Print) optimize("double x; print false && (x < 1);");
+		assertSame(BooleanLiteral.FALSE_LITERAL, print.getFirstArgument());
+		print = (Print) optimize("double x; print false || (x < 1);");
+		assertTrue(print.getFirstArgument() instanceof LessThan);
+	}
+
+	@Test
+	public void testOptimize_Negations() {
+		Print print = (Print) optimize("bool b; print !!b;");
+		assertTrue(print.getFirstArgument() instanceof VariableAccess);
+		print = (Print) optimize("double x; print !(x == 1);");
+		assertTrue(print.getFirstArgument() instanceof Inequality);
+		print = (Print) optimize("double x; print !(x < 1);");
+		assertTrue(print.getFirstArgument() instanceof BooleanNegation);
+	}
+
+	@Test
+	public void testOptimize_DeadBranches() {
+		If statement = (If) optimize("if (1 > 2) { print 1; move; } else { print 2; }");
+		assertSame(BooleanLiteral.FALSE_LITERAL, statement.getFirstArgument());
+		assertEquals(0, ((Sequence) statement.getSecondArgument()).getNbArguments());
+		assertTrue(statement.getThirdArgument() instanceof Print);
+	}
+
+	@Test
+	public void testOptimize_DeadLoops() {
+		While statement = (While) optimize("while (1 == 2) { print 1; }");
+		assertSame(BooleanLiteral.FALSE_LITERAL, statement.getFirstArgument());
+		assertEquals(0, ((Sequence) statement.getSecondArgument()).getNbArguments());
+	}
+
+	@Test
+	public void testOptimize_HoistInvariants() {
+		Program program = parse("double n; double a; while (n < ((a * a) + 1)) { n := n + (sin(a) * 2); }", true);
+		Statement loop = program.getMainStatement();
+		assertTrue(loop instanceof HoistingWhile);
+		Sequence invariants = ((HoistingWhile) loop).getThirdArgument();
+		assertEquals(2, invariants.getNbArguments());
+		assertTrue(((Assignment) invariants.getArgumentAt(0)).getFirstArgument() instanceof Addition);
+		assertTrue(((Assignment) invariants.getArgumentAt(1)).getFirstArgument() instanceof Multiplication);
+		assertEquals(2, program.getOptimizationReport().getNbHoistedExpressions());
+	}
+
+	@Test
+	public void testOptimize_AssignedVariablesAreNotHoisted() {
+		Statement loop = optimize("double n; while (n < 10) { n := n + 1; }");
+		assertEquals(While.class, loop.getClass());
+		loop = optimize("double n; entity e; while (n < 10) { n := n + (getx self) * 2; }");
+		assertEquals(While.class, loop.getClass());
+	}
+
+	@Test
+	public void testOptimize_IllFormedProgram() {
+		Program program = parse("entity e; foreach(any, e) { print 1 + 1; move; }", true);
+		Statement body = ((Foreach) program.getMainStatement()).getFirstArgument();
+		assertTrue(((Print) ((Sequence) body).getArgumentAt(0)).getFirstArgument() instanceof Addition);
+		assertEquals(0, program.getOptimizationReport().getNbFoldedExpressions());
+	}
+
+	@Test
+	public void testGetOptimizationReport() {
+		OptimizationReport report = parse("print 1 + 2; if (true) { print 3; } else { print 4; } "
+				+ "while false { print 5; } print !!(1 < 2);", true).getOptimizationReport();
+		assertEquals(4, report.getNbFoldedExpressions());
+		assertEquals(1, report.getNbRemovedBranches());
+		assertEquals(1, report.getNbRemovedLoops());
+		assertEquals(0, report.getNbHoistedExpressions());
+		assertTrue(report.getNbRemovedNodes() > 0);
+		assertNull(parse("print 1 + 2;", false).getOptimizationReport());
+	}
+}
@@ -0,0 +1,84 @@
+package worms.model.programs.profiler;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import worms.model.programs.expressions.Addition;
+import worms.model.programs.expressions.DoubleLiteral;
+import worms.model.programs.expressions.Sqrt;
+
+public class ProgramProfilerTest {
+
+	ProgramProfiler profiler;
+	DoubleLiteral child;
+	Addition parent;
+	Sqrt leaf;
+
+	@Before
+	public void setUp() {
+		profiler = new ProgramProfiler(null);
+		child = new DoubleLiteral(1);
+		parent = new Addition(child, child);
+		leaf = new Sqrt(child);
+	}
+
+	private static void spin(long nanos) {
+		long end = System.nanoTime() + nanos;
+		while(System.nanoTime() < end)
+			;
+	}
+
+	@Test
+	public void testExit_ManyCheapChildrenDontOutrankExpensiveLeaf() {
+		HotSpot parentHotSpot = profiler.getHotSpot(parent);
+		HotSpot childHotSpot = profiler.getHotSpot(child);
+		HotSpot leafHotSpot = profiler.getHotSpot(leaf);
+
+		// The parent runs deep inside the program, like an addition in an assignment in nested loops.
+		for(int i = 0; i < 10; i++)
+			profiler.enterExpression(profiler.getHotSpot(new DoubleLiteral(i)));
+		profiler.enterExpression(parentHotSpot);
+		for(int i = 0; i < 20000; i++){
+			profiler.enterExpression(childHotSpot);
+			profiler.exit();
+		}
+		profiler.exit();
+		profiler.enterExpression(leafHotSpot);
+		spin(20000000);
+		profiler.exit();
+		for(int i = 0; i < 10; i++)
+			profiler.exit();
+
+		assertEquals(20000, childHotSpot.getNbExecutions());
+		assertTrue(parentHotSpot.getSelfNanos() < leafHotSpot.getSelfNanos());
+		assertSame(leafHotSpot, profiler.getHotSpots().get(0));
+	}
+
+	@Test
+	public void testWriteFoldedStacks_SelfTimePerPath() throws IOException {
+		HotSpot parentHotSpot = profiler.getHotSpot(parent);
+		HotSpot childHotSpot = profiler.getHotSpot(child);
+		profiler.enterExpression(parentHotSpot);
+		for(int i = 0; i < 3; i++){
+			profiler.enterExpression(childHotSpot);
+			profiler.exit();
+		}
+		profiler.exit();
+		profiler.enterExpression(childHotSpot);
+		profiler.exit();
+
+		StringWriter writer = new StringWriter();
+		profiler.writeFoldedStacks(writer);
+		String[] lines = writer.toString().split("\n");
+		assertEquals(3, lines.length);
+		assertTrue(lines[0], lines[0].matches("Addition@\\? [0-9]+"));
+		assertTrue(lines[1], lines[1].matches("Addition@\\?;DoubleLiteral@\\? [0-9]+"));
+		assertTrue(lines[2], lines[2].matches("DoubleLiteral@\\? [0-9]+"));
+		assertEquals(4, childHotSpot.getNbExecutions());
+	}
+}
@@ -10,6 +10,7 @@ import org.junit.Test;
 
 import worms.model.ProgramMock;
 import worms.model.programs.WormsRuntimeException;
+import worms.model.programs.expressions.BooleanLiteral;
 import worms.model.programs.expressions.DoubleLiteral;
 import worms.model.programs.types.DoubleType;
 import worms.model.programs.types.Type;
@@ -33,6 +34,17 @@ public class AssignmentTest {
 		assertFuzzyEquals(500, (Double) programMock.getVariableValue("a").getValue());
 	}
 	
+	@Test
+	public void testExecute_SlotCase() throws Exception {
+		new Assignment("a", programMock.getVariableSlot("a"), new DoubleLiteral(42)).execute(programMock);
+		assertFuzzyEquals(42, (Double) programMock.getVariableValue("a").getValue());
+	}
+	
+	@Test(expected = WormsRuntimeException.class)
+	public void testExecute_IllegalTypeCase() throws Exception {
+		new Assignment("a", new BooleanLiteral(true)).execute(programMock);
+	}
+	
 	@Test(expected = WormsRuntimeException.class)
 	public void testExecute_NullProgramCase() throws Exception {
 		assignment.execute(null);
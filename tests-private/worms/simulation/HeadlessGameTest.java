@@ -0,0 +1,127 @@
+package worms.simulation;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import worms.gui.Level;
+import worms.model.Facade;
+import worms.model.Worm;
+
+public class HeadlessGameTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	Level level;
+	HeadlessGame game;
+
+	@Before
+	public void setUp() {
+		level = HeadlessGame.findLevel("Simple");
+		game = new HeadlessGame(new Facade(), level, 7);
+	}
+
+	@Test
+	public void testPlay_TurnLimit() {
+		game.addWorm("while true { turn 0.1; }");
+		game.addWorm("while true { turn 0.1; }");
+		GameResult result = game.play(50);
+		assertFalse(result.isFinished());
+		assertNull(result.getWinner());
+		assertEquals(50, result.getNbTurns());
+		assertEquals(50, game.getWorld().getNbTurns());
+		assertTrue(result.getNbActions() > 0);
+		assertEquals(0, result.getNbRuntimeErrors());
+		assertTrue(result.getTurnsPerSecond() > 0);
+	}
+
+	@Test
+	public void testPlay_SingleWormWins() {
+		Worm worm = game.addWorm("skip;");
+		GameResult result = game.play(50);
+		assertTrue(result.isFinished());
+		assertEquals(worm.getName(), result.getWinner());
+	}
+
+	@Test
+	public void testPlay_WormsWithoutProgramSkipTheirTurns() {
+		game.addWorm(null);
+		game.addWorm("turn 0.1;");
+		GameResult result = game.play(10);
+		assertEquals(10, result.getNbTurns());
+		assertEquals(5, result.getNbActions());
+	}
+
+	@Test
+	public void testPlay_WritesProfiles() throws IOException {
+		File directory = folder.newFolder("profiles");
+		Facade facade = new Facade();
+		facade.setProfileDirectory(directory);
+		game = new HeadlessGame(facade, level, 7);
+		game.addWorm("while true { turn 0.1; }");
+		game.addWorm(null);
+		game.play(10);
+		String[] names = directory.list();
+		Arrays.sort(names);
+		assertEquals(2, names.length);
+		assertTrue(names[0].endsWith("-0.folded"));
+		assertTrue(names[1].endsWith("-0.hotspots.txt"));
+	}
+
+	@Test
+	public void testPlay_RuntimeErrorsAreCounted() {
+		game.addWorm("while true { fire 200; }");
+		game.addWorm("while true { turn 0.1; }");
+		assertEquals(1, game.play(10).getNbRuntimeErrors());
+	}
+
+	@Test
+	public void testPlay_SameSeedSameGame() {
+		String source = "while true { if ((getap self) > 10) { move; } else { turn 0.5; } }";
+		game.addWorm(source);
+		game.addWorm(source);
+		game.addFood(3);
+		GameResult result = game.play(40);
+
+		HeadlessGame other = new HeadlessGame(new Facade(), level, 7);
+		other.addWorm(source);
+		other.addWorm(source);
+		other.addFood(3);
+		GameResult otherResult = other.play(40);
+		assertEquals(result.getNbActions(), otherResult.getNbActions());
+		for (int i = 0; i < game.getWorld().getNbWorms(); i++) {
+			assertEquals(game.getWorld().getWorms().get(i).getXCoordinate(), other.getWorld().getWorms().get(i).getXCoordinate(), 0);
+			assertEquals(game.getWorld().getWorms().get(i).getYCoordinate(), other.getWorld().getWorms().get(i).getYCoordinate(), 0);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testAddWorm_ParseError() {
+		game.addWorm("while true {");
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testPlay_NoWorms() {
+		game.play(10);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testPlay_Twice() {
+		game.addWorm("skip;");
+		game.play(10);
+		game.play(10);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFindLevel_Unknown() {
+		HeadlessGame.findLevel("NoSuchLevel");
+	}
+}
@@ -0,0 +1,166 @@
+package worms.simulation;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import worms.model.Facade;
+import worms.model.ModelException;
+import worms.model.World;
+import worms.model.Worm;
+
+public class RecordingFacadeTest {
+
+	private static final String SOURCE = "while true { if ((getap self) > 10) { move; turn 0.3; } else { fire 50; } }";
+
+	LevelMap map;
+	ByteArrayOutputStream out;
+	RecordingFacade facade;
+
+	@Before
+	public void setUp() {
+		map = new LevelMap(HeadlessGame.findLevel("Simple"));
+		out = new ByteArrayOutputStream();
+		facade = new RecordingFacade(new Facade(), out);
+		facade.setLevelName("Simple");
+	}
+
+	private HeadlessGame recordGame(long maxNbTurns) throws IOException {
+		HeadlessGame game = new HeadlessGame(facade, map, 3);
+		game.addTeam("First");
+		game.addTeam("Second");
+		game.addWorm(SOURCE, game.getWorld().getTeams().stream().filter(t -> t.getName().equals("First")).findAny().get());
+		game.addWorm("while true { turn 0.2; jump; }");
+		game.addWorm(SOURCE);
+		game.addFood(4);
+		game.play(maxNbTurns);
+		facade.close();
+		return game;
+	}
+
+	private GameReplayer replay(byte[] log) throws IOException {
+		GameReplayer replayer = new GameReplayer(new Facade(), new ByteArrayInputStream(log));
+		replayer.replay();
+		return replayer;
+	}
+
+	@Test
+	public void testReplay_ProgrammedGame() throws IOException {
+		HeadlessGame game = recordGame(100);
+		GameReplayer replayer = replay(out.toByteArray());
+		assertEquals(game.getWorld().getNbTurns(), replayer.getNbTurns());
+		assertTrue(replayer.getNbNestedEvents() > 0);
+		assertEquals(facade.getNbChecksums(), replayer.getNbChecksums());
+		assertTrue(replayer.getNbChecksums() > 1);
+
+		World world = game.getWorld(), replayed = replayer.getWorld();
+		assertEquals(world.getNbWorms(), replayed.getNbWorms());
+		for (int i = 0; i < world.getNbWorms(); i++) {
+			Worm worm = world.getWorms().get(i), replayedWorm = replayed.getWorms().get(i);
+			assertEquals(worm.getXCoordinate(), replayedWorm.getXCoordinate(), 0);
+			assertEquals(worm.getYCoordinate(), replayedWorm.getYCoordinate(), 0);
+			assertEquals(worm.getHitPoints(), replayedWorm.getHitPoints());
+			assertEquals(worm.getTeam() == null, replayedWorm.getTeam() == null);
+		}
+	}
+
+	@Test
+	public void testReplay_SeveralGames() throws IOException {
+		HeadlessGame first = new HeadlessGame(facade, map, 3);
+		first.addWorm(SOURCE);
+		first.addWorm("while true { turn 0.2; jump; }");
+		first.play(20);
+		HeadlessGame second = new HeadlessGame(facade, map, 4);
+		second.addWorm("while true { turn 0.2; jump; }");
+		second.addWorm(SOURCE);
+		second.play(20);
+		facade.close();
+
+		GameReplayer replayer = replay(out.toByteArray());
+		assertEquals(first.getWorld().getNbTurns() + second.getWorld().getNbTurns(), replayer.getNbTurns());
+		assertEquals(facade.getNbChecksums(), replayer.getNbChecksums());
+		for (int i = 0; i < second.getWorld().getNbWorms(); i++)
+			assertEquals(second.getWorld().getWorms().get(i).getXCoordinate(),
+					replayer.getWorld().getWorms().get(i).getXCoordinate(), 0);
+	}
+
+	@Test
+	public void testReplay_ManualGame() throws IOException {
+		World world = facade.createWorld(map.getWidth(), map.getHeight(), map.getPassableMap(), new Random(5));
+		facade.addNewWorm(world, null);
+		facade.addNewWorm(world, null);
+		facade.addNewFood(world);
+		facade.startGame(world);
+		for (int i = 0; i < 6; i++) {
+			Worm worm = facade.getCurrentWorm(world);
+			facade.turn(worm, 0.4);
+			if (facade.canMove(worm))
+				facade.move(worm);
+			facade.selectNextWeapon(worm);
+			facade.startNextTurn(world);
+		}
+		facade.close();
+
+		GameReplayer replayer = replay(out.toByteArray());
+		assertEquals(world.getNbTurns(), replayer.getWorld().getNbTurns());
+		assertEquals(0, replayer.getNbNestedEvents());
+		assertEquals(facade.getNbChecksums(), replayer.getNbChecksums());
+		assertEquals(GameLog.checksum(world), GameLog.checksum(replayer.getWorld()));
+	}
+
+	@Test
+	public void testReplay_ChecksumInterval() throws IOException {
+		facade.setChecksumInterval(25);
+		recordGame(100);
+		GameReplayer replayer = replay(out.toByteArray());
+		assertEquals(facade.getNbChecksums(), replayer.getNbChecksums());
+		assertTrue(replayer.getNbChecksums() <= 100 / 25 + 2);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetChecksumInterval_NotPositive() {
+		facade.setChecksumInterval(0);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testReplay_TamperedChecksum() throws IOException {
+		recordGame(30);
+		byte[] log = out.toByteArray();
+		log[log.length - 1] ^= 1;
+		replay(log);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testReplay_OtherMap() throws IOException {
+		recordGame(10);
+		LevelMap other = new LevelMap(HeadlessGame.findLevel("Skulls"));
+		new GameReplayer(new Facade(), new ByteArrayInputStream(out.toByteArray()), other).replay();
+	}
+
+	@Test(expected = EOFException.class)
+	public void testReplay_TruncatedLog() throws IOException {
+		recordGame(10);
+		byte[] log = out.toByteArray();
+		replay(Arrays.copyOf(log, log.length - 3));
+	}
+
+	@Test(expected = IOException.class)
+	public void testReplay_NotAGameLog() throws IOException {
+		replay(new byte[] { 1, 2, 3, 4, 5, 6 });
+	}
+
+	@Test(expected = ModelException.class)
+	public void testMove_ForeignWorm() {
+		World world = facade.createWorld(map.getWidth(), map.getHeight(), map.getPassableMap(), new Random(5));
+		Worm worm = new Facade().createWorm(world, 5, 5, 0, 0.5, "Foreign", null);
+		facade.move(worm);
+	}
+}
@@ -0,0 +1,114 @@
+package worms.simulation;
+
+import static org.junit.Assert.*;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TournamentTest {
+
+	List<LevelMap> maps;
+	Map<String, String> programs;
+	Tournament tournament;
+
+	@Before
+	public void setUp() {
+		maps = Arrays.asList(new LevelMap(HeadlessGame.findLevel("Simple")));
+		programs = new LinkedHashMap<String, String>();
+		programs.put("turner", "turn 0.1;");
+		programs.put("mover", "if ((getap self) > 50) { move; } else { turn 0.3; }");
+		programs.put("crasher", "fire 200;");
+		tournament = new Tournament(maps, programs, 42);
+		tournament.setNbGamesPerPairing(2);
+		tournament.setMaxNbTurns(20);
+		tournament.setNbFood(2);
+	}
+
+	@Test
+	public void testGetNbGames() {
+		assertEquals(6, tournament.getNbGames());
+		Map<String, String> single = new LinkedHashMap<String, String>();
+		single.put("turner", "turn 0.1;");
+		assertEquals(3, new Tournament(maps, single, 0) {{ setNbGamesPerPairing(3); }}.getNbGames());
+	}
+
+	@Test
+	public void testPlay_SameOutcomeWithAnyParallelism() {
+		List<GameRecord> sequential = tournament.play(1).getGames();
+		List<GameRecord> parallel = tournament.play(3).getGames();
+		assertEquals(6, sequential.size());
+		for (int i = 0; i < sequential.size(); i++) {
+			assertEquals(i, sequential.get(i).getNumber());
+			assertTrue(sequential.get(i).hasSameOutcome(parallel.get(i)));
+		}
+	}
+
+	@Test
+	public void testPlay_Standings() {
+		TournamentResult result = tournament.play(2);
+		assertEquals(3, result.getStandings().size());
+		for (TournamentResult.Standing standing : result.getStandings()) {
+			assertEquals(4, standing.getNbGames());
+			assertEquals(standing.getNbGames(), standing.getNbWins() + standing.getNbLosses() + standing.getNbDraws());
+		}
+		assertEquals("crasher", result.getStandings().get(2).getProgram());
+		assertEquals(8, result.getStandings().get(2).getNbRuntimeErrors());
+		assertEquals(0, result.getStandings().get(0).getNbRuntimeErrors());
+	}
+
+	@Test
+	public void testPlay_SidesAlternate() {
+		List<GameRecord> games = tournament.play(1).getGames();
+		assertEquals("turner", games.get(0).getFirstProgram());
+		assertEquals("mover", games.get(0).getSecondProgram());
+		assertEquals("mover", games.get(1).getFirstProgram());
+		assertEquals("turner", games.get(1).getSecondProgram());
+	}
+
+	@Test
+	public void testDeriveSeed() {
+		Set<Long> seeds = new HashSet<Long>();
+		for (int i = 0; i < 1000; i++)
+			seeds.add(Tournament.deriveSeed(42, i));
+		assertEquals(1000, seeds.size());
+		assertEquals(Tournament.deriveSeed(42, 7), Tournament.deriveSeed(42, 7));
+		assertNotEquals(Tournament.deriveSeed(42, 7), Tournament.deriveSeed(43, 7));
+	}
+
+	@Test
+	public void testWriteCsvAndJson() throws Exception {
+		TournamentResult result = tournament.play(1);
+		StringWriter csv = new StringWriter();
+		result.writeCsv(csv);
+		String[] lines = csv.toString().split("\\R");
+		assertEquals(4, lines.length);
+		assertTrue(lines[0].startsWith("program,games,wins"));
+		assertTrue(lines[1].startsWith("turner,4,"));
+		StringWriter games = new StringWriter();
+		result.writeGamesCsv(games);
+		assertEquals(7, games.toString().split("\\R").length);
+		StringWriter json = new StringWriter();
+		result.writeJson(json);
+		assertTrue(json.toString().startsWith("{\"masterSeed\":42,\"parallelism\":1,\"games\":6,"));
+		assertTrue(json.toString().contains("{\"program\":\"crasher\",\"games\":4,"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructor_ProgramThatCannotBeParsed() {
+		programs.put("broken", "while true {");
+		new Tournament(maps, programs, 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testPlay_NoThreads() {
+		tournament.play(0);
+	}
+}